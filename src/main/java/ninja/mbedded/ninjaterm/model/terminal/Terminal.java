@@ -6,7 +6,9 @@ import javafx.beans.property.SimpleStringProperty;
 import ninja.mbedded.ninjaterm.util.comPort.OnRxDataListener;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.comPortSettings.ComPortSettings;
+import ninja.mbedded.ninjaterm.model.terminal.logging.CaptureReplay;
 import ninja.mbedded.ninjaterm.model.terminal.logging.Logging;
+import ninja.mbedded.ninjaterm.model.terminal.plotting.Plotting;
 import ninja.mbedded.ninjaterm.model.terminal.stats.Stats;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.TxRx;
 import ninja.mbedded.ninjaterm.util.comPort.ComPort;
@@ -22,7 +24,7 @@ import java.util.Arrays;
  *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-16
- * @last-modified   2016-11-22
+ * @last-modified   2026-10-18
  */
 public class Terminal {
 
@@ -53,7 +55,9 @@ public class Terminal {
     public ComPortSettings comPortSettings;
     public TxRx txRx;
     public Logging logging;
+    public CaptureReplay captureReplay;
     public Stats stats;
+    public Plotting plotting;
 
     /**
      * The COM port instance attached to this terminal.
@@ -62,6 +66,12 @@ public class Terminal {
 
     private OnRxDataListener onRxDataListener;
 
+    /**
+     * If set, all RX data is passed to this listener (on the COM port's RX thread) instead of the
+     * TX/RX model. Used by file transfers which need to see the receiver's responses directly.
+     */
+    private volatile OnRxDataListener exclusiveRxDataListener = null;
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     //================================================================================================//
@@ -75,7 +85,9 @@ public class Terminal {
         comPortSettings = new ComPortSettings(model, this, comPort);
         txRx = new TxRx(model, this);
         logging = new Logging(model, this);
+        captureReplay = new CaptureReplay(model, this);
         stats = new Stats(this);
+        plotting = new Plotting(model, this);
 
         this.comPort = comPort;
 
@@ -134,7 +146,32 @@ public class Terminal {
         isComPortOpen.set(true);
     }
 
+    /**
+     * Diverts all RX data to the provided listener, bypassing the RX data engine (so it is not
+     * displayed, logged or plotted), until <code>releaseExclusiveRx()</code> is called.
+     *
+     * @return False if something else already has exclusive access to the RX data.
+     */
+    public synchronized boolean takeExclusiveRx(OnRxDataListener rxDataListener) {
+        if (exclusiveRxDataListener != null)
+            return false;
+
+        exclusiveRxDataListener = rxDataListener;
+        return true;
+    }
+
+    public synchronized void releaseExclusiveRx() {
+        exclusiveRxDataListener = null;
+    }
+
     private void handleOnRxData(byte[] rxData) {
+
+        final OnRxDataListener currExclusiveRxDataListener = exclusiveRxDataListener;
+        if (currExclusiveRxDataListener != null) {
+            currExclusiveRxDataListener.run(rxData);
+            return;
+        }
+
 //        logger.debug("handleOnRxData() called with rxData = " + Debugging.convertNonPrintable(Arrays.toString(rxData)));
 //        System.out.println("handleOnRxData() called with rxData = " + Debugging.convertNonPrintable(Arrays.toString(rxData)));
 
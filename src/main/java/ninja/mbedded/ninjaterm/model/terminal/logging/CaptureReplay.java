@@ -0,0 +1,128 @@
+package ninja.mbedded.ninjaterm.model.terminal.logging;
+
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.capture.CaptureReplayer;
+import ninja.mbedded.ninjaterm.util.capture.ReplayProgress;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Model containing data and logic for replaying a binary capture file (see
+ * <code>{@link Logging.WhatAreWeLogging#BINARY_CAPTURE}</code>) into the RX data engine, as if the RX data had just
+ * been received from the COM port. This lets RX processing be tested and benchmarked without any hardware.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class CaptureReplay {
+
+    //================================================================================================//
+    //============================================== ENUMS ===========================================//
+    //================================================================================================//
+
+    public enum ReplaySpeeds {
+        X1("1x", 1.0),
+        X2("2x", 2.0),
+        X10("10x", 10.0),
+        X100("100x", 100.0),
+        MAX("Max.", CaptureReplayer.MAX_SPEED),
+        ;
+
+        private String label;
+
+        /**
+         * How many times faster than real-time the capture is replayed.
+         */
+        public final double speed;
+
+        ReplaySpeeds(String label, double speed) {
+            this.label = label;
+            this.speed = speed;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public SimpleStringProperty captureFilePath = new SimpleStringProperty("");
+
+    public SimpleObjectProperty<ReplaySpeeds> selReplaySpeed = new SimpleObjectProperty<>(ReplaySpeeds.X1);
+
+    public ReadOnlyBooleanWrapper isReplaying = new ReadOnlyBooleanWrapper(false);
+
+    /**
+     * The progress of the current (or last) replay. Null if nothing has been replayed yet.
+     */
+    public SimpleObjectProperty<ReplayProgress> replayProgress = new SimpleObjectProperty<>(null);
+
+    private Model model;
+
+    private CaptureReplayer captureReplayer;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public CaptureReplay(Model model, Terminal terminal) {
+        this.model = model;
+
+        captureReplayer = new CaptureReplayer(rxData -> terminal.txRx.addRxData(rxData));
+    }
+
+    public void startReplay() {
+
+        if (isReplaying.get())
+            return;
+
+        try {
+            captureReplayer.start(new File(captureFilePath.get()), selReplaySpeed.get().speed, this::handleReplayProgress);
+        } catch (IOException e) {
+            model.status.addErr("Could not open capture file. Reported error: " + e.getMessage());
+            return;
+        }
+
+        model.status.addMsg("Replaying \"" + captureFilePath.get() + "\" at " + selReplaySpeed.get() + " speed.");
+        isReplaying.set(true);
+    }
+
+    public void stopReplay() {
+        captureReplayer.stop();
+    }
+
+    private void handleReplayProgress(ReplayProgress progress) {
+
+        replayProgress.set(progress);
+
+        if (!progress.isDone())
+            return;
+
+        isReplaying.set(false);
+
+        switch (progress.state) {
+            case FINISHED:
+                model.status.addMsg("Replay finished. Replayed " + progress.numBytesReplayed + " bytes in " +
+                        String.format("%.1f", progress.elapsedTimeMs / 1000.0) + "s.");
+                break;
+            case CANCELLED:
+                model.status.addMsg("Replay stopped.");
+                break;
+            case FAILED:
+                model.status.addErr("Replay failed. Reported error: " + progress.errorMsg);
+                break;
+            default:
+                throw new RuntimeException("ReplayProgress state not recognised.");
+        }
+    }
+}
@@ -1,28 +1,47 @@
 package ninja.mbedded.ninjaterm.model.terminal.logging;
 
 import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.RawDataReceivedListener;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.StreamedDataListener;
+import ninja.mbedded.ninjaterm.util.asyncLogWriter.AsyncLogWriter;
+import ninja.mbedded.ninjaterm.util.asyncLogWriter.DurabilityModes;
+import ninja.mbedded.ninjaterm.util.asyncLogWriter.LogRotationPolicy;
+import ninja.mbedded.ninjaterm.util.asyncLogWriter.LogWriterStats;
+import ninja.mbedded.ninjaterm.util.capture.CaptureDirections;
+import ninja.mbedded.ninjaterm.util.capture.CaptureWriter;
+import ninja.mbedded.ninjaterm.util.capture.CaptureWriterStats;
+import ninja.mbedded.ninjaterm.util.comPort.OnRxDataListener;
+import ninja.mbedded.ninjaterm.util.comPort.OnTxDataListener;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.logFormatter.LogFormatter;
 import org.slf4j.Logger;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Model containing data and logic for the logging of TX/RX data from a COM port.
  *
+ * Data is written to the log file by an <code>{@link AsyncLogWriter}</code>, so the UI thread never waits
+ * on the disk. The log file can be rotated on size, age or number of lines, with the rotated files being compressed
+ * in the background. When logging the RX pane output, a <code>{@link LogFormatter}</code> converts it into text (with
+ * new lines and time stamps) straight into a re-used byte buffer.
+ *
+ * Alternatively, the raw TX and RX data can be logged to a binary capture file (with timestamps) by a
+ * <code>{@link CaptureWriter}</code>, which can be replayed later.
+ *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-22
- * @last-modified   2016-10-17
+ * @last-modified   2026-10-18
  */
 public class Logging {
 
@@ -44,6 +63,7 @@ public class Logging {
     public enum WhatAreWeLogging {
         RAW_RX_DATA_AS_ASCII,
         RX_PANE_OUTPUT,
+        BINARY_CAPTURE,
     }
 
     //================================================================================================//
@@ -61,14 +81,55 @@ public class Logging {
 
     public SimpleObjectProperty<WhatAreWeLogging> selWhatAreWeLogging = new SimpleObjectProperty<>(WhatAreWeLogging.RAW_RX_DATA_AS_ASCII);
 
+    /**
+     * When logged data is written to the log file.
+     */
+    public SimpleObjectProperty<DurabilityModes> selDurabilityMode = new SimpleObjectProperty<>(DurabilityModes.FLUSH_ON_NEW_LINE);
+
+    public static final int MIN_FLUSH_PERIOD_MS = 1;
+
+    /**
+     * The max. time logged data waits for before being written to the log file.
+     */
+    public SimpleIntegerProperty flushPeriodMs = new SimpleIntegerProperty(1000);
+
+    /**
+     * If true, the colours and styles in the RX pane output are logged as ANSI escape sequences, otherwise they
+     * are stripped. Only used when logging the RX pane output.
+     */
+    public SimpleBooleanProperty isAnsiStylingPreserved = new SimpleBooleanProperty(false);
+
+    //==============================================//
+    //=========== LOG FILE ROTATION FIELDS =========//
+    //==============================================//
+
+    // For all of these, 0 disables that limit
+
+    public SimpleIntegerProperty rotateFileSizeMb = new SimpleIntegerProperty(0);
+
+    public SimpleIntegerProperty rotateFilePeriodMins = new SimpleIntegerProperty(0);
+
+    public SimpleIntegerProperty rotateFileNumLines = new SimpleIntegerProperty(0);
+
+    /**
+     * The max. number of rotated (compressed) log files kept. The oldest ones are deleted first.
+     */
+    public SimpleIntegerProperty maxNumRotatedFiles = new SimpleIntegerProperty(10);
+
     private Model model;
     private Terminal terminal;
 
     private RawDataReceivedListener rawDataReceivedListener;
     private StreamedDataListener newOutputListener;
 
-    private FileWriter fileWriter;
-    private BufferedWriter bufferedWriter;
+    private AsyncLogWriter asyncLogWriter;
+
+    private LogFormatter logFormatter;
+
+    private OnRxDataListener captureRxDataListener;
+    private OnTxDataListener captureTxDataListener;
+
+    private CaptureWriter captureWriter;
 
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
@@ -90,11 +151,17 @@ public class Logging {
             saveNewDataToLogFile(data);
         };
 
-        newOutputListener = streamedText -> {
-            // Convert the StreamedData object into a linear String with new lines
-            // inserted at the correct places.
-//            String ansiParserOutputText = streamedText.convertToStringWithNewLines("\r\n");
-//            saveNewDataToLogFile(ansiParserOutputText);
+        // Time stamps are logged the same way they are displayed in the RX pane
+        logFormatter = new LogFormatter(System.lineSeparator());
+        logFormatter.isAnsiStylingPreserved.bind(isAnsiStylingPreserved);
+        logFormatter.timeStampFormatter.mode.bind(terminal.txRx.formatting.selTimeStampMode);
+        logFormatter.timeStampFormatter.referenceTime.bind(terminal.txRx.formatting.timeStampReferenceTime);
+
+        newOutputListener = streamedData -> {
+            // The listener is given it's own copy of the data, so the formatter is free to sort it's markers.
+            // The writer copies the formatted bytes, so the formatter's buffer can be re-used straight away
+            final int length = logFormatter.format(streamedData);
+            asyncLogWriter.write(logFormatter.getBuffer(), 0, length);
         };
     }
 
@@ -126,17 +193,59 @@ public class Logging {
             throw new RuntimeException("selFileBehaviour not recognised!");
         }
 
+        // Binary captures are written by their own writer, and do not support rotation
+        if (selWhatAreWeLogging.get() == WhatAreWeLogging.BINARY_CAPTURE) {
+            final CaptureWriter newCaptureWriter = new CaptureWriter();
+            try {
+                newCaptureWriter.open(new File(logFilePath.get()), isAppend, captureWriterStats -> {
+                    handleCaptureWriterStats(newCaptureWriter, captureWriterStats);
+                });
+            } catch (IOException e) {
+                model.status.addErr("Could not open log file for writing. Reported error: " + e.getMessage());
+                return;
+            }
+            captureWriter = newCaptureWriter;
+
+            // These are called on the COM port's threads, which is fine as the capture writer never blocks.
+            // They use the session's own writer rather than the captureWriter field, as a COM port thread
+            // can still call them after disableLogging() has removed them and cleared the field (append()
+            // does nothing once the writer is closed)
+            captureRxDataListener = rxData -> {
+                newCaptureWriter.append(CaptureDirections.RX, terminal.comPort.getName(), rxData);
+            };
+
+            captureTxDataListener = txData -> {
+                newCaptureWriter.append(CaptureDirections.TX, terminal.comPort.getName(), txData);
+            };
+
+            terminal.comPort.getOnRxDataListeners().add(captureRxDataListener);
+            terminal.comPort.getOnTxDataListeners().add(captureTxDataListener);
+
+            model.status.addMsg("Capturing to \"" + logFilePath.get() + "\".");
+
+            isLogging.set(true);
+            return;
+        }
+
         // Open file whose file path is specified in the model
+        final LogRotationPolicy logRotationPolicy = new LogRotationPolicy(
+                rotateFileSizeMb.get() * 1024L * 1024L,
+                rotateFilePeriodMins.get() * 60L * 1000L,
+                rotateFileNumLines.get(),
+                maxNumRotatedFiles.get());
+        final AsyncLogWriter newAsyncLogWriter = new AsyncLogWriter(selDurabilityMode.get(), flushPeriodMs.get(), logRotationPolicy);
+        final AtomicLong numCompressionFailuresReported = new AtomicLong(0);
         try {
-            // The second parameter determines whether we overwrite or append
-            fileWriter = new FileWriter(logFilePath.get(), isAppend);
-            bufferedWriter = new BufferedWriter(fileWriter);
+            newAsyncLogWriter.open(new File(logFilePath.get()), isAppend, logWriterStats -> {
+                handleLogWriterStats(newAsyncLogWriter, logWriterStats, numCompressionFailuresReported);
+            });
         } catch (IOException e) {
             model.status.addErr("Could not open log file for writing. Reported error: " + e.getMessage());
 
             // Do not continue with rest of method (isLogging will remain false)
             return;
         }
+        asyncLogWriter = newAsyncLogWriter;
 
         // Add listener at the correct point along the RX data processing chain.
         // This will cause saveNewDataToLogFile() to be called when there is new RX data
@@ -144,6 +253,7 @@ public class Logging {
             // Listen to the raw RX data coming from the COM port
             terminal.txRx.rxDataEngine.rawDataReceivedListeners.add(rawDataReceivedListener);
         } else if (selWhatAreWeLogging.get() == WhatAreWeLogging.RX_PANE_OUTPUT){
+            logFormatter.reset();
             terminal.txRx.rxDataEngine.newOutputListeners.add(newOutputListener);
         } else {
             throw new RuntimeException("WhatAreWeLogging enum unsupported.");
@@ -155,23 +265,64 @@ public class Logging {
     }
 
     /**
-     * Appends the given data to the end of the log file.
+     * Appends the given data to the end of the log file. The data is only queued here, it is written to the
+     * file in the background.
      * @param data  The data to append to the log file.
      */
     private void saveNewDataToLogFile(String data) {
+        asyncLogWriter.write(data);
+    }
 
-        //System.out.println("Logging to file. data = " + data);
-        try {
-            bufferedWriter.write(data);
+    private void handleLogWriterStats(AsyncLogWriter logWriter, LogWriterStats logWriterStats, AtomicLong numCompressionFailuresReported) {
 
-            // This forces the data to be written to the file. If serious processor/disk loading
-            // occurs, it may be wiser to put this on a timer, e.g. once per second.
-            bufferedWriter.flush();
-        } catch (IOException e) {
-            model.status.addErr("Could not write to log file. Reported error: " + e.getMessage() + ". Disabling logging.");
+        terminal.stats.logBacklogChars.set(logWriterStats.backlogChars);
+        terminal.stats.logWriteLatencyMs.set(logWriterStats.lastWriteLatencyMs);
+        terminal.stats.logMaxWriteLatencyMs.set(logWriterStats.maxWriteLatencyMs);
+        terminal.stats.logNumCharsDropped.set(logWriterStats.numCharsDropped);
+        terminal.stats.logNumFilesRotated.set(logWriterStats.numFilesRotated);
+
+        // Logging carries on without compression, so this is only reported
+        if (logWriterStats.numCompressionFailures > numCompressionFailuresReported.get()) {
+            model.status.addErr("Could not compress rotated log file. It has been left uncompressed.");
+            numCompressionFailuresReported.set(logWriterStats.numCompressionFailures);
+        }
 
-            // Something has gone wrong, disable logging
-            disableLogging();
+        switch (logWriterStats.state) {
+            case OPEN:
+            case CLOSED:
+                break;
+            case FAILED:
+                model.status.addErr("Could not write to log file. Reported error: " + logWriterStats.errorMsg + ". Disabling logging.");
+
+                // Something has gone wrong, disable logging (unless it has already been
+                // disabled, and maybe enabled again with a new writer)
+                if (logWriter == asyncLogWriter)
+                    disableLogging();
+                break;
+            default:
+                throw new RuntimeException("LogWriterStats state not recognised.");
+        }
+    }
+
+    private void handleCaptureWriterStats(CaptureWriter writer, CaptureWriterStats captureWriterStats) {
+
+        terminal.stats.logBacklogChars.set(captureWriterStats.backlogBytes);
+        terminal.stats.logWriteLatencyMs.set(captureWriterStats.lastWriteLatencyMs);
+        terminal.stats.logMaxWriteLatencyMs.set(captureWriterStats.maxWriteLatencyMs);
+        terminal.stats.logNumCharsDropped.set(captureWriterStats.numBytesDropped);
+
+        switch (captureWriterStats.state) {
+            case OPEN:
+            case CLOSED:
+                break;
+            case FAILED:
+                model.status.addErr("Could not write to log file. Reported error: " + captureWriterStats.errorMsg + ". Disabling logging.");
+
+                if (writer == captureWriter)
+                    disableLogging();
+                break;
+            default:
+                throw new RuntimeException("CaptureWriterStats state not recognised.");
         }
     }
 
@@ -186,6 +337,17 @@ public class Logging {
 
         isLogging.set(false);
 
+        if (selWhatAreWeLogging.get() == WhatAreWeLogging.BINARY_CAPTURE) {
+            terminal.comPort.getOnRxDataListeners().remove(captureRxDataListener);
+            terminal.comPort.getOnTxDataListeners().remove(captureTxDataListener);
+
+            captureWriter.close();
+            captureWriter = null;
+
+            model.status.addMsg("Capture file \"" + logFilePath.get() + "\" closed.");
+            return;
+        }
+
         // Remove listener at the correct point along the RX data processing chain.
         // This will stop saveNewDataToLogFile() from being called.
         if(selWhatAreWeLogging.get() == WhatAreWeLogging.RAW_RX_DATA_AS_ASCII) {
@@ -197,14 +359,10 @@ public class Logging {
             throw new RuntimeException("WhatAreWeLogging enum unsupported.");
         }
 
-        // Now close the file
-        try {
-            bufferedWriter.close();
-        } catch (IOException e) {
-            model.status.addErr("Could not close log file. Reported error: " + e.getMessage());
-            // Not that isLogging will still transistion to false. Do we want this?
-            return;
-        }
+        // Now close the file. Any data still queued is written first, in the background. If this
+        // fails, the error is reported through handleLogWriterStats()
+        asyncLogWriter.close();
+        asyncLogWriter = null;
 
         model.status.addMsg("Log file \"" + logFilePath.get() + "\" closed.");
     }
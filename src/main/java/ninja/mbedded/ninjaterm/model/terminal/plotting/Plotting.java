@@ -0,0 +1,108 @@
+package ninja.mbedded.ninjaterm.model.terminal.plotting;
+
+import javafx.beans.property.SimpleLongProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.ValueSeries;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Model containing data and logic for plotting numeric values extracted from RX data.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class Plotting {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of samples kept for each series. Once reached, the oldest samples are dropped.
+     */
+    public static final int MAX_NUM_SAMPLES_PER_SERIES = 2000000;
+
+    /**
+     * The colours given to new series, in order.
+     */
+    private static final Color[] SERIES_COLORS = {
+            Color.LIME, Color.ORANGE, Color.DEEPSKYBLUE, Color.MAGENTA, Color.YELLOW, Color.RED, Color.WHITE,
+    };
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * All of the series being extracted from RX data. Use <code>addSeries()</code> and <code>removeSeries()</code>
+     * to modify.
+     */
+    public ObservableList<ValueSeries> valueSeries = FXCollections.observableArrayList();
+
+    /**
+     * The amount of time shown on the plot, counting back from the most recent sample. Set to 0 to show all samples.
+     */
+    public SimpleLongProperty timeWindowMs = new SimpleLongProperty(60000);
+
+    private Model model;
+    private Terminal terminal;
+
+    private int numSeriesCreated = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public Plotting(Model model, Terminal terminal) {
+        this.model = model;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Starts extracting values from RX lines which match the pattern.
+     *
+     * @param pattern   A regex pattern. The value is taken from the first capturing group, or from the whole
+     *                  match if there are no capturing groups.
+     * @return The new series, or null if the pattern is not valid (an error is shown to the user).
+     */
+    public ValueSeries addSeries(String pattern) {
+
+        GuardedPattern guardedPattern;
+        try {
+            guardedPattern = GuardedPattern.compile(pattern, terminal.txRx.rxDataEngine.regexBudgetExceededListeners);
+        } catch (PatternSyntaxException e) {
+            model.status.addErr("Plot pattern \"" + pattern + "\" is not a valid regex: " + e.getDescription());
+            return null;
+        }
+
+        ValueSeries newValueSeries = new ValueSeries(
+                guardedPattern,
+                SERIES_COLORS[numSeriesCreated++ % SERIES_COLORS.length],
+                MAX_NUM_SAMPLES_PER_SERIES);
+
+        terminal.txRx.rxDataEngine.valueExtractor.valueSeries.add(newValueSeries);
+        valueSeries.add(newValueSeries);
+        return newValueSeries;
+    }
+
+    public void removeSeries(ValueSeries valueSeriesToRemove) {
+        terminal.txRx.rxDataEngine.valueExtractor.valueSeries.remove(valueSeriesToRemove);
+        valueSeries.remove(valueSeriesToRemove);
+    }
+
+    /**
+     * Removes all samples from every series.
+     */
+    public void clearSamples() {
+        for (ValueSeries series : valueSeries) {
+            series.samples.clear();
+        }
+    }
+}
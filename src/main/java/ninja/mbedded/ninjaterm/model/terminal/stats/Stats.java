@@ -5,6 +5,7 @@ import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.util.Duration;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 
@@ -15,7 +16,7 @@ import ninja.mbedded.ninjaterm.model.terminal.Terminal;
  * of single terminal instance (COM port).
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-22
+ * @last-modified 2026-10-18
  * @since 2016-09-16
  */
 public class Stats {
@@ -54,6 +55,29 @@ public class Stats {
     public SimpleDoubleProperty bytesPerSecondTx = new SimpleDoubleProperty(0.0);
     public SimpleDoubleProperty bytesPerSecondRx = new SimpleDoubleProperty(0.0);
 
+    //==============================================//
+    //================ LOGGING FIELDS ==============//
+    //==============================================//
+
+    /**
+     * The number of logged chars waiting to be written to the log file.
+     */
+    public SimpleLongProperty logBacklogChars = new SimpleLongProperty(0);
+
+    /**
+     * The time the most recently written log data waited for before being written to the log file.
+     */
+    public SimpleDoubleProperty logWriteLatencyMs = new SimpleDoubleProperty(0.0);
+
+    public SimpleDoubleProperty logMaxWriteLatencyMs = new SimpleDoubleProperty(0.0);
+
+    /**
+     * The number of chars which were not logged because the log file could not keep up.
+     */
+    public SimpleLongProperty logNumCharsDropped = new SimpleLongProperty(0);
+
+    public SimpleLongProperty logNumFilesRotated = new SimpleLongProperty(0);
+
     //================================================================================================//
     //========================================== CLASS METHODS =======================================//
     //================================================================================================//
@@ -66,7 +90,8 @@ public class Stats {
 
         // NOTE: These stats are "pushed" to this stat model
         // rather than "pulled", as the values are calculated
-        // in the view
+        // in the view. The same goes for the logging stats, which
+        // are pushed by the logging model
 
         //==============================================//
         //================ BYTES/SEC SETUP =============//
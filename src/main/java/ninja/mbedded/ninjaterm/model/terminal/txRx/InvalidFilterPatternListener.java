@@ -0,0 +1,12 @@
+package ninja.mbedded.ninjaterm.model.terminal.txRx;
+
+/**
+ * Interface for listeners listening for when a new filter pattern could not be compiled.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public interface InvalidFilterPatternListener {
+    void run(String filterPattern, String errorMsg);
+}
@@ -0,0 +1,18 @@
+package ninja.mbedded.ninjaterm.model.terminal.txRx;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.vt100.VT100Screen;
+
+/**
+ * Interface for a listener that wants to be informed when rows of the emulated VT100 screen
+ * have changed.
+ *
+ * The listener should only re-render the rows that are marked as dirty, and then call
+ * <code>{@link VT100Screen#clearDirtyRows()}</code>.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public interface ScreenUpdatedListener {
+    void run(VT100Screen screen);
+}
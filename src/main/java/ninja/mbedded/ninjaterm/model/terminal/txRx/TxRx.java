@@ -1,22 +1,26 @@
 package ninja.mbedded.ninjaterm.model.terminal.txRx;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.animation.PauseTransition;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.DataFormat;
 import javafx.scene.input.KeyEvent;
+import javafx.util.Duration;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.colouriser.Colouriser;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.display.Display;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.fileTransfer.FileTransfer;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.filters.Filters;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.formatting.Formatting;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.macros.MacroManager;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.sendFile.SendFile;
 import ninja.mbedded.ninjaterm.util.arrayUtils.ArrayUtils;
 import ninja.mbedded.ninjaterm.util.debugging.Debugging;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.hexDump.ByteStore;
 import ninja.mbedded.ninjaterm.util.rxProcessing.rxDataEngine.RxDataEngine;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.txBuffer.TxBuffer;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
@@ -27,7 +31,7 @@ import java.util.List;
  * tab in the GUI.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2017-10-08
+ * @last-modified 2026-10-18
  * @since 2016-09-16
  */
 public class TxRx {
@@ -46,8 +50,13 @@ public class TxRx {
     public Colouriser colouriser = new Colouriser();
     public Filters filters = new Filters();
     public MacroManager macroManager;
+    public SendFile sendFile;
+    public FileTransfer fileTransfer;
 
-    public ObservableList<Byte> toSendTxData = FXCollections.observableArrayList();
+    /**
+     * TX data which has been entered by the user but not yet sent to the COM port.
+     */
+    public TxBuffer toSendTxData = new TxBuffer();
 
     public List<StreamedDataListener> txDataToDisplayListeners = new ArrayList<>();
 
@@ -59,6 +68,23 @@ public class TxRx {
 
     public RxDataEngine rxDataEngine = new RxDataEngine();
 
+    /**
+     * The max. number of raw RX bytes kept for the hex view.
+     */
+    private static final int RX_BYTE_STORE_CAPACITY_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Raw RX bytes (before any decoding or formatting), which are displayed in the hex view.
+     */
+    public ByteStore rxByteStore = new ByteStore(RX_BYTE_STORE_CAPACITY_BYTES);
+
+    /**
+     * The time to wait after the last change to the filter settings before the filter is re-run.
+     */
+    private static final double FILTER_CHANGED_DEBOUNCE_TIME_MS = 300.0;
+
+    private PauseTransition filterChangedDebounceTimer = new PauseTransition(Duration.millis(FILTER_CHANGED_DEBOUNCE_TIME_MS));
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     //================================================================================================//
@@ -84,6 +110,10 @@ public class TxRx {
 
         macroManager = new MacroManager(model, terminal);
 
+        sendFile = new SendFile(model, terminal);
+
+        fileTransfer = new FileTransfer(model, terminal);
+
         // Bind the enabled boolean for the time stamping to the RX engine
         rxDataEngine.isTimeStampParserEnabled.bindBidirectional(formatting.isTimeStampingEnabled);
 
@@ -96,6 +126,12 @@ public class TxRx {
         // user)
         rxDataEngine.maxBufferSize.bind(display.bufferSizeChars);
 
+        //====================================//
+        //===== SCREEN EMULATION SETUP =======//
+        //====================================//
+
+        rxDataEngine.isScreenEmulationEnabled.bind(display.screenEmulationEnabled);
+
         //====================================//
         //============ FILTER SETUP =========//
         //====================================//
@@ -106,8 +142,41 @@ public class TxRx {
             }
         });
 
+        // Filter changes are debounced, so that the filter is not re-run on every
+        // keystroke while the user is typing in a new pattern
+        filterChangedDebounceTimer.setOnFinished(event -> filterSettingsChanged());
+
         filters.filterText.addListener((observable, oldValue, newValue) -> {
-            filterTextChanged(newValue);
+            filterChangedDebounceTimer.playFromStart();
+        });
+
+        filters.linesBefore.addListener((observable, oldValue, newValue) -> {
+            filterChangedDebounceTimer.playFromStart();
+        });
+
+        filters.linesAfter.addListener((observable, oldValue, newValue) -> {
+            filterChangedDebounceTimer.playFromStart();
+        });
+
+        filters.invertMatch.addListener((observable, oldValue, newValue) -> {
+            filterChangedDebounceTimer.playFromStart();
+        });
+
+        // The RX engine tells us when the re-filtered data is ready to replace what is
+        // currently displayed
+        rxDataEngine.filterOutputResetListeners.add(() -> {
+            for (DataClearedListener rxDataClearedListener : rxDataClearedListeners) {
+                rxDataClearedListener.run();
+            }
+        });
+
+        rxDataEngine.invalidFilterPatternListeners.add((filterPattern, errorMsg) -> {
+            model.status.addErr("Filter text \"" + filterPattern + "\" is not a valid regex pattern (" + errorMsg + ").");
+        });
+
+        // Let the user know if one of their patterns is too slow to run
+        rxDataEngine.regexBudgetExceededListeners.add(pattern -> {
+            model.status.addErr("The pattern \"" + pattern.pattern() + "\" took too long to run (it may cause catastrophic backtracking). It is now being matched as plain text.");
         });
 
         colouriser.init(model, terminal);
@@ -221,7 +290,7 @@ public class TxRx {
         }
 
         // Send data to COM port, and update stats (both local and global)
-        byte[] dataAsByteArray = ArrayUtils.fromObservableListToByteArray(toSendTxData);
+        byte[] dataAsByteArray = toSendTxData.toByteArray();
         terminal.comPort.sendData(dataAsByteArray);
 
         // Update stats
@@ -229,10 +298,7 @@ public class TxRx {
         model.globalStats.numCharactersTx.setValue(model.globalStats.numCharactersTx.getValue() + dataAsByteArray.length);
 
         // Create string from data
-        String dataAsString = "";
-        for (int i = 0; i < toSendTxData.size(); i++) {
-            dataAsString = dataAsString + (char) toSendTxData.get(i).byteValue();
-        }
+        String dataAsString = ArrayUtils.fromByteArrayToString(dataAsByteArray);
 
         // Clean "to send" TX data
         toSendTxData.clear();
@@ -258,18 +324,15 @@ public class TxRx {
      */
     public void addTxCharsToSend(byte[] data) {
 
-        logger.debug("addTxCharsToSend() called with data = " + Debugging.toString(data));
+        // Formatting every byte is slow for large pastes, so only do it if it will be logged
+        if (logger.isDebugEnabled())
+            logger.debug("addTxCharsToSend() called with data = " + Debugging.toString(data));
 
         // Add the data to the "to send" TX buffer
-        for (byte dataByte : data) {
-            toSendTxData.add(dataByte);
-        }
+        toSendTxData.append(data);
 
         // Add to TX data that the user sees displayed in UI
-        String dataAsString = "";
-        for (int i = 0; i < data.length; i++) {
-            dataAsString = dataAsString + (char) data[i];
-        }
+        String dataAsString = ArrayUtils.fromByteArrayToString(data);
 
         for (StreamedDataListener streamedDataListener : txDataToDisplayListeners) {
             StreamedData txStreamedData = new StreamedData();
@@ -281,10 +344,9 @@ public class TxRx {
 
     public void removeLastCharInTxBuffer() {
 
-        if (toSendTxData.size() > 0) {
-            // Remove the last char from both the "to send" TX buffer,
-            // and the TX display string
-            toSendTxData.remove(toSendTxData.size() - 1);
+        // Remove the last char from both the "to send" TX buffer,
+        // and the TX display string
+        if (toSendTxData.removeLast()) {
             //txDataToDisplay.set(txDataToDisplay.get().substring(0, txDataToDisplay.get().length() - 1));
             // TODO: 2016-11-16 Implement
         }
@@ -300,6 +362,7 @@ public class TxRx {
      */
     public void addRxData(byte[] data) {
 //        logger.debug("addRxData() called with data = " + Debugging.toString(data));
+        rxByteStore.append(data);
         rxDataEngine.parse(data);
     }
 
@@ -312,6 +375,7 @@ public class TxRx {
 
         // Clear all internal buffers
         rxDataEngine.clearAllData();
+        rxByteStore.clear();
 
         // Emit RX data cleared event for the UI
         for (DataClearedListener rxDataClearedListener : rxDataClearedListeners) {
@@ -336,27 +400,20 @@ public class TxRx {
     }
 
     /**
-     * This needs to be called when the filter text is changed so that everything is updated
-     * accordingly.
-     *
-     * @param filterText
+     * This is called once the filter settings have stopped changing, so that everything is updated
+     * accordingly. The pattern is compiled and the filter re-run on a background thread, and the RX pane
+     * is only updated once this has finished.
      */
-    private void filterTextChanged(String filterText) {
-
-        logger.debug("filterTextChanged() called.");
-        rxDataEngine.setFilterPattern(filterText);
-
-        if (filters.filterApplyType.get() == Filters.FilterApplyTypes.APPLY_TO_BUFFERED_AND_NEW_RX_DATA) {
-
-            // Firstly, clear RX data on UI
-            for (DataClearedListener rxDataClearedListener : rxDataClearedListeners) {
-                rxDataClearedListener.run();
-            }
+    private void filterSettingsChanged() {
 
-            // Now re-run filter. This will re-populate the RX data that the user sees
-            rxDataEngine.rerunFilterOnExistingData();
+        logger.debug("filterSettingsChanged() called.");
 
-        } // if(filters.filterApplyType.get() == Filters.FilterApplyTypes.APPLY_TO_BUFFERED_AND_NEW_RX_DATA)
+        rxDataEngine.refilterInBackground(
+                filters.filterText.get(),
+                filters.linesBefore.get(),
+                filters.linesAfter.get(),
+                filters.invertMatch.get(),
+                filters.filterApplyType.get() == Filters.FilterApplyTypes.APPLY_TO_BUFFERED_AND_NEW_RX_DATA);
     }
 
     public void freezeRx() {
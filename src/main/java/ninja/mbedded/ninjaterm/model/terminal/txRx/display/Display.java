@@ -18,7 +18,7 @@ import java.util.List;
  * Model containing data and logic for the display components of the TX/RX data.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-22
+ * @last-modified 2026-10-18
  * @since 2016-09-16
  */
 public class Display {
@@ -52,6 +52,12 @@ public class Display {
     public ObservableList<Double> textSizes = FXCollections.observableArrayList(
             8.0, 9.0, 10.0, 11.0, 12.0, 13.0, 14.0, 15.0, 16.0, 18.0, 20.0, 22.0, 25.0, 30.0, 35.0, 40.0, 50.0);
 
+    /**
+     * A list of the max. refresh rates (in Hz) provided to the user for the TX/RX COM data panes.
+     */
+    public ObservableList<Double> refreshRates = FXCollections.observableArrayList(
+            5.0, 10.0, 15.0, 20.0, 30.0, 60.0);
+
     //================================================================================================//
     //========================================= CLASS CONSTANTS ======================================//
     //================================================================================================//
@@ -74,6 +80,11 @@ public class Display {
      */
     public final double DEFAULT_WRAPPING_WIDTH_PX = 800;
 
+    /**
+     * The default max. number of times per second that new data is drawn in the TX and RX panes.
+     */
+    public final double DEFAULT_MAX_REFRESH_RATE_HZ = 30.0;
+
     //================================================================================================//
     //========================================= CLASS FIELDS =========================================//
     //================================================================================================//
@@ -112,6 +123,18 @@ public class Display {
 
     public SimpleObjectProperty<Color> backgroundColor = new SimpleObjectProperty<>(Color.web("0x1a1a1a"));
 
+    /**
+     * If true, the RX pane emulates a fixed-size VT100 screen (for devices which send cursor movement
+     * and erase sequences), rather than appending all received text.
+     */
+    public SimpleBooleanProperty screenEmulationEnabled = new SimpleBooleanProperty(false);
+
+    /**
+     * The max. number of times per second that new data is drawn in the TX and RX panes. Data received
+     * between frames is drawn together, so lowering this reduces the CPU load at high data rates.
+     */
+    public SimpleDoubleProperty maxRefreshRateHz = new SimpleDoubleProperty(DEFAULT_MAX_REFRESH_RATE_HZ);
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     //================================================================================================//
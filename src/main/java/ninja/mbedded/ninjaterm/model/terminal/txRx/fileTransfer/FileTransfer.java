@@ -0,0 +1,166 @@
+package ninja.mbedded.ninjaterm.model.terminal.txRx.fileTransfer;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.xmodem.RxByteQueue;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemLink;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemProgress;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemProtocols;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemSender;
+import org.slf4j.Logger;
+
+import java.io.File;
+
+/**
+ * Model containing data and logic for sending a file with XMODEM or YMODEM (e.g. to a bootloader).
+ *
+ * While a transfer is running, it has exclusive access to the RX data, so the receiver's responses are not
+ * shown in the RX pane.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FileTransfer {
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public SimpleObjectProperty<XModemProtocols> selProtocol = new SimpleObjectProperty<>(XModemProtocols.XMODEM_1K);
+
+    public SimpleBooleanProperty isTransferring = new SimpleBooleanProperty(false);
+
+    public SimpleObjectProperty<XModemProgress.States> state = new SimpleObjectProperty<>(null);
+
+    public SimpleLongProperty numBytesSent = new SimpleLongProperty(0);
+
+    public SimpleLongProperty totalNumBytes = new SimpleLongProperty(0);
+
+    public SimpleDoubleProperty bytesPerSecond = new SimpleDoubleProperty(0.0);
+
+    /**
+     * The max. bytes per second the COM port can send with its current settings. <code>bytesPerSecond</code> is
+     * compared to this to show how efficient the transfer is.
+     */
+    public SimpleDoubleProperty lineRateBytesPerSecond = new SimpleDoubleProperty(0.0);
+
+    public SimpleIntegerProperty numRetries = new SimpleIntegerProperty(0);
+
+    private Model model;
+    private Terminal terminal;
+
+    /**
+     * Holds RX data while a transfer is running.
+     */
+    private RxByteQueue rxByteQueue = new RxByteQueue();
+
+    private XModemSender xModemSender;
+
+    /**
+     * The file currently being sent.
+     */
+    private File file;
+
+    private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public FileTransfer(Model model, Terminal terminal) {
+        this.model = model;
+        this.terminal = terminal;
+
+        xModemSender = new XModemSender(new XModemLink() {
+            @Override
+            public void write(byte[] data) {
+                terminal.comPort.sendData(data);
+            }
+
+            @Override
+            public int read(long timeoutMs) throws InterruptedException {
+                return rxByteQueue.read(timeoutMs);
+            }
+        });
+    }
+
+    /**
+     * Starts sending the file with the selected protocol. The transfer begins once the receiver requests it.
+     */
+    public void sendFile(File file) {
+        logger.debug("sendFile() called with file = " + file);
+
+        if (!terminal.comPort.isPortOpen()) {
+            model.status.addErr("Cannot send file, COM port is not open.");
+            return;
+        }
+
+        if (isTransferring.get()) {
+            model.status.addErr("Cannot send file, a file is already being transferred.");
+            return;
+        }
+
+        // Anything received before the transfer starts is not a response to it
+        rxByteQueue.clear();
+        if (!terminal.takeExclusiveRx(rxByteQueue::push)) {
+            model.status.addErr("Cannot send file, the RX data is already in use by another transfer.");
+            return;
+        }
+
+        this.file = file;
+
+        numBytesSent.set(0);
+        totalNumBytes.set(file.length());
+        bytesPerSecond.set(0.0);
+        lineRateBytesPerSecond.set(terminal.comPort.getLineRateBytesPerSecond());
+        numRetries.set(0);
+        isTransferring.set(true);
+
+        xModemSender.send(file, selProtocol.get(), this::handleProgress);
+
+        model.status.addMsg("Waiting for receiver to start " + selProtocol.get() + " transfer of \"" + file.getName() + "\".");
+    }
+
+    public void cancel() {
+        xModemSender.cancel();
+    }
+
+    private void handleProgress(XModemProgress xModemProgress) {
+
+        state.set(xModemProgress.state);
+        numBytesSent.set(xModemProgress.numBytesSent);
+        totalNumBytes.set(xModemProgress.totalNumBytes);
+        bytesPerSecond.set(xModemProgress.bytesPerSecond);
+        numRetries.set(xModemProgress.numRetries);
+
+        switch (xModemProgress.state) {
+            case WAITING_FOR_RECEIVER:
+            case SENDING:
+                break;
+            case FINISHED:
+                model.status.addMsg("Finished sending \"" + file.getName() + "\" (" + xModemProgress.numBytesSent + " bytes, "
+                        + xModemProgress.numRetries + " retries).");
+                break;
+            case CANCELLED:
+                model.status.addMsg("Cancelled sending \"" + file.getName() + "\".");
+                break;
+            case FAILED:
+                model.status.addErr("Failed to send \"" + file.getName() + "\" (" + xModemProgress.errorMsg + ").");
+                break;
+            default:
+                throw new RuntimeException("XModemProgress state not recognised.");
+        }
+
+        if (xModemProgress.isDone()) {
+            terminal.releaseExclusiveRx();
+            isTransferring.set(false);
+        }
+    }
+}
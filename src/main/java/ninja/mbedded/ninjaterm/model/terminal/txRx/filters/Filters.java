@@ -1,5 +1,7 @@
 package ninja.mbedded.ninjaterm.model.terminal.txRx.filters;
 
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 
@@ -12,12 +14,27 @@ import java.util.List;
  *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-16
- * @last-modified   2016-10-02
+ * @last-modified   2026-10-18
  */
 public class Filters {
 
     public SimpleStringProperty filterText = new SimpleStringProperty("");
 
+    /**
+     * The number of lines of context to show before each matching line (like <code>grep -B</code>).
+     */
+    public SimpleIntegerProperty linesBefore = new SimpleIntegerProperty(0);
+
+    /**
+     * The number of lines of context to show after each matching line (like <code>grep -A</code>).
+     */
+    public SimpleIntegerProperty linesAfter = new SimpleIntegerProperty(0);
+
+    /**
+     * If true, only lines which do NOT match the filter text are shown (like <code>grep -v</code>).
+     */
+    public SimpleBooleanProperty invertMatch = new SimpleBooleanProperty(false);
+
     public enum FilterApplyTypes {
         APPLY_TO_NEW_RX_DATA_ONLY,
         APPLY_TO_BUFFERED_AND_NEW_RX_DATA,
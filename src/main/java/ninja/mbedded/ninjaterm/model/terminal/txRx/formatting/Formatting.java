@@ -4,12 +4,15 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
+
+import java.time.LocalDateTime;
 
 /**
  * Model containing data and logic for the formatting of TX/RX data.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-25
+ * @last-modified 2026-10-18
  * @since 2016-09-26
  */
 public class Formatting {
@@ -44,8 +47,23 @@ public class Formatting {
 
     public SimpleBooleanProperty isTimeStampingEnabled = new SimpleBooleanProperty(false);
 
+    /**
+     * How time stamps are displayed (wall-clock, since the port was opened, or delta since the previous line).
+     * Consumers of time stamps should bind their <code>{@link TimeStampFormatter}</code> to this.
+     */
+    public SimpleObjectProperty<TimeStampFormatter.Modes> selTimeStampMode = new SimpleObjectProperty<>(TimeStampFormatter.Modes.ABSOLUTE);
+
+    /**
+     * The time the COM port was last opened. Used for the "since port opened" time stamp mode.
+     */
+    public SimpleObjectProperty<LocalDateTime> timeStampReferenceTime = new SimpleObjectProperty<>(LocalDateTime.now());
+
     public Formatting(Model model, Terminal terminal) {
 
+        terminal.isComPortOpen.addListener((observable, oldValue, newValue) -> {
+            if (newValue)
+                timeStampReferenceTime.set(LocalDateTime.now());
+        });
 
     }
 
@@ -7,6 +7,7 @@ public enum Encodings {
 
     ASCII("ASCII"),
     HEX("Hex"),
+    SCRIPT("Script"),
     ;
 
     private String label;
@@ -1,17 +1,24 @@
 package ninja.mbedded.ninjaterm.model.terminal.txRx.macros;
 
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
+import ninja.mbedded.ninjaterm.util.encodingUtils.EncodingUtils;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.periodicSender.PeriodicSendStats;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.javatuples.Pair;
 import org.slf4j.Logger;
 
+import java.util.List;
+
 /**
  * This object represents a single macro which is associated with a terminal.
  *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-11-06
- * @last-modified   2016-11-08
+ * @last-modified   2026-10-18
  */
 public class Macro {
 
@@ -22,12 +29,38 @@ public class Macro {
 
     public SimpleBooleanProperty sendSequenceImmediately = new SimpleBooleanProperty(true);
 
+    /**
+     * The time between sends when the macro is sent periodically.
+     */
+    public SimpleIntegerProperty repeatPeriodMs = new SimpleIntegerProperty(100);
+
+    /**
+     * True while the macro is being sent periodically. Set by the <code>{@link MacroManager}</code>.
+     */
+    public SimpleBooleanProperty isRepeating = new SimpleBooleanProperty(false);
+
+    /**
+     * The latest statistics of the periodic sending of this macro, or null if it has never been sent periodically.
+     */
+    public SimpleObjectProperty<PeriodicSendStats> repeatStats = new SimpleObjectProperty<>(null);
+
+    /**
+     * The bytes of the sequence. Cleared whenever the sequence or encoding changes, and re-created the next time
+     * it is needed.
+     */
+    private byte[] cachedPayload = null;
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     public Macro() {
 
         encoding.addListener((observable, oldValue, newValue) -> {
             logger.debug("encoding value changed to " + newValue);
+            cachedPayload = null;
+        });
+
+        sequence.addListener((observable, oldValue, newValue) -> {
+            cachedPayload = null;
         });
 
     }
@@ -38,12 +71,68 @@ public class Macro {
      * @param macro
      */
     public Macro(Macro macro) {
-        super();
+        this();
 
         name.set(macro.name.get());
         encoding.set(macro.encoding.get());
         sequence.set(macro.sequence.get());
         sendSequenceImmediately.set(macro.sendSequenceImmediately.get());
+        repeatPeriodMs.set(macro.repeatPeriodMs.get());
+    }
+
+    /**
+     * Returns the bytes the sequence represents with the current encoding. The bytes are cached, so this is cheap
+     * to call repeatedly while the sequence and encoding do not change.
+     *
+     * @return The bytes of the sequence. Do not modify.
+     * @throws IllegalArgumentException If the sequence is not valid for the encoding, or the encoding is
+     *                                  <code>SCRIPT</code> (scripts do not have fixed bytes). The message
+     *                                  describes the problem for the user.
+     */
+    public byte[] getPayload() {
+        if (cachedPayload != null)
+            return cachedPayload;
+
+        switch (encoding.get()) {
+            case ASCII:
+                // "Un-escape" any escape sequences found in the sequence
+                // We use the Apachi StringEscapeUtils class to do this
+                cachedPayload = StringEscapeUtils.unescapeJava(sequence.get()).getBytes();
+                break;
+            case HEX:
+                cachedPayload = parseHex(sequence.get());
+                break;
+            case SCRIPT:
+                throw new IllegalArgumentException("Macro \"" + name.get() + "\" is a script, so does not have a fixed sequence of bytes.");
+            default:
+                throw new RuntimeException("Encoding enum not recognised.");
+        }
+
+        return cachedPayload;
+    }
+
+    private static byte[] parseHex(String hexString) {
+
+        Pair<List<Byte>, EncodingUtils.ReturnId> result = EncodingUtils.hexStringToByteArray(hexString);
+        List<Byte> bytes = result.getValue0();
+        EncodingUtils.ReturnId returnId = result.getValue1();
+
+        switch(returnId) {
+            case OK:
+                break;
+            case STRING_DID_NOT_HAVE_EVEN_NUMBER_OF_CHARS:
+                throw new IllegalArgumentException("Macro hex string \"" + hexString + "\" does not have an even number of characters.");
+            case INVALID_CHAR:
+                throw new IllegalArgumentException("Macro hex string \"" + hexString + "\" contains invalid chars (must only contain numbers or the letters A-F).");
+            default:
+                throw new RuntimeException("ReturnCode was not recognised.");
+        }
+
+        byte[] byteArray = new byte[bytes.size()];
+        for(int i = 0; i < bytes.size(); i++) {
+            byteArray[i] = bytes.get(i);
+        }
+        return byteArray;
     }
 
     @Override
@@ -53,7 +142,8 @@ public class Macro {
         output.append("name = " + name.get() + ", ");
         output.append("encoding = " + encoding.get() + ", ");
         output.append("sequence = " + sequence.get() + ", ");
-        output.append("sendSequenceImmediately = " + sendSequenceImmediately.get() + " }");
+        output.append("sendSequenceImmediately = " + sendSequenceImmediately.get() + ", ");
+        output.append("repeatPeriodMs = " + repeatPeriodMs.get() + " }");
         return output.toString();
     }
 }
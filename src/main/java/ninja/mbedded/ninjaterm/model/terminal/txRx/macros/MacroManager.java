@@ -1,33 +1,101 @@
 package ninja.mbedded.ninjaterm.model.terminal.txRx.macros;
 
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
-import ninja.mbedded.ninjaterm.util.encodingUtils.EncodingUtils;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.RawDataReceivedListener;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
-import org.apache.commons.lang3.StringEscapeUtils;
-import org.javatuples.Pair;
+import ninja.mbedded.ninjaterm.util.macroScript.MacroScript;
+import ninja.mbedded.ninjaterm.util.macroScript.MacroScriptException;
+import ninja.mbedded.ninjaterm.util.macroScript.MacroScriptProgress;
+import ninja.mbedded.ninjaterm.util.macroScript.MacroScriptRunner;
+import ninja.mbedded.ninjaterm.util.periodicSender.PeriodicSendJob;
+import ninja.mbedded.ninjaterm.util.periodicSender.PeriodicSendStats;
+import ninja.mbedded.ninjaterm.util.periodicSender.PeriodicSender;
 import org.slf4j.Logger;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Manages the macros assigned to each terminal.
  *
+ * Macros with the <code>SCRIPT</code> encoding are compiled into a <code>{@link MacroScript}</code> and run in the
+ * background by a <code>{@link MacroScriptRunner}</code>. Only one script can run at a time.
+ *
+ * Any number of ASCII and hex macros can also be sent periodically by a <code>{@link PeriodicSender}</code>. These
+ * are written straight to the COM port from the sender's timer thread, so they are not shown in the TX pane, but
+ * are counted in the TX stats.
+ *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-11-06
- * @last-modified   2016-11-14
+ * @last-modified   2026-10-18
  */
 public class MacroManager {
 
     private final int DEFAULT_NUM_OF_MACROS = 3;
 
+    /**
+     * The min. period a macro can be sent with.
+     */
+    public static final int MIN_REPEAT_PERIOD_MS = 1;
+
+    /**
+     * Keeps track of a macro which is being sent periodically.
+     */
+    private static class Repetition {
+        PeriodicSendJob periodicSendJob;
+
+        /**
+         * Installed on the macro's sequence and encoding, so that changes take effect straight away.
+         */
+        ChangeListener<Object> payloadChangeListener;
+
+        /**
+         * The number of bytes already added to the TX stats.
+         */
+        long numBytesCounted = 0;
+    }
+
     private Model model;
     private Terminal terminal;
 
     public ObservableList<Macro> macros = FXCollections.observableArrayList();
 
+    /**
+     * The macro whose script is currently running, or null if no script is running.
+     */
+    public SimpleObjectProperty<Macro> runningScriptMacro = new SimpleObjectProperty<>(null);
+
+    /**
+     * The line of the running script which is currently being run (or waited on).
+     */
+    public SimpleIntegerProperty currScriptLineNum = new SimpleIntegerProperty(0);
+
+    public SimpleDoubleProperty avgStepLatencyUs = new SimpleDoubleProperty(0.0);
+
+    public SimpleDoubleProperty maxStepLatencyUs = new SimpleDoubleProperty(0.0);
+
+    private MacroScriptRunner macroScriptRunner;
+
+    /**
+     * Passes RX data to the running script. Only installed while a script is running.
+     */
+    private RawDataReceivedListener rawDataReceivedListener;
+
+    private PeriodicSender periodicSender;
+
+    /**
+     * All macros which are being sent periodically.
+     */
+    private Map<Macro, Repetition> repetitions = new HashMap<>();
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
 
@@ -44,6 +112,28 @@ public class MacroManager {
             macro.name.set("M" + Integer.toString(macros.size()));
             macros.add(macro);
         }
+
+        // Scripts always send their data straight away, so that any waits are timed from when the
+        // data was actually sent
+        macroScriptRunner = new MacroScriptRunner(data -> {
+            terminal.txRx.addTxCharsToSend(data);
+            terminal.txRx.sendBufferedTxDataToSerialPort();
+        });
+
+        rawDataReceivedListener = macroScriptRunner::rxDataReceived;
+
+        periodicSender = new PeriodicSender(data -> terminal.comPort.sendData(data));
+
+        // Macros which are removed (this includes when the Macro Manager replaces them
+        // with edited copies) can no longer be stopped by the user, so stop them here
+        macros.addListener((ListChangeListener.Change<? extends Macro> c) -> {
+            while (c.next()) {
+                for (Macro removedMacro : c.getRemoved()) {
+                    if (repetitions.containsKey(removedMacro))
+                        stopRepeating(removedMacro);
+                }
+            }
+        });
     }
 
     /**
@@ -61,10 +151,11 @@ public class MacroManager {
         switch(macro.encoding.get()) {
 
             case ASCII:
-                runAscii(macro);
-                break;
             case HEX:
-                runHex(macro);
+                runPayload(macro);
+                break;
+            case SCRIPT:
+                runScript(macro);
                 break;
             default:
                 throw new RuntimeException("Encoding enum not recognised.");
@@ -72,56 +163,208 @@ public class MacroManager {
 
     }
 
+    /**
+     * Stops the running script (if any).
+     */
+    public void stopScript() {
+        macroScriptRunner.stop();
+    }
+
+    /**
+     * Starts sending the macro every <code>repeatPeriodMs</code>, until <code>stopRepeating()</code> is called.
+     * @param macro     The macro to send. Must be an ASCII or hex macro.
+     */
+    public void startRepeating(Macro macro) {
+        logger.debug("startRepeating() called with macro = " + macro);
+
+        if (!terminal.comPort.isPortOpen()) {
+            model.status.addErr("Cannot send macro periodically, COM port is not open.");
+            return;
+        }
+
+        if (repetitions.containsKey(macro)) {
+            model.status.addErr("Macro \"" + macro.name.get() + "\" is already being sent periodically.");
+            return;
+        }
+
+        if (macro.sequence.get().equals("")) {
+            model.status.addErr("Macro sequence is empty, cannot run.");
+            return;
+        }
+
+        if (macro.repeatPeriodMs.get() < MIN_REPEAT_PERIOD_MS) {
+            model.status.addErr("Macro repeat period must be " + MIN_REPEAT_PERIOD_MS + "ms or greater.");
+            return;
+        }
+
+        byte[] payload;
+        try {
+            payload = macro.getPayload();
+        } catch (IllegalArgumentException e) {
+            model.status.addErr(e.getMessage());
+            return;
+        }
+
+        Repetition repetition = new Repetition();
+
+        // This is added after the macro's own listeners, so the macro's cached payload has already been cleared
+        repetition.payloadChangeListener = (observable, oldValue, newValue) -> {
+            if (macro.encoding.get() == Encodings.SCRIPT) {
+                model.status.addErr("Macro \"" + macro.name.get() + "\" was changed to a script, so is no longer being sent periodically.");
+                stopRepeating(macro);
+                return;
+            }
+
+            // While the sequence is being edited it may not be valid (e.g. half a hex byte),
+            // in which case the last valid payload keeps being sent
+            try {
+                repetition.periodicSendJob.setPayload(macro.getPayload());
+            } catch (IllegalArgumentException e) {
+                logger.debug("Macro sequence not valid, payload not updated. " + e.getMessage());
+            }
+        };
+        macro.sequence.addListener(repetition.payloadChangeListener);
+        macro.encoding.addListener(repetition.payloadChangeListener);
+
+        repetitions.put(macro, repetition);
+        macro.isRepeating.set(true);
+
+        repetition.periodicSendJob = periodicSender.start(
+                payload,
+                macro.repeatPeriodMs.get() * 1000000L,
+                periodicSendStats -> handleRepeatStats(macro, repetition, periodicSendStats));
+
+        model.status.addMsg("Sending macro \"" + macro.name.get() + "\" every " + macro.repeatPeriodMs.get() + "ms.");
+    }
+
+    /**
+     * Stops sending the macro periodically (if it is being sent).
+     */
+    public void stopRepeating(Macro macro) {
+        Repetition repetition = repetitions.get(macro);
+        if (repetition == null)
+            return;
+
+        periodicSender.stop(repetition.periodicSendJob);
+    }
+
     public void deleteMacro(Macro macro) {
         macros.remove(macro);
     }
 
-    private void runAscii(Macro macro) {
-        // "Un-escape" any escape sequences found in the sequence
-        // We use the Apachi StringEscapeUtils class to do this
-        String parsedString = StringEscapeUtils.unescapeJava(macro.sequence.get());
+    /**
+     * Runs a macro with a fixed sequence of bytes (i.e. an ASCII or hex macro).
+     * @param macro
+     */
+    private void runPayload(Macro macro) {
 
-        // Send the un-escaped string to the COM port
-        terminal.txRx.addTxCharsToSend(parsedString.getBytes());
+        byte[] payload;
+        try {
+            payload = macro.getPayload();
+        } catch (IllegalArgumentException e) {
+            model.status.addErr(e.getMessage());
+            return;
+        }
+
+        // Send the bytes to the COM port
+        terminal.txRx.addTxCharsToSend(payload);
 
         if(macro.sendSequenceImmediately.get())
             terminal.txRx.sendBufferedTxDataToSerialPort();
     }
 
     /**
-     * Runs a macro, treating the sequence as a hex sequence.
+     * Runs a macro, treating the sequence as a script.
      * @param macro
      */
-    private void runHex(Macro macro) {
+    private void runScript(Macro macro) {
 
-        Pair<List<Byte>, EncodingUtils.ReturnId> result = EncodingUtils.hexStringToByteArray(macro.sequence.get());
-        List<Byte> bytes = result.getValue0();
-        EncodingUtils.ReturnId returnId = result.getValue1();
+        if (!terminal.comPort.isPortOpen()) {
+            model.status.addErr("Cannot run macro script, COM port is not open.");
+            return;
+        }
 
-        switch(returnId) {
-            case OK:
+        if (macroScriptRunner.isRunning()) {
+            model.status.addErr("Cannot run macro script \"" + macro.name.get() + "\", another script is already running.");
+            return;
+        }
+
+        MacroScript script;
+        try {
+            script = MacroScript.compile(macro.sequence.get());
+        } catch (MacroScriptException e) {
+            model.status.addErr("Macro script \"" + macro.name.get() + "\" is not valid. " + e.getMessage());
+            return;
+        }
+
+        terminal.txRx.rxDataEngine.rawDataReceivedListeners.add(rawDataReceivedListener);
+        runningScriptMacro.set(macro);
+        avgStepLatencyUs.set(0.0);
+        maxStepLatencyUs.set(0.0);
+
+        macroScriptRunner.start(script, macroScriptProgress -> handleScriptProgress(macro, macroScriptProgress));
+    }
+
+    private void handleScriptProgress(Macro macro, MacroScriptProgress macroScriptProgress) {
+
+        currScriptLineNum.set(macroScriptProgress.currLineNum);
+        avgStepLatencyUs.set(macroScriptProgress.avgStepLatencyUs);
+        maxStepLatencyUs.set(macroScriptProgress.maxStepLatencyUs);
+
+        final String latencyInfo = String.format("Step latency (min/avg/max) = %.0f/%.0f/%.0fus.",
+                macroScriptProgress.minStepLatencyUs,
+                macroScriptProgress.avgStepLatencyUs,
+                macroScriptProgress.maxStepLatencyUs);
+
+        switch (macroScriptProgress.state) {
+            case RUNNING:
+                break;
+            case FINISHED:
+                model.status.addMsg("Macro script \"" + macro.name.get() + "\" finished. " + latencyInfo);
+                break;
+            case CANCELLED:
+                model.status.addMsg("Macro script \"" + macro.name.get() + "\" stopped on line "
+                        + macroScriptProgress.currLineNum + ". " + latencyInfo);
                 break;
-            case STRING_DID_NOT_HAVE_EVEN_NUMBER_OF_CHARS:
-                model.status.addErr("Macro hex string \"" + macro.sequence.get() + "\" does not have an even number of characters.");
-                return;
-            case INVALID_CHAR:
-                model.status.addErr("Macro hex string \"" + macro.sequence.get() + "\" contains invalid chars (must only contain numbers or the letters A-F).");
-                return;
             default:
-                throw new RuntimeException("ReturnCode was not recognised.");
+                throw new RuntimeException("MacroScriptProgress state not recognised.");
         }
 
-        byte[] byteArray = new byte[bytes.size()];
-        for(int i = 0; i < bytes.size(); i++) {
-            byteArray[i] = bytes.get(i);
+        if (macroScriptProgress.isDone()) {
+            terminal.txRx.rxDataEngine.rawDataReceivedListeners.remove(rawDataReceivedListener);
+            runningScriptMacro.set(null);
         }
+    }
 
-        // Send the un-escaped string to the COM port
-        terminal.txRx.addTxCharsToSend(byteArray);
+    private void handleRepeatStats(Macro macro, Repetition repetition, PeriodicSendStats periodicSendStats) {
 
-        if(macro.sendSequenceImmediately.get())
-            terminal.txRx.sendBufferedTxDataToSerialPort();
+        // Update stats (both local and global)
+        final int numNewBytesSent = (int) (periodicSendStats.numBytesSent - repetition.numBytesCounted);
+        repetition.numBytesCounted = periodicSendStats.numBytesSent;
+        terminal.stats.totalRawCharCountTx.set(terminal.stats.totalRawCharCountTx.get() + numNewBytesSent);
+        model.globalStats.numCharactersTx.set(model.globalStats.numCharactersTx.get() + numNewBytesSent);
 
-    }
+        macro.repeatStats.set(periodicSendStats);
 
+        switch (periodicSendStats.state) {
+            case RUNNING:
+                break;
+            case STOPPED:
+                model.status.addMsg("Stopped sending macro \"" + macro.name.get() + "\" (sent " + periodicSendStats.numSends
+                        + " times, max. jitter = " + String.format("%.0f", periodicSendStats.maxJitterUs) + "us).");
+                break;
+            case FAILED:
+                model.status.addErr("Failed to send macro \"" + macro.name.get() + "\" periodically (" + periodicSendStats.errorMsg + ").");
+                break;
+            default:
+                throw new RuntimeException("PeriodicSendStats state not recognised.");
+        }
+
+        if (periodicSendStats.isDone()) {
+            macro.sequence.removeListener(repetition.payloadChangeListener);
+            macro.encoding.removeListener(repetition.payloadChangeListener);
+            repetitions.remove(macro);
+            macro.isRepeating.set(false);
+        }
+    }
 }
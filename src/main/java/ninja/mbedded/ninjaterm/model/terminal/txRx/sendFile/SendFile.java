@@ -0,0 +1,143 @@
+package ninja.mbedded.ninjaterm.model.terminal.txRx.sendFile;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.fileSender.FileSendProgress;
+import ninja.mbedded.ninjaterm.util.fileSender.FileSender;
+import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import org.slf4j.Logger;
+
+import java.io.File;
+
+/**
+ * Model containing data and logic for sending a file out of the COM port.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class SendFile {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    public static final int DEFAULT_CHUNK_SIZE_BYTES = 256;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of bytes written to the COM port at once.
+     */
+    public SimpleIntegerProperty chunkSizeBytes = new SimpleIntegerProperty(DEFAULT_CHUNK_SIZE_BYTES);
+
+    /**
+     * The time to wait after each chunk is sent.
+     */
+    public SimpleIntegerProperty chunkDelayMs = new SimpleIntegerProperty(0);
+
+    /**
+     * The time to wait after each new line char is sent.
+     */
+    public SimpleIntegerProperty lineDelayMs = new SimpleIntegerProperty(0);
+
+    public SimpleBooleanProperty isSending = new SimpleBooleanProperty(false);
+
+    public SimpleLongProperty numBytesSent = new SimpleLongProperty(0);
+
+    public SimpleLongProperty totalNumBytes = new SimpleLongProperty(0);
+
+    public SimpleDoubleProperty bytesPerSecond = new SimpleDoubleProperty(0.0);
+
+    private Model model;
+    private Terminal terminal;
+
+    private FileSender fileSender;
+
+    /**
+     * The file currently being sent.
+     */
+    private File file;
+
+    private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public SendFile(Model model, Terminal terminal) {
+        this.model = model;
+        this.terminal = terminal;
+
+        fileSender = new FileSender(chunk -> terminal.comPort.sendData(chunk));
+    }
+
+    /**
+     * Starts sending the file to the COM port in the background, using the current chunk and delay settings.
+     */
+    public void sendFile(File file) {
+        logger.debug("sendFile() called with file = " + file);
+
+        if (!terminal.comPort.isPortOpen()) {
+            model.status.addErr("Cannot send file, COM port is not open.");
+            return;
+        }
+
+        if (isSending.get()) {
+            model.status.addErr("Cannot send file, a file is already being sent.");
+            return;
+        }
+
+        this.file = file;
+
+        numBytesSent.set(0);
+        totalNumBytes.set(file.length());
+        bytesPerSecond.set(0.0);
+        isSending.set(true);
+
+        fileSender.send(file, chunkSizeBytes.get(), chunkDelayMs.get(), lineDelayMs.get(), this::handleProgress);
+
+        model.status.addMsg("Sending file \"" + file.getName() + "\".");
+    }
+
+    public void cancel() {
+        fileSender.cancel();
+    }
+
+    private void handleProgress(FileSendProgress fileSendProgress) {
+
+        // Update stats (both local and global)
+        final long numNewBytesSent = fileSendProgress.numBytesSent - numBytesSent.get();
+        terminal.stats.totalRawCharCountTx.set(terminal.stats.totalRawCharCountTx.get() + (int) numNewBytesSent);
+        model.globalStats.numCharactersTx.set(model.globalStats.numCharactersTx.get() + (int) numNewBytesSent);
+
+        numBytesSent.set(fileSendProgress.numBytesSent);
+        totalNumBytes.set(fileSendProgress.totalNumBytes);
+        bytesPerSecond.set(fileSendProgress.bytesPerSecond);
+
+        switch (fileSendProgress.state) {
+            case SENDING:
+                break;
+            case FINISHED:
+                model.status.addMsg("Finished sending file \"" + file.getName() + "\" (" + fileSendProgress.numBytesSent + " bytes).");
+                break;
+            case CANCELLED:
+                model.status.addMsg("Cancelled sending file \"" + file.getName() + "\" after " + fileSendProgress.numBytesSent + " bytes.");
+                break;
+            case FAILED:
+                model.status.addErr("Failed to send file \"" + file.getName() + "\" (" + fileSendProgress.errorMsg + ").");
+                break;
+            default:
+                throw new RuntimeException("FileSendProgress state not recognised.");
+        }
+
+        if (fileSendProgress.isDone())
+            isSending.set(false);
+    }
+}
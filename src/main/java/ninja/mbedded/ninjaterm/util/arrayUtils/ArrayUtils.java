@@ -1,26 +1,27 @@
 package ninja.mbedded.ninjaterm.util.arrayUtils;
 
-import javafx.collections.ObservableList;
-
 /**
  * Contains static methods useful for converting between different types of arrays and
  * lists.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-11-21
- * @last-modified 2016-11-21
+ * @last-modified 2026-10-18
  */
 public class ArrayUtils {
 
-    public static byte[] fromObservableListToByteArray(ObservableList<Byte> observableList) {
+    /**
+     * Converts bytes into a string with one char per byte, where each char is the (sign-extended) byte value.
+     * This is done in a single pass, rather than concatenating one char at a time.
+     */
+    public static String fromByteArrayToString(byte[] data) {
 
-        byte[] data = new byte[observableList.size()];
-        int i = 0;
-        for (Byte singleByte : observableList) {
-            data[i++] = singleByte;
+        char[] chars = new char[data.length];
+        for (int i = 0; i < data.length; i++) {
+            chars[i] = (char) data[i];
         }
 
-        return data;
+        return new String(chars);
     }
 
 }
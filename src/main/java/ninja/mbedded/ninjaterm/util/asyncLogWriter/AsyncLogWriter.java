@@ -0,0 +1,609 @@
+package ninja.mbedded.ninjaterm.util.asyncLogWriter;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes log data to a file on a background thread, so that a slow disk (or network share) can not stall the
+ * UI thread.
+ *
+ * <code>write()</code> only adds the data to a lock-free queue. The writer thread group-commits everything queued
+ * with a single write to the file, once either <code>GROUP_COMMIT_SIZE_CHARS</code> are queued, or the
+ * durability mode says the data is due (see <code>{@link DurabilityModes}</code>). Each group-commit ends by syncing
+ * the file to the disk (<code>FileChannel.force()</code>), so committed data survives the OS crashing or the power
+ * being cut, not just NinjaTerm closing. If the writer can not keep up
+ * and the backlog reaches <code>maxBacklogChars</code>, new data is dropped (and counted) rather than using up
+ * all memory.
+ *
+ * If a <code>{@link LogRotationPolicy}</code> is given, the log file is rotated once it reaches a limit. The full
+ * file is renamed (with the time it was started at added to the name, e.g. "log.2026-10-18-12-00-00.txt"), a new
+ * file is started with the original name, and the full file is gzip-compressed on a separate compressor thread. Queued
+ * data keeps waiting in the queue while this happens, so rotation never blocks <code>write()</code>. Compressed files
+ * left behind by earlier sessions with the same log file count towards <code>maxNumRotatedFiles</code>, so the oldest
+ * of them are deleted as new files are rotated.
+ *
+ * Data can be written either as text (encoded as UTF-8, the same as the <code>LogFormatter</code> output) or as
+ * already encoded bytes. Sizes (the backlog, and the number of chars written or dropped) are counted in encoded
+ * bytes, which is one per char for ASCII text.
+ *
+ * Each writer can only be opened once. <code>open()</code> and <code>close()</code> must be called from the
+ * UI thread, <code>write()</code> can be called from any thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class AsyncLogWriter {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * Once this many chars are queued, they are written straight away, no matter what the durability mode is.
+     */
+    static final int GROUP_COMMIT_SIZE_CHARS = 64 * 1024;
+
+    /**
+     * The max. number of chars written to the file in one go.
+     */
+    private static final int MAX_GROUP_SIZE_CHARS = 1024 * 1024;
+
+    /**
+     * The min. time between statistics updates while open.
+     */
+    private static final long STATS_UPDATE_PERIOD_NS = 250000000L;
+
+    private static final int COMPRESSION_BUFFER_SIZE_BYTES = 64 * 1024;
+
+    /**
+     * The charset text passed to <code>write(String)</code> is encoded with. This is fixed, so the log file
+     * does not depend on the platform it was written on.
+     */
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
+
+    //================================================================================================//
+    //========================================= INNER CLASSES ========================================//
+    //================================================================================================//
+
+    private static class Entry {
+        final byte[] data;
+        final long queuedTimeNs;
+
+        Entry(byte[] data, long queuedTimeNs) {
+            this.data = data;
+            this.queuedTimeNs = queuedTimeNs;
+        }
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final DurabilityModes durabilityMode;
+
+    private final long flushPeriodNs;
+
+    private final LogRotationPolicy logRotationPolicy;
+
+    /**
+     * New data is dropped once this many chars are waiting to be written. Can be changed in unit tests.
+     */
+    long maxBacklogChars = 64L * 1024 * 1024;
+
+    /**
+     * Used to pass statistics back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong backlogChars = new AtomicLong(0);
+
+    private final AtomicLong numCharsDropped = new AtomicLong(0);
+
+    /**
+     * Set when a new line is queued in <code>FLUSH_ON_NEW_LINE</code> mode, and cleared by the writer thread when it
+     * writes the queued data. Used so the writer thread is only woken up once for a burst of lines.
+     */
+    private final AtomicBoolean isNewLineQueued = new AtomicBoolean(false);
+
+    private volatile boolean isCloseRequested = false;
+
+    private Thread writerThread;
+
+    private final AtomicLong numCompressionFailures = new AtomicLong(0);
+
+    /**
+     * Compresses rotated files, so the writer thread can carry on writing.
+     */
+    private final ExecutorService compressor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AsyncLogWriterCompressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The rotated files, oldest first (including those found when the writer was opened). Only accessed from the
+     * compressor thread.
+     */
+    private final Deque<File> rotatedFiles = new ArrayDeque<>();
+
+    /**
+     * Only accessed from the writer thread.
+     */
+    private File file;
+    private FileOutputStream outputStream;
+    private LogWriterStatsListener logWriterStatsListener;
+    private byte[] group = new byte[GROUP_COMMIT_SIZE_CHARS];
+    private int groupLength = 0;
+    private long numCharsWritten = 0;
+    private long numGroupsWritten = 0;
+    private long lastWriteLatencyNs = 0;
+    private long maxWriteLatencyNs = 0;
+    private long lastStatsTimeNs;
+    private long numFilesRotated = 0;
+    private long currFileSizeBytes;
+    private long currFileNumLines;
+    private long currFileStartTimeNs;
+    private long currFileStartTimeMs;
+    private String lastRotatedBaseName;
+    private int lastRotatedNumber;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param durabilityMode    When queued data is written to the file.
+     * @param flushPeriodMs     The max. time queued data waits for before being written.
+     */
+    public AsyncLogWriter(DurabilityModes durabilityMode, long flushPeriodMs) {
+        this(durabilityMode, flushPeriodMs, LogRotationPolicy.NONE);
+    }
+
+    /**
+     * @param durabilityMode    When queued data is written to the file.
+     * @param flushPeriodMs     The max. time queued data waits for before being written.
+     * @param logRotationPolicy When the log file is rotated.
+     */
+    public AsyncLogWriter(DurabilityModes durabilityMode, long flushPeriodMs, LogRotationPolicy logRotationPolicy) {
+        if (flushPeriodMs <= 0)
+            throw new IllegalArgumentException("flushPeriodMs must be greater than 0.");
+
+        this.durabilityMode = durabilityMode;
+        this.flushPeriodNs = flushPeriodMs * 1000000L;
+        this.logRotationPolicy = logRotationPolicy;
+    }
+
+    /**
+     * Opens the file and starts the writer thread.
+     *
+     * @param file                      The log file.
+     * @param isAppend                  If true, data is appended to the file, otherwise the file is overwritten.
+     * @param logWriterStatsListener    Called on the UI thread with the writer's statistics. The last call has a
+     *                                  "done" state.
+     * @throws IOException If the file could not be opened.
+     */
+    public void open(File file, boolean isAppend, LogWriterStatsListener logWriterStatsListener) throws IOException {
+        if (writerThread != null)
+            throw new IllegalStateException("AsyncLogWriter can only be opened once.");
+
+        outputStream = new FileOutputStream(file, isAppend);
+        this.file = file;
+        this.logWriterStatsListener = logWriterStatsListener;
+
+        // When appending, the data already in the file counts towards the size limit
+        currFileSizeBytes = isAppend ? file.length() : 0;
+        currFileNumLines = 0;
+        currFileStartTimeNs = System.nanoTime();
+        currFileStartTimeMs = System.currentTimeMillis();
+
+        // Queued before anything can be rotated, so the existing files are always the oldest
+        final File[] existingRotatedFiles = findExistingRotatedFiles(file);
+        compressor.execute(() -> rotatedFiles.addAll(Arrays.asList(existingRotatedFiles)));
+
+        writerThread = new Thread(this::runWriter, "AsyncLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues text to be written to the file. Never blocks.
+     */
+    public void write(String data) {
+        if (isCloseRequested || data.isEmpty())
+            return;
+
+        final byte[] bytes = data.getBytes(CHARSET);
+        queue(bytes, bytes.length);
+    }
+
+    /**
+     * Queues already encoded data to be written to the file. Never blocks.
+     *
+     * @param data      The buffer holding the data. The data is copied, so the caller can re-use the buffer.
+     * @param offset    The index of the first byte to write.
+     * @param length    The number of bytes to write.
+     */
+    public void write(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length)
+            throw new IndexOutOfBoundsException("offset and length must be within data.");
+        if (isCloseRequested || length == 0)
+            return;
+
+        queue(Arrays.copyOfRange(data, offset, offset + length), length);
+    }
+
+    private void queue(byte[] data, int length) {
+
+        final long newBacklogChars = backlogChars.addAndGet(length);
+        if (newBacklogChars > maxBacklogChars) {
+            backlogChars.addAndGet(-length);
+            numCharsDropped.addAndGet(length);
+            return;
+        }
+
+        queue.add(new Entry(data, System.nanoTime()));
+
+        // Only wake the writer thread up when the data is due now, otherwise it will pick the
+        // data up when it's flush period is up
+        if (newBacklogChars >= GROUP_COMMIT_SIZE_CHARS && newBacklogChars - length < GROUP_COMMIT_SIZE_CHARS) {
+            LockSupport.unpark(writerThread);
+        } else if (durabilityMode == DurabilityModes.FLUSH_ON_NEW_LINE
+                && containsNewLine(data)
+                && !isNewLineQueued.getAndSet(true)) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private static boolean containsNewLine(byte[] data) {
+        for (byte b : data) {
+            if (b == '\n')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes any queued data, closes the file and stops the writer thread. Does not wait for this to happen. The
+     * statistics listener is called one last time with the <code>CLOSED</code> state (or <code>FAILED</code> if
+     * the queued data could not be written).
+     */
+    public void close() {
+        isCloseRequested = true;
+        LockSupport.unpark(writerThread);
+    }
+
+    private void runWriter() {
+
+        long lastWriteTimeNs = System.nanoTime();
+        lastStatsTimeNs = lastWriteTimeNs;
+
+        try {
+            while (true) {
+                final boolean isClosing = isCloseRequested;
+                final long nowNs = System.nanoTime();
+
+                if (!queue.isEmpty()
+                        && (isClosing
+                        || backlogChars.get() >= GROUP_COMMIT_SIZE_CHARS
+                        || isNewLineQueued.getAndSet(false)
+                        || nowNs - lastWriteTimeNs >= flushPeriodNs)) {
+
+                    // Everything queued up to now is written, so do not stop part way through
+                    while (!queue.isEmpty())
+                        writeGroup();
+
+                    // Writing only hands the data to the OS, this is what makes it durable. The file's metadata
+                    // (e.g. modified time) is not needed to read the data back, so is left for the OS to write.
+                    outputStream.getChannel().force(false);
+                    lastWriteTimeNs = nowNs;
+                }
+
+                if (isClosing && queue.isEmpty())
+                    break;
+
+                // Rotate on age even if no new data is arriving, but never rotate to an empty file
+                if (logRotationPolicy.maxFileAgeMs > 0 && currFileSizeBytes > 0
+                        && nowNs - currFileStartTimeNs >= logRotationPolicy.maxFileAgeMs * 1000000L)
+                    rotate();
+
+                if (nowNs - lastStatsTimeNs >= STATS_UPDATE_PERIOD_NS) {
+                    postStats(LogWriterStats.States.OPEN, null);
+                    lastStatsTimeNs = nowNs;
+                }
+
+                long parkTimeNs = lastWriteTimeNs + flushPeriodNs - System.nanoTime();
+                if (parkTimeNs <= 0)
+                    parkTimeNs = flushPeriodNs;
+                LockSupport.parkNanos(this, Math.min(parkTimeNs, STATS_UPDATE_PERIOD_NS));
+            }
+
+            outputStream.close();
+        } catch (IOException e) {
+            try {
+                outputStream.close();
+            } catch (IOException closeException) {
+                // The original error is the one worth reporting
+            }
+            isCloseRequested = true;
+            queue.clear();
+            backlogChars.set(0);
+            compressor.shutdown();
+            postStats(LogWriterStats.States.FAILED, e.getMessage());
+            return;
+        }
+
+        // Let any rotated files finish compressing, so the last statistics are complete
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        postStats(LogWriterStats.States.CLOSED, null);
+    }
+
+    /**
+     * Takes queued data (up to <code>MAX_GROUP_SIZE_CHARS</code>) off the queue and writes it to the file with
+     * a single write.
+     */
+    private void writeGroup() throws IOException {
+
+        groupLength = 0;
+        final long oldestQueuedTimeNs = queue.peek().queuedTimeNs;
+
+        Entry entry;
+        while (groupLength < MAX_GROUP_SIZE_CHARS && (entry = queue.poll()) != null) {
+            if (groupLength + entry.data.length > group.length)
+                group = Arrays.copyOf(group, Math.max(group.length * 2, groupLength + entry.data.length));
+            System.arraycopy(entry.data, 0, group, groupLength, entry.data.length);
+            groupLength += entry.data.length;
+        }
+
+        final byte[] bytes = group;
+        int offset = 0;
+        while (offset < groupLength) {
+            // An appended file may already be full before anything is written to it
+            if (isFileFull())
+                rotate();
+
+            final int length = findWriteLength(bytes, offset, groupLength);
+            if (length == 0) {
+                rotate();
+                continue;
+            }
+            outputStream.write(bytes, offset, length);
+
+            currFileSizeBytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n')
+                    currFileNumLines++;
+            }
+            offset += length;
+
+        }
+
+        backlogChars.addAndGet(-groupLength);
+        numCharsWritten += groupLength;
+        numGroupsWritten++;
+
+        lastWriteLatencyNs = System.nanoTime() - oldestQueuedTimeNs;
+        maxWriteLatencyNs = Math.max(maxWriteLatencyNs, lastWriteLatencyNs);
+    }
+
+    /**
+     * @return The number of bytes (starting at offset, and before end) which can be written to the current file before it has to be
+     *          rotated. If the file fills up part way through the bytes, the bytes are split just after a new line if
+     *          possible. Returns 0 if the current file should be rotated first, so that a line which does not fit is
+     *          not split. The current file must not be full.
+     */
+    private int findWriteLength(byte[] bytes, int offset, int end) {
+
+        int length = end - offset;
+
+        if (logRotationPolicy.maxFileNumLines > 0) {
+            long numLinesLeft = logRotationPolicy.maxFileNumLines - currFileNumLines;
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n' && --numLinesLeft <= 0) {
+                    length = i - offset + 1;
+                    break;
+                }
+            }
+        }
+
+        if (logRotationPolicy.maxFileSizeBytes > 0) {
+            final long numBytesLeft = logRotationPolicy.maxFileSizeBytes - currFileSizeBytes;
+            if (length > numBytesLeft) {
+                int newLineLength = 0;
+                for (int i = offset + (int) numBytesLeft - 1; i >= offset; i--) {
+                    if (bytes[i] == '\n') {
+                        newLineLength = i - offset + 1;
+                        break;
+                    }
+                }
+
+                // Lines are only split if they are too long to fit in an empty file
+                if (newLineLength > 0)
+                    length = newLineLength;
+                else if (currFileSizeBytes > 0)
+                    length = 0;
+                else
+                    length = (int) numBytesLeft;
+            }
+        }
+
+        return length;
+    }
+
+    private boolean isFileFull() {
+        return (logRotationPolicy.maxFileSizeBytes > 0 && currFileSizeBytes >= logRotationPolicy.maxFileSizeBytes)
+                || (logRotationPolicy.maxFileNumLines > 0 && currFileNumLines >= logRotationPolicy.maxFileNumLines);
+    }
+
+    /**
+     * Closes the current file, renames it and starts a new one with the original name. The renamed file is then
+     * compressed on the compressor thread.
+     */
+    private void rotate() throws IOException {
+
+        // Data already written to this file in the current group-commit must be durable before it is renamed
+        outputStream.getChannel().force(false);
+        outputStream.close();
+
+        final File rotatedFile = buildRotatedFile();
+        Files.move(file.toPath(), rotatedFile.toPath());
+
+        outputStream = new FileOutputStream(file, false);
+        currFileSizeBytes = 0;
+        currFileNumLines = 0;
+        currFileStartTimeNs = System.nanoTime();
+        currFileStartTimeMs = System.currentTimeMillis();
+        numFilesRotated++;
+
+        compressor.execute(() -> compress(rotatedFile));
+    }
+
+    /**
+     * @return The index of the extension (including the '.') in a file name, or the length of the name if it
+     *          has no extension.
+     */
+    private static int getExtensionIndex(String name) {
+        return (name.lastIndexOf('.') > 0) ? name.lastIndexOf('.') : name.length();
+    }
+
+    /**
+     * @return The compressed rotated files of the provided log file which already exist, oldest first. These are
+     *          found by name (as built by <code>buildRotatedFile()</code>), and are ordered by the timestamp and then
+     *          the number in the name.
+     */
+    private static File[] findExistingRotatedFiles(File file) {
+
+        final String name = file.getName();
+        final int extensionIndex = getExtensionIndex(name);
+        final Pattern pattern = Pattern.compile(Pattern.quote(name.substring(0, extensionIndex))
+                + "\\.(\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2})(?:-(\\d+))?"
+                + Pattern.quote(name.substring(extensionIndex)) + "\\.gz");
+
+        final File[] files = file.getAbsoluteFile().getParentFile().listFiles(
+                existingFile -> existingFile.isFile() && pattern.matcher(existingFile.getName()).matches());
+        if (files == null)
+            return new File[0];
+
+        Arrays.sort(files, Comparator
+                .comparing((File existingFile) -> matchRotatedName(pattern, existingFile).group(1))
+                .thenComparingInt(existingFile -> {
+                    final String number = matchRotatedName(pattern, existingFile).group(2);
+                    return (number != null) ? Integer.parseInt(number) : 1;
+                }));
+        return files;
+    }
+
+    private static Matcher matchRotatedName(Pattern pattern, File rotatedFile) {
+        final Matcher matcher = pattern.matcher(rotatedFile.getName());
+        matcher.matches();
+        return matcher;
+    }
+
+    /**
+     * @return The file to rename the current file to, which has the time the current file was started at added to
+     *          its name, before any extension.
+     */
+    private File buildRotatedFile() {
+
+        final String name = file.getName();
+        final int extensionIndex = getExtensionIndex(name);
+        final String baseName = name.substring(0, extensionIndex) + "."
+                + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date(currFileStartTimeMs));
+        final String extension = name.substring(extensionIndex);
+
+        // Files can be rotated more than once a second, so add a number to the name if needed. The number never
+        // goes back down within a second, as older files with the same time may have already been deleted.
+        int number = baseName.equals(lastRotatedBaseName) ? lastRotatedNumber + 1 : 1;
+        File rotatedFile;
+        while (true) {
+            rotatedFile = new File(file.getParentFile(), baseName + ((number > 1) ? "-" + number : "") + extension);
+            if (!rotatedFile.exists() && !new File(rotatedFile.getPath() + ".gz").exists())
+                break;
+            number++;
+        }
+
+        lastRotatedBaseName = baseName;
+        lastRotatedNumber = number;
+        return rotatedFile;
+    }
+
+    /**
+     * Gzips a rotated file, deletes the uncompressed file, and then deletes the oldest rotated files if there are
+     * too many. Runs on the compressor thread. If compression fails, the uncompressed file is kept instead.
+     */
+    private void compress(File rotatedFile) {
+
+        final File compressedFile = new File(rotatedFile.getPath() + ".gz");
+        try {
+            try (InputStream inputStream = new FileInputStream(rotatedFile);
+                 OutputStream gzipOutputStream = new GZIPOutputStream(new FileOutputStream(compressedFile), COMPRESSION_BUFFER_SIZE_BYTES)) {
+                final byte[] buffer = new byte[COMPRESSION_BUFFER_SIZE_BYTES];
+                int numBytesRead;
+                while ((numBytesRead = inputStream.read(buffer)) != -1) {
+                    gzipOutputStream.write(buffer, 0, numBytesRead);
+                }
+            }
+            Files.delete(rotatedFile.toPath());
+            rotatedFiles.add(compressedFile);
+        } catch (IOException e) {
+            numCompressionFailures.incrementAndGet();
+            compressedFile.delete();
+            rotatedFiles.add(rotatedFile);
+        }
+
+        if (logRotationPolicy.maxNumRotatedFiles > 0) {
+            while (rotatedFiles.size() > logRotationPolicy.maxNumRotatedFiles) {
+                rotatedFiles.removeFirst().delete();
+            }
+        }
+    }
+
+    private void postStats(LogWriterStats.States state, String errorMsg) {
+        final LogWriterStats logWriterStats = new LogWriterStats(
+                state,
+                backlogChars.get(),
+                numCharsWritten,
+                numGroupsWritten,
+                numCharsDropped.get(),
+                lastWriteLatencyNs / 1000000.0,
+                maxWriteLatencyNs / 1000000.0,
+                numFilesRotated,
+                numCompressionFailures.get(),
+                errorMsg);
+        uiThreadExecutor.execute(() -> logWriterStatsListener.run(logWriterStats));
+    }
+}
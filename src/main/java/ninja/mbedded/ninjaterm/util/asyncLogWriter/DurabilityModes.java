@@ -0,0 +1,35 @@
+package ninja.mbedded.ninjaterm.util.asyncLogWriter;
+
+/**
+ * When an <code>{@link AsyncLogWriter}</code> writes queued data to the log file. Each time data is written, the file
+ * is also synced to the disk, so these modes decide how much data can be lost if the OS crashes or the power is cut.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public enum DurabilityModes {
+
+    /**
+     * Queued data is written (and synced to the disk) at most once every flush period.
+     */
+    FLUSH_PERIODICALLY("Every flush period"),
+
+    /**
+     * Queued data is written (and synced to the disk) as soon as a new line is queued. Data without a new line is still written
+     * at least once every flush period.
+     */
+    FLUSH_ON_NEW_LINE("On every new line"),
+    ;
+
+    private String label;
+
+    DurabilityModes(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,60 @@
+package ninja.mbedded.ninjaterm.util.asyncLogWriter;
+
+/**
+ * When an <code>{@link AsyncLogWriter}</code> rotates the log file, and how many rotated files it keeps.
+ *
+ * A limit of 0 disables that limit. The log file is rotated as soon as any enabled limit is reached. Rotation is
+ * done at a new line where possible, so that lines are not split across files.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class LogRotationPolicy {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * Never rotates the log file.
+     */
+    public static final LogRotationPolicy NONE = new LogRotationPolicy(0, 0, 0, 0);
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public final long maxFileSizeBytes;
+
+    public final long maxFileAgeMs;
+
+    public final long maxFileNumLines;
+
+    /**
+     * The max. number of rotated (compressed) files to keep. The oldest files are deleted first. Only files rotated
+     * by the same writer are counted (and deleted).
+     */
+    public final int maxNumRotatedFiles;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public LogRotationPolicy(long maxFileSizeBytes, long maxFileAgeMs, long maxFileNumLines, int maxNumRotatedFiles) {
+        if (maxFileSizeBytes < 0 || maxFileAgeMs < 0 || maxFileNumLines < 0 || maxNumRotatedFiles < 0)
+            throw new IllegalArgumentException("Log rotation limits cannot be negative.");
+
+        this.maxFileSizeBytes = maxFileSizeBytes;
+        this.maxFileAgeMs = maxFileAgeMs;
+        this.maxFileNumLines = maxFileNumLines;
+        this.maxNumRotatedFiles = maxNumRotatedFiles;
+    }
+
+    /**
+     * @return True if the log file is rotated at all.
+     */
+    public boolean isEnabled() {
+        return maxFileSizeBytes > 0 || maxFileAgeMs > 0 || maxFileNumLines > 0;
+    }
+}
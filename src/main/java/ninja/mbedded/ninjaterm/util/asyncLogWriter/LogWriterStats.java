@@ -0,0 +1,80 @@
+package ninja.mbedded.ninjaterm.util.asyncLogWriter;
+
+/**
+ * A snapshot of the statistics of an <code>{@link AsyncLogWriter}</code>.
+ *
+ * The write latency is the time from when the oldest data in a group was queued to when the group was written to the
+ * log file.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class LogWriterStats {
+
+    public enum States {
+        OPEN,
+        CLOSED,
+        FAILED,
+    }
+
+    public final States state;
+
+    /**
+     * The number of chars which have been queued but not written yet.
+     */
+    public final long backlogChars;
+
+    public final long numCharsWritten;
+
+    /**
+     * The number of groups of data which have been written. Each group is written with a single write to the file.
+     */
+    public final long numGroupsWritten;
+
+    /**
+     * The number of chars which were thrown away because the backlog was full.
+     */
+    public final long numCharsDropped;
+
+    public final double lastWriteLatencyMs;
+
+    public final double maxWriteLatencyMs;
+
+    /**
+     * The number of times the log file has been rotated.
+     */
+    public final long numFilesRotated;
+
+    /**
+     * The number of rotated files which could not be compressed. These are left uncompressed.
+     */
+    public final long numCompressionFailures;
+
+    /**
+     * Describes why writing failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public LogWriterStats(States state, long backlogChars, long numCharsWritten, long numGroupsWritten, long numCharsDropped,
+                          double lastWriteLatencyMs, double maxWriteLatencyMs, long numFilesRotated,
+                          long numCompressionFailures, String errorMsg) {
+        this.state = state;
+        this.backlogChars = backlogChars;
+        this.numCharsWritten = numCharsWritten;
+        this.numGroupsWritten = numGroupsWritten;
+        this.numCharsDropped = numCharsDropped;
+        this.lastWriteLatencyMs = lastWriteLatencyMs;
+        this.maxWriteLatencyMs = maxWriteLatencyMs;
+        this.numFilesRotated = numFilesRotated;
+        this.numCompressionFailures = numCompressionFailures;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last update for the writer.
+     */
+    public boolean isDone() {
+        return state == States.CLOSED || state == States.FAILED;
+    }
+}
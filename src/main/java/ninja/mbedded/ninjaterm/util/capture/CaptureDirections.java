@@ -0,0 +1,32 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+/**
+ * The direction of the data in a <code>{@link CaptureRecord}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public enum CaptureDirections {
+
+    RX(0),
+    TX(1),
+    ;
+
+    /**
+     * The value stored in a capture file.
+     */
+    final int code;
+
+    CaptureDirections(int code) {
+        this.code = code;
+    }
+
+    static CaptureDirections fromCode(int code) {
+        for (CaptureDirections direction : values()) {
+            if (direction.code == code)
+                return direction;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Constants and helpers for the binary capture file format.
+ *
+ * A capture file is one or more sessions, one after the other (appending to a capture file starts a new session).
+ * Each session is a header followed by records:
+ * <ul>
+ * <li>Header: the magic bytes "NTCAP", a version byte, then the wall-clock time the session started at (milliseconds
+ * since the epoch, 8 bytes big-endian).</li>
+ * <li>Port record: <code>RECORD_TYPE_PORT</code>, port ID, name length, name (UTF-8). Written the first time a port
+ * is used in a session.</li>
+ * <li>Data record: <code>RECORD_TYPE_DATA</code>, time since the previous data record (ns), direction, port ID,
+ * data length, data.</li>
+ * </ul>
+ * All numbers other than those in the header are unsigned LEB128 varints, so a small record costs only a few bytes
+ * on top of its data.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+final class CaptureFormat {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The first byte of this is also used to tell a header apart from a record.
+     */
+    static final byte[] MAGIC = {'N', 'T', 'C', 'A', 'P'};
+
+    static final int VERSION = 1;
+
+    static final int RECORD_TYPE_PORT = 1;
+
+    static final int RECORD_TYPE_DATA = 2;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    private CaptureFormat() {
+    }
+
+    static void writeHeader(DataOutputStream outputStream, long startTimeMs) throws IOException {
+        outputStream.write(MAGIC);
+        outputStream.writeByte(VERSION);
+        outputStream.writeLong(startTimeMs);
+    }
+
+    /**
+     * Reads the rest of a header, once its first byte has been read.
+     *
+     * @return The wall-clock time the session started at.
+     */
+    static long readHeader(DataInputStream inputStream, int firstByte) throws IOException {
+        if (firstByte != MAGIC[0])
+            throw new CaptureFormatException("Not a NinjaTerm capture file.");
+        for (int i = 1; i < MAGIC.length; i++) {
+            if (inputStream.readUnsignedByte() != MAGIC[i])
+                throw new CaptureFormatException("Not a NinjaTerm capture file.");
+        }
+
+        final int version = inputStream.readUnsignedByte();
+        if (version != VERSION)
+            throw new CaptureFormatException("Capture file version " + version + " is not supported.");
+
+        return inputStream.readLong();
+    }
+
+    static void writeVarLong(DataOutputStream outputStream, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            outputStream.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        outputStream.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream inputStream) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = inputStream.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new CaptureFormatException("Capture file contains an invalid number.");
+    }
+
+    static int readVarInt(DataInputStream inputStream) throws IOException {
+        final long value = readVarLong(inputStream);
+        if (value > Integer.MAX_VALUE)
+            throw new CaptureFormatException("Capture file contains an invalid length.");
+        return (int) value;
+    }
+
+    /**
+     * Reads exactly <code>length</code> bytes.
+     *
+     * @throws EOFException If the file ends first.
+     */
+    static byte[] readBytes(DataInputStream inputStream, int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        inputStream.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,19 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a capture file is not valid (e.g. it is not a capture file, or it is truncated).
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CaptureFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,136 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the records in a capture file written by a <code>{@link CaptureWriter}</code>, in order.
+ *
+ * If the file contains more than one session (because it was appended to), the sessions are read one after the
+ * other, with the timestamps of each session carrying on from the end of the previous one (the time between
+ * sessions is not recorded).
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureReader implements Closeable {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final DataInputStream inputStream;
+
+    private final long startTimeMs;
+
+    /**
+     * The port names of the current session, by port ID.
+     */
+    private final Map<Integer, String> portNames = new HashMap<>();
+
+    private long timestampNs = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * Opens a capture file and reads its header.
+     *
+     * @throws CaptureFormatException If the file is not a capture file.
+     * @throws IOException If the file could not be read.
+     */
+    public CaptureReader(File file) throws IOException {
+        inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE_BYTES));
+
+        try {
+            final int firstByte = inputStream.read();
+            if (firstByte == -1)
+                throw new CaptureFormatException("Capture file is empty.");
+            startTimeMs = CaptureFormat.readHeader(inputStream, firstByte);
+        } catch (EOFException e) {
+            inputStream.close();
+            throw new CaptureFormatException("Not a NinjaTerm capture file.");
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The wall-clock time (in milliseconds since the epoch) the first session in the file was started at.
+     */
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    /**
+     * @return The next record, or null if there are no more records.
+     * @throws CaptureFormatException If the file is not valid, or ends part way through a record.
+     * @throws IOException If the file could not be read.
+     */
+    public CaptureRecord read() throws IOException {
+
+        while (true) {
+            final int recordType = inputStream.read();
+            if (recordType == -1)
+                return null;
+
+            try {
+                if (recordType == CaptureFormat.MAGIC[0]) {
+                    // The start of another session. Port IDs start again, but time carries on
+                    CaptureFormat.readHeader(inputStream, recordType);
+                    portNames.clear();
+                    continue;
+                }
+
+                switch (recordType) {
+                    case CaptureFormat.RECORD_TYPE_PORT: {
+                        final int portId = CaptureFormat.readVarInt(inputStream);
+                        final byte[] name = CaptureFormat.readBytes(inputStream, CaptureFormat.readVarInt(inputStream));
+                        portNames.put(portId, new String(name, StandardCharsets.UTF_8));
+                        break;
+                    }
+                    case CaptureFormat.RECORD_TYPE_DATA: {
+                        timestampNs += CaptureFormat.readVarLong(inputStream);
+
+                        final CaptureDirections direction = CaptureDirections.fromCode(inputStream.readUnsignedByte());
+                        if (direction == null)
+                            throw new CaptureFormatException("Capture file contains an unknown direction.");
+
+                        final String port = portNames.get(CaptureFormat.readVarInt(inputStream));
+                        if (port == null)
+                            throw new CaptureFormatException("Capture file contains an unknown port.");
+
+                        final byte[] data = CaptureFormat.readBytes(inputStream, CaptureFormat.readVarInt(inputStream));
+                        return new CaptureRecord(timestampNs, direction, port, data);
+                    }
+                    default:
+                        throw new CaptureFormatException("Capture file contains an unknown record type (" + recordType + ").");
+                }
+            } catch (EOFException e) {
+                throw new CaptureFormatException("Capture file is truncated.");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
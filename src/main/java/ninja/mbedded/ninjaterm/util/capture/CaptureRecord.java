@@ -0,0 +1,32 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+/**
+ * A single chunk of data sent or received on a port, as stored in a capture file.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureRecord {
+
+    /**
+     * The (monotonic) time the data was sent or received, relative to the start of the capture.
+     */
+    public final long timestampNs;
+
+    public final CaptureDirections direction;
+
+    /**
+     * The name of the port the data was sent or received on, e.g. "COM1".
+     */
+    public final String port;
+
+    public final byte[] data;
+
+    public CaptureRecord(long timestampNs, CaptureDirections direction, String port, byte[] data) {
+        this.timestampNs = timestampNs;
+        this.direction = direction;
+        this.port = port;
+        this.data = data;
+    }
+}
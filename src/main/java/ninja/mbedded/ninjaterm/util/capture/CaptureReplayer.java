@@ -0,0 +1,280 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import javafx.application.Platform;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the RX data in a capture file into a <code>{@link ReplaySink}</code>, either with the original timing
+ * (optionally sped up), or as fast as the sink can take it. TX records are skipped.
+ *
+ * The file is read on a background thread. RX data is passed to the sink on the UI thread in batches: records due
+ * within <code>MIN_WAIT_NS</code> of each other are joined together, and at max. speed batches are up to
+ * <code>MAX_BATCH_SIZE_BYTES</code>. Only <code>MAX_NUM_BATCHES_IN_FLIGHT</code> batches are passed to the UI
+ * thread at once, so a fast replay is paced by how quickly the sink processes the data, rather than flooding the UI
+ * thread.
+ *
+ * Only one capture can be replayed at a time. <code>start()</code> and <code>stop()</code> must be called from the
+ * UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureReplayer {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * Pass this as the speed to replay as fast as possible.
+     */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    static final int MAX_BATCH_SIZE_BYTES = 64 * 1024;
+
+    /**
+     * Records due within this time of each other are passed to the sink together.
+     */
+    private static final long MIN_WAIT_NS = 1000000L;
+
+    private static final int MAX_NUM_BATCHES_IN_FLIGHT = 2;
+
+    /**
+     * The min. time between progress updates while running.
+     */
+    private static final long PROGRESS_UPDATE_PERIOD_NS = 100000000L;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final ReplaySink replaySink;
+
+    /**
+     * Used to pass RX data and progress back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    /**
+     * Set on the UI thread when a replay is started, and cleared on the replay thread when it is done.
+     */
+    private volatile boolean isRunning = false;
+
+    private volatile boolean isStopRequested = false;
+
+    private Thread replayThread;
+
+    /**
+     * Only accessed from the replay thread.
+     */
+    private ReplayProgressListener replayProgressListener;
+    private Semaphore batchesInFlight;
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private long batchStartTimeNs;
+    private long startTimeNs;
+    private long lastProgressTimeNs;
+    private long numRecordsReplayed;
+    private long numBytesReplayed;
+    private long captureTimeNs;
+    private long maxLagNs;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public CaptureReplayer(ReplaySink replaySink) {
+        this.replaySink = replaySink;
+    }
+
+    /**
+     * Starts replaying a capture file in the background.
+     *
+     * @param file                      The capture file.
+     * @param speed                     How many times faster than real-time to replay the capture, or
+     *                                  <code>MAX_SPEED</code>.
+     * @param replayProgressListener    Called on the UI thread as the capture is replayed. The last call has a
+     *                                  "done" state.
+     * @throws IOException If the file could not be opened, or is not a capture file.
+     * @throws IllegalStateException If a capture is already being replayed.
+     */
+    public void start(File file, double speed, ReplayProgressListener replayProgressListener) throws IOException {
+        if (isRunning)
+            throw new IllegalStateException("A capture is already being replayed.");
+        if (!(speed > 0.0))
+            throw new IllegalArgumentException("speed must be greater than 0.");
+
+        final CaptureReader captureReader = new CaptureReader(file);
+
+        isRunning = true;
+        isStopRequested = false;
+
+        replayThread = new Thread(() -> runReplay(captureReader, speed, replayProgressListener), "CaptureReplayer");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    /**
+     * Stops the replay (if any). The progress listener is called with the <code>CANCELLED</code> state.
+     */
+    public void stop() {
+        isStopRequested = true;
+        LockSupport.unpark(replayThread);
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    private void runReplay(CaptureReader captureReader, double speed, ReplayProgressListener replayProgressListener) {
+
+        this.replayProgressListener = replayProgressListener;
+        batchesInFlight = new Semaphore(MAX_NUM_BATCHES_IN_FLIGHT);
+        batch.reset();
+        startTimeNs = System.nanoTime();
+        lastProgressTimeNs = startTimeNs;
+        numRecordsReplayed = 0;
+        numBytesReplayed = 0;
+        captureTimeNs = 0;
+        maxLagNs = 0;
+
+        ReplayProgress.States state;
+        String errorMsg = null;
+        try (CaptureReader reader = captureReader) {
+            replayRecords(reader, speed);
+            state = ReplayProgress.States.FINISHED;
+        } catch (IOException e) {
+            state = ReplayProgress.States.FAILED;
+            errorMsg = e.getMessage();
+        }
+
+        // Whatever was read before a failure is still replayed
+        flushBatch();
+
+        if (isStopRequested)
+            state = ReplayProgress.States.CANCELLED;
+
+        // Cleared before the last progress update, so that the listener can start another replay
+        isRunning = false;
+
+        postProgress(state, errorMsg);
+        this.replayProgressListener = null;
+    }
+
+    /**
+     * Replays records until the end of the file, or until stopped.
+     */
+    private void replayRecords(CaptureReader reader, double speed) throws IOException {
+
+        CaptureRecord record;
+        while (!isStopRequested && (record = reader.read()) != null) {
+
+            captureTimeNs = record.timestampNs;
+            if (record.direction != CaptureDirections.RX)
+                continue;
+
+            if (speed != MAX_SPEED) {
+                final long dueTimeNs = startTimeNs + (long) (record.timestampNs / speed);
+                final long nowNs = System.nanoTime();
+
+                if (dueTimeNs - nowNs > MIN_WAIT_NS || (batch.size() != 0 && nowNs - batchStartTimeNs >= MIN_WAIT_NS))
+                    flushBatch();
+
+                if (dueTimeNs - nowNs > MIN_WAIT_NS && !waitUntil(dueTimeNs))
+                    return;
+
+                maxLagNs = Math.max(maxLagNs, System.nanoTime() - dueTimeNs);
+            }
+
+            if (batch.size() == 0)
+                batchStartTimeNs = System.nanoTime();
+            batch.write(record.data, 0, record.data.length);
+            numRecordsReplayed++;
+            numBytesReplayed += record.data.length;
+
+            if (batch.size() >= MAX_BATCH_SIZE_BYTES)
+                flushBatch();
+
+            postProgressIfDue();
+        }
+    }
+
+    /**
+     * @return False if the replay was stopped while waiting.
+     */
+    private boolean waitUntil(long dueTimeNs) {
+        while (true) {
+            final long remainingNs = dueTimeNs - System.nanoTime();
+            if (remainingNs <= 0)
+                return true;
+            if (isStopRequested)
+                return false;
+
+            LockSupport.parkNanos(this, Math.min(remainingNs, PROGRESS_UPDATE_PERIOD_NS));
+            postProgressIfDue();
+        }
+    }
+
+    /**
+     * Passes the batched data to the sink on the UI thread. Waits first if too many batches are already waiting to
+     * be processed.
+     */
+    private void flushBatch() {
+        if (batch.size() == 0)
+            return;
+
+        final byte[] data = batch.toByteArray();
+        batch.reset();
+
+        final Semaphore currBatchesInFlight = batchesInFlight;
+        try {
+            while (!currBatchesInFlight.tryAcquire(PROGRESS_UPDATE_PERIOD_NS, TimeUnit.NANOSECONDS)) {
+                if (isStopRequested)
+                    return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // The data is also thrown away if the replay is stopped (or replaced by another one) before the UI thread
+        // gets to it
+        final Thread currReplayThread = Thread.currentThread();
+        uiThreadExecutor.execute(() -> {
+            try {
+                if (!isStopRequested && replayThread == currReplayThread)
+                    replaySink.run(data);
+            } finally {
+                currBatchesInFlight.release();
+            }
+        });
+    }
+
+    private void postProgressIfDue() {
+        final long nowNs = System.nanoTime();
+        if (nowNs - lastProgressTimeNs >= PROGRESS_UPDATE_PERIOD_NS) {
+            postProgress(ReplayProgress.States.RUNNING, null);
+            lastProgressTimeNs = nowNs;
+        }
+    }
+
+    private void postProgress(ReplayProgress.States state, String errorMsg) {
+        final ReplayProgress replayProgress = new ReplayProgress(
+                state,
+                numRecordsReplayed,
+                numBytesReplayed,
+                captureTimeNs / 1000000.0,
+                (System.nanoTime() - startTimeNs) / 1000000.0,
+                maxLagNs / 1000000.0,
+                errorMsg);
+        final ReplayProgressListener listener = replayProgressListener;
+        uiThreadExecutor.execute(() -> listener.run(replayProgress));
+    }
+}
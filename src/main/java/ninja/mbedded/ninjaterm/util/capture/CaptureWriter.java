@@ -0,0 +1,265 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import javafx.application.Platform;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes timestamped TX/RX data to a binary capture file (see <code>{@link CaptureFormat}</code>) on a background
+ * thread.
+ *
+ * <code>append()</code> timestamps the data and adds it to a lock-free queue, so it never blocks and can be called
+ * straight from the COM port's threads. The writer thread writes queued records through a buffer, which is flushed
+ * to the file every <code>FLUSH_PERIOD_NS</code>. If the writer can not keep up and the backlog reaches
+ * <code>maxBacklogBytes</code>, new data is dropped (and counted) rather than using up all memory.
+ *
+ * Each writer can only be opened once. <code>open()</code> and <code>close()</code> must be called from the
+ * UI thread, <code>append()</code> can be called from any thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureWriter {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. time appended data waits for before being flushed to the file. Statistics are updated at the same rate.
+     */
+    static final long FLUSH_PERIOD_NS = 250000000L;
+
+    /**
+     * Once this many bytes are queued, the writer thread is woken up to write them, rather than waiting for the
+     * flush period.
+     */
+    private static final int WAKE_UP_SIZE_BYTES = 64 * 1024;
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * New data is dropped once this many bytes are waiting to be written. Can be changed in unit tests.
+     */
+    long maxBacklogBytes = 64L * 1024 * 1024;
+
+    /**
+     * Used to pass statistics back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    private final ConcurrentLinkedQueue<CaptureRecord> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong backlogBytes = new AtomicLong(0);
+
+    private final AtomicLong numBytesDropped = new AtomicLong(0);
+
+    private volatile boolean isCloseRequested = false;
+
+    private Thread writerThread;
+
+    /**
+     * The time all timestamps are relative to.
+     */
+    private long startTimeNs;
+
+    /**
+     * Only accessed from the writer thread (after <code>open()</code>).
+     */
+    private DataOutputStream outputStream;
+    private CaptureWriterStatsListener captureWriterStatsListener;
+    private final Map<String, Integer> portIds = new HashMap<>();
+    private long lastTimestampNs = 0;
+    private long oldestUnflushedTimestampNs = -1;
+    private long numRecordsWritten = 0;
+    private long numBytesWritten = 0;
+    private long lastWriteLatencyNs = 0;
+    private long maxWriteLatencyNs = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public CaptureWriter() {
+    }
+
+    /**
+     * Opens the file, writes the session header and starts the writer thread.
+     *
+     * @param file                          The capture file.
+     * @param isAppend                      If true, a new session is added to the end of the file, otherwise
+     *                                      the file is overwritten.
+     * @param captureWriterStatsListener    Called on the UI thread with the writer's statistics. The last call has
+     *                                      a "done" state.
+     * @throws IOException If the file could not be opened.
+     */
+    public void open(File file, boolean isAppend, CaptureWriterStatsListener captureWriterStatsListener) throws IOException {
+        if (writerThread != null)
+            throw new IllegalStateException("CaptureWriter can only be opened once.");
+
+        outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, isAppend), BUFFER_SIZE_BYTES));
+        try {
+            CaptureFormat.writeHeader(outputStream, System.currentTimeMillis());
+        } catch (IOException e) {
+            outputStream.close();
+            throw e;
+        }
+        startTimeNs = System.nanoTime();
+        this.captureWriterStatsListener = captureWriterStatsListener;
+
+        writerThread = new Thread(this::runWriter, "CaptureWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Timestamps data and queues it to be written to the file. Never blocks.
+     *
+     * @param direction The direction the data was sent in.
+     * @param port      The name of the port the data was sent or received on.
+     * @param data      The data. This is copied, so the caller can re-use the array.
+     */
+    public void append(CaptureDirections direction, String port, byte[] data) {
+        if (isCloseRequested || data.length == 0)
+            return;
+
+        final long timestampNs = System.nanoTime() - startTimeNs;
+
+        final long newBacklogBytes = backlogBytes.addAndGet(data.length);
+        if (newBacklogBytes > maxBacklogBytes) {
+            backlogBytes.addAndGet(-data.length);
+            numBytesDropped.addAndGet(data.length);
+            return;
+        }
+
+        queue.add(new CaptureRecord(timestampNs, direction, (port == null) ? "" : port, data.clone()));
+
+        if (newBacklogBytes >= WAKE_UP_SIZE_BYTES && newBacklogBytes - data.length < WAKE_UP_SIZE_BYTES)
+            LockSupport.unpark(writerThread);
+    }
+
+    /**
+     * Writes any queued data, closes the file and stops the writer thread. Does not wait for this to happen. The
+     * statistics listener is called one last time with the <code>CLOSED</code> state (or <code>FAILED</code> if
+     * the queued data could not be written).
+     */
+    public void close() {
+        isCloseRequested = true;
+        LockSupport.unpark(writerThread);
+    }
+
+    private void runWriter() {
+
+        long lastFlushTimeNs = System.nanoTime();
+
+        try {
+            while (true) {
+                final boolean isClosing = isCloseRequested;
+
+                CaptureRecord record;
+                while ((record = queue.poll()) != null) {
+                    writeRecord(record);
+                }
+
+                final long nowNs = System.nanoTime();
+                if (isClosing || nowNs - lastFlushTimeNs >= FLUSH_PERIOD_NS) {
+                    flush();
+                    lastFlushTimeNs = nowNs;
+                    if (isClosing)
+                        break;
+                    postStats(CaptureWriterStats.States.OPEN, null);
+                }
+
+                LockSupport.parkNanos(this, Math.max(lastFlushTimeNs + FLUSH_PERIOD_NS - System.nanoTime(), 1));
+            }
+
+            outputStream.close();
+        } catch (IOException e) {
+            try {
+                outputStream.close();
+            } catch (IOException closeException) {
+                // The original error is the one worth reporting
+            }
+            isCloseRequested = true;
+            queue.clear();
+            backlogBytes.set(0);
+            postStats(CaptureWriterStats.States.FAILED, e.getMessage());
+            return;
+        }
+
+        postStats(CaptureWriterStats.States.CLOSED, null);
+    }
+
+    private void writeRecord(CaptureRecord record) throws IOException {
+
+        Integer portId = portIds.get(record.port);
+        if (portId == null) {
+            portId = portIds.size();
+            portIds.put(record.port, portId);
+
+            final byte[] name = record.port.getBytes(StandardCharsets.UTF_8);
+            outputStream.writeByte(CaptureFormat.RECORD_TYPE_PORT);
+            CaptureFormat.writeVarLong(outputStream, portId);
+            CaptureFormat.writeVarLong(outputStream, name.length);
+            outputStream.write(name);
+        }
+
+        // Data appended from different threads can be queued slightly out of order, and time must
+        // never go backwards in the file
+        final long timestampNs = Math.max(record.timestampNs, lastTimestampNs);
+
+        outputStream.writeByte(CaptureFormat.RECORD_TYPE_DATA);
+        CaptureFormat.writeVarLong(outputStream, timestampNs - lastTimestampNs);
+        outputStream.writeByte(record.direction.code);
+        CaptureFormat.writeVarLong(outputStream, portId);
+        CaptureFormat.writeVarLong(outputStream, record.data.length);
+        outputStream.write(record.data);
+
+        lastTimestampNs = timestampNs;
+        if (oldestUnflushedTimestampNs < 0)
+            oldestUnflushedTimestampNs = record.timestampNs;
+
+        backlogBytes.addAndGet(-record.data.length);
+        numRecordsWritten++;
+        numBytesWritten += record.data.length;
+    }
+
+    private void flush() throws IOException {
+        outputStream.flush();
+
+        if (oldestUnflushedTimestampNs >= 0) {
+            lastWriteLatencyNs = System.nanoTime() - startTimeNs - oldestUnflushedTimestampNs;
+            maxWriteLatencyNs = Math.max(maxWriteLatencyNs, lastWriteLatencyNs);
+            oldestUnflushedTimestampNs = -1;
+        }
+    }
+
+    private void postStats(CaptureWriterStats.States state, String errorMsg) {
+        final CaptureWriterStats captureWriterStats = new CaptureWriterStats(
+                state,
+                backlogBytes.get(),
+                numRecordsWritten,
+                numBytesWritten,
+                numBytesDropped.get(),
+                lastWriteLatencyNs / 1000000.0,
+                maxWriteLatencyNs / 1000000.0,
+                errorMsg);
+        uiThreadExecutor.execute(() -> captureWriterStatsListener.run(captureWriterStats));
+    }
+}
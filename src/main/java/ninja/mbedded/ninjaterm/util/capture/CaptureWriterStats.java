@@ -0,0 +1,67 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+/**
+ * A snapshot of the statistics of a <code>{@link CaptureWriter}</code>.
+ *
+ * The write latency is the time from when the oldest record in a flush was appended to when it was flushed to the
+ * capture file.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class CaptureWriterStats {
+
+    public enum States {
+        OPEN,
+        CLOSED,
+        FAILED,
+    }
+
+    public final States state;
+
+    /**
+     * The number of data bytes which have been appended but not written yet.
+     */
+    public final long backlogBytes;
+
+    public final long numRecordsWritten;
+
+    /**
+     * The number of data bytes written (not including the record headers).
+     */
+    public final long numBytesWritten;
+
+    /**
+     * The number of data bytes which were thrown away because the backlog was full.
+     */
+    public final long numBytesDropped;
+
+    public final double lastWriteLatencyMs;
+
+    public final double maxWriteLatencyMs;
+
+    /**
+     * Describes why writing failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public CaptureWriterStats(States state, long backlogBytes, long numRecordsWritten, long numBytesWritten,
+                              long numBytesDropped, double lastWriteLatencyMs, double maxWriteLatencyMs, String errorMsg) {
+        this.state = state;
+        this.backlogBytes = backlogBytes;
+        this.numRecordsWritten = numRecordsWritten;
+        this.numBytesWritten = numBytesWritten;
+        this.numBytesDropped = numBytesDropped;
+        this.lastWriteLatencyMs = lastWriteLatencyMs;
+        this.maxWriteLatencyMs = maxWriteLatencyMs;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last update for the writer.
+     */
+    public boolean isDone() {
+        return state == States.CLOSED || state == States.FAILED;
+    }
+}
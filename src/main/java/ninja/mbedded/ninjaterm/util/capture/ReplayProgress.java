@@ -0,0 +1,65 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+/**
+ * A snapshot of the progress of a <code>{@link CaptureReplayer}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ReplayProgress {
+
+    public enum States {
+        RUNNING,
+        FINISHED,
+        CANCELLED,
+        FAILED,
+    }
+
+    public final States state;
+
+    /**
+     * The number of RX records replayed so far. TX records are skipped and not counted.
+     */
+    public final long numRecordsReplayed;
+
+    public final long numBytesReplayed;
+
+    /**
+     * How far through the capture the replay is, in capture time.
+     */
+    public final double captureTimeMs;
+
+    /**
+     * How long the replay has been running for, in real time.
+     */
+    public final double elapsedTimeMs;
+
+    /**
+     * The most any record was replayed behind its due time. Only meaningful when not replaying at max. speed.
+     */
+    public final double maxLagMs;
+
+    /**
+     * Describes why the replay failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public ReplayProgress(States state, long numRecordsReplayed, long numBytesReplayed, double captureTimeMs,
+                          double elapsedTimeMs, double maxLagMs, String errorMsg) {
+        this.state = state;
+        this.numRecordsReplayed = numRecordsReplayed;
+        this.numBytesReplayed = numBytesReplayed;
+        this.captureTimeMs = captureTimeMs;
+        this.elapsedTimeMs = elapsedTimeMs;
+        this.maxLagMs = maxLagMs;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last update for the replay.
+     */
+    public boolean isDone() {
+        return state != States.RUNNING;
+    }
+}
@@ -0,0 +1,12 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+/**
+ * Where a <code>{@link CaptureReplayer}</code> sends replayed RX data. Always called on the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface ReplaySink {
+    void run(byte[] rxData);
+}
@@ -8,6 +8,7 @@ import ninja.mbedded.ninjaterm.util.rxProcessing.Decoding.BytesToString;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Object that represents a single COM port.
@@ -17,7 +18,7 @@ import java.util.List;
  * the future, and this means the code changes just have to occur in this file.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-22
+ * @last-modified 2026-10-18
  * @since 2016-07-16
  */
 public class ComPort {
@@ -60,9 +61,60 @@ public class ComPort {
         return numStopBits;
     }
 
+    /**
+     * @return The max. number of bytes per second that can be sent with the current parameters (the "line rate").
+     */
+    public double getLineRateBytesPerSecond() {
+
+        // Every byte is framed by a start bit, an optional parity bit, and the stop bits
+        double numBitsPerByte = 1.0;
+
+        switch (numDataBits) {
+            case FIVE:
+                numBitsPerByte += 5;
+                break;
+            case SIX:
+                numBitsPerByte += 6;
+                break;
+            case SEVEN:
+                numBitsPerByte += 7;
+                break;
+            case EIGHT:
+                numBitsPerByte += 8;
+                break;
+            default:
+                throw new RuntimeException("numDataBits not recognised.");
+        }
+
+        if (parity != Parities.NONE)
+            numBitsPerByte += 1;
+
+        switch (numStopBits) {
+            case ONE:
+                numBitsPerByte += 1;
+                break;
+            case ONE_POINT_FIVE:
+                numBitsPerByte += 1.5;
+                break;
+            case TWO:
+                numBitsPerByte += 2;
+                break;
+            default:
+                throw new RuntimeException("numStopBits not recognised.");
+        }
+
+        return baudRate / numBitsPerByte;
+    }
+
     private List<OnRxDataListener> onRxDataListeners;
     public List<OnRxDataListener> getOnRxDataListeners() { return onRxDataListeners; }
 
+    /**
+     * Called with all data sent with <code>sendData()</code>, from whichever thread sent it.
+     */
+    private List<OnTxDataListener> onTxDataListeners = new CopyOnWriteArrayList<>();
+    public List<OnTxDataListener> getOnTxDataListeners() { return onTxDataListeners; }
+
     private Thread rxWorkerThread;
     private RxWorker rxWorker;
 
@@ -285,7 +337,9 @@ public class ComPort {
     }
 
     public void sendData(byte[] data) {
-        logger.debug("sendData() called with data = " + BytesToString.bytesToHex(data));
+        // Converting to hex is slow for large sends, so only do it if it will be logged
+        if (logger.isDebugEnabled())
+            logger.debug("sendData() called with data = " + BytesToString.bytesToHex(data));
 
         // Send the data to the serial port library
         try {
@@ -293,6 +347,10 @@ public class ComPort {
         } catch (SerialPortException e) {
             throw new RuntimeException(e);
         }
+
+        for (OnTxDataListener onTxDataListener : onTxDataListeners) {
+            onTxDataListener.run(data);
+        }
     }
 
     public void close() throws ComPortException {
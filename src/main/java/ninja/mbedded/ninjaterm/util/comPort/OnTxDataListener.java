@@ -0,0 +1,14 @@
+package ninja.mbedded.ninjaterm.util.comPort;
+
+/**
+ * Listeners for when TX data is sent. Called on whichever thread sent the data.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public interface OnTxDataListener {
+
+    void run(byte[] txData);
+
+}
@@ -6,9 +6,9 @@ import jssc.SerialPortException;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * An RX worker is used because the to gather RX data so that we have complete
@@ -20,7 +20,7 @@ import java.util.List;
  * This worker can be stopped with stopRunning().
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2017-01-30
+ * @last-modified 2026-10-18
  * @since 2017-01-30
  */
 public class RxWorker implements Runnable {
@@ -38,9 +38,10 @@ public class RxWorker implements Runnable {
     public jssc.SerialPort serialPort;
 
     /**
-     * Listeners which will be called when RX data is received.
+     * Listeners which will be called when RX data is received. Listeners can be added and removed from
+     * other threads while this worker is running.
      */
-    public List<OnRxDataListener> onRxDataListeners = new ArrayList<>();
+    public List<OnRxDataListener> onRxDataListeners = new CopyOnWriteArrayList<>();
 
     /**
      * run() checks this to see when it should return. This needs to be volatile
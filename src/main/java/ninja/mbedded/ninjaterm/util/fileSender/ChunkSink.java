@@ -0,0 +1,17 @@
+package ninja.mbedded.ninjaterm.util.fileSender;
+
+/**
+ * Receives the chunks of a file being sent by a <code>{@link FileSender}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface ChunkSink {
+
+    /**
+     * Called on the file sender's background thread. The array may be re-used for the next chunk once this returns,
+     * so it must not be kept.
+     */
+    void send(byte[] chunk);
+}
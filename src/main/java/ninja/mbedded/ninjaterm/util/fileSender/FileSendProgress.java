@@ -0,0 +1,49 @@
+package ninja.mbedded.ninjaterm.util.fileSender;
+
+/**
+ * A snapshot of the progress of a file being sent by a <code>{@link FileSender}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FileSendProgress {
+
+    public enum States {
+        SENDING,
+        FINISHED,
+        CANCELLED,
+        FAILED,
+    }
+
+    public final States state;
+
+    public final long numBytesSent;
+
+    public final long totalNumBytes;
+
+    /**
+     * The average throughput since the send was started.
+     */
+    public final double bytesPerSecond;
+
+    /**
+     * Describes why the send failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public FileSendProgress(States state, long numBytesSent, long totalNumBytes, double bytesPerSecond, String errorMsg) {
+        this.state = state;
+        this.numBytesSent = numBytesSent;
+        this.totalNumBytes = totalNumBytes;
+        this.bytesPerSecond = bytesPerSecond;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last progress update for the send.
+     */
+    public boolean isDone() {
+        return state != States.SENDING;
+    }
+}
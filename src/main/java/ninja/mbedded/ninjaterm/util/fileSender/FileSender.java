@@ -0,0 +1,216 @@
+package ninja.mbedded.ninjaterm.util.fileSender;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams a file to a <code>{@link ChunkSink}</code> (normally a COM port) on a background thread.
+ *
+ * The file is memory-mapped a window at a time and copied out in fixed size chunks, so files of any size can be
+ * sent without loading them onto the heap. An optional delay can be inserted after every chunk and after every
+ * new line char, for devices which cannot keep up with data sent at the full baud rate. Progress is passed back to the
+ * UI thread a few times a second.
+ *
+ * Only one file can be sent at a time. <code>send()</code> and <code>cancel()</code> must be called from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FileSender {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. size of the part of the file which is mapped into memory at once.
+     */
+    static final long MAP_WINDOW_SIZE_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * The min. time between progress updates while sending.
+     */
+    private static final long PROGRESS_UPDATE_PERIOD_MS = 100;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final ChunkSink chunkSink;
+
+    /**
+     * Runs the sends. Can be replaced in unit tests.
+     */
+    Executor sendExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FileSender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Used to pass progress back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    /**
+     * Notified when the send is cancelled, so that any delay in progress ends early.
+     */
+    private final Object cancelLock = new Object();
+
+    private volatile boolean isCancelRequested = false;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public FileSender(ChunkSink chunkSink) {
+        this.chunkSink = chunkSink;
+    }
+
+    /**
+     * Starts sending a file in the background.
+     *
+     * @param file                      The file to send.
+     * @param chunkSizeBytes            The max. number of bytes passed to the chunk sink at once. Must be > 0.
+     * @param chunkDelayMs              The time to wait after each chunk is sent.
+     * @param lineDelayMs               The time to wait after each new line char ('\n') is sent. If this is > 0,
+     *                                  chunks are also ended at each new line char.
+     * @param fileSendProgressListener  Called on the UI thread as the file is sent. The last call has a "done" state.
+     */
+    public void send(File file, int chunkSizeBytes, int chunkDelayMs, int lineDelayMs, FileSendProgressListener fileSendProgressListener) {
+
+        if (chunkSizeBytes <= 0)
+            throw new IllegalArgumentException("chunkSizeBytes must be greater than 0.");
+
+        isCancelRequested = false;
+
+        sendExecutor.execute(() -> sendOnThisThread(file, chunkSizeBytes, chunkDelayMs, lineDelayMs, fileSendProgressListener));
+    }
+
+    /**
+     * Stops the current send after the chunk being sent (if any). The progress listener is called with the
+     * <code>CANCELLED</code> state.
+     */
+    public void cancel() {
+        synchronized (cancelLock) {
+            isCancelRequested = true;
+            cancelLock.notifyAll();
+        }
+    }
+
+    private void sendOnThisThread(File file, int chunkSizeBytes, int chunkDelayMs, int lineDelayMs, FileSendProgressListener fileSendProgressListener) {
+
+        final long startTimeMs = System.currentTimeMillis();
+        long lastProgressTimeMs = startTimeMs;
+
+        long totalNumBytes = 0;
+        long numBytesSent = 0;
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            totalNumBytes = fileChannel.size();
+
+            final byte[] chunk = new byte[chunkSizeBytes];
+
+            for (long windowStart = 0; windowStart < totalNumBytes; windowStart += MAP_WINDOW_SIZE_BYTES) {
+
+                final MappedByteBuffer window = fileChannel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        windowStart,
+                        Math.min(MAP_WINDOW_SIZE_BYTES, totalNumBytes - windowStart));
+
+                while (window.hasRemaining()) {
+
+                    if (isCancelRequested) {
+                        postProgress(FileSendProgress.States.CANCELLED, numBytesSent, totalNumBytes, startTimeMs, null, fileSendProgressListener);
+                        return;
+                    }
+
+                    int numBytes = Math.min(chunkSizeBytes, window.remaining());
+                    window.get(chunk, 0, numBytes);
+
+                    // End the chunk at the first new line char, and put the rest back for the next chunk
+                    boolean isEndOfLine = false;
+                    if (lineDelayMs > 0) {
+                        for (int i = 0; i < numBytes; i++) {
+                            if (chunk[i] == '\n') {
+                                window.position(window.position() - (numBytes - (i + 1)));
+                                numBytes = i + 1;
+                                isEndOfLine = true;
+                                break;
+                            }
+                        }
+                    }
+
+                    chunkSink.send((numBytes == chunk.length) ? chunk : Arrays.copyOf(chunk, numBytes));
+                    numBytesSent += numBytes;
+
+                    final long nowMs = System.currentTimeMillis();
+                    if (nowMs - lastProgressTimeMs >= PROGRESS_UPDATE_PERIOD_MS) {
+                        postProgress(FileSendProgress.States.SENDING, numBytesSent, totalNumBytes, startTimeMs, null, fileSendProgressListener);
+                        lastProgressTimeMs = nowMs;
+                    }
+
+                    // No need to wait after the last chunk
+                    if (numBytesSent < totalNumBytes)
+                        waitFor(chunkDelayMs + (isEndOfLine ? lineDelayMs : 0));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            postProgress(FileSendProgress.States.FAILED, numBytesSent, totalNumBytes, startTimeMs, e.getMessage(), fileSendProgressListener);
+            return;
+        }
+
+        postProgress(FileSendProgress.States.FINISHED, numBytesSent, totalNumBytes, startTimeMs, null, fileSendProgressListener);
+    }
+
+    /**
+     * Waits for the provided time, returning early if the send is cancelled.
+     */
+    private void waitFor(long delayMs) {
+        if (delayMs <= 0)
+            return;
+
+        final long endTimeMs = System.currentTimeMillis() + delayMs;
+        synchronized (cancelLock) {
+            long remainingMs = delayMs;
+            while (remainingMs > 0 && !isCancelRequested) {
+                try {
+                    cancelLock.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                remainingMs = endTimeMs - System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void postProgress(
+            FileSendProgress.States state,
+            long numBytesSent,
+            long totalNumBytes,
+            long startTimeMs,
+            String errorMsg,
+            FileSendProgressListener fileSendProgressListener) {
+
+        final long elapsedTimeMs = Math.max(System.currentTimeMillis() - startTimeMs, 1);
+        final FileSendProgress fileSendProgress = new FileSendProgress(
+                state,
+                numBytesSent,
+                totalNumBytes,
+                numBytesSent * 1000.0 / elapsedTimeMs,
+                errorMsg);
+
+        uiThreadExecutor.execute(() -> fileSendProgressListener.run(fileSendProgress));
+    }
+}
@@ -0,0 +1,109 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPane;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+
+import java.util.Collections;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Decides when, and how much, to trim from the start of a COM data pane's display buffer.
+ *
+ * Trimming uses a high and low watermark. Nothing is trimmed until the buffer exceeds the high watermark,
+ * and then enough is trimmed to bring it down to the low watermark. This means the (relatively expensive)
+ * trim and re-layout happens once every few thousand chars, rather than on every packet once the buffer
+ * is full. Trims are rounded up to the end of a line where possible, so that whole lines are removed.
+ *
+ * Also limits the data a pane holds on to while it's rendering is paused (see
+ * <code>truncatePendingData()</code>).
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class BufferTrimPolicy {
+
+    /**
+     * The buffer is trimmed once the number of chars exceeds this fraction of the buffer size.
+     */
+    public static final double HIGH_WATERMARK = 1.0;
+
+    /**
+     * When the buffer is trimmed, it is trimmed down to this fraction of the buffer size.
+     */
+    public static final double LOW_WATERMARK = 0.8;
+
+    /**
+     * @param numChars   The number of chars currently in the buffer.
+     * @param bufferSize The buffer size set by the user.
+     * @return The min. number of chars to remove from the start of the buffer. This is 0 until the
+     *          high watermark is exceeded.
+     */
+    public static int getNumCharsToTrim(int numChars, int bufferSize) {
+        if (numChars <= (long) (bufferSize * HIGH_WATERMARK))
+            return 0;
+
+        return numChars - (int) (bufferSize * LOW_WATERMARK);
+    }
+
+    /**
+     * Rounds a trim up so that it ends at the start of a line.
+     *
+     * @param numCharsToTrim  The min. number of chars to trim, as returned by <code>getNumCharsToTrim()</code>.
+     * @param numLines        The number of lines in the buffer.
+     * @param lineLength      Returns the length of a line (not including the new line char) given its index.
+     * @return The number of chars to trim, including one new line char for every line removed. If the trim ends
+     *          in the last line, <code>numCharsToTrim</code> is returned unchanged.
+     */
+    public static int roundUpToLineEnd(int numCharsToTrim, int numLines, IntUnaryOperator lineLength) {
+        if (numCharsToTrim <= 0)
+            return 0;
+
+        int lineStart = 0;
+        // The last line has no new line char after it, so it can't be removed whole
+        for (int lineIndex = 0; lineIndex < numLines - 1; lineIndex++) {
+            lineStart += lineLength.applyAsInt(lineIndex) + 1;
+            if (lineStart >= numCharsToTrim)
+                return lineStart;
+        }
+
+        return numCharsToTrim;
+    }
+
+    /**
+     * Throws away the start of data which is waiting to be rendered if there is more than a whole buffer of it, as
+     * it would be trimmed as soon as it was rendered. This stops the pending data from growing without bound while
+     * rendering is paused.
+     *
+     * If a colour was set in the thrown away data, a colour marker is added to the start of the kept data, so it is
+     * still rendered in the right colour.
+     *
+     * @param pendingData The data waiting to be rendered.
+     * @param bufferSize  The buffer size set by the user.
+     * @return True if data was thrown away. All data already displayed in the pane should then be removed before
+     *          the pending data is rendered, as it would have been trimmed.
+     */
+    public static boolean truncatePendingData(StreamedData pendingData, int bufferSize) {
+
+        final int numCharsToDrop = pendingData.getText().length() - bufferSize;
+        if (numCharsToDrop <= 0)
+            return false;
+
+        StreamedData droppedData = new StreamedData();
+        droppedData.shiftDataIn(pendingData, numCharsToDrop, StreamedData.MarkerBehaviour.NOT_FILTERING);
+
+        ColourMarker lastColourMarker = null;
+        for (Marker marker : droppedData.getMarkers()) {
+            if (marker instanceof ColourMarker)
+                lastColourMarker = (ColourMarker) marker;
+        }
+
+        if (lastColourMarker != null && !pendingData.isColorAt(0)) {
+            pendingData.addMarker(new ColourMarker(0, lastColourMarker.style));
+            Collections.sort(pendingData.getMarkers());
+        }
+
+        return true;
+    }
+}
@@ -1,8 +1,10 @@
 package ninja.mbedded.ninjaterm.util.javafx.comDataPane;
 
+import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
 import javafx.animation.Timeline;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -19,13 +21,25 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
+import ninja.mbedded.ninjaterm.util.rxProcessing.vt100.VT100Screen;
+import ninja.mbedded.ninjaterm.util.search.ScrollbackSearch;
+import ninja.mbedded.ninjaterm.util.search.SearchHits;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CharacterHit;
-import org.fxmisc.richtext.InlineCssTextArea;
 import org.fxmisc.richtext.StyledTextArea;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
 import org.slf4j.Logger;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 
 import static ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData.NEW_LINE_CHAR_SEQUENCE_FOR_TEXT_FLOW;
@@ -39,7 +53,7 @@ import static ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedDat
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-11-14
- * @last-modified 2016-14-16
+ * @last-modified 2026-10-18
  */
 public class ComDataPane extends StackPane {
 
@@ -64,6 +78,29 @@ public class ComDataPane extends StackPane {
      */
     private static final double AUTO_SCROLL_BUTTON_OPACITY_HOVER = 1.0;
 
+    /**
+     * The font family used for all COM data. "Monospaced" is the JavaFX logical font which maps
+     * to the platform's monospace font.
+     */
+    private static final String FONT_FAMILY = "Monospaced";
+
+    /**
+     * The default max. refresh rate. This can be changed with <code>maxRefreshRateHz</code>.
+     */
+    public static final double DEFAULT_MAX_REFRESH_RATE_HZ = 30.0;
+
+    /**
+     * Background colours for search hits.
+     */
+    private static final Color SEARCH_HIT_BACKGROUND_COLOR = Color.rgb(110, 100, 0);
+    private static final Color CURR_SEARCH_HIT_BACKGROUND_COLOR = Color.rgb(210, 120, 0);
+
+    /**
+     * The max. number of search hits which are highlighted at once. Highlighting is a style update over the range
+     * of text covering all highlighted hits, so this keeps the cost bounded when a search matches nearly everywhere.
+     */
+    private static final int MAX_NUM_HIGHLIGHTED_SEARCH_HITS = 10000;
+
     //================================================================================================//
     //=========================================== ENUMS ==============================================//
     //================================================================================================//
@@ -95,16 +132,15 @@ public class ComDataPane extends StackPane {
 
     private VirtualizedScrollPane virtualizedScrollPane;
 
-//    public final StyledTextArea<ParStyle, TextStyle> styledTextArea;
-    public final InlineCssTextArea styledTextArea;
+    public final StyledTextArea<ParStyle, TextStyle> styledTextArea;
 
     private Pane autoScrollButtonPane;
 
     /**
-     * Variable to remember what colour to apply to the next character, since a <code>{@link StyledTextArea}</code>
-     * has no way of adding a colour style to text which does not exist yet.
+     * The SGR style of the last colour marker which was rendered. This is applied to new text until
+     * another colour marker is received.
      */
-    private Color colorToApplyToNextChar = null;
+    private SgrStyle currSgrStyle = SgrStyle.DEFAULT;
 
     public SimpleIntegerProperty bufferSize;
 
@@ -119,10 +155,10 @@ public class ComDataPane extends StackPane {
     public SimpleIntegerProperty currNumChars = new SimpleIntegerProperty(0);
 
     /**
-     * Starts as true. Switches to false as soon as the first colour marker is received and stays false
-     * for the rest of time! (well, until the app closes)
+     * Converts time stamp markers into text. Bind <code>timeStampFormatter.mode</code> and
+     * <code>timeStampFormatter.referenceTime</code> to change how time stamps are displayed.
      */
-    private Boolean defaultTextColorActive = true;
+    public TimeStampFormatter timeStampFormatter = new TimeStampFormatter();
 
     private double fontSizePx = 12.0;
     /**
@@ -132,6 +168,88 @@ public class ComDataPane extends StackPane {
     private Color textColor = Color.GREEN;
     private Color backgroundColor = Color.RED;
 
+    /**
+     * Interned text styles for each SGR style seen so far, so that applying a style to new text is just a
+     * map lookup. This is cleared when the font size or default colours change. It is limited to
+     * <code>TextStyle.MAX_NUM_INTERNED_STYLES</code> entries, after which new styles are converted every time.
+     */
+    private final Map<SgrStyle, TextStyle> textStyles = new HashMap<>();
+
+    /**
+     * True when this pane is displaying an emulated VT100 screen (one paragraph per screen row),
+     * rather than streamed data.
+     */
+    private boolean isShowingScreen = false;
+
+    //==============================================//
+    //=============== FRAME RENDERING ==============//
+    //==============================================//
+
+    /**
+     * The max. number of times per second that new data is rendered into this pane. Data added between
+     * frames is batched together. Set to 0 to render on every JavaFX pulse.
+     */
+    public SimpleDoubleProperty maxRefreshRateHz = new SimpleDoubleProperty(DEFAULT_MAX_REFRESH_RATE_HZ);
+
+    /**
+     * Data added with <code>addData()</code> which has not been rendered yet.
+     */
+    private StreamedData pendingData = new StreamedData();
+
+    /**
+     * A screen passed to <code>updateScreen()</code> which has not been rendered yet, otherwise null.
+     */
+    private VT100Screen pendingScreen = null;
+
+    /**
+     * Fires on every JavaFX pulse while there is data waiting to be rendered.
+     */
+    private AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handleRenderTimerPulse(now);
+        }
+    };
+
+    private boolean isRenderTimerRunning = false;
+
+    private long lastFrameTimeNs = 0;
+
+    /**
+     * When true, data passed to <code>addData()</code> and <code>updateScreen()</code> is buffered but not rendered.
+     * Set this when the pane can't be seen (e.g. its terminal tab is not selected). When this is set back to false,
+     * everything buffered is rendered in one frame.
+     */
+    public SimpleBooleanProperty isRenderingPaused = new SimpleBooleanProperty(false);
+
+    /**
+     * Set when the start of <code>pendingData</code> was thrown away because it held more than a whole buffer of
+     * data. Any text already in the pane would be trimmed once the pending data is rendered, so it is removed first.
+     */
+    private boolean isPendingDataTruncated = false;
+
+    //==============================================//
+    //==================== SEARCH ==================//
+    //==============================================//
+
+    /**
+     * Indexes all the text displayed in this pane, so that it can be searched on a background thread. Hit positions
+     * are absolute (see <code>getStartPos()</code>).
+     */
+    public final ScrollbackSearch scrollbackSearch = new ScrollbackSearch();
+
+    /**
+     * The absolute position of the first char in the styled text area, i.e. the number of chars which have
+     * been trimmed or cleared from this pane.
+     */
+    private long startPos = 0;
+
+    /**
+     * The absolute range of text which search highlighting has been applied to.
+     */
+    private long highlightedFromPos = 0;
+    private long highlightedToPos = 0;
+
     //================================================================================================//
     //========================================== CLASS METHODS =======================================//
     //================================================================================================//
@@ -148,8 +266,11 @@ public class ComDataPane extends StackPane {
         //============ STYLED TEXT AREA SETUP ==========//
         //==============================================//
 
-        // InlineCssTextArea is the simplest for of the RichTextFX UI
-        styledTextArea = new InlineCssTextArea();
+        // Styles are applied directly to the text nodes from TextStyle/ParStyle objects,
+        // rather than from inline CSS strings (which have to be parsed every time they are applied)
+        styledTextArea = new StyledTextArea<>(
+                ParStyle.EMPTY, (textFlow, parStyle) -> parStyle.applyTo(textFlow),
+                TextStyle.EMPTY, (text, textStyle) -> textStyle.applyTo(text));
 
         // Set the background to black
 //        styledTextArea.setStyle("-fx-background-color: " + backgroundColor.toString() + ";");
@@ -254,6 +375,19 @@ public class ComDataPane extends StackPane {
             trimBufferIfRequired();
         });
 
+        //==============================================//
+        //============= PAUSED RENDERING SETUP =========//
+        //==============================================//
+
+        isRenderingPaused.addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                stopRenderTimer();
+            } else {
+                // Catch up on everything buffered while paused. The timer stops itself if there is nothing to render
+                startRenderTimer();
+            }
+        });
+
 
         //==============================================//
         //================== NAME SETUP ================//
@@ -303,169 +437,125 @@ public class ComDataPane extends StackPane {
     }
 
     /**
+     * Queues data to be displayed in this pane. The data is rendered on the next frame (see <code>renderFrame()</code>),
+     * so calling this many times between frames only costs one text insertion, one trim and one scroll.
+     * While <code>isRenderingPaused</code> is true, the data is buffered until rendering is resumed.
      *
-     * @param streamedData The characters and assoicated markers to format into the COM data pane.
-     * @return The number of chars added to the COM data pane.
+     * @param streamedData The characters and assoicated markers to format into the COM data pane. This
+     *                     is consumed (all data is shifted out of it).
      */
-    public int addData(StreamedData streamedData) {
+    public void addData(StreamedData streamedData) {
 
-//        logger.debug("addData() called with streamedData = " + streamedData);
+        pendingData.shiftDataIn(streamedData, streamedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        truncatePendingDataIfRequired();
 
-        //==============================================//
-        //============= INPUT ARG CHECKS ===============//
-        //==============================================//
-
-        int numCharsAdded = 0;
-
-        // Remember the caret position before insertion of new text,
-        // incase we need to use it for setting the scroll position
-        int caretPosBeforeTextInsertion = styledTextArea.getCaretPosition();
-        double estimatedScrollYBeforeTextInsertion = styledTextArea.getEstimatedScrollY();
-
-//        logger.debug("caretPosBeforeTextInsertion (before data added) = " + caretPosBeforeTextInsertion);
-//        logger.debug("estimatedScrollY (before data added) = " + estimatedScrollYBeforeTextInsertion);
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
 
-        //==============================================//
-        //=== ADD ALL TEXT BEFORE FIRST COLOUR CHANGE ==//
-        //==============================================//
+    /**
+     * Throws away the start of the pending data if there is more than a whole buffer of it, as it would be
+     * trimmed as soon as it was rendered. This stops the pending data from growing without bound while rendering
+     * is paused.
+     */
+    private void truncatePendingDataIfRequired() {
 
-        //Text lastTextNode = (Text) existingTextNodes.get(nodeIndexToStartShift - 1);
+        final int numCharsToDrop = pendingData.getText().length() - bufferSize.get();
+        if (numCharsToDrop <= 0)
+            return;
 
-        // Copy all text before first ColourMarker entry into the first text node
+        StreamedData droppedData = new StreamedData();
+        droppedData.shiftDataIn(pendingData, numCharsToDrop, StreamedData.MarkerBehaviour.NOT_FILTERING);
 
-        int indexOfLastCharPlusOne;
-        if (streamedData.getColourMarkers().size() == 0) {
-            indexOfLastCharPlusOne = streamedData.getText().length();
-        } else {
-            indexOfLastCharPlusOne = streamedData.getColourMarkers().get(0).getCharPos();
+        // The text which is kept still has to be rendered in the colour set by the dropped text
+        for (Marker marker : droppedData.getMarkers()) {
+            if (marker instanceof ColourMarker)
+                currSgrStyle = ((ColourMarker) marker).style;
         }
 
-        StringBuilder textToAppend = new StringBuilder(streamedData.getText().substring(0, indexOfLastCharPlusOne));
+        isPendingDataTruncated = true;
+    }
 
-        // Create new line characters for all new line markers that point to text
-        // shifted above
-        int currNewLineMarkerIndex = 0;
-        for (int i = 0; i < streamedData.getNewLineMarkers().size(); i++) {
-            if (streamedData.getNewLineMarkers().get(currNewLineMarkerIndex).charPos > indexOfLastCharPlusOne)
-                break;
+    /**
+     * Called on every JavaFX pulse while there is data waiting to be rendered. Renders the data if
+     * enough time has passed since the last frame (as set by <code>maxRefreshRateHz</code>).
+     */
+    private void handleRenderTimerPulse(long nowNs) {
 
-            textToAppend.insert(streamedData.getNewLineMarkers().get(currNewLineMarkerIndex).charPos + i, "\n");
-            currNewLineMarkerIndex++;
-        }
+        if (maxRefreshRateHz.get() > 0.0 && nowNs - lastFrameTimeNs < (long) (1e9 / maxRefreshRateHz.get()))
+            return;
 
-        //lastTextNode.setText(lastTextNode.getText() + textToAppend.toString());
-        final int startIndex = styledTextArea.getLength();
-        styledTextArea.replaceText(styledTextArea.getLength(), styledTextArea.getLength(), textToAppend.toString());
-        final int stopIndex = styledTextArea.getLength();
+        lastFrameTimeNs = nowNs;
+        renderFrame();
+    }
 
-        if(defaultTextColorActive) {
-            styledTextArea.setStyle(startIndex, stopIndex, "-fx-fill: " + javaColorToCSS(textColor) + "; -fx-font-family: monospace; -fx-font-size: " + fontSizePx + "px;");
+    private void startRenderTimer() {
+        if (!isRenderTimerRunning) {
+            renderTimer.start();
+            isRenderTimerRunning = true;
         }
+    }
 
-        // If the previous StreamedText object had a colour to apply when the next character was received,
-        // add it now
-        if(colorToApplyToNextChar != null) {
-            /*styledTextArea.setStyle(
-                    startIndex,
-                    stopIndex,
-                    TextStyle.EMPTY.updateFontSize(12).updateFontFamily("monospace").updateTextColor(colorToApplyToNextChar));*/
-            /*styledTextArea.setStyle(
-                    startIndex,
-                    stopIndex,
-                    "-fx-font-size: 12;");*/
-            colorToApplyToNextChar = null;
+    private void stopRenderTimer() {
+        if (isRenderTimerRunning) {
+            renderTimer.stop();
+            isRenderTimerRunning = false;
         }
+    }
 
-        // Update the number of chars added with what was added to the last existing text node
-        numCharsAdded += textToAppend.length();
-
-        // Create new text nodes and copy all text
-        // This loop won't run if there is no elements in the TextColors array
-        //int currIndexToInsertNodeAt = nodeIndexToStartShift;
-        for (int x = 0; x < streamedData.getColourMarkers().size(); x++) {
-            defaultTextColorActive = false;
-            //Text newText = new Text();
-
-            int indexOfFirstCharInNode = streamedData.getColourMarkers().get(x).getCharPos();
-
-            int indexOfLastCharInNodePlusOne;
-            if (x >= streamedData.getColourMarkers().size() - 1) {
-                indexOfLastCharInNodePlusOne = streamedData.getText().length();
-            } else {
-                indexOfLastCharInNodePlusOne = streamedData.getColourMarkers().get(x + 1).getCharPos();
-            }
-
-            textToAppend = new StringBuilder(streamedData.getText().substring(indexOfFirstCharInNode, indexOfLastCharInNodePlusOne));
-
-//            logger.debug("textToAppend (before new lines added) = " + textToAppend);
-
-            // Create new line characters for all new line markers that point to text
-            // shifted above
-            int insertionCount = 0;
-            while (true) {
-                if (currNewLineMarkerIndex >= streamedData.getNewLineMarkers().size())
-                    break;
-
-                if (streamedData.getNewLineMarkers().get(currNewLineMarkerIndex).getCharPos() > indexOfLastCharInNodePlusOne)
-                    break;
-
-                textToAppend.insert(
-                        streamedData.getNewLineMarkers().get(currNewLineMarkerIndex).getCharPos() + insertionCount - indexOfFirstCharInNode,
-                        NEW_LINE_CHAR_SEQUENCE_FOR_TEXT_FLOW);
-                currNewLineMarkerIndex++;
-                insertionCount++;
-            }
-
-//            logger.debug("textToAppend (after new lines added) = " + textToAppend);
-
-            //==============================================//
-            //==== ADD TEXT TO STYLEDTEXTAREA AND COLOUR ===//
-            //==============================================//
-
-            final int insertionStartIndex = styledTextArea.getLength();
-            styledTextArea.replaceText(insertionStartIndex, insertionStartIndex, textToAppend.toString());
-            final int insertionStopIndex = styledTextArea.getLength();
-
-//            logger.debug("insertionStartIndex = " + insertionStartIndex + ", insertionStopIndex = " + insertionStopIndex);
+    /**
+     * Renders all data queued with <code>addData()</code> and <code>updateScreen()</code> into the styled text area,
+     * and then trims the buffer and updates the scroll position once.
+     *
+     * This is normally called by the render timer, but can be called directly to render immediately.
+     */
+    public void renderFrame() {
 
-            final Color textColor = streamedData.getColourMarkers().get(x).color;
+        // Nothing to render, so stop the timer from firing until there is
+        if (pendingData.getText().length() == 0 && pendingData.getMarkers().isEmpty() && pendingScreen == null) {
+            stopRenderTimer();
+            return;
+        }
 
-            styledTextArea.setStyle(
-                    insertionStartIndex,
-                    insertionStopIndex,
-                    "-fx-fill: " + javaColorToCSS(textColor) + "; -fx-font-family: monospace; -fx-font-size: " + fontSizePx + "px;");
+        if (pendingScreen != null) {
+            VT100Screen screen = pendingScreen;
+            pendingScreen = null;
+            renderScreen(screen);
+            return;
+        }
 
-            // Update the num. chars added with all the text added to this new Text node
-            numCharsAdded += textToAppend.length();
+        // Remember the char at the top of the view port before insertion of new text,
+        // incase we need to use it for setting the scroll position.
+        // These magic numbers of x=0, y=10 seem to be exactly what is needed to keep the same section of data
+        // visible after characters have been trimmed from the start
+        CharacterHit charHit = styledTextArea.hit(0, 10);
+        final int charAtZeroTenBeforeRemoval = charHit.getInsertionIndex();
+
+        // If the pending data fills the buffer by itself, the existing text would all be trimmed
+        // after insertion, so remove it first rather than laying it out again
+        if (isPendingDataTruncated) {
+            startPos += styledTextArea.getLength();
+            scrollbackSearch.textCleared();
+            styledTextArea.replaceText(0, styledTextArea.getLength(), "");
+            isPendingDataTruncated = false;
         }
 
-        // Clear the streamed data object, as we have consumed all the information
-        // available in it
-        streamedData.clear();
+        appendStreamedData(pendingData);
 
         //===================================================//
         //= TRIM START OF DOCUMENT IF EXCEEDS BUFFER LENGTH =//
         //===================================================//
 
-        // These magic numbers of x=0, y=10 seem to be exactly what is needed to keep the same section of data
-        // visible after characters have been trimmed from the start
-        CharacterHit charHit = styledTextArea.hit(0, 10);
-        int charAtZeroTenBeforeRemoval;
-        charAtZeroTenBeforeRemoval = charHit.getInsertionIndex();
-
         // Trim the text buffer if needed
         // (this method will decide if required)
-        trimBufferIfRequired();
+        final int numCharsRemoved = trimBufferIfRequired();
+
+        currNumChars.set(styledTextArea.getLength());
 
         //==============================================//
         //============== SCROLL POSITION ===============//
         //==============================================//
 
-//        logger.debug("currCharPositionInText (after data added) = " + currCharPositionInText);
-//        logger.debug("caretPosition (after data added) = " + styledTextArea.getCaretPosition());
-//        logger.debug("estimatedScrollY (after data added) = " + styledTextArea.getEstimatedScrollY());
-
-//        logger.debug("Deciding where to scroll too...");
         switch(scrollState.get()) {
             case FIXED_TO_BOTTOM:
                 // This moves the caret to the end of the "document"
@@ -476,20 +566,163 @@ public class ComDataPane extends StackPane {
             case SMART_SCROLL:
 
                 // Scroll so that the same text is displayed in the view port
-                // as before the text insertion/removalS
-                styledTextArea.moveTo(charAtZeroTenBeforeRemoval);
+                // as before the text insertion/removal. Trims can remove many lines at
+                // once, so the char index has to be shifted back by the number removed
+                styledTextArea.moveTo(Math.min(
+                        Math.max(charAtZeroTenBeforeRemoval - numCharsRemoved, 0),
+                        styledTextArea.getLength()));
                 break;
             default:
                 throw new RuntimeException("scrollState not recognised.");
         }
+    }
+
+    /**
+     * Appends streamed data to the end of the styled text area, using one text insertion and one
+     * style update for all of the data.
+     *
+     * @param streamedData The data to append. This is cleared once it has been consumed.
+     */
+    private void appendStreamedData(StreamedData streamedData) {
+
+        // Convert any time stamps into text before the text is split up by colour
+        streamedData = timeStampFormatter.insertTimeStamps(streamedData);
+
+        final String text = streamedData.getText();
+        final List<Marker> markers = streamedData.getMarkers();
+
+        StringBuilder textToAppend = new StringBuilder(text.length() + markers.size());
+        StyleSpansBuilder<TextStyle> styleSpansBuilder = new StyleSpansBuilder<>();
+
+        TextStyle currTextStyle = getTextStyle(currSgrStyle);
+        int currStyleSpanLength = 0;
+
+        // Walk through the text and markers together. New line chars are inserted before any colour change at the
+        // same char position, so they take on the style of the preceding text
+        int markerIndex = 0;
+        for (int charIndex = 0; charIndex <= text.length(); charIndex++) {
+
+            while (markerIndex < markers.size() && markers.get(markerIndex).getCharPos() <= charIndex) {
+                final Marker marker = markers.get(markerIndex++);
+
+                if (marker instanceof NewLineMarker) {
+                    textToAppend.append(NEW_LINE_CHAR_SEQUENCE_FOR_TEXT_FLOW);
+                    currStyleSpanLength++;
+                } else if (marker instanceof ColourMarker) {
+                    currSgrStyle = ((ColourMarker) marker).style;
+                    final TextStyle newTextStyle = getTextStyle(currSgrStyle);
+                    if (newTextStyle != currTextStyle) {
+                        if (currStyleSpanLength > 0)
+                            styleSpansBuilder.add(currTextStyle, currStyleSpanLength);
+                        currTextStyle = newTextStyle;
+                        currStyleSpanLength = 0;
+                    }
+                }
+            }
+
+            if (charIndex < text.length()) {
+                textToAppend.append(text.charAt(charIndex));
+                currStyleSpanLength++;
+            }
+        }
+
+        // Clear the streamed data object, as we have consumed all the information
+        // available in it
+        streamedData.clear();
+
+        if (textToAppend.length() == 0)
+            return;
+
+        styleSpansBuilder.add(currTextStyle, currStyleSpanLength);
 
-//        logger.debug("addData() finished.");
-        return numCharsAdded;
+        final String textToAppendString = textToAppend.toString();
+
+        final int insertionStartIndex = styledTextArea.getLength();
+        styledTextArea.replaceText(insertionStartIndex, insertionStartIndex, textToAppendString);
+        styledTextArea.setStyleSpans(insertionStartIndex, styleSpansBuilder.create());
+
+        scrollbackSearch.textAppended(textToAppendString);
     }
 
     public void clearData() {
+        // Throw away any data which has not been rendered yet
+        pendingData.clear();
+        pendingScreen = null;
+        isPendingDataTruncated = false;
+
+        startPos += styledTextArea.getLength();
+        scrollbackSearch.textCleared();
+
         // Remove all text from the StyledTextArea node
         styledTextArea.replaceText(0, styledTextArea.getLength(), "");
+        isShowingScreen = false;
+        currNumChars.set(0);
+    }
+
+    /**
+     * Queues an emulated VT100 screen to be rendered into this pane on the next frame. Only the rows
+     * which are marked as dirty are re-rendered, after which the dirty flags in the screen are cleared.
+     *
+     * The first render replaces any existing data in the pane with one paragraph per screen row.
+     * Call <code>clearData()</code> to go back to displaying streamed data.
+     *
+     * @param screen The screen to render.
+     */
+    public void updateScreen(VT100Screen screen) {
+        pendingScreen = screen;
+
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
+
+    private void renderScreen(VT100Screen screen) {
+
+        final int numCharsBeforeRender = styledTextArea.getLength();
+
+        if (!isShowingScreen || styledTextArea.getParagraphs().size() != screen.getNumRows()) {
+            // Replace all existing data with one empty paragraph per screen row
+            StringBuilder emptyRows = new StringBuilder();
+            for (int row = 1; row < screen.getNumRows(); row++) {
+                emptyRows.append("\n");
+            }
+            styledTextArea.replaceText(0, styledTextArea.getLength(), emptyRows.toString());
+
+            isShowingScreen = true;
+            screen.markAllRowsDirty();
+        }
+
+        for (int row = 0; row < screen.getNumRows(); row++) {
+            if (!screen.isRowDirty(row))
+                continue;
+
+            final String rowText = screen.getRowText(row);
+
+            final int rowStartIndex = styledTextArea.getAbsolutePosition(row, 0);
+            final int rowStopIndex = rowStartIndex + styledTextArea.getParagraph(row).length();
+            styledTextArea.replaceText(rowStartIndex, rowStopIndex, rowText);
+
+            // Apply one style to each run of cells which share the same style
+            int runStartCol = 0;
+            for (int col = 1; col <= rowText.length(); col++) {
+                if (col == rowText.length() || !screen.getStyleAt(row, col).equals(screen.getStyleAt(row, runStartCol))) {
+                    styledTextArea.setStyle(
+                            row,
+                            runStartCol,
+                            col,
+                            getTextStyle(screen.getStyleAt(row, runStartCol)));
+                    runStartCol = col;
+                }
+            }
+        }
+
+        screen.clearDirtyRows();
+
+        // Rows are updated in place, so the search index is given a fresh copy of the whole screen
+        startPos += numCharsBeforeRender;
+        scrollbackSearch.textCleared();
+        scrollbackSearch.textAppended(styledTextArea.getText());
+
+        currNumChars.set(styledTextArea.getLength());
     }
 
     /**
@@ -502,23 +735,142 @@ public class ComDataPane extends StackPane {
     private int trimBufferIfRequired() {
 //        logger.debug("trimBufferIfRequired() called.");
 
-        int numCharsToRemove = 0;
+        // Nothing is trimmed until the buffer is over the high watermark, then whole
+        // paragraphs are trimmed until it is under the low watermark
+        int numCharsToRemove = BufferTrimPolicy.getNumCharsToTrim(styledTextArea.getLength(), bufferSize.get());
 
-        if(styledTextArea.getLength() > bufferSize.get()) {
+        if(numCharsToRemove > 0) {
 
-            // We need to trim the text buffer in the styled text area node
-            numCharsToRemove = styledTextArea.getLength() - bufferSize.get();
+            numCharsToRemove = BufferTrimPolicy.roundUpToLineEnd(
+                    numCharsToRemove,
+                    styledTextArea.getParagraphs().size(),
+                    paragraphIndex -> styledTextArea.getParagraph(paragraphIndex).length());
 
             // Remove the earliest text by doing a replace() call, replacing with
             // nothing ("")
             styledTextArea.replaceText(0, numCharsToRemove, "");
 
+            startPos += numCharsToRemove;
+            scrollbackSearch.textTrimmed(numCharsToRemove);
         }
 //        logger.debug("trimBufferIfRequired() finished.");
 
         return numCharsToRemove;
     }
 
+    /**
+     * @return The absolute position of the first char displayed in this pane. Search hit positions can be
+     *          converted to char indexes in <code>styledTextArea</code> by subtracting this.
+     */
+    public long getStartPos() {
+        return startPos;
+    }
+
+    /**
+     * @return The absolute position one past the last char displayed in this pane.
+     */
+    public long getEndPos() {
+        return startPos + styledTextArea.getLength();
+    }
+
+    /**
+     * Scrolls so that the char at the absolute position is visible, and stops the pane from scrolling to
+     * the bottom as new data arrives (the user can get back to the bottom with the scroll-to-bottom button).
+     *
+     * @return False if the char is no longer displayed in this pane.
+     */
+    public boolean scrollToPos(long pos) {
+        if (pos < getStartPos() || pos > getEndPos())
+            return false;
+
+        scrollState.set(ScrollState.SMART_SCROLL);
+        styledTextArea.moveTo((int) (pos - startPos));
+        return true;
+    }
+
+    /**
+     * Highlights search hits, replacing any existing highlighting. Hits which are no longer displayed in
+     * this pane are ignored.
+     *
+     * @param searchHits    The absolute positions of the hits.
+     * @param hitLength     The number of chars in each hit.
+     * @param currHitIndex  The index of the hit the user is looking at, which is highlighted in a different
+     *                      colour. -1 if there is none.
+     * @param highlightAll  If false, only the current hit is highlighted.
+     */
+    public void setSearchHighlights(SearchHits searchHits, int hitLength, int currHitIndex, boolean highlightAll) {
+
+        clearSearchHighlights();
+
+        int firstHitIndex;
+        int lastHitIndex;
+        if (highlightAll) {
+            // Highlight a window of hits around the current one, or the most recent hits if there is no current one
+            if (currHitIndex >= 0) {
+                firstHitIndex = Math.max(currHitIndex - MAX_NUM_HIGHLIGHTED_SEARCH_HITS / 2, 0);
+                lastHitIndex = Math.min(firstHitIndex + MAX_NUM_HIGHLIGHTED_SEARCH_HITS, searchHits.size()) - 1;
+            } else {
+                lastHitIndex = searchHits.size() - 1;
+                firstHitIndex = Math.max(lastHitIndex - MAX_NUM_HIGHLIGHTED_SEARCH_HITS + 1, 0);
+            }
+        } else {
+            if (currHitIndex < 0)
+                return;
+            firstHitIndex = currHitIndex;
+            lastHitIndex = currHitIndex;
+        }
+
+        while (firstHitIndex <= lastHitIndex && searchHits.get(firstHitIndex) < getStartPos())
+            firstHitIndex++;
+        while (lastHitIndex >= firstHitIndex && searchHits.get(lastHitIndex) + hitLength > getEndPos())
+            lastHitIndex--;
+        if (firstHitIndex > lastHitIndex)
+            return;
+
+        // Hits are sorted and all the same length, so the last hit also ends last
+        final int fromIndex = (int) (searchHits.get(firstHitIndex) - startPos);
+        final int toIndex = (int) (searchHits.get(lastHitIndex) + hitLength - startPos);
+
+        byte[] levels = new byte[toIndex - fromIndex];
+        for (int hitIndex = firstHitIndex; hitIndex <= lastHitIndex; hitIndex++) {
+            final int hitStart = (int) (searchHits.get(hitIndex) - startPos) - fromIndex;
+            SearchHighlighter.markHit(
+                    levels,
+                    hitStart,
+                    hitStart + hitLength,
+                    (hitIndex == currHitIndex) ? SearchHighlighter.LEVEL_CURR_HIT : SearchHighlighter.LEVEL_HIT);
+        }
+
+        StyleSpans<TextStyle> highlightedStyleSpans = SearchHighlighter.highlight(
+                styledTextArea.getStyleSpans(fromIndex, toIndex),
+                levels,
+                (textStyle, level) -> textStyle.updateBackgroundColor(
+                        (level == SearchHighlighter.LEVEL_CURR_HIT) ? CURR_SEARCH_HIT_BACKGROUND_COLOR : SEARCH_HIT_BACKGROUND_COLOR).intern());
+        styledTextArea.setStyleSpans(fromIndex, highlightedStyleSpans);
+
+        highlightedFromPos = startPos + fromIndex;
+        highlightedToPos = startPos + toIndex;
+    }
+
+    /**
+     * Removes all highlighting added by <code>setSearchHighlights()</code>.
+     */
+    public void clearSearchHighlights() {
+        final long fromPos = Math.max(highlightedFromPos, getStartPos());
+        final long toPos = Math.min(highlightedToPos, getEndPos());
+
+        if (fromPos < toPos) {
+            final int fromIndex = (int) (fromPos - startPos);
+            styledTextArea.setStyleSpans(
+                    fromIndex,
+                    styledTextArea.getStyleSpans(fromIndex, (int) (toPos - startPos))
+                            .mapStyles(textStyle -> textStyle.removeBackgroundColor().intern()));
+        }
+
+        highlightedFromPos = 0;
+        highlightedToPos = 0;
+    }
+
     /**
      * This should be called when the user clicks the "scroll to bottom"
      * button.
@@ -584,19 +936,42 @@ public class ComDataPane extends StackPane {
     public void setFontSizePx(double fontSizePx) {
         logger.debug("setFontSizePx() called with fontSizePx = " + fontSizePx);
         this.fontSizePx = fontSizePx;
+        textStyles.clear();
     }
 
     public void setTextColor(Color color) {
         logger.debug("setTextColor() called with color = " + color.toString());
         this.textColor = color;
+        textStyles.clear();
     }
 
     public void setBackgroundColor(Color color) {
         logger.debug("setBackgroundColor() called with color = " + color.toString());
         this.backgroundColor = color;
+
+        // Inverse text is drawn in the background colour
+        textStyles.clear();
         styledTextArea.setStyle("-fx-background-color: " + javaColorToCSS(color) + ";");
     }
 
+    /**
+     * Converts the colours and attributes of a SGR style into an (interned) text style. Default colours are
+     * replaced with the text and background colours of this pane (see <code>TextStyle.fromSgrStyle()</code>).
+     * @param sgrStyle
+     */
+    TextStyle getTextStyle(SgrStyle sgrStyle) {
+        TextStyle textStyle = textStyles.get(sgrStyle);
+        if(textStyle != null)
+            return textStyle;
+
+        textStyle = TextStyle.fromSgrStyle(
+                sgrStyle, FONT_FAMILY, (int) Math.round(fontSizePx), textColor, backgroundColor).intern();
+
+        if(textStyles.size() < TextStyle.MAX_NUM_INTERNED_STYLES)
+            textStyles.put(sgrStyle, textStyle);
+        return textStyle;
+    }
+
     /**
      * Converts from a Java Color object to a CSS rgb() string.
      * @param color
@@ -8,8 +8,11 @@ import java.io.IOException;
 import java.util.Objects;
 import java.util.Optional;
 
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
 import javafx.scene.paint.Color;
 import javafx.scene.text.TextAlignment;
+import javafx.scene.text.TextFlow;
 
 
 import org.fxmisc.richtext.model.Codec;
@@ -109,6 +112,14 @@ class ParStyle {
         return sb.toString();
     }
 
+    /**
+     * Applies this style directly to the properties of a paragraph node, without going through CSS.
+     */
+    public void applyTo(TextFlow textFlow) {
+        alignment.ifPresent(textFlow::setTextAlignment);
+        backgroundColor.ifPresent(color -> textFlow.setBackground(new Background(new BackgroundFill(color, null, null))));
+    }
+
     public ParStyle updateWith(ParStyle mixin) {
         return new ParStyle(
                 mixin.alignment.isPresent() ? mixin.alignment : alignment,
@@ -0,0 +1,76 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPane;
+
+import org.fxmisc.richtext.model.StyleSpan;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+
+import java.util.function.BiFunction;
+
+/**
+ * Overlays search hit highlighting onto the existing styles of a range of text, so that all the hits in
+ * a COM data pane can be highlighted with one style update.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class SearchHighlighter {
+
+    /**
+     * No highlighting.
+     */
+    static final byte LEVEL_NONE = 0;
+
+    /**
+     * The char is part of a search hit.
+     */
+    static final byte LEVEL_HIT = 1;
+
+    /**
+     * The char is part of the current search hit (the one the user jumped to).
+     */
+    static final byte LEVEL_CURR_HIT = 2;
+
+    /**
+     * Sets the highlight level of the chars in a hit, without lowering the level of any chars already
+     * highlighted by an overlapping hit.
+     */
+    static void markHit(byte[] levels, int fromIndex, int toIndex, byte level) {
+        for (int i = Math.max(fromIndex, 0); i < Math.min(toIndex, levels.length); i++) {
+            if (levels[i] < level)
+                levels[i] = level;
+        }
+    }
+
+    /**
+     * @param styleSpans    The existing styles of the range of text.
+     * @param levels        The highlight level of each char in the range. Must be the same length as the styles.
+     * @param highlighter   Returns the highlighted version of a style, given the style and a level other
+     *                      than <code>LEVEL_NONE</code>.
+     * @return The styles with the highlighting applied.
+     */
+    static <S> StyleSpans<S> highlight(StyleSpans<S> styleSpans, byte[] levels, BiFunction<S, Byte, S> highlighter) {
+
+        StyleSpansBuilder<S> styleSpansBuilder = new StyleSpansBuilder<>();
+
+        int charIndex = 0;
+        for (StyleSpan<S> styleSpan : styleSpans) {
+            final int spanEnd = charIndex + styleSpan.getLength();
+
+            // Split the span wherever the highlight level changes
+            while (charIndex < spanEnd) {
+                final byte level = levels[charIndex];
+                int runEnd = charIndex + 1;
+                while (runEnd < spanEnd && levels[runEnd] == level)
+                    runEnd++;
+
+                styleSpansBuilder.add(
+                        (level == LEVEL_NONE) ? styleSpan.getStyle() : highlighter.apply(styleSpan.getStyle(), level),
+                        runEnd - charIndex);
+                charIndex = runEnd;
+            }
+        }
+
+        return styleSpansBuilder.create();
+    }
+}
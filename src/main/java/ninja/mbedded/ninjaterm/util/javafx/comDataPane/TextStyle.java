@@ -5,12 +5,19 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.MalformedInputException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
 
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import org.fxmisc.richtext.TextExt;
 import org.fxmisc.richtext.model.Codec;
 
 /**
@@ -20,6 +27,17 @@ public class TextStyle {
 
     public static final TextStyle EMPTY = new TextStyle();
 
+    /**
+     * Once this many styles have been interned, new styles are no longer added to <code>internedStyles</code>.
+     * This stops a device which streams endless unique true-colours from growing the map forever.
+     */
+    static final int MAX_NUM_INTERNED_STYLES = 4096;
+
+    /**
+     * Canonical instances returned by <code>intern()</code>. Only accessed from the UI thread.
+     */
+    private static final Map<TextStyle, TextStyle> internedStyles = new HashMap<>();
+
     public static final Codec<TextStyle> CODEC = new Codec<TextStyle>() {
 
         private final Codec<Optional<String>> OPT_STRING_CODEC =
@@ -124,6 +142,11 @@ public class TextStyle {
     final Optional<Color> textColor;
     final Optional<Color> backgroundColor;
 
+    /**
+     * The font described by this style, created the first time <code>applyTo()</code> is called.
+     */
+    private Font font = null;
+
     public TextStyle() {
         this(
                 Optional.empty(),
@@ -165,7 +188,9 @@ public class TextStyle {
 
     @Override
     public boolean equals(Object other) {
-        if(other instanceof TextStyle) {
+        if(other == this) {
+            return true;
+        } else if(other instanceof TextStyle) {
             TextStyle that = (TextStyle) other;
             return Objects.equals(this.bold,            that.bold) &&
                     Objects.equals(this.italic,          that.italic) &&
@@ -232,7 +257,7 @@ public class TextStyle {
         }
 
         if(fontSize.isPresent()) {
-            sb.append("-fx-font-size: " + fontSize.get() + "pt;");
+            sb.append("-fx-font-size: " + fontSize.get() + "px;");
         }
 
         if(fontFamily.isPresent()) {
@@ -252,6 +277,97 @@ public class TextStyle {
         return sb.toString();
     }
 
+    /**
+     * Returns the canonical instance of this style, so that equal styles share the same object (and
+     * the same <code>Font</code>). Styles in the text area can then be compared by identity.
+     *
+     * Once <code>MAX_NUM_INTERNED_STYLES</code> styles have been interned, styles which have not been seen before
+     * are returned as is (and will not be the same object as an equal style).
+     *
+     * Must be called from the UI thread.
+     */
+    public TextStyle intern() {
+        TextStyle internedStyle = internedStyles.get(this);
+        if(internedStyle == null) {
+            if(internedStyles.size() < MAX_NUM_INTERNED_STYLES)
+                internedStyles.put(this, this);
+            internedStyle = this;
+        }
+        return internedStyle;
+    }
+
+    /**
+     * Converts the colours and attributes of a SGR style into a text style (which is not interned).
+     *
+     * Inverse swaps the foreground and background colours. Default colours are replaced with the provided ones
+     * first, so inverse text with default colours is drawn in the background colour on the text colour.
+     *
+     * @param sgrStyle                  The SGR style to convert.
+     * @param fontFamily                The font family to use.
+     * @param fontSize                  The font size to use, in pixels.
+     * @param defaultTextColor          The colour to use when the SGR style has the default foreground colour.
+     * @param defaultBackgroundColor    The colour to use when the SGR style has the default background colour.
+     *                                  Only used for inverse text, otherwise no background colour is set.
+     */
+    public static TextStyle fromSgrStyle(SgrStyle sgrStyle, String fontFamily, int fontSize,
+                                         Color defaultTextColor, Color defaultBackgroundColor) {
+
+        Color foreground = (sgrStyle.getForeground() == null) ? defaultTextColor : sgrStyle.getForeground();
+        Color background = sgrStyle.getBackground();
+
+        if(sgrStyle.isInverse()) {
+            final Color inverseForeground = (background == null) ? defaultBackgroundColor : background;
+            background = foreground;
+            foreground = inverseForeground;
+        }
+
+        TextStyle textStyle = EMPTY
+                .updateFontFamily(fontFamily)
+                .updateFontSize(fontSize)
+                .updateTextColor(foreground);
+
+        if(background != null)
+            textStyle = textStyle.updateBackgroundColor(background);
+
+        if(sgrStyle.isBold())
+            textStyle = textStyle.updateBold(true);
+        if(sgrStyle.isItalic())
+            textStyle = textStyle.updateItalic(true);
+        if(sgrStyle.isUnderline())
+            textStyle = textStyle.updateUnderline(true);
+        if(sgrStyle.isStrikethrough())
+            textStyle = textStyle.updateStrikethrough(true);
+
+        return textStyle;
+    }
+
+    /**
+     * Applies this style directly to the properties of a text node. Unlike <code>toCss()</code>, this
+     * does not require JavaFX to parse any CSS.
+     */
+    public void applyTo(TextExt text) {
+
+        if(font == null) {
+            final Font defaultFont = Font.getDefault();
+            font = Font.font(
+                    fontFamily.orElse(defaultFont.getFamily()),
+                    bold.orElse(false) ? FontWeight.BOLD : FontWeight.NORMAL,
+                    italic.orElse(false) ? FontPosture.ITALIC : FontPosture.REGULAR,
+                    fontSize.map(Integer::doubleValue).orElse(defaultFont.getSize()));
+        }
+        text.setFont(font);
+
+        text.setUnderline(underline.orElse(false));
+        text.setStrikethrough(strikethrough.orElse(false));
+
+        if(textColor.isPresent()) {
+            text.setFill(textColor.get());
+        }
+
+        // Cleared when not set, as text nodes can be re-used for text which previously had a background
+        text.setBackgroundColor(backgroundColor.orElse(null));
+    }
+
     public TextStyle updateWith(TextStyle mixin) {
         return new TextStyle(
                 mixin.bold.isPresent() ? mixin.bold : bold,
@@ -299,4 +415,8 @@ public class TextStyle {
     public TextStyle updateBackgroundColor(Color backgroundColor) {
         return new TextStyle(bold, italic, underline, strikethrough, fontSize, fontFamily, textColor, Optional.of(backgroundColor));
     }
+
+    public TextStyle removeBackgroundColor() {
+        return new TextStyle(bold, italic, underline, strikethrough, fontSize, fontFamily, textColor, Optional.empty());
+    }
 }
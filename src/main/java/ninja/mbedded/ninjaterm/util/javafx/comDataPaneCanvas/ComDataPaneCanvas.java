@@ -0,0 +1,820 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneCanvas;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.javafx.comDataPane.BufferTrimPolicy;
+import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
+import ninja.mbedded.ninjaterm.util.rxProcessing.vt100.VT100Screen;
+import org.slf4j.Logger;
+
+/**
+ * UI node which presents COM port data to the user (can be either TX, RX, or both), by drawing
+ * the visible rows onto a <code>{@link Canvas}</code>.
+ *
+ * Unlike the <code>ComDataPane</code> (which creates a text node for every style run in the buffer), the cost of
+ * drawing only depends on the size of the pane, so this stays responsive with very large buffers. All text is stored
+ * in a <code>{@link LineStore}</code>, and glyphs are copied from a <code>{@link GlyphAtlas}</code>.
+ *
+ * Has the same public API as the <code>ComDataPane</code>, so it can be used in its place. Long lines are clipped
+ * rather than wrapped.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ComDataPaneCanvas extends StackPane {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * The default the buffer size. This can be changed with <code>bufferSize</code>.
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 10000;
+
+    /**
+     * The default max. refresh rate. This can be changed with <code>maxRefreshRateHz</code>.
+     */
+    public static final double DEFAULT_MAX_REFRESH_RATE_HZ = 30.0;
+
+    private static final Color SELECTION_COLOR = Color.rgb(80, 130, 255, 0.45);
+
+    private static final KeyCombination COPY_KEY_COMBINATION = new KeyCodeCombination(KeyCode.C, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination SELECT_ALL_KEY_COMBINATION = new KeyCodeCombination(KeyCode.A, KeyCombination.SHORTCUT_DOWN);
+
+    //================================================================================================//
+    //=========================================== ENUMS ==============================================//
+    //================================================================================================//
+
+    private enum ScrollState {
+
+        /**
+         * Pane is always scrolled to the bottom so that new data is displayed.
+         * This is the default behaviour.
+         */
+        FIXED_TO_BOTTOM,
+
+        /**
+         * The same lines are kept in view as new data arrives and old data is removed, until the
+         * lines are lost.
+         */
+        SMART_SCROLL,
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public SimpleBooleanProperty isCaretEnabled = new SimpleBooleanProperty(false);
+
+    public SimpleStringProperty name = new SimpleStringProperty("");
+
+    public SimpleIntegerProperty bufferSize = new SimpleIntegerProperty(DEFAULT_BUFFER_SIZE);
+
+    public SimpleIntegerProperty currNumChars = new SimpleIntegerProperty(0);
+
+    /**
+     * Converts time stamp markers into text. Bind <code>timeStampFormatter.mode</code> and
+     * <code>timeStampFormatter.referenceTime</code> to change how time stamps are displayed.
+     */
+    public TimeStampFormatter timeStampFormatter = new TimeStampFormatter();
+
+    /**
+     * The max. number of times per second that this pane is redrawn. Data added between
+     * frames is drawn together. Set to 0 to redraw on every JavaFX pulse.
+     */
+    public SimpleDoubleProperty maxRefreshRateHz = new SimpleDoubleProperty(DEFAULT_MAX_REFRESH_RATE_HZ);
+
+    private final LineStore lineStore = new LineStore();
+
+    private final Canvas canvas = new Canvas();
+
+    private final ScrollBar scrollBar = new ScrollBar();
+
+    /**
+     * Set while the scroll bar is being updated to match the line store, so the change is not treated
+     * as the user scrolling.
+     */
+    private boolean isUpdatingScrollBar = false;
+
+    private Label nameLabel;
+
+    private GlyphAtlas glyphAtlas;
+
+    private double fontSizePx = 12.0;
+
+    /**
+     * The text colour for COM data displayed in this pane, if no ASCII color codes are sent over the serial.
+     */
+    private Color textColor = Color.GREEN;
+    private Color backgroundColor = Color.BLACK;
+
+    private ScrollState scrollState = ScrollState.FIXED_TO_BOTTOM;
+
+    /**
+     * The line number (see <code>LineStore.getFirstLineNumber()</code>) of the line at the top of the view port.
+     */
+    private long topLineNumber = 0;
+
+    /**
+     * True when this pane is displaying an emulated VT100 screen, rather than streamed data.
+     */
+    private boolean isShowingScreen = false;
+
+    //==============================================//
+    //================== SELECTION =================//
+    //==============================================//
+
+    private boolean hasSelection = false;
+    private long selAnchorLineNumber = 0;
+    private int selAnchorCol = 0;
+    private long selCaretLineNumber = 0;
+    private int selCaretCol = 0;
+
+    //==============================================//
+    //=============== FRAME RENDERING ==============//
+    //==============================================//
+
+    /**
+     * Data added with <code>addData()</code> which has not been added to the line store yet.
+     */
+    private StreamedData pendingData = new StreamedData();
+
+    /**
+     * A screen passed to <code>updateScreen()</code> which has not been rendered yet, otherwise null.
+     */
+    private VT100Screen pendingScreen = null;
+
+    /**
+     * True if the visible rows need to be redrawn on the next frame.
+     */
+    private boolean isRedrawRequired = false;
+
+    private AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handleRenderTimerPulse(now);
+        }
+    };
+
+    private boolean isRenderTimerRunning = false;
+
+    private long lastFrameTimeNs = 0;
+
+    /**
+     * When true, data passed to <code>addData()</code> and <code>updateScreen()</code> is buffered but not drawn.
+     * Set this when the pane can't be seen (e.g. its terminal tab is not selected). When this is set back to false,
+     * everything buffered is drawn in one frame.
+     */
+    public SimpleBooleanProperty isRenderingPaused = new SimpleBooleanProperty(false);
+
+    /**
+     * Set when the start of <code>pendingData</code> was thrown away because it held more than a whole buffer of
+     * data. The lines already in the line store would be trimmed once the pending data is added, so they are
+     * removed first.
+     */
+    private boolean isPendingDataTruncated = false;
+
+    /**
+     * The atlas slot of each visible cell, filled in before anything is drawn for a frame. Re-used between frames.
+     */
+    private int[] cellSlots = new int[0];
+
+    private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public ComDataPaneCanvas() {
+
+        glyphAtlas = new GlyphAtlas(fontSizePx);
+
+        //==============================================//
+        //================ CANVAS SETUP ================//
+        //==============================================//
+
+        // A canvas does not resize itself, so it is placed in a pane and
+        // sized to match it
+        Pane canvasPane = new Pane(canvas);
+        canvasPane.setMinSize(0, 0);
+        canvasPane.setPrefSize(0, 0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+
+        canvas.setFocusTraversable(true);
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::handleMousePressed);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::handleMouseDragged);
+        canvas.addEventHandler(ScrollEvent.SCROLL, this::handleScroll);
+        canvas.addEventHandler(KeyEvent.KEY_PRESSED, this::handleKeyPressed);
+
+        //==============================================//
+        //============== CONTEXT MENU SETUP ============//
+        //==============================================//
+
+        MenuItem copyMenuItem = new MenuItem("Copy");
+        copyMenuItem.setOnAction(event -> copySelection());
+        MenuItem selectAllMenuItem = new MenuItem("Select All");
+        selectAllMenuItem.setOnAction(event -> selectAll());
+        ContextMenu contextMenu = new ContextMenu(copyMenuItem, selectAllMenuItem);
+        canvas.setOnContextMenuRequested(event -> {
+            copyMenuItem.setDisable(!hasSelection);
+            contextMenu.show(canvas, event.getScreenX(), event.getScreenY());
+        });
+
+        //==============================================//
+        //============== SCROLL BAR SETUP ==============//
+        //==============================================//
+
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setMin(0);
+        scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!isUpdatingScrollBar)
+                scrollToLineIndex((int) Math.round(newValue.doubleValue()));
+        });
+
+        BorderPane borderPane = new BorderPane();
+        borderPane.setCenter(canvasPane);
+        borderPane.setRight(scrollBar);
+        getChildren().add(borderPane);
+
+        //==============================================//
+        //============== BUFFER SIZE SETUP =============//
+        //==============================================//
+
+        bufferSize.addListener((observable, oldValue, newValue) -> {
+            lineStore.setMaxNumChars(newValue.intValue());
+            currNumChars.set(lineStore.getNumChars());
+            requestRedraw();
+        });
+        lineStore.setMaxNumChars(bufferSize.get());
+
+        //==============================================//
+        //============= PAUSED RENDERING SETUP =========//
+        //==============================================//
+
+        isRenderingPaused.addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                stopRenderTimer();
+            } else {
+                // Catch up on everything buffered while paused. The timer stops itself if there is nothing to draw
+                startRenderTimer();
+            }
+        });
+
+        //==============================================//
+        //================== NAME SETUP ================//
+        //==============================================//
+
+        StackPane nameStackPane = new StackPane();
+        nameStackPane.setMaxWidth(100.0);
+        nameStackPane.setMaxHeight(20.0);
+        nameStackPane.setAlignment(Pos.CENTER);
+        nameStackPane.setMouseTransparent(true);
+        nameStackPane.setStyle("-fx-background-color: rgba(150, 150, 150, 0.5); -fx-background-radius: 0 0 0 15;");
+        getChildren().add(nameStackPane);
+        setAlignment(nameStackPane, Pos.TOP_RIGHT);
+
+        nameLabel = new Label();
+        nameLabel.setAlignment(Pos.CENTER);
+        nameLabel.setStyle("-fx-text-fill: white;");
+        nameStackPane.getChildren().add(nameLabel);
+
+        name.addListener((observable, oldValue, newValue) -> {
+            nameLabel.setText(newValue);
+        });
+        nameLabel.setText(name.get());
+    }
+
+    /**
+     * Queues data to be displayed in this pane. The data is added to the line store and drawn on the next frame.
+     * While <code>isRenderingPaused</code> is true, the data is buffered until rendering is resumed.
+     *
+     * @param streamedData The characters and assoicated markers to display. This is consumed (all data is
+     *                     shifted out of it).
+     */
+    public void addData(StreamedData streamedData) {
+        pendingData.shiftDataIn(streamedData, streamedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        if (BufferTrimPolicy.truncatePendingData(pendingData, bufferSize.get()))
+            isPendingDataTruncated = true;
+
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
+
+    /**
+     * Queues an emulated VT100 screen to be displayed in this pane on the next frame. The first call replaces any
+     * existing data in the pane. Call <code>clearData()</code> to go back to displaying streamed data.
+     *
+     * @param screen The screen to render.
+     */
+    public void updateScreen(VT100Screen screen) {
+        pendingScreen = screen;
+
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
+
+    public void clearData() {
+        // Throw away any data which has not been drawn yet
+        pendingData.clear();
+        pendingScreen = null;
+        isPendingDataTruncated = false;
+
+        lineStore.clear();
+        isShowingScreen = false;
+        hasSelection = false;
+        topLineNumber = 0;
+        scrollState = ScrollState.FIXED_TO_BOTTOM;
+        currNumChars.set(0);
+        requestRedraw();
+    }
+
+    public void setWrappingEnabled(Boolean value) {
+        logger.debug("setWrappingEnabled() called. Wrapping is not supported by this pane, long lines are clipped.");
+    }
+
+    public void setWrappingWidthPx(double value) {
+        logger.debug("setWrappingWidthPx() called.");
+    }
+
+    /**
+     * Sets a new font size for data displayed in the COM pane. This applies to all data, including what is already
+     * displayed.
+     * @param fontSizePx The new font size, in units of pixels.
+     */
+    public void setFontSizePx(double fontSizePx) {
+        logger.debug("setFontSizePx() called with fontSizePx = " + fontSizePx);
+        this.fontSizePx = fontSizePx;
+        glyphAtlas = new GlyphAtlas(fontSizePx);
+        requestRedraw();
+    }
+
+    /**
+     * Sets the colour of text which has no colour set by ASCII escape codes. This applies to all data, including
+     * what is already displayed.
+     */
+    public void setTextColor(Color color) {
+        logger.debug("setTextColor() called with color = " + color.toString());
+        this.textColor = color;
+        requestRedraw();
+    }
+
+    public void setBackgroundColor(Color color) {
+        logger.debug("setBackgroundColor() called with color = " + color.toString());
+        this.backgroundColor = color;
+        requestRedraw();
+    }
+
+    /**
+     * Copies the selected text to the system clipboard. Does nothing if no text is selected.
+     */
+    public void copySelection() {
+        if (!hasSelection)
+            return;
+
+        ClipboardContent content = new ClipboardContent();
+        content.putString(getSelectedText());
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    /**
+     * @return The selected text, or an empty string if no text is selected. Lines are separated with "\n".
+     */
+    public String getSelectedText() {
+        if (!hasSelection)
+            return "";
+
+        final long firstLineNumber = lineStore.getFirstLineNumber();
+        final boolean isAnchorFirst = selAnchorLineNumber < selCaretLineNumber
+                || (selAnchorLineNumber == selCaretLineNumber && selAnchorCol <= selCaretCol);
+
+        long startLineNumber = isAnchorFirst ? selAnchorLineNumber : selCaretLineNumber;
+        int startCol = isAnchorFirst ? selAnchorCol : selCaretCol;
+        final long endLineNumber = isAnchorFirst ? selCaretLineNumber : selAnchorLineNumber;
+        final int endCol = isAnchorFirst ? selCaretCol : selAnchorCol;
+
+        // The start of the selection may of been trimmed from the buffer
+        if (endLineNumber < firstLineNumber)
+            return "";
+        if (startLineNumber < firstLineNumber) {
+            startLineNumber = firstLineNumber;
+            startCol = 0;
+        }
+
+        return lineStore.getText(
+                (int) (startLineNumber - firstLineNumber),
+                startCol,
+                (int) (endLineNumber - firstLineNumber),
+                endCol);
+    }
+
+    public void selectAll() {
+        final int lastLineIndex = lineStore.getNumLines() - 1;
+        selAnchorLineNumber = lineStore.getFirstLineNumber();
+        selAnchorCol = 0;
+        selCaretLineNumber = lineStore.getFirstLineNumber() + lastLineIndex;
+        selCaretCol = lineStore.getLineText(lastLineIndex).length();
+        hasSelection = true;
+        requestRedraw();
+    }
+
+    //================================================================================================//
+    //======================================== FRAME RENDERING =======================================//
+    //================================================================================================//
+
+    private void requestRedraw() {
+        isRedrawRequired = true;
+
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
+
+    private void startRenderTimer() {
+        if (!isRenderTimerRunning) {
+            renderTimer.start();
+            isRenderTimerRunning = true;
+        }
+    }
+
+    private void stopRenderTimer() {
+        if (isRenderTimerRunning) {
+            renderTimer.stop();
+            isRenderTimerRunning = false;
+        }
+    }
+
+    /**
+     * Called on every JavaFX pulse while there is something to draw. Draws a frame if
+     * enough time has passed since the last one (as set by <code>maxRefreshRateHz</code>).
+     */
+    private void handleRenderTimerPulse(long nowNs) {
+
+        if (maxRefreshRateHz.get() > 0.0 && nowNs - lastFrameTimeNs < (long) (1e9 / maxRefreshRateHz.get()))
+            return;
+
+        lastFrameTimeNs = nowNs;
+        renderFrame();
+    }
+
+    /**
+     * Adds all queued data to the line store, and then redraws the visible rows.
+     *
+     * This is normally called by the render timer, but can be called directly to render immediately.
+     */
+    public void renderFrame() {
+
+        final boolean hasPendingData = pendingData.getText().length() != 0 || !pendingData.getMarkers().isEmpty();
+
+        // Nothing to render, so stop the timer from firing until there is
+        if (!hasPendingData && pendingScreen == null && !isRedrawRequired) {
+            stopRenderTimer();
+            return;
+        }
+
+        if (pendingScreen != null) {
+            loadScreen(pendingScreen);
+            pendingScreen = null;
+        }
+
+        if (hasPendingData) {
+            if (isPendingDataTruncated) {
+                lineStore.clear();
+                isPendingDataTruncated = false;
+            }
+
+            // This consumes the pending data
+            lineStore.append(timeStampFormatter.insertTimeStamps(pendingData));
+            currNumChars.set(lineStore.getNumChars());
+        }
+
+        updateScrollBar();
+        draw();
+        isRedrawRequired = false;
+    }
+
+    /**
+     * Replaces all lines in the line store with the rows of the screen.
+     */
+    private void loadScreen(VT100Screen screen) {
+
+        StreamedData screenData = new StreamedData();
+        SgrStyle prevStyle = null;
+        for (int row = 0; row < screen.getNumRows(); row++) {
+            if (row != 0)
+                screenData.addMarker(new NewLineMarker(screenData.getText().length()));
+
+            final String rowText = screen.getRowText(row);
+            for (int col = 0; col < rowText.length(); col++) {
+                final SgrStyle style = screen.getStyleAt(row, col);
+                if (!style.equals(prevStyle)) {
+                    screenData.addMarker(new ColourMarker(screenData.getText().length() + col, style));
+                    prevStyle = style;
+                }
+            }
+            screenData.append(rowText);
+        }
+
+        lineStore.clear();
+        lineStore.append(screenData);
+        screen.clearDirtyRows();
+
+        isShowingScreen = true;
+        scrollState = ScrollState.FIXED_TO_BOTTOM;
+        currNumChars.set(lineStore.getNumChars());
+    }
+
+    private int getNumVisibleRows() {
+        return Math.max((int) (canvas.getHeight() / glyphAtlas.getCellHeight()), 1);
+    }
+
+    private int getMaxTopLineIndex() {
+        return Math.max(lineStore.getNumLines() - getNumVisibleRows(), 0);
+    }
+
+    /**
+     * @return The index of the line at the top of the view port.
+     */
+    private int getTopLineIndex() {
+        if (scrollState == ScrollState.FIXED_TO_BOTTOM)
+            return getMaxTopLineIndex();
+
+        final long topLineIndex = topLineNumber - lineStore.getFirstLineNumber();
+        return (int) Math.max(Math.min(topLineIndex, getMaxTopLineIndex()), 0);
+    }
+
+    private void scrollToLineIndex(int lineIndex) {
+        final int maxTopLineIndex = getMaxTopLineIndex();
+        lineIndex = Math.max(Math.min(lineIndex, maxTopLineIndex), 0);
+
+        topLineNumber = lineStore.getFirstLineNumber() + lineIndex;
+        scrollState = (lineIndex >= maxTopLineIndex) ? ScrollState.FIXED_TO_BOTTOM : ScrollState.SMART_SCROLL;
+        requestRedraw();
+    }
+
+    private void updateScrollBar() {
+        isUpdatingScrollBar = true;
+        scrollBar.setMax(getMaxTopLineIndex());
+        scrollBar.setVisibleAmount(getNumVisibleRows());
+        scrollBar.setBlockIncrement(getNumVisibleRows());
+        scrollBar.setValue(getTopLineIndex());
+        isUpdatingScrollBar = false;
+    }
+
+    private void draw() {
+
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        final double cellWidth = glyphAtlas.getCellWidth();
+        final double cellHeight = glyphAtlas.getCellHeight();
+
+        gc.setFill(backgroundColor);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        if (glyphAtlas.isFull())
+            glyphAtlas.clear();
+
+        final int topLineIndex = getTopLineIndex();
+        // Include a partially visible row at the bottom
+        final int numRows = Math.min(getNumVisibleRows() + 1, lineStore.getNumLines() - topLineIndex);
+        final int numCols = (int) Math.ceil(canvas.getWidth() / cellWidth);
+
+        if (cellSlots.length < numRows * numCols)
+            cellSlots = new int[numRows * numCols];
+
+        //==============================================//
+        //======== PASS 1: ADD GLYPHS TO ATLAS =========//
+        //==============================================//
+
+        for (int row = 0; row < numRows; row++) {
+            final Line line = lineStore.getLine(topLineIndex + row);
+
+            for (int run = 0; run < line.getNumRuns(); run++) {
+                final int runStart = line.runStarts[run];
+                if (runStart >= numCols)
+                    break;
+                final int runEnd = Math.min(line.getRunEnd(run), numCols);
+
+                final SgrStyle style = line.runStyles[run];
+                final Color foreground = getForeground(style);
+
+                for (int col = runStart; col < runEnd; col++) {
+                    final char c = line.text.charAt(col);
+                    cellSlots[row * numCols + col] = (c == ' ' || style.isConcealed()) ?
+                            -1 : glyphAtlas.getSlot(c, foreground, style.isBold(), style.isItalic());
+                }
+            }
+        }
+
+        glyphAtlas.updateImage();
+
+        //==============================================//
+        //=============== PASS 2: DRAW =================//
+        //==============================================//
+
+        for (int row = 0; row < numRows; row++) {
+            final int lineIndex = topLineIndex + row;
+            final Line line = lineStore.getLine(lineIndex);
+            final double y = row * cellHeight;
+
+            // BACKGROUNDS
+            for (int run = 0; run < line.getNumRuns(); run++) {
+                final int runStart = line.runStarts[run];
+                if (runStart >= numCols)
+                    break;
+                final int runEnd = Math.min(line.getRunEnd(run), numCols);
+
+                final Color background = getBackground(line.runStyles[run]);
+                if (background != null) {
+                    gc.setFill(background);
+                    gc.fillRect(runStart * cellWidth, y, (runEnd - runStart) * cellWidth, cellHeight);
+                }
+            }
+
+            // SELECTION
+            drawSelection(gc, lineStore.getFirstLineNumber() + lineIndex, line, y, cellWidth, cellHeight);
+
+            // GLYPHS AND LINES
+            for (int run = 0; run < line.getNumRuns(); run++) {
+                final int runStart = line.runStarts[run];
+                if (runStart >= numCols)
+                    break;
+                final int runEnd = Math.min(line.getRunEnd(run), numCols);
+                if (runEnd == runStart)
+                    continue;
+
+                final SgrStyle style = line.runStyles[run];
+                final Color foreground = getForeground(style);
+
+                for (int col = runStart; col < runEnd; col++) {
+                    final int slot = cellSlots[row * numCols + col];
+                    if (slot >= 0) {
+                        glyphAtlas.drawGlyph(gc, slot, col * cellWidth, y);
+                    } else if (slot == -1 && line.text.charAt(col) != ' ' && !style.isConcealed()) {
+                        // The atlas was full, so draw this glyph directly
+                        gc.setFont(glyphAtlas.getFont(style.isBold(), style.isItalic()));
+                        gc.setFill(foreground);
+                        gc.fillText(String.valueOf(line.text.charAt(col)), col * cellWidth, y + glyphAtlas.getBaselineOffset());
+                    }
+                }
+
+                if (style.isUnderline() || style.isStrikethrough()) {
+                    gc.setStroke(foreground);
+                    gc.setLineWidth(1.0);
+                    final double x1 = runStart * cellWidth;
+                    final double x2 = runEnd * cellWidth;
+                    if (style.isUnderline()) {
+                        final double lineY = Math.floor(y + glyphAtlas.getBaselineOffset()) + 1.5;
+                        gc.strokeLine(x1, lineY, x2, lineY);
+                    }
+                    if (style.isStrikethrough()) {
+                        final double lineY = Math.floor(y + cellHeight / 2.0) + 0.5;
+                        gc.strokeLine(x1, lineY, x2, lineY);
+                    }
+                }
+            }
+        }
+    }
+
+    private void drawSelection(GraphicsContext gc, long lineNumber, Line line, double y, double cellWidth, double cellHeight) {
+        if (!hasSelection)
+            return;
+
+        final boolean isAnchorFirst = selAnchorLineNumber < selCaretLineNumber
+                || (selAnchorLineNumber == selCaretLineNumber && selAnchorCol <= selCaretCol);
+        final long startLineNumber = isAnchorFirst ? selAnchorLineNumber : selCaretLineNumber;
+        final int startCol = isAnchorFirst ? selAnchorCol : selCaretCol;
+        final long endLineNumber = isAnchorFirst ? selCaretLineNumber : selAnchorLineNumber;
+        final int endCol = isAnchorFirst ? selCaretCol : selAnchorCol;
+
+        if (lineNumber < startLineNumber || lineNumber > endLineNumber)
+            return;
+
+        final int fromCol = (lineNumber == startLineNumber) ? startCol : 0;
+        // Show the end of a selected line as one extra cell
+        final int toCol = (lineNumber == endLineNumber) ? endCol : line.text.length() + 1;
+
+        if (toCol > fromCol) {
+            gc.setFill(SELECTION_COLOR);
+            gc.fillRect(fromCol * cellWidth, y, (toCol - fromCol) * cellWidth, cellHeight);
+        }
+    }
+
+    private Color getForeground(SgrStyle style) {
+        if (style.isInverse())
+            return (style.getBackground() == null) ? backgroundColor : style.getBackground();
+        return (style.getForeground() == null) ? textColor : style.getForeground();
+    }
+
+    /**
+     * @return The background colour of the style, or null if the pane background should be used.
+     */
+    private Color getBackground(SgrStyle style) {
+        if (style.isInverse())
+            return (style.getForeground() == null) ? textColor : style.getForeground();
+        return style.getBackground();
+    }
+
+    //================================================================================================//
+    //========================================== USER INPUT ==========================================//
+    //================================================================================================//
+
+    private void handleMousePressed(MouseEvent mouseEvent) {
+        canvas.requestFocus();
+
+        if (mouseEvent.getButton() != MouseButton.PRIMARY)
+            return;
+
+        setSelectionPosFromMouse(mouseEvent, true);
+        hasSelection = false;
+        requestRedraw();
+    }
+
+    private void handleMouseDragged(MouseEvent mouseEvent) {
+        if (!mouseEvent.isPrimaryButtonDown())
+            return;
+
+        // Scroll if the user drags above or below the pane
+        if (mouseEvent.getY() < 0)
+            scrollToLineIndex(getTopLineIndex() - 1);
+        else if (mouseEvent.getY() > canvas.getHeight())
+            scrollToLineIndex(getTopLineIndex() + 1);
+
+        setSelectionPosFromMouse(mouseEvent, false);
+        hasSelection = selAnchorLineNumber != selCaretLineNumber || selAnchorCol != selCaretCol;
+        requestRedraw();
+    }
+
+    /**
+     * Converts the mouse position into a line and column (the column is the nearest gap between chars), and
+     * sets either the selection anchor and caret, or just the caret.
+     */
+    private void setSelectionPosFromMouse(MouseEvent mouseEvent, boolean isSetAnchor) {
+        final int row = (int) Math.floor(mouseEvent.getY() / glyphAtlas.getCellHeight());
+        final int lineIndex = Math.max(Math.min(getTopLineIndex() + row, lineStore.getNumLines() - 1), 0);
+        final int lineLength = lineStore.getLineText(lineIndex).length();
+        final int col = Math.max(Math.min((int) Math.round(mouseEvent.getX() / glyphAtlas.getCellWidth()), lineLength), 0);
+
+        selCaretLineNumber = lineStore.getFirstLineNumber() + lineIndex;
+        selCaretCol = col;
+
+        if (isSetAnchor) {
+            selAnchorLineNumber = selCaretLineNumber;
+            selAnchorCol = selCaretCol;
+        }
+    }
+
+    private void handleScroll(ScrollEvent scrollEvent) {
+        if (scrollEvent.getDeltaY() == 0)
+            return;
+
+        // Scroll by at least one line per event
+        int numLines = (int) Math.round(-scrollEvent.getDeltaY() / glyphAtlas.getCellHeight());
+        if (numLines == 0)
+            numLines = (scrollEvent.getDeltaY() > 0) ? -1 : 1;
+
+        scrollToLineIndex(getTopLineIndex() + numLines);
+        scrollEvent.consume();
+    }
+
+    private void handleKeyPressed(KeyEvent keyEvent) {
+        if (COPY_KEY_COMBINATION.match(keyEvent)) {
+            copySelection();
+            keyEvent.consume();
+        } else if (SELECT_ALL_KEY_COMBINATION.match(keyEvent)) {
+            selectAll();
+            keyEvent.consume();
+        }
+    }
+}
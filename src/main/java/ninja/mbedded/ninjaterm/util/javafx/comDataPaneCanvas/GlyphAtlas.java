@@ -0,0 +1,190 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneCanvas;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextBoundsType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache of rendered monospace glyphs. Each glyph (char, colour, bold and italic) is drawn once into a slot of an
+ * off-screen canvas, and copied from a snapshot of that canvas every time it is drawn onto the screen. This is a lot
+ * cheaper than laying out text for every char on every frame.
+ *
+ * Glyphs have to be requested with <code>getSlot()</code>, and then <code>updateImage()</code> called, before they
+ * can be drawn with <code>drawGlyph()</code>. When the atlas is full, <code>getSlot()</code> returns -1, and the
+ * atlas should be cleared before the next frame.
+ *
+ * Must only be used from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class GlyphAtlas {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    private static final int NUM_SLOT_COLS = 64;
+    private static final int NUM_SLOT_ROWS = 32;
+
+    /**
+     * The font family used for all glyphs. "Monospaced" is the JavaFX logical font which maps
+     * to the platform's monospace font.
+     */
+    static final String FONT_FAMILY = "Monospaced";
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * Fonts, indexed by <code>(bold ? 1 : 0) | (italic ? 2 : 0)</code>.
+     */
+    private final Font[] fonts = new Font[4];
+
+    private final double cellWidth;
+    private final double cellHeight;
+    private final double baselineOffset;
+
+    private final Canvas atlasCanvas;
+    private final WritableImage atlasImage;
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+    /**
+     * Maps a packed glyph key to the slot the glyph is drawn in.
+     */
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    /**
+     * True if glyphs have been drawn onto the atlas canvas since the last snapshot.
+     */
+    private boolean isImageOutOfDate = false;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    GlyphAtlas(double fontSizePx) {
+
+        for (int i = 0; i < fonts.length; i++) {
+            fonts[i] = Font.font(
+                    FONT_FAMILY,
+                    (i & 1) != 0 ? FontWeight.BOLD : FontWeight.NORMAL,
+                    (i & 2) != 0 ? FontPosture.ITALIC : FontPosture.REGULAR,
+                    fontSizePx);
+        }
+
+        // All glyphs in a monospace font have the same advance, so measure one to get the cell size
+        Text text = new Text("W");
+        text.setFont(fonts[0]);
+        text.setBoundsType(TextBoundsType.LOGICAL);
+        cellWidth = Math.ceil(text.getLayoutBounds().getWidth());
+        cellHeight = Math.ceil(text.getLayoutBounds().getHeight());
+        baselineOffset = text.getBaselineOffset();
+
+        atlasCanvas = new Canvas(NUM_SLOT_COLS * cellWidth, NUM_SLOT_ROWS * cellHeight);
+        atlasImage = new WritableImage((int) atlasCanvas.getWidth(), (int) atlasCanvas.getHeight());
+        snapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    double getCellWidth() {
+        return cellWidth;
+    }
+
+    double getCellHeight() {
+        return cellHeight;
+    }
+
+    double getBaselineOffset() {
+        return baselineOffset;
+    }
+
+    Font getFont(boolean bold, boolean italic) {
+        return fonts[(bold ? 1 : 0) | (italic ? 2 : 0)];
+    }
+
+    boolean isFull() {
+        return slots.size() == NUM_SLOT_COLS * NUM_SLOT_ROWS;
+    }
+
+    /**
+     * Removes all glyphs from the atlas.
+     */
+    void clear() {
+        slots.clear();
+        atlasCanvas.getGraphicsContext2D().clearRect(0, 0, atlasCanvas.getWidth(), atlasCanvas.getHeight());
+        isImageOutOfDate = true;
+    }
+
+    /**
+     * Finds the slot for the glyph, drawing it into the atlas if it has not been used before.
+     *
+     * @return The slot of the glyph, or -1 if the glyph is not in the atlas and the atlas is full.
+     */
+    int getSlot(char c, Color color, boolean bold, boolean italic) {
+        final long key = packKey(c, color, bold, italic);
+
+        final Integer slot = slots.get(key);
+        if (slot != null)
+            return slot;
+
+        if (isFull())
+            return -1;
+
+        final int newSlot = slots.size();
+        slots.put(key, newSlot);
+
+        GraphicsContext gc = atlasCanvas.getGraphicsContext2D();
+        gc.setFont(getFont(bold, italic));
+        gc.setFill(color);
+        gc.fillText(String.valueOf(c), getSlotX(newSlot), getSlotY(newSlot) + baselineOffset);
+        isImageOutOfDate = true;
+
+        return newSlot;
+    }
+
+    /**
+     * Takes a new snapshot of the atlas canvas if any glyphs have been added since the last one. Call this after
+     * all the glyphs for a frame have been requested, and before any are drawn.
+     */
+    void updateImage() {
+        if (isImageOutOfDate) {
+            atlasCanvas.snapshot(snapshotParameters, atlasImage);
+            isImageOutOfDate = false;
+        }
+    }
+
+    void drawGlyph(GraphicsContext gc, int slot, double x, double y) {
+        gc.drawImage(atlasImage, getSlotX(slot), getSlotY(slot), cellWidth, cellHeight, x, y, cellWidth, cellHeight);
+    }
+
+    private double getSlotX(int slot) {
+        return (slot % NUM_SLOT_COLS) * cellWidth;
+    }
+
+    private double getSlotY(int slot) {
+        return (slot / NUM_SLOT_COLS) * cellHeight;
+    }
+
+    /**
+     * Packs the char (16 bits), bold/italic flags (2 bits) and 32-bit ARGB colour into one key.
+     */
+    private static long packKey(char c, Color color, boolean bold, boolean italic) {
+        final long argb = (Math.round(color.getOpacity() * 255) << 24)
+                | (Math.round(color.getRed() * 255) << 16)
+                | (Math.round(color.getGreen() * 255) << 8)
+                | Math.round(color.getBlue() * 255);
+        return (argb << 18) | ((bold ? 1L : 0L) << 17) | ((italic ? 1L : 0L) << 16) | c;
+    }
+}
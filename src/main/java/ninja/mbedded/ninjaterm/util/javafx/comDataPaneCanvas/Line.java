@@ -0,0 +1,60 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneCanvas;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+
+/**
+ * One line of text in a <code>{@link LineStore}</code>, with the text split into runs of chars
+ * which share the same style. Lines are immutable.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class Line {
+
+    final String text;
+
+    /**
+     * The index of the first char of each style run. The first entry is always 0.
+     */
+    final int[] runStarts;
+
+    /**
+     * The style of each run.
+     */
+    final SgrStyle[] runStyles;
+
+    Line(String text, int[] runStarts, SgrStyle[] runStyles) {
+        this.text = text;
+        this.runStarts = runStarts;
+        this.runStyles = runStyles;
+    }
+
+    int getNumRuns() {
+        return runStarts.length;
+    }
+
+    /**
+     * @return The index after the last char of the provided run.
+     */
+    int getRunEnd(int runIndex) {
+        return (runIndex == runStarts.length - 1) ? text.length() : runStarts[runIndex + 1];
+    }
+
+    /**
+     * @return The style of the char at the provided column. Columns past the end of the line
+     *          take the style of the last char.
+     */
+    SgrStyle getStyleAt(int col) {
+        int low = 0;
+        int high = runStarts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (runStarts[mid] <= col)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return runStyles[low];
+    }
+}
@@ -0,0 +1,306 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneCanvas;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the text displayed by a <code>{@link ComDataPaneCanvas}</code> as a list of lines, so that any line can be
+ * looked up in constant time when drawing the visible rows.
+ *
+ * Completed lines are stored as immutable <code>{@link Line}</code> objects in a ring buffer, so trimming
+ * the oldest lines does not have to move any data. The last line is still being received, and is
+ * built up in place until a new line marker arrives.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class LineStore {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * Ring buffer of completed lines. The oldest line is at <code>ringStart</code>.
+     */
+    private Line[] ring = new Line[INITIAL_CAPACITY];
+    private int ringStart = 0;
+    private int numCompletedLines = 0;
+
+    /**
+     * The total number of lines that have been trimmed from the start of this store.
+     */
+    private long firstLineNumber = 0;
+
+    /**
+     * The total number of chars in the store, including one new line char at the end of each completed line.
+     */
+    private int numChars = 0;
+
+    /**
+     * The max. number of chars to keep. The oldest lines are removed once this is exceeded. A value of 0 or less
+     * means there is no limit.
+     */
+    private int maxNumChars = 0;
+
+    //==============================================//
+    //================== OPEN LINE =================//
+    //==============================================//
+
+    private StringBuilder openLineText = new StringBuilder();
+    private int[] openLineRunStarts = new int[8];
+    private SgrStyle[] openLineRunStyles = new SgrStyle[8];
+    private int openLineNumRuns = 0;
+
+    /**
+     * A snapshot of the open line, re-created when it is requested after the open line changed.
+     */
+    private Line openLine = null;
+
+    /**
+     * The style applied to new text.
+     */
+    private SgrStyle currStyle = SgrStyle.DEFAULT;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public LineStore() {
+        startOpenLine();
+    }
+
+    /**
+     * Appends streamed data to the end of the store. New line markers start a new line, and colour markers
+     * change the style of the following text. Time stamp markers are ignored (convert them into text first).
+     *
+     * @param streamedData The data to append. This is cleared once it has been consumed.
+     */
+    public void append(StreamedData streamedData) {
+
+        final String text = streamedData.getText();
+        final List<Marker> markers = streamedData.getMarkers();
+
+        int pos = 0;
+        for (Marker marker : markers) {
+            final int markerPos = Math.min(marker.getCharPos(), text.length());
+            if (markerPos > pos) {
+                appendText(text, pos, markerPos);
+                pos = markerPos;
+            }
+
+            if (marker instanceof NewLineMarker) {
+                endOpenLine();
+            } else if (marker instanceof ColourMarker) {
+                setStyle(((ColourMarker) marker).style);
+            }
+        }
+        appendText(text, pos, text.length());
+
+        streamedData.clear();
+
+        trim();
+    }
+
+    /**
+     * Removes all lines. The style for new text is kept.
+     */
+    public void clear() {
+        Arrays.fill(ring, null);
+        ringStart = 0;
+        numCompletedLines = 0;
+        firstLineNumber = 0;
+        numChars = 0;
+        startOpenLine();
+    }
+
+    /**
+     * @return The number of lines, including the last line (which may be empty). This is always at least 1.
+     */
+    public int getNumLines() {
+        return numCompletedLines + 1;
+    }
+
+    /**
+     * @return The total number of lines that have been removed from the start of the store. Add this to a line
+     *          index to get a line number which does not change as lines are trimmed.
+     */
+    public long getFirstLineNumber() {
+        return firstLineNumber;
+    }
+
+    /**
+     * @return The number of chars in the store, counting the end of each line as one char.
+     */
+    public int getNumChars() {
+        return numChars;
+    }
+
+    public int getMaxNumChars() {
+        return maxNumChars;
+    }
+
+    /**
+     * Sets the max. number of chars to keep, and removes the oldest lines if this is now exceeded.
+     *
+     * @param maxNumChars The max. number of chars, or 0 for no limit.
+     */
+    public void setMaxNumChars(int maxNumChars) {
+        this.maxNumChars = maxNumChars;
+        trim();
+    }
+
+    Line getLine(int index) {
+        if (index < 0 || index > numCompletedLines)
+            throw new IndexOutOfBoundsException("Line index " + index + " is out of range (num. lines = " + getNumLines() + ").");
+
+        if (index < numCompletedLines)
+            return ring[(ringStart + index) % ring.length];
+
+        if (openLine == null) {
+            openLine = new Line(
+                    openLineText.toString(),
+                    Arrays.copyOf(openLineRunStarts, openLineNumRuns),
+                    Arrays.copyOf(openLineRunStyles, openLineNumRuns));
+        }
+        return openLine;
+    }
+
+    public String getLineText(int index) {
+        return getLine(index).text;
+    }
+
+    /**
+     * @return The text between the two positions, with a new line char between lines. Columns past the end of a line
+     *          are clamped to the end of the line.
+     */
+    public String getText(int startLine, int startCol, int endLine, int endCol) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int lineIndex = startLine; lineIndex <= endLine; lineIndex++) {
+            final String lineText = getLine(lineIndex).text;
+            final int fromCol = (lineIndex == startLine) ? Math.min(startCol, lineText.length()) : 0;
+            final int toCol = (lineIndex == endLine) ? Math.min(endCol, lineText.length()) : lineText.length();
+
+            if (toCol > fromCol)
+                stringBuilder.append(lineText, fromCol, toCol);
+            if (lineIndex != endLine)
+                stringBuilder.append('\n');
+        }
+
+        return stringBuilder.toString();
+    }
+
+    private void appendText(String text, int start, int end) {
+        if (end <= start)
+            return;
+        openLineText.append(text, start, end);
+        numChars += end - start;
+        openLine = null;
+    }
+
+    private void setStyle(SgrStyle style) {
+        if (style.equals(currStyle))
+            return;
+        currStyle = style;
+
+        if (openLineRunStarts[openLineNumRuns - 1] == openLineText.length()) {
+            // No text has been added with the previous style yet, so just replace it
+            openLineRunStyles[openLineNumRuns - 1] = style;
+        } else {
+            addOpenLineRun(openLineText.length(), style);
+        }
+        openLine = null;
+    }
+
+    private void endOpenLine() {
+        final Line line = getLine(numCompletedLines);
+
+        if (numCompletedLines == ring.length) {
+            // Grow the ring, unwrapping the lines so the oldest is at index 0
+            Line[] newRing = new Line[ring.length * 2];
+            for (int i = 0; i < numCompletedLines; i++) {
+                newRing[i] = ring[(ringStart + i) % ring.length];
+            }
+            ring = newRing;
+            ringStart = 0;
+        }
+
+        ring[(ringStart + numCompletedLines) % ring.length] = line;
+        numCompletedLines++;
+
+        // Count the end of the line as one char
+        numChars++;
+
+        startOpenLine();
+    }
+
+    private void startOpenLine() {
+        openLineText.setLength(0);
+        openLineNumRuns = 0;
+        addOpenLineRun(0, currStyle);
+        openLine = null;
+    }
+
+    private void addOpenLineRun(int start, SgrStyle style) {
+        if (openLineNumRuns == openLineRunStarts.length) {
+            openLineRunStarts = Arrays.copyOf(openLineRunStarts, openLineNumRuns * 2);
+            openLineRunStyles = Arrays.copyOf(openLineRunStyles, openLineNumRuns * 2);
+        }
+        openLineRunStarts[openLineNumRuns] = start;
+        openLineRunStyles[openLineNumRuns] = style;
+        openLineNumRuns++;
+    }
+
+    /**
+     * Removes the oldest lines until the number of chars is no more than <code>maxNumChars</code>. If the last line
+     * on it's own is too long, chars are removed from the start of it.
+     */
+    private void trim() {
+        if (maxNumChars <= 0)
+            return;
+
+        while (numChars > maxNumChars && numCompletedLines > 0) {
+            final Line line = ring[ringStart];
+            ring[ringStart] = null;
+            ringStart = (ringStart + 1) % ring.length;
+            numCompletedLines--;
+            firstLineNumber++;
+            numChars -= line.text.length() + 1;
+        }
+
+        if (numChars > maxNumChars) {
+            final int numCharsToRemove = numChars - maxNumChars;
+            openLineText.delete(0, numCharsToRemove);
+            numChars -= numCharsToRemove;
+
+            // Shift the runs back, dropping any which have been removed completely
+            int numRunsKept = 0;
+            for (int i = 0; i < openLineNumRuns; i++) {
+                final int newStart = Math.max(openLineRunStarts[i] - numCharsToRemove, 0);
+                final boolean isLastRun = (i == openLineNumRuns - 1);
+                final boolean isRunRemoved = !isLastRun && openLineRunStarts[i + 1] - numCharsToRemove <= 0;
+                if (isRunRemoved)
+                    continue;
+                openLineRunStarts[numRunsKept] = newStart;
+                openLineRunStyles[numRunsKept] = openLineRunStyles[i];
+                numRunsKept++;
+            }
+            openLineNumRuns = numRunsKept;
+            openLine = null;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package ninja.mbedded.ninjaterm.util.javafx.comDataPaneWeb;
 
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -12,23 +14,21 @@ import javafx.scene.paint.Color;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 import netscape.javascript.JSObject;
+import ninja.mbedded.ninjaterm.util.javafx.comDataPane.BufferTrimPolicy;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
 import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampMarker;
 import ninja.mbedded.ninjaterm.util.stringUtils.StringUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringEscapeUtils;
-import org.fxmisc.richtext.StyledTextArea;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 
 
@@ -39,7 +39,7 @@ import java.util.Collections;
  * functionality (for ANSI escape code colours).
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2017-10-08
+ * @last-modified 2026-10-18
  * @since 2016-11-14
  */
 public class ComDataPaneWeb extends StackPane {
@@ -59,6 +59,11 @@ public class ComDataPaneWeb extends StackPane {
 
     //private final int WEB_VIEW_LOAD_WAIT_TIME_MS = 2000;
 
+    /**
+     * The default max. refresh rate. This can be changed with <code>maxRefreshRateHz</code>.
+     */
+    public static final double DEFAULT_MAX_REFRESH_RATE_HZ = 30.0;
+
     //================================================================================================//
     //=========================================== ENUMS ==============================================//
     //================================================================================================//
@@ -94,6 +99,12 @@ public class ComDataPaneWeb extends StackPane {
 
     public SimpleIntegerProperty currNumChars = new SimpleIntegerProperty(0);
 
+    /**
+     * Converts time stamp markers into text. Bind <code>timeStampFormatter.mode</code> and
+     * <code>timeStampFormatter.referenceTime</code> to change how time stamps are displayed.
+     */
+    public TimeStampFormatter timeStampFormatter = new TimeStampFormatter();
+
     private WebEngine webEngine;
 
     private double currScrollPos = 0;
@@ -106,6 +117,59 @@ public class ComDataPaneWeb extends StackPane {
      */
     private SimpleBooleanProperty safeToRunScripts = new SimpleBooleanProperty(false);
 
+    /**
+     * The Javascript window object, used to call functions in stuff.js without parsing a script. This is null
+     * until <code>safeToRunScripts</code> is true.
+     */
+    private JSObject window;
+
+    //==============================================//
+    //=============== FRAME RENDERING ==============//
+    //==============================================//
+
+    /**
+     * The max. number of times per second that new data is sent to the WebView. Data added between
+     * frames is batched together. Set to 0 to send on every JavaFX pulse.
+     */
+    public SimpleDoubleProperty maxRefreshRateHz = new SimpleDoubleProperty(DEFAULT_MAX_REFRESH_RATE_HZ);
+
+    /**
+     * Data added with <code>addData()</code> which has not been sent to the WebView yet.
+     */
+    private StreamedData pendingData = new StreamedData();
+
+    /**
+     * Builds the payload for each frame. Re-used between frames.
+     */
+    private FramePayloadBuilder pendingFrame = new FramePayloadBuilder();
+
+    /**
+     * Fires on every JavaFX pulse while there is data waiting to be sent to the WebView.
+     */
+    private AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handleRenderTimerPulse(now);
+        }
+    };
+
+    private boolean isRenderTimerRunning = false;
+
+    private long lastFrameTimeNs = 0;
+
+    /**
+     * When true, data passed to <code>addData()</code> is buffered but not sent to the WebView. Set this when the
+     * pane can't be seen (e.g. its terminal tab is not selected). When this is set back to false, everything
+     * buffered is sent in one frame.
+     */
+    public SimpleBooleanProperty isRenderingPaused = new SimpleBooleanProperty(false);
+
+    /**
+     * Set when the start of <code>pendingData</code> was thrown away because it held more than a whole buffer of
+     * data. The data already in the WebView would be trimmed once the pending data is sent, so it is removed first.
+     */
+    private boolean isPendingDataTruncated = false;
+
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     //================================================================================================//
@@ -178,7 +242,7 @@ public class ComDataPaneWeb extends StackPane {
         if (safeToRunScripts.get()) {
             logger.debug("WebView has loaded page and is ready.");
 
-            JSObject window = (JSObject) webEngine.executeScript("window");
+            window = (JSObject) webEngine.executeScript("window");
             window.setMember("java", this);
 
             if (SHOW_FIREBUG)
@@ -190,7 +254,7 @@ public class ComDataPaneWeb extends StackPane {
                 if (newValue) {
                     logger.debug("WebView has loaded page and is ready.");
 
-                    JSObject window = (JSObject) webEngine.executeScript("window");
+                    window = (JSObject) webEngine.executeScript("window");
                     window.setMember("java", this);
 
                     if (SHOW_FIREBUG)
@@ -201,6 +265,10 @@ public class ComDataPaneWeb extends StackPane {
                     // Call to setup defaults
                     handleScrollStateChanged();
 
+                    // Send any data which was added before the page loaded
+                    if (!isRenderingPaused.get())
+                        startRenderTimer();
+
 
                 }
             });
@@ -247,6 +315,19 @@ public class ComDataPaneWeb extends StackPane {
         // This sets the current text color and the current caret color
         appendColor(DEFAULT_COLOR);
 
+        //==============================================//
+        //============= PAUSED RENDERING SETUP =========//
+        //==============================================//
+
+        isRenderingPaused.addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                stopRenderTimer();
+            } else {
+                // Catch up on everything buffered while paused. The timer stops itself if there is nothing to send
+                startRenderTimer();
+            }
+        });
+
         webEngine.setOnStatusChanged(event -> {
             logger.debug("status changed, event.toString() = " + event.toString());
         });
@@ -301,8 +382,29 @@ public class ComDataPaneWeb extends StackPane {
         runScriptWhenReady("setName(\"" + value + "\")");
     }
 
+    /**
+     * Queues data to be displayed in this pane. All data queued between frames is sent to the WebView
+     * with a single call to <code>appendFrame()</code> in stuff.js (see <code>renderFrame()</code>).
+     * While <code>isRenderingPaused</code> is true, the data is buffered until rendering is resumed.
+     *
+     * @param data The characters and associated markers to display. This is consumed (all data is shifted
+     *             out of it).
+     */
     public void addData(StreamedData data) {
 
+        pendingData.shiftDataIn(data, data.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        if (BufferTrimPolicy.truncatePendingData(pendingData, bufferSize.get()))
+            isPendingDataTruncated = true;
+
+        if (!isRenderingPaused.get())
+            startRenderTimer();
+    }
+
+    /**
+     * Adds the text and markers of the provided data to the frame being built.
+     */
+    private void addToFrame(StreamedData data) {
+
         int currPos = 0;
 
         // Sort markers
@@ -311,14 +413,16 @@ public class ComDataPaneWeb extends StackPane {
         for (Marker marker : data.getMarkers()) {
 
             // Add all text up to this marker
-            appendText(data.getText().substring(currPos, marker.charPos));
+            pendingFrame.addText(data.getText().substring(currPos, marker.charPos));
 
             if (marker instanceof ColourMarker) {
-                appendColor(((ColourMarker) marker).color);
+                // A null colour means the default text colour should be restored
+                Color color = ((ColourMarker) marker).color;
+                pendingFrame.addColor(color != null ? color : DEFAULT_COLOR);
             } else if (marker instanceof NewLineMarker) {
-                appendText("\n");
+                pendingFrame.addText("\n");
             } else if (marker instanceof TimeStampMarker) {
-                appendTimeStamp(((TimeStampMarker) marker).localDateTime);
+                pendingFrame.addTimeStamp(timeStampFormatter.format(((TimeStampMarker) marker).localDateTime));
             } else
                 throw new RuntimeException("Marker sub-type not supported.");
 
@@ -326,54 +430,73 @@ public class ComDataPaneWeb extends StackPane {
         }
 
         // Append all text after last marker
-        appendText(data.getText().substring(currPos, data.getText().length()));
-
-        //===================================================//
-        //= TRIM START OF DOCUMENT IF EXCEEDS BUFFER LENGTH =//
-        //===================================================//
-
-
-        Integer textHeightBeforeTrim = getTextHeight();
+        pendingFrame.addText(data.getText().substring(currPos, data.getText().length()));
+    }
 
-        //logger.debug("textHeightBeforeTrim = " + textHeightBeforeTrim);
+    /**
+     * Called on every JavaFX pulse while there is data waiting to be sent. Sends the data if
+     * enough time has passed since the last frame (as set by <code>maxRefreshRateHz</code>).
+     */
+    private void handleRenderTimerPulse(long nowNs) {
 
-        trimIfRequired();
+        if (maxRefreshRateHz.get() > 0.0 && nowNs - lastFrameTimeNs < (long) (1e9 / maxRefreshRateHz.get()))
+            return;
 
-        Integer textHeightAfterTrim = getTextHeight();
-        //logger.debug("textHeightAfterTrim = " + textHeightAfterTrim);
+        lastFrameTimeNs = nowNs;
+        renderFrame();
+    }
 
+    private void startRenderTimer() {
+        if (!isRenderTimerRunning) {
+            renderTimer.start();
+            isRenderTimerRunning = true;
+        }
+    }
 
-        //==============================================//
-        //============== SCROLL POSITION ===============//
-        //==============================================//
+    private void stopRenderTimer() {
+        if (isRenderTimerRunning) {
+            renderTimer.stop();
+            isRenderTimerRunning = false;
+        }
+    }
 
-        switch (scrollState.get()) {
-            case FIXED_TO_BOTTOM:
-                // Scroll to the bottom
-                scrollToBottom();
-                break;
+    /**
+     * Sends all data queued with <code>addData()</code> to the WebView. The text is appended, the buffer trimmed and
+     * the scroll position updated by one call into the Javascript, so each frame costs one bridge crossing.
+     *
+     * This is normally called by the render timer, but can be called directly to render immediately.
+     */
+    public void renderFrame() {
 
-            case SMART_SCROLL:
+        // Nothing to send, or the page is not ready yet (the timer is restarted when it is),
+        // so stop the timer from firing
+        if ((pendingData.getText().length() == 0 && pendingData.getMarkers().isEmpty()) || !safeToRunScripts.get()) {
+            stopRenderTimer();
+            return;
+        }
 
-                Integer heightChange = textHeightBeforeTrim - textHeightAfterTrim;
-                //logger.debug("heightChange = " + heightChange);
+        if (isPendingDataTruncated) {
+            clearDisplayedData();
+            isPendingDataTruncated = false;
+        }
 
-                // We need to shift the scroll up by the amount the height changed
-                Integer oldScrollTop = getComDataWrapperScrollTop();
-                //logger.debug("oldScrollTop = " + oldScrollTop);
+        addToFrame(pendingData);
+        pendingData.clear();
 
-                Integer newScrollTop = oldScrollTop - heightChange;
-                if (newScrollTop < 0)
-                    newScrollTop = 0;
-                //logger.debug("newScrollTop = " + newScrollTop);
+        // Work out how much to trim here, so the Javascript does not have to count chars. Nothing is
+        // trimmed until the buffer is over the high watermark, then whole lines are trimmed until it
+        // is under the low watermark
+        currNumChars.set(currNumChars.get() + pendingFrame.getNumChars());
+        int numCharsToTrim = BufferTrimPolicy.getNumCharsToTrim(currNumChars.get(), bufferSize.get());
 
-                setComDataWrapperScrollTop(newScrollTop);
+        Object numCharsTrimmed = window.call("appendFrame",
+                pendingFrame.build(),
+                numCharsToTrim,
+                scrollState.get() == ScrollState.FIXED_TO_BOTTOM);
 
-                break;
-            default:
-                throw new RuntimeException("scrollState not recognised.");
-        }
+        currNumChars.set(currNumChars.get() - ((Number) numCharsTrimmed).intValue());
 
+        pendingFrame.clear();
     }
 
     public void setWrappingEnabled(Boolean value) {
@@ -386,10 +509,6 @@ public class ComDataPaneWeb extends StackPane {
         runScriptWhenReady("setWrappingWidthPx(" + Double.toString(width) + ")");
     }
 
-    private Integer getComDataWrapperScrollTop() {
-        return (Integer) webEngine.executeScript("getComDataWrapperScrollTop()");
-    }
-
     private void setComDataWrapperScrollTop(Integer value) {
         runScriptWhenReady("setComDataWrapperScrollTop(" + value + ")");
     }
@@ -397,6 +516,18 @@ public class ComDataPaneWeb extends StackPane {
     public void clearData() {
         logger.debug("clearData() called.");
 
+        // Throw away any data which has not been sent yet
+        pendingData.clear();
+        isPendingDataTruncated = false;
+
+        clearDisplayedData();
+    }
+
+    /**
+     * Removes all data from the WebView.
+     */
+    private void clearDisplayedData() {
+
         // Remove all COM data
         runScriptWhenReady("clearData()");
 
@@ -424,17 +555,16 @@ public class ComDataPaneWeb extends StackPane {
 
         //logger.debug("trimIfRequired() called.");
 
-        if (currNumChars.get() >= bufferSize.get()) {
+        int numCharsToRemove = BufferTrimPolicy.getNumCharsToTrim(currNumChars.get(), bufferSize.get());
 
-            //logger.debug("Trimming data...");
+        if (numCharsToRemove > 0 && safeToRunScripts.get()) {
 
-            int numCharsToRemove = currNumChars.get() - bufferSize.get();
             //logger.debug("Need to trimIfRequired display text. currNumChars = " + currNumChars + ", numCharsToRemove = " + numCharsToRemove);
 
-            runScriptWhenReady("trim(" + numCharsToRemove + ")");
+            Object numCharsRemoved = window.call("trim", numCharsToRemove, true);
 
             // Update the character count
-            currNumChars.set(currNumChars.get() - numCharsToRemove);
+            currNumChars.set(currNumChars.get() - ((Number) numCharsRemoved).intValue());
 
             //logger.debug("currNumChars.get() = " + currNumChars.get());
         }
@@ -480,41 +610,6 @@ public class ComDataPaneWeb extends StackPane {
         }
     }
 
-    /**
-     * Appends the provided text to the rich text pane inside the WebView.
-     * <p>
-     * Escapes all Java sequences.
-     *
-     * @param text
-     */
-    private void appendText(String text) {
-
-        //logger.debug("appendText() called.");
-
-        // Return if empty string
-        // (JS will throw null error)
-        if (text.equals(""))
-            return;
-
-        // Update the variable that keeps track of the number of displayed
-        // chars in the WebView rich text object.
-        // Note: Keep track of number of chars BEFORE escaping new lines
-        currNumChars.set(currNumChars.get() + text.length());
-
-        // Escape new lines
-        //logger.debug("Non-escaped HTML = " + text);
-        text = StringEscapeUtils.escapeJava(text);
-        //logger.debug("Escaped HTML = " + text);
-
-        String js = "addText(\"" + text + "\")";
-        //logger.debug("js = " + js);
-//        webEngine.executeScript(js);
-        runScriptWhenReady(js);
-
-        //String js2 = "checkCharCount(" + currNumChars.get() + ")";
-        //runScriptWhenReady(js2);
-    }
-
     private void appendColor(Color color) {
         String js = "addColor(\"" + StringUtils.toWebColor(color) + "\")";
         //logger.debug("js = " + js);
@@ -525,18 +620,6 @@ public class ComDataPaneWeb extends StackPane {
         // we don't update currNumChars here
     }
 
-    private void appendTimeStamp(LocalDateTime localDateTime) {
-        // Convert time stamp object into string
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH-mm-ss.SSS: ");
-        String timeStamp = localDateTime.format(formatter);
-
-        runScriptWhenReady("appendTimeStamp(\"" + timeStamp + "\")");
-
-        // Update the variable that keeps track of the number of displayed
-        // chars in the WebView rich text object.
-        currNumChars.set(currNumChars.get() + timeStamp.length());
-    }
-
     private void scrollToBottom() {
 
         runScriptWhenReady("scrollToBottom()");
@@ -590,10 +673,6 @@ public class ComDataPaneWeb extends StackPane {
         scrollToBottom();
     }
 
-    private Integer getTextHeight() {
-        return (Integer) webEngine.executeScript("getTextHeight()");
-    }
-
     /**
      * Gets called by the Javascript when either the up key is pressed or the mouse wheel is scrolled
      * in the upwards direction (when the WebView has focus).
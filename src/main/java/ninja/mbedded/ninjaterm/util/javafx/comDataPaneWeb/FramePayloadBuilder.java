@@ -0,0 +1,144 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneWeb;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.stringUtils.StringUtils;
+
+/**
+ * Builds the JSON payload which is passed to <code>appendFrame()</code> in stuff.js. All the data added to a
+ * <code>{@link ComDataPaneWeb}</code> between frames is collected here, so it can be sent to the WebView
+ * with one call.
+ *
+ * The payload is a JSON array of <code>[ type, value ]</code> ops, where type is one of the <code>OP_</code>
+ * constants. Consecutive text is merged into one op.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FramePayloadBuilder {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * Op types. These must match the <code>OP_</code> variables in stuff.js.
+     */
+    static final int OP_TEXT = 0;
+    static final int OP_COLOR = 1;
+    static final int OP_TIME_STAMP = 2;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final StringBuilder payload = new StringBuilder();
+
+    /**
+     * Text which has not been written to the payload yet, so it can be merged with the next text added.
+     */
+    private final StringBuilder pendingText = new StringBuilder();
+
+    private int numOps = 0;
+
+    private int numChars = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void addText(String text) {
+        pendingText.append(text);
+        numChars += text.length();
+    }
+
+    public void addColor(Color color) {
+        flushPendingText();
+        addOp(OP_COLOR, StringUtils.toWebColor(color));
+    }
+
+    public void addTimeStamp(String timeStamp) {
+        flushPendingText();
+        addOp(OP_TIME_STAMP, timeStamp);
+        numChars += timeStamp.length();
+    }
+
+    public boolean isEmpty() {
+        return numOps == 0 && pendingText.length() == 0;
+    }
+
+    /**
+     * @return The number of chars of text (including time stamps) added since the last <code>clear()</code>.
+     */
+    public int getNumChars() {
+        return numChars;
+    }
+
+    /**
+     * @return The JSON payload for all data added since the last <code>clear()</code>.
+     */
+    public String build() {
+        flushPendingText();
+        return "[" + payload.toString() + "]";
+    }
+
+    public void clear() {
+        payload.setLength(0);
+        pendingText.setLength(0);
+        numOps = 0;
+        numChars = 0;
+    }
+
+    private void flushPendingText() {
+        if (pendingText.length() == 0)
+            return;
+        addOp(OP_TEXT, pendingText);
+        pendingText.setLength(0);
+    }
+
+    private void addOp(int type, CharSequence value) {
+        if (numOps != 0)
+            payload.append(',');
+        payload.append('[').append(type).append(',');
+        appendJsonString(payload, value);
+        payload.append(']');
+        numOps++;
+    }
+
+    /**
+     * Appends the value as a quoted JSON string. All chars outside of printable ASCII are escaped, so the output
+     * is also a valid Javascript string literal.
+     */
+    static void appendJsonString(StringBuilder output, CharSequence value) {
+        output.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    output.append("\\\"");
+                    break;
+                case '\\':
+                    output.append("\\\\");
+                    break;
+                case '\n':
+                    output.append("\\n");
+                    break;
+                case '\r':
+                    output.append("\\r");
+                    break;
+                case '\t':
+                    output.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7E) {
+                        output.append("\\u");
+                        for (int shift = 12; shift >= 0; shift -= 4)
+                            output.append(Character.forDigit((c >> shift) & 0xF, 16));
+                    } else {
+                        output.append(c);
+                    }
+            }
+        }
+        output.append('"');
+    }
+}
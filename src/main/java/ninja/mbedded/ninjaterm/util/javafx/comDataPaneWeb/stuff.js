@@ -41,103 +41,111 @@ $( document ).ready(function() {
     java.scrolled($("#com-data-wrapper").scrollTop());
 }*/
 
-function addText(newText) {
-    java.log("addText() called for \"" + name + "\" with newText = \"" + newText + "\".");
-    //java.log("com-data = " + JSON.stringify($("#com-data")));
-
-    if(!newText) {
-        return;
-    }
-
-    var lastChild;
-
-    if(isCaretShown) {
-        // If caret is shown, the caret if the last element,
-        // the last textual data is the second-to-last element
-        lastChild = $("#com-data").children().last().prev();
-        if(!lastChild) {
-            throw "Could not find child element to insert text into.";
-        }
-    } else {
-        lastChild = $("#com-data").children().last();
-        if(!lastChild) {
-            throw "Could not find child element to insert text into.";
-        }
-    }
-
-//    java.log("lastChild = \"" + JSON.stringify(lastChild) + "\".");
-    java.log("lastChild.html() = \"" + lastChild.html() + "\".");
-
-    //if (typeof lastChild.html() == 'undefined'){
-    //    java.log("lastChild was 'undefined'");
-    //    lastChild.html("");
-    //}
-
-    //java.log("lastChild (before 2) = \"" + lastChild.html() + "\".");
-
-    //java.log("lastChild.html() (before add) = ");
-    //java.log(lastChild.html());
-
-    // Add text to this last span element
-    // The span element should only contain text and new line characters,
-    // and NO child HTML elements
-    lastChild.html(lastChild.html() + newText);
-
-    //java.log("lastChild (after) = " + lastChild.html());
-
-    //java.log("lastChild.html() (after add) = ");
-    //java.log(lastChild.html());
-    //java.log("addText() finished.");
-}
-
 function addColor(color) {
-
-    java.log("addColor() called for \"" + name + "\" with color = " + color);
-
-    java.log("#com-data.html before addColor() = " + $("#com-data").html());
-
     var html = "<span style='color: " + color + ";'></span>";
-    java.log("html to add = " + html);
-
-    java.log('isCaretShown = ' + isCaretShown);
 
     if(isCaretShown) {
         // If the caret is shown, we have to insert this new color before
         // the caret node
-        java.log('Inserting color span before caret...');
         $(html).insertBefore("#caret");
 
         // Set the caret color to be the same as the current text color
         $('#caret').css('color', color);
     } else {
-        java.log('Appending color span to end of com-data object...');
         $("#com-data").append(html);
     }
 
     currColor = color;
-    java.log("#com-data.html after addColor() = " + $("#com-data").html());
 }
 
-function appendTimeStamp(timeStamp) {
-    java.log("appendTimeStamp called for \"" + name + "\" with timeStamp = " + timeStamp);
+//! @brief      Op types in the payload passed to appendFrame(). Must match FramePayloadBuilder.java.
+var OP_TEXT = 0;
+var OP_COLOR = 1;
+var OP_TIME_STAMP = 2;
+
+//! @brief      Appends all the data for one frame with a single DOM insertion, then trims the oldest
+//!             chars and updates the scroll position. This is the only function the Java code calls
+//!             for each frame of new data.
+//! @param      payloadJson     JSON array of [ type, value ] ops (see the OP_ constants).
+//! @param      numCharsToTrim  The min. number of chars to remove from the start of the data after appending.
+//!                             This is rounded up to the end of a line.
+//! @param      isFixedToBottom True to scroll to the bottom, false to keep the same data in view.
+//! @returns    The number of chars actually trimmed.
+function appendFrame(payloadJson, numCharsToTrim, isFixedToBottom) {
+    var ops = JSON.parse(payloadJson);
+
+    var comData = document.getElementById("com-data");
+    var caret = isCaretShown ? document.getElementById("caret") : null;
+
+    // Text at the start of the frame is added to the existing last span (which has the
+    // current colour), all other spans are built up in a fragment
+    var lastSpan = caret ? caret.previousElementSibling : comData.lastElementChild;
+    var fragment = document.createDocumentFragment();
+    var currSpan = null;
+
+    for(var i = 0; i < ops.length; i++) {
+        var type = ops[i][0];
+        var value = ops[i][1];
+
+        if(type === OP_TEXT) {
+            if(!currSpan && !lastSpan) {
+                currSpan = createColorSpan(currColor);
+                fragment.appendChild(currSpan);
+            }
+            (currSpan ? currSpan : lastSpan).appendChild(document.createTextNode(value));
+        } else if(type === OP_COLOR) {
+            currColor = value;
+            currSpan = createColorSpan(value);
+            fragment.appendChild(currSpan);
+        } else if(type === OP_TIME_STAMP) {
+            var timeStampSpan = createColorSpan("white");
+            timeStampSpan.textContent = value;
+            fragment.appendChild(timeStampSpan);
+
+            // Go back to existing colour
+            currSpan = createColorSpan(currColor);
+            fragment.appendChild(currSpan);
+        } else {
+            throw "Op type " + type + " not recognised.";
+        }
+    }
+
+    // insertBefore() appends if the caret is null
+    comData.insertBefore(fragment, caret);
 
-    var html = "<span style='color: white;'>" + timeStamp + "</span>";
+    if(caret) {
+        // Set the caret color to be the same as the current text color
+        caret.style.color = currColor;
+    }
 
-    if(isCaretShown) {
-        // If the caret is shown, we have to insert this new color before
-        // the caret node
-        $(html).insertBefore("#caret");
-    } else {
-        $("#com-data").append(html);
+    var numCharsTrimmed = 0;
+    if(numCharsToTrim > 0) {
+        var textHeightBeforeTrim = comData.offsetHeight;
+        numCharsTrimmed = trim(numCharsToTrim, true);
+
+        if(!isFixedToBottom) {
+            // Shift the scroll up by the amount the height changed, so the user
+            // is still looking at the same data
+            var comDataWrapper = document.getElementById("com-data-wrapper");
+            var heightChange = textHeightBeforeTrim - comData.offsetHeight;
+            comDataWrapper.scrollTop = Math.max(comDataWrapper.scrollTop - heightChange, 0);
+        }
     }
 
-    // Go back to existing colour
-    addColor(currColor);
+    if(isFixedToBottom) {
+        scrollToBottom();
+    }
 
+    return numCharsTrimmed;
 }
 
-function scrollToBottom() {
+function createColorSpan(color) {
+    var span = document.createElement("span");
+    span.style.color = color;
+    return span;
+}
 
+function scrollToBottom() {
     //$("#com-data-wrapper").off('scroll', handleScroll);
     $("#com-data-wrapper").scrollTop($("#com-data").height()-$("#com-data-wrapper").height());
     //$("#com-data-wrapper").on('scroll', handleScroll);
@@ -155,13 +163,10 @@ function getComDataWrapperScrollTop() {
 }
 
 function setWrappingEnabled(value) {
-    java.log("setWrappingEnabled() called with value = \"" + value + "\".");
     if(value) {
-        java.log("Setting CSS property to enable wrapping...");
         $("#com-data").css("width", wrappingWidthPx);
         $("#com-data").css("white-space", "pre-line");
     } else {
-        java.log("Setting CSS property to disable wrapping...");
         $("#com-data").css("width", "100%");
         $("#com-data").css("white-space", "nowrap");
     }
@@ -169,7 +174,6 @@ function setWrappingEnabled(value) {
 }
 
 function setWrappingWidthPx(width) {
-    java.log("setWrappingWidthPx() with width = \"" + width + "\".");
     if(wrappingEnabled) {
         $("#com-data").css("width", width);
     }
@@ -182,29 +186,21 @@ function setComDataWrapperScrollTop(scrollTop) {
 }
 
 function clearData() {
-    java.log("clearData() called for \"" + name + "\".")
-    java.log("#com-data.html before clearData() = " + $("#com-data").html());
-
     if(isCaretShown) {
         // Delete all child elements except for last (which is the caret)
         $("#com-data").children().not(":last").remove()
     } else {
         $("#com-data").empty();
     }
-
-    java.log("#com-data.html after clearData() = " + $("#com-data").html());
 }
 
 function showDownArrow(trueFalse) {
     // Wrapped in jQuery ready() function because of weird asynchronicity bug
     // with Java WebView
     $(document).ready(function() {
-        java.log("showDownArrow() called with trueFalse = " + trueFalse);
         if(trueFalse) {
-            java.log("Showing down-arrow...");
             $("#down-arrow").show();
         } else {
-            java.log("Hiding down-arrow...");
             $("#down-arrow").hide();
         }
     });
@@ -219,26 +215,34 @@ function setName(value) {
     // Wrapped in jQuery ready() function because of weird asynchronicity bug
     // with Java WebView
     //$(document).ready(function() {
-        java.log("setName() called with value = " + value);
         $("#name-text").text(value);
         name = value;
     //});
 }
 
 //! @brief  Trims the oldest characters from the rich text object.
-function trim(numChars) {
-
-    java.log("trim() called for \"" + name + "\" with numChars = " + numChars);
-
+//! @param  numChars            The min. number of chars to remove.
+//! @param  roundUpToLineEnd    If true, chars up to and including the next new line char are also
+//!                             removed (if there is one), so that only whole lines are removed.
+//! @returns    The number of chars removed.
+function trim(numChars, roundUpToLineEnd) {
     // Disable scroll handler, as trimming can cause this to fire when
     // we don't want it to
     //$("#com-data-wrapper").off('scroll', handleScroll);
 
+    if(roundUpToLineEnd && numChars > 0) {
+        // This copies all of the text, but trims are batched so this does
+        // not happen often
+        var newLineIndex = document.getElementById("com-data").textContent.indexOf("\n", numChars - 1);
+        if(newLineIndex !== -1) {
+            numChars = newLineIndex + 1;
+        }
+    }
+
     var numCharsToRemove = numChars;
 
     // #com-data is a div
     $("#com-data").children().each(function(index, element) {
-
         //java.log("currChildNode = ");
         //java.log(JSON.stringify(element));
 
@@ -269,14 +273,12 @@ function trim(numChars) {
     if(numCharsToRemove > 0) {
         throw "trim() was requested to remove too many chars. Remaining chars to remove = " + numCharsToRemove;
     }
+
+    return numChars;
 }
 
 function showCaret(trueFalse) {
-
-    java.log("showCaret() called for \"" + name + "\" with trueFalse = " + trueFalse);
-
     if(trueFalse == isCaretShown) {
-        java.log("caret visibility is already in desired state, returning...");
         return;
     }
 
@@ -285,20 +287,15 @@ function showCaret(trueFalse) {
     //$(document).ready(function() {
         if(trueFalse) {
             // Create cursor
-            java.log("Displaying caret...");
             //java.log("$('#com-data') (before adding caret) = " + JSON.stringify($("#com-data")));
             // &#x2588; is the hex code for the unicode character 'FULL BLOCK' (looks like a caret)
             $("#com-data").append('<span id="caret">&#x2588;</span>');
             //java.log("$('#com-data') (after adding caret) = " + JSON.stringify($("#com-data")));
             $('#caret').css('color', currColor);
             isCaretShown = true;
-            java.log("#com-data.html = " + $("#com-data").html());
-
         } else {
-            java.log("Hiding caret...");
             $("#caret").remove();
             isCaretShown = false;
-            java.log("#com-data.html = " + $("#com-data").html());
         }
     //});
 }
@@ -307,7 +304,6 @@ function showCaret(trueFalse) {
 //!             to what is expected. Mostly designed for debugging purposes, would be
 //!             quite processor intensive to run all the time.
 function checkCharCount(expectedCharCount) {
-
     var charCount = 0;
     $("#com-data").children().each(function(index, element) {
         //java.log("html().length = " + $(element).html().length);
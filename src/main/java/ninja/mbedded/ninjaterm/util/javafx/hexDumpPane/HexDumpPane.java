@@ -0,0 +1,363 @@
+package ninja.mbedded.ninjaterm.util.javafx.hexDumpPane;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextBoundsType;
+import ninja.mbedded.ninjaterm.util.rxProcessing.hexDump.ByteStore;
+import ninja.mbedded.ninjaterm.util.rxProcessing.hexDump.HexDumpFormatter;
+
+/**
+ * UI node which displays the bytes in a <code>{@link ByteStore}</code> as a hex dump, with offsets, hex and ASCII
+ * side-by-side.
+ *
+ * Only the visible rows are formatted (from the byte store, on demand) and drawn onto a
+ * <code>{@link Canvas}</code>, so the size of the store does not affect how long a frame takes.
+ *
+ * Clicking on a byte (in either the hex or ASCII column) selects it. All bytes with the value in
+ * <code>highlightedByteValue</code> are also highlighted.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class HexDumpPane extends StackPane {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    public static final int DEFAULT_BYTES_PER_ROW = 16;
+
+    /**
+     * The max. number of times per second the pane is redrawn.
+     */
+    private static final double MAX_REFRESH_RATE_HZ = 30.0;
+
+    private static final double FONT_SIZE_PX = 13.0;
+
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private static final Color OFFSET_COLOR = Color.GRAY;
+    private static final Color TEXT_COLOR = Color.LIME;
+    private static final Color SELECTED_BYTE_COLOR = Color.rgb(80, 130, 255, 0.6);
+    private static final Color HIGHLIGHTED_BYTE_COLOR = Color.rgb(255, 200, 0, 0.45);
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * The number of bytes displayed in each row. Must be a multiple of 8.
+     */
+    public SimpleIntegerProperty bytesPerRow = new SimpleIntegerProperty(DEFAULT_BYTES_PER_ROW);
+
+    /**
+     * All bytes with this value are highlighted. Set to -1 to disable.
+     */
+    public SimpleIntegerProperty highlightedByteValue = new SimpleIntegerProperty(-1);
+
+    /**
+     * The offset of the byte selected by the user, or -1 if no byte is selected.
+     */
+    public SimpleLongProperty selectedOffset = new SimpleLongProperty(-1);
+
+    private ByteStore byteStore;
+
+    private HexDumpFormatter formatter = new HexDumpFormatter(DEFAULT_BYTES_PER_ROW);
+
+    private final Canvas canvas = new Canvas();
+
+    private final ScrollBar scrollBar = new ScrollBar();
+
+    private boolean isUpdatingScrollBar = false;
+
+    private final Font font = Font.font("Monospaced", FONT_SIZE_PX);
+    private final double cellWidth;
+    private final double cellHeight;
+
+    /**
+     * True if the view follows new data as it arrives (i.e. is scrolled to the bottom).
+     */
+    private boolean isFixedToBottom = true;
+
+    /**
+     * The row number (offset / bytes per row) of the row at the top of the view port.
+     */
+    private long topRowNumber = 0;
+
+    /**
+     * Re-used to hold the chars of each row while drawing.
+     */
+    private char[] rowChars = new char[formatter.getRowLength()];
+
+    //==============================================//
+    //=============== FRAME RENDERING ==============//
+    //==============================================//
+
+    private boolean isRedrawRequired = false;
+
+    private AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handleRenderTimerPulse(now);
+        }
+    };
+
+    private boolean isRenderTimerRunning = false;
+
+    private long lastFrameTimeNs = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public HexDumpPane() {
+
+        Text text = new Text("W");
+        text.setFont(font);
+        text.setBoundsType(TextBoundsType.LOGICAL);
+        cellWidth = Math.ceil(text.getLayoutBounds().getWidth());
+        cellHeight = Math.ceil(text.getLayoutBounds().getHeight());
+
+        // A canvas does not resize itself, so it is placed in a pane and
+        // sized to match it
+        Pane canvasPane = new Pane(canvas);
+        canvasPane.setMinSize(0, 0);
+        canvasPane.setPrefSize(0, 0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::handleMousePressed);
+        canvas.addEventHandler(ScrollEvent.SCROLL, this::handleScroll);
+
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setMin(0);
+        scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!isUpdatingScrollBar)
+                scrollToRowIndex(Math.round(newValue.doubleValue()));
+        });
+
+        BorderPane borderPane = new BorderPane();
+        borderPane.setCenter(canvasPane);
+        borderPane.setRight(scrollBar);
+        getChildren().add(borderPane);
+
+        bytesPerRow.addListener((observable, oldValue, newValue) -> {
+            // Keep the same bytes at the top of the view port
+            topRowNumber = topRowNumber * oldValue.intValue() / newValue.intValue();
+            formatter = new HexDumpFormatter(newValue.intValue());
+            rowChars = new char[formatter.getRowLength()];
+            requestRedraw();
+        });
+
+        highlightedByteValue.addListener((observable, oldValue, newValue) -> requestRedraw());
+        selectedOffset.addListener((observable, oldValue, newValue) -> requestRedraw());
+    }
+
+    /**
+     * Sets the byte store to display. Call <code>dataChanged()</code> whenever bytes are added to or removed from
+     * the store.
+     */
+    public void setByteStore(ByteStore byteStore) {
+        this.byteStore = byteStore;
+        dataChanged();
+    }
+
+    /**
+     * Tells this pane that the contents of the byte store has changed. The pane is redrawn on the next frame, so it
+     * is cheap to call this many times between frames.
+     */
+    public void dataChanged() {
+        if (byteStore != null && selectedOffset.get() >= 0
+                && (selectedOffset.get() < byteStore.getStartOffset() || selectedOffset.get() >= byteStore.getEndOffset())) {
+            // The selected byte is no longer in the store
+            selectedOffset.set(-1);
+        }
+        requestRedraw();
+    }
+
+    //================================================================================================//
+    //======================================== FRAME RENDERING =======================================//
+    //================================================================================================//
+
+    private void requestRedraw() {
+        isRedrawRequired = true;
+        if (!isRenderTimerRunning) {
+            renderTimer.start();
+            isRenderTimerRunning = true;
+        }
+    }
+
+    private void handleRenderTimerPulse(long nowNs) {
+
+        if (!isRedrawRequired) {
+            renderTimer.stop();
+            isRenderTimerRunning = false;
+            return;
+        }
+
+        if (nowNs - lastFrameTimeNs < (long) (1e9 / MAX_REFRESH_RATE_HZ))
+            return;
+
+        lastFrameTimeNs = nowNs;
+        isRedrawRequired = false;
+        updateScrollBar();
+        draw();
+    }
+
+    private long getFirstRowNumber() {
+        return byteStore.getStartOffset() / formatter.getBytesPerRow();
+    }
+
+    /**
+     * @return The number of rows needed to display all bytes in the store.
+     */
+    private long getNumRows() {
+        if (byteStore == null || byteStore.size() == 0)
+            return 0;
+        return (byteStore.getEndOffset() - 1) / formatter.getBytesPerRow() - getFirstRowNumber() + 1;
+    }
+
+    private int getNumVisibleRows() {
+        return Math.max((int) (canvas.getHeight() / cellHeight), 1);
+    }
+
+    private long getMaxTopRowIndex() {
+        return Math.max(getNumRows() - getNumVisibleRows(), 0);
+    }
+
+    private long getTopRowIndex() {
+        if (isFixedToBottom)
+            return getMaxTopRowIndex();
+        return Math.max(Math.min(topRowNumber - getFirstRowNumber(), getMaxTopRowIndex()), 0);
+    }
+
+    private void scrollToRowIndex(long rowIndex) {
+        if (byteStore == null)
+            return;
+
+        final long maxTopRowIndex = getMaxTopRowIndex();
+        rowIndex = Math.max(Math.min(rowIndex, maxTopRowIndex), 0);
+
+        topRowNumber = getFirstRowNumber() + rowIndex;
+        isFixedToBottom = rowIndex >= maxTopRowIndex;
+        requestRedraw();
+    }
+
+    private void updateScrollBar() {
+        isUpdatingScrollBar = true;
+        scrollBar.setMax(byteStore == null ? 0 : getMaxTopRowIndex());
+        scrollBar.setVisibleAmount(getNumVisibleRows());
+        scrollBar.setBlockIncrement(getNumVisibleRows());
+        scrollBar.setValue(byteStore == null ? 0 : getTopRowIndex());
+        isUpdatingScrollBar = false;
+    }
+
+    private void draw() {
+
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        gc.setFill(BACKGROUND_COLOR);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        if (byteStore == null)
+            return;
+
+        gc.setFont(font);
+        gc.setTextBaseline(VPos.TOP);
+
+        final int bytesPerRowValue = formatter.getBytesPerRow();
+        final long topRowIndex = getTopRowIndex();
+        // Include a partially visible row at the bottom
+        final int numRows = (int) Math.min(getNumVisibleRows() + 1, getNumRows() - topRowIndex);
+
+        for (int row = 0; row < numRows; row++) {
+            final long rowOffset = (getFirstRowNumber() + topRowIndex + row) * bytesPerRowValue;
+            final double y = row * cellHeight;
+
+            //==============================================//
+            //================= HIGHLIGHTS =================//
+            //==============================================//
+
+            for (int byteIndex = 0; byteIndex < bytesPerRowValue; byteIndex++) {
+                final long offset = rowOffset + byteIndex;
+                if (offset < byteStore.getStartOffset())
+                    continue;
+                if (offset >= byteStore.getEndOffset())
+                    break;
+
+                Color highlightColor = null;
+                if (offset == selectedOffset.get())
+                    highlightColor = SELECTED_BYTE_COLOR;
+                else if (highlightedByteValue.get() >= 0 && (byteStore.get(offset) & 0xFF) == highlightedByteValue.get())
+                    highlightColor = HIGHLIGHTED_BYTE_COLOR;
+
+                if (highlightColor != null) {
+                    gc.setFill(highlightColor);
+                    gc.fillRect(formatter.getHexColumn(byteIndex) * cellWidth, y, 2 * cellWidth, cellHeight);
+                    gc.fillRect(formatter.getAsciiColumn(byteIndex) * cellWidth, y, cellWidth, cellHeight);
+                }
+            }
+
+            //==============================================//
+            //==================== TEXT ====================//
+            //==============================================//
+
+            formatter.formatRow(byteStore, rowOffset, rowChars);
+
+            gc.setFill(OFFSET_COLOR);
+            gc.fillText(new String(rowChars, 0, HexDumpFormatter.NUM_OFFSET_DIGITS), 0, y);
+
+            gc.setFill(TEXT_COLOR);
+            final int hexStartCol = formatter.getHexColumn(0);
+            gc.fillText(new String(rowChars, hexStartCol, rowChars.length - hexStartCol), hexStartCol * cellWidth, y);
+        }
+    }
+
+    //================================================================================================//
+    //========================================== USER INPUT ==========================================//
+    //================================================================================================//
+
+    private void handleMousePressed(MouseEvent mouseEvent) {
+        if (mouseEvent.getButton() != MouseButton.PRIMARY || byteStore == null)
+            return;
+
+        final long rowIndex = getTopRowIndex() + (long) (mouseEvent.getY() / cellHeight);
+        final int byteIndex = formatter.getByteIndexAtColumn((int) (mouseEvent.getX() / cellWidth));
+
+        final long offset = (getFirstRowNumber() + rowIndex) * formatter.getBytesPerRow() + byteIndex;
+        if (byteIndex < 0 || offset < byteStore.getStartOffset() || offset >= byteStore.getEndOffset())
+            selectedOffset.set(-1);
+        else
+            selectedOffset.set(offset);
+    }
+
+    private void handleScroll(ScrollEvent scrollEvent) {
+        if (scrollEvent.getDeltaY() == 0)
+            return;
+
+        // Scroll by at least one row per event
+        long numRows = Math.round(-scrollEvent.getDeltaY() / cellHeight);
+        if (numRows == 0)
+            numRows = (scrollEvent.getDeltaY() > 0) ? -1 : 1;
+
+        scrollToRowIndex(getTopRowIndex() + numRows);
+        scrollEvent.consume();
+    }
+}
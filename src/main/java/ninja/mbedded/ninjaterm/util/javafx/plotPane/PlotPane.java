@@ -0,0 +1,329 @@
+package ninja.mbedded.ninjaterm.util.javafx.plotPane;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.MinMaxDecimator;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.SampleBuffer;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.ValueSeries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UI node which plots one or more <code>{@link ValueSeries}</code> against time, drawn onto a
+ * <code>{@link Canvas}</code>.
+ *
+ * The samples of each series are decimated down to at most 4 points per pixel column before they are drawn (see
+ * <code>{@link MinMaxDecimator}</code>), so the time taken to draw a frame depends on the width of the pane rather
+ * than the number of samples. The pane is only redrawn when <code>dataChanged()</code> is called, and at most
+ * <code>MAX_REFRESH_RATE_HZ</code> times per second.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class PlotPane extends StackPane {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of times per second the pane is redrawn.
+     */
+    private static final double MAX_REFRESH_RATE_HZ = 30.0;
+
+    private static final double LEFT_MARGIN_PX = 70.0;
+    private static final double RIGHT_MARGIN_PX = 15.0;
+    private static final double TOP_MARGIN_PX = 10.0;
+    private static final double BOTTOM_MARGIN_PX = 25.0;
+
+    /**
+     * The number of divisions on each axis.
+     */
+    private static final int NUM_GRID_DIVISIONS = 5;
+
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private static final Color GRID_COLOR = Color.rgb(60, 60, 60);
+    private static final Color AXIS_TEXT_COLOR = Color.GRAY;
+
+    private static final Font FONT = Font.font("Monospaced", 12.0);
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * The amount of time shown, counting back from the most recent sample. Set to 0 to show all samples.
+     */
+    public SimpleLongProperty timeWindowMs = new SimpleLongProperty(60000);
+
+    private List<ValueSeries> valueSeries = new ArrayList<>();
+
+    private final Canvas canvas = new Canvas();
+
+    /**
+     * The decimated points of each series, re-used between frames.
+     */
+    private double[][] decimatedTimes = new double[0][];
+    private double[][] decimatedValues = new double[0][];
+    private int[] numDecimatedPoints = new int[0];
+
+    /**
+     * Pixel coordinates of the points of one series, re-used between frames.
+     */
+    private double[] xPixels = new double[0];
+    private double[] yPixels = new double[0];
+
+    //==============================================//
+    //=============== FRAME RENDERING ==============//
+    //==============================================//
+
+    private boolean isRedrawRequired = false;
+
+    private AnimationTimer renderTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handleRenderTimerPulse(now);
+        }
+    };
+
+    private boolean isRenderTimerRunning = false;
+
+    private long lastFrameTimeNs = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public PlotPane() {
+
+        // A canvas does not resize itself, so it is placed in a pane and
+        // sized to match it
+        Pane canvasPane = new Pane(canvas);
+        canvasPane.setMinSize(0, 0);
+        canvasPane.setPrefSize(0, 0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> requestRedraw());
+
+        getChildren().add(canvasPane);
+
+        timeWindowMs.addListener((observable, oldValue, newValue) -> requestRedraw());
+    }
+
+    /**
+     * Sets the series to plot. The pane is redrawn whenever series are added or removed.
+     */
+    public void setValueSeries(ObservableList<ValueSeries> valueSeries) {
+        this.valueSeries = valueSeries;
+        valueSeries.addListener((ListChangeListener<ValueSeries>) change -> requestRedraw());
+        requestRedraw();
+    }
+
+    /**
+     * Tells this pane that samples have been added to (or removed from) the series. The pane is redrawn on the
+     * next frame, so it is cheap to call this many times between frames.
+     */
+    public void dataChanged() {
+        requestRedraw();
+    }
+
+    //================================================================================================//
+    //======================================== FRAME RENDERING =======================================//
+    //================================================================================================//
+
+    private void requestRedraw() {
+        isRedrawRequired = true;
+        if (!isRenderTimerRunning) {
+            renderTimer.start();
+            isRenderTimerRunning = true;
+        }
+    }
+
+    private void handleRenderTimerPulse(long nowNs) {
+
+        if (!isRedrawRequired) {
+            renderTimer.stop();
+            isRenderTimerRunning = false;
+            return;
+        }
+
+        if (nowNs - lastFrameTimeNs < (long) (1e9 / MAX_REFRESH_RATE_HZ))
+            return;
+
+        lastFrameTimeNs = nowNs;
+        isRedrawRequired = false;
+        draw();
+    }
+
+    private void draw() {
+
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        gc.setFill(BACKGROUND_COLOR);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        gc.setFont(FONT);
+
+        final double plotWidth = canvas.getWidth() - LEFT_MARGIN_PX - RIGHT_MARGIN_PX;
+        final double plotHeight = canvas.getHeight() - TOP_MARGIN_PX - BOTTOM_MARGIN_PX;
+        if (plotWidth < 1.0 || plotHeight < 1.0)
+            return;
+
+        //==============================================//
+        //================= TIME RANGE =================//
+        //==============================================//
+
+        long endTimeMs = Long.MIN_VALUE;
+        long firstTimeMs = Long.MAX_VALUE;
+        for (ValueSeries series : valueSeries) {
+            if (series.samples.size() == 0)
+                continue;
+            endTimeMs = Math.max(endTimeMs, series.samples.getTime(series.samples.size() - 1));
+            firstTimeMs = Math.min(firstTimeMs, series.samples.getTime(0));
+        }
+
+        if (endTimeMs == Long.MIN_VALUE) {
+            gc.setFill(AXIS_TEXT_COLOR);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(valueSeries.isEmpty() ? "Add a series to start plotting." : "Waiting for data...",
+                    canvas.getWidth() / 2, canvas.getHeight() / 2);
+            return;
+        }
+
+        final long startTimeMs = (timeWindowMs.get() > 0) ? endTimeMs - timeWindowMs.get() : firstTimeMs;
+        final double timeRangeMs = Math.max(endTimeMs - startTimeMs, 1);
+
+        //==============================================//
+        //================= DECIMATION =================//
+        //==============================================//
+
+        final int numBuckets = (int) plotWidth;
+        allocateDecimationArrays(valueSeries.size(), numBuckets * MinMaxDecimator.MAX_POINTS_PER_BUCKET);
+
+        double minValue = Double.POSITIVE_INFINITY;
+        double maxValue = Double.NEGATIVE_INFINITY;
+
+        for (int seriesIndex = 0; seriesIndex < valueSeries.size(); seriesIndex++) {
+            final SampleBuffer samples = valueSeries.get(seriesIndex).samples;
+
+            numDecimatedPoints[seriesIndex] = MinMaxDecimator.decimate(
+                    samples,
+                    samples.indexOfFirstAtOrAfter(startTimeMs),
+                    samples.size(),
+                    startTimeMs,
+                    endTimeMs,
+                    numBuckets,
+                    decimatedTimes[seriesIndex],
+                    decimatedValues[seriesIndex]);
+
+            for (int i = 0; i < numDecimatedPoints[seriesIndex]; i++) {
+                minValue = Math.min(minValue, decimatedValues[seriesIndex][i]);
+                maxValue = Math.max(maxValue, decimatedValues[seriesIndex][i]);
+            }
+        }
+
+        if (minValue > maxValue) {
+            // No samples in the time window
+            minValue = 0.0;
+            maxValue = 1.0;
+        } else if (minValue == maxValue) {
+            // Give a flat line some room above and below it
+            final double padding = (minValue == 0.0) ? 1.0 : Math.abs(minValue) * 0.1;
+            minValue -= padding;
+            maxValue += padding;
+        }
+
+        final double valueRange = maxValue - minValue;
+
+        //==============================================//
+        //================ GRID AND AXES ===============//
+        //==============================================//
+
+        gc.setLineWidth(1.0);
+        gc.setStroke(GRID_COLOR);
+        gc.setFill(AXIS_TEXT_COLOR);
+
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i <= NUM_GRID_DIVISIONS; i++) {
+            final double y = TOP_MARGIN_PX + plotHeight - plotHeight * i / NUM_GRID_DIVISIONS;
+            gc.strokeLine(LEFT_MARGIN_PX, y, LEFT_MARGIN_PX + plotWidth, y);
+            gc.fillText(formatValue(minValue + valueRange * i / NUM_GRID_DIVISIONS), LEFT_MARGIN_PX - 5, y);
+        }
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        for (int i = 0; i <= NUM_GRID_DIVISIONS; i++) {
+            final double x = LEFT_MARGIN_PX + plotWidth * i / NUM_GRID_DIVISIONS;
+            gc.strokeLine(x, TOP_MARGIN_PX, x, TOP_MARGIN_PX + plotHeight);
+            // Times are shown relative to the most recent sample
+            final double secondsBeforeEnd = timeRangeMs * (NUM_GRID_DIVISIONS - i) / NUM_GRID_DIVISIONS / 1000.0;
+            gc.fillText(String.format("-%.1fs", secondsBeforeEnd), x, TOP_MARGIN_PX + plotHeight + 5);
+        }
+
+        //==============================================//
+        //=================== SERIES ===================//
+        //==============================================//
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(LEFT_MARGIN_PX, TOP_MARGIN_PX, plotWidth, plotHeight);
+        gc.clip();
+
+        for (int seriesIndex = 0; seriesIndex < valueSeries.size(); seriesIndex++) {
+            final int numPoints = numDecimatedPoints[seriesIndex];
+            for (int i = 0; i < numPoints; i++) {
+                xPixels[i] = LEFT_MARGIN_PX + decimatedTimes[seriesIndex][i] / timeRangeMs * plotWidth;
+                yPixels[i] = TOP_MARGIN_PX + plotHeight - (decimatedValues[seriesIndex][i] - minValue) / valueRange * plotHeight;
+            }
+
+            gc.setStroke(valueSeries.get(seriesIndex).color);
+            gc.strokePolyline(xPixels, yPixels, numPoints);
+        }
+
+        gc.restore();
+
+        //==============================================//
+        //=================== LEGEND ===================//
+        //==============================================//
+
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.TOP);
+        for (int seriesIndex = 0; seriesIndex < valueSeries.size(); seriesIndex++) {
+            final ValueSeries series = valueSeries.get(seriesIndex);
+            gc.setFill(series.color);
+            gc.fillText(series.getName(), LEFT_MARGIN_PX + 10, TOP_MARGIN_PX + 5 + seriesIndex * (FONT.getSize() + 4));
+        }
+    }
+
+    private void allocateDecimationArrays(int numSeries, int maxNumPoints) {
+        if (decimatedTimes.length != numSeries || xPixels.length != maxNumPoints) {
+            decimatedTimes = new double[numSeries][maxNumPoints];
+            decimatedValues = new double[numSeries][maxNumPoints];
+            numDecimatedPoints = new int[numSeries];
+            xPixels = new double[maxNumPoints];
+            yPixels = new double[maxNumPoints];
+        }
+    }
+
+    private static String formatValue(double value) {
+        final double absValue = Math.abs(value);
+        if (absValue != 0.0 && (absValue >= 1e6 || absValue < 1e-3))
+            return String.format("%.3e", value);
+        return String.format("%.3f", value);
+    }
+}
@@ -0,0 +1,275 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+import ninja.mbedded.ninjaterm.util.encodingUtils.EncodingUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.javatuples.Pair;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A compiled macro script, which is run by a <code>{@link MacroScriptRunner}</code>.
+ *
+ * A script is a list of commands, separated by new lines or ';'. Anything after a '#' is a comment. Commands are
+ * case-insensitive:
+ * <ul>
+ * <li><code>send "text"</code>: Sends the text. C-style escapes (e.g. "\r\n") are supported.</li>
+ * <li><code>sendhex 0D0A</code>: Sends the hex bytes.</li>
+ * <li><code>wait 100</code>: Waits for a number of milliseconds (fractions are allowed, e.g. "0.5").</li>
+ * <li><code>waitfor "regex" 1000</code>: Waits until the regex matches the RX data received since the last
+ * <code>send</code>, or until the timeout (in milliseconds) passes.</li>
+ * <li><code>ifmatch label</code>/<code>ifnomatch label</code>: Jumps to the label if the last <code>waitfor</code>
+ * matched/timed out.</li>
+ * <li><code>label name</code>/<code>goto name</code>: Marks a place in the script/jumps to it.</li>
+ * <li><code>repeat 5</code> ... <code>end</code>: Runs the enclosed commands a number of times. Loops can be nested.</li>
+ * </ul>
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MacroScript {
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public final List<MacroStep> steps;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    private MacroScript(List<MacroStep> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Compiles a script.
+     *
+     * @throws MacroScriptException If the script is not valid. Only the first error is reported.
+     */
+    public static MacroScript compile(String script) throws MacroScriptException {
+
+        List<MacroStep> steps = new ArrayList<>();
+
+        // Jump steps are resolved once all labels are known
+        Map<String, Integer> labelIndexes = new HashMap<>();
+        Map<MacroStep, String> jumpLabels = new HashMap<>();
+
+        // The indexes of the REPEAT_START steps which have not been ended yet
+        Deque<Integer> openRepeatIndexes = new ArrayDeque<>();
+
+        String[] lines = script.split("\r\n|\r|\n", -1);
+        for (int lineIndex = 0; lineIndex < lines.length; lineIndex++) {
+            final int lineNum = lineIndex + 1;
+
+            for (List<String> tokens : tokenise(lines[lineIndex], lineNum)) {
+
+                final String command = tokens.get(0).toLowerCase();
+                final MacroStep step;
+
+                switch (command) {
+                    case "send":
+                        checkNumArgs(tokens, 1, lineNum);
+                        step = new MacroStep(MacroStep.Types.SEND, lineNum);
+                        step.data = StringEscapeUtils.unescapeJava(parseQuoted(tokens.get(1), lineNum)).getBytes();
+                        break;
+                    case "sendhex":
+                        if (tokens.size() < 2)
+                            throw new MacroScriptException(lineNum, "\"sendhex\" needs a hex sequence.");
+                        step = new MacroStep(MacroStep.Types.SEND, lineNum);
+                        step.data = parseHex(String.join("", tokens.subList(1, tokens.size())), lineNum);
+                        break;
+                    case "wait":
+                        checkNumArgs(tokens, 1, lineNum);
+                        step = new MacroStep(MacroStep.Types.WAIT, lineNum);
+                        step.durationNs = parseDurationNs(tokens.get(1), lineNum);
+                        break;
+                    case "waitfor":
+                        checkNumArgs(tokens, 2, lineNum);
+                        step = new MacroStep(MacroStep.Types.WAIT_FOR, lineNum);
+                        step.pattern = parsePattern(tokens.get(1), lineNum);
+                        step.durationNs = parseDurationNs(tokens.get(2), lineNum);
+                        break;
+                    case "repeat":
+                        checkNumArgs(tokens, 1, lineNum);
+                        step = new MacroStep(MacroStep.Types.REPEAT_START, lineNum);
+                        step.count = parseCount(tokens.get(1), lineNum);
+                        openRepeatIndexes.push(steps.size());
+                        break;
+                    case "end":
+                        checkNumArgs(tokens, 0, lineNum);
+                        if (openRepeatIndexes.isEmpty())
+                            throw new MacroScriptException(lineNum, "\"end\" without a matching \"repeat\".");
+                        final int repeatStartIndex = openRepeatIndexes.pop();
+                        steps.get(repeatStartIndex).targetIndex = steps.size();
+                        step = new MacroStep(MacroStep.Types.REPEAT_END, lineNum);
+                        step.targetIndex = repeatStartIndex + 1;
+                        break;
+                    case "label":
+                        checkNumArgs(tokens, 1, lineNum);
+                        if (labelIndexes.put(tokens.get(1), steps.size()) != null)
+                            throw new MacroScriptException(lineNum, "Label \"" + tokens.get(1) + "\" is defined more than once.");
+                        // Labels do not produce a step
+                        continue;
+                    case "goto":
+                    case "ifmatch":
+                    case "ifnomatch":
+                        checkNumArgs(tokens, 1, lineNum);
+                        step = new MacroStep(
+                                command.equals("goto") ? MacroStep.Types.GOTO :
+                                        command.equals("ifmatch") ? MacroStep.Types.IF_MATCH : MacroStep.Types.IF_NO_MATCH,
+                                lineNum);
+                        jumpLabels.put(step, tokens.get(1));
+                        break;
+                    default:
+                        throw new MacroScriptException(lineNum, "Command \"" + tokens.get(0) + "\" not recognised.");
+                }
+
+                steps.add(step);
+            }
+        }
+
+        if (!openRepeatIndexes.isEmpty())
+            throw new MacroScriptException(steps.get(openRepeatIndexes.peek()).lineNum, "\"repeat\" without a matching \"end\".");
+
+        for (Map.Entry<MacroStep, String> jumpLabel : jumpLabels.entrySet()) {
+            final Integer targetIndex = labelIndexes.get(jumpLabel.getValue());
+            if (targetIndex == null)
+                throw new MacroScriptException(jumpLabel.getKey().lineNum, "Label \"" + jumpLabel.getValue() + "\" is not defined.");
+            jumpLabel.getKey().targetIndex = targetIndex;
+        }
+
+        return new MacroScript(steps);
+    }
+
+    /**
+     * Splits a line into commands, and each command into tokens. Quoted tokens keep their quotes (and any escapes)
+     * so that they can be told apart from plain tokens. Empty commands are skipped.
+     */
+    private static List<List<String>> tokenise(String line, int lineNum) throws MacroScriptException {
+
+        List<List<String>> commands = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+
+        int i = 0;
+        while (i < line.length()) {
+            final char c = line.charAt(i);
+
+            if (c == '#') {
+                break;
+            } else if (c == ';') {
+                if (!tokens.isEmpty())
+                    commands.add(tokens);
+                tokens = new ArrayList<>();
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = i + 1;
+                while (end < line.length() && line.charAt(end) != '"') {
+                    // Skip over escaped chars, so that \" does not end the token
+                    end += (line.charAt(end) == '\\') ? 2 : 1;
+                }
+                if (end >= line.length())
+                    throw new MacroScriptException(lineNum, "Missing closing quote.");
+                tokens.add(line.substring(i, end + 1));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < line.length() && !Character.isWhitespace(line.charAt(end))
+                        && line.charAt(end) != ';' && line.charAt(end) != '#') {
+                    end++;
+                }
+                tokens.add(line.substring(i, end));
+                i = end;
+            }
+        }
+
+        if (!tokens.isEmpty())
+            commands.add(tokens);
+
+        return commands;
+    }
+
+    private static void checkNumArgs(List<String> tokens, int numArgs, int lineNum) throws MacroScriptException {
+        if (tokens.size() - 1 != numArgs)
+            throw new MacroScriptException(lineNum, "\"" + tokens.get(0) + "\" needs " + numArgs + " argument(s), found " + (tokens.size() - 1) + ".");
+    }
+
+    /**
+     * @return The token without its quotes.
+     */
+    private static String parseQuoted(String token, int lineNum) throws MacroScriptException {
+        if (token.length() < 2 || token.charAt(0) != '"')
+            throw new MacroScriptException(lineNum, "Expected quoted text, found " + token + ".");
+        return token.substring(1, token.length() - 1);
+    }
+
+    private static byte[] parseHex(String hex, int lineNum) throws MacroScriptException {
+
+        Pair<List<Byte>, EncodingUtils.ReturnId> result = EncodingUtils.hexStringToByteArray(hex);
+
+        switch (result.getValue1()) {
+            case OK:
+                break;
+            case STRING_DID_NOT_HAVE_EVEN_NUMBER_OF_CHARS:
+                throw new MacroScriptException(lineNum, "Hex sequence \"" + hex + "\" does not have an even number of characters.");
+            case INVALID_CHAR:
+                throw new MacroScriptException(lineNum, "Hex sequence \"" + hex + "\" contains invalid chars (must only contain numbers or the letters A-F).");
+            default:
+                throw new RuntimeException("ReturnCode was not recognised.");
+        }
+
+        List<Byte> bytes = result.getValue0();
+        byte[] byteArray = new byte[bytes.size()];
+        for (int i = 0; i < bytes.size(); i++) {
+            byteArray[i] = bytes.get(i);
+        }
+        return byteArray;
+    }
+
+    private static long parseDurationNs(String token, int lineNum) throws MacroScriptException {
+        final double durationMs;
+        try {
+            durationMs = Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            throw new MacroScriptException(lineNum, "\"" + token + "\" is not a valid number of milliseconds.");
+        }
+        if (!(durationMs >= 0.0) || Double.isInfinite(durationMs))
+            throw new MacroScriptException(lineNum, "\"" + token + "\" is not a valid number of milliseconds.");
+        return Math.round(durationMs * 1000000.0);
+    }
+
+    private static int parseCount(String token, int lineNum) throws MacroScriptException {
+        final int count;
+        try {
+            count = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new MacroScriptException(lineNum, "\"" + token + "\" is not a valid repeat count.");
+        }
+        if (count < 1)
+            throw new MacroScriptException(lineNum, "Repeat count must be at least 1.");
+        return count;
+    }
+
+    private static GuardedPattern parsePattern(String token, int lineNum) throws MacroScriptException {
+        // Only \" is un-escaped, all other escapes are left for the regex engine
+        final String regex = parseQuoted(token, lineNum).replace("\\\"", "\"");
+        if (regex.isEmpty())
+            throw new MacroScriptException(lineNum, "\"waitfor\" pattern cannot be empty.");
+        try {
+            return GuardedPattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new MacroScriptException(lineNum, "\"" + regex + "\" is not a valid regex (" + e.getDescription() + ").");
+        }
+    }
+}
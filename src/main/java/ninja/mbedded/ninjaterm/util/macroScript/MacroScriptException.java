@@ -0,0 +1,23 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+/**
+ * Thrown when a macro script cannot be compiled.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MacroScriptException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The (1-based) line of the script the error is on.
+     */
+    public final int lineNum;
+
+    public MacroScriptException(int lineNum, String message) {
+        super("Line " + lineNum + ": " + message);
+        this.lineNum = lineNum;
+    }
+}
@@ -0,0 +1,55 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+/**
+ * A snapshot of the progress of a script being run by a <code>{@link MacroScriptRunner}</code>.
+ *
+ * The step latency is the time between when a step should have started (e.g. the end of a wait, or when the RX
+ * data matching a <code>waitfor</code> arrived) and when it actually started.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MacroScriptProgress {
+
+    public enum States {
+        RUNNING,
+        FINISHED,
+        CANCELLED,
+    }
+
+    public final States state;
+
+    /**
+     * The script line of the step currently running (or waiting).
+     */
+    public final int currLineNum;
+
+    /**
+     * The number of times a step has started after waiting (and so the number of latency measurements).
+     */
+    public final long numLatencySamples;
+
+    public final double minStepLatencyUs;
+
+    public final double avgStepLatencyUs;
+
+    public final double maxStepLatencyUs;
+
+    public MacroScriptProgress(States state, int currLineNum, long numLatencySamples,
+                               double minStepLatencyUs, double avgStepLatencyUs, double maxStepLatencyUs) {
+        this.state = state;
+        this.currLineNum = currLineNum;
+        this.numLatencySamples = numLatencySamples;
+        this.minStepLatencyUs = minStepLatencyUs;
+        this.avgStepLatencyUs = avgStepLatencyUs;
+        this.maxStepLatencyUs = maxStepLatencyUs;
+    }
+
+    /**
+     * @return True if this is the last progress update for the script.
+     */
+    public boolean isDone() {
+        return state == States.FINISHED || state == States.CANCELLED;
+    }
+}
@@ -0,0 +1,10 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+/**
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface MacroScriptProgressListener {
+    void run(MacroScriptProgress macroScriptProgress);
+}
@@ -0,0 +1,315 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+import javafx.application.Platform;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a <code>{@link MacroScript}</code> on a background scheduler thread.
+ *
+ * Nothing ever blocks: waits (and <code>waitfor</code> timeouts) are scheduled with nanosecond delays, and
+ * <code>waitfor</code> steps are resumed as soon as RX data passed to <code>rxDataReceived()</code> matches. TX data
+ * is passed to the <code>{@link TxDataSink}</code> on the UI thread. All script state is only accessed from the
+ * scheduler thread, so no locking is needed.
+ *
+ * Only one script can be run at a time. <code>start()</code> and <code>stop()</code> must be called from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MacroScriptRunner {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of RX chars kept for <code>waitfor</code> steps to match against. The oldest chars are dropped
+     * first.
+     */
+    static final int MAX_RX_BUFFER_SIZE_CHARS = 10000;
+
+    /**
+     * The max. number of steps run in a row without waiting. After this, the rest of the steps are re-scheduled,
+     * so that a script which loops without waiting can still be stopped.
+     */
+    static final int MAX_NUM_STEPS_WITHOUT_YIELDING = 1000;
+
+    /**
+     * The min. time between progress updates while running.
+     */
+    private static final long PROGRESS_UPDATE_PERIOD_NS = 100000000L;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final TxDataSink txDataSink;
+
+    /**
+     * Runs all steps, waits and RX matching. Can be replaced in unit tests.
+     */
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MacroScriptRunner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Used to send TX data and pass progress back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    /**
+     * Set on the UI thread when a script is started, and cleared on the scheduler thread when it is done.
+     */
+    private volatile boolean isRunning = false;
+
+    /**
+     * Only accessed from the scheduler thread.
+     */
+    private MacroScript script;
+    private MacroScriptProgressListener macroScriptProgressListener;
+    private int stepIndex;
+    private int currLineNum;
+    private int[] numIterationsRemaining;
+    private boolean isLastWaitForMatched;
+    private final StringBuilder rxBuffer = new StringBuilder();
+    private GuardedPattern waitForPattern;
+    private ScheduledFuture<?> pendingFuture;
+
+    private long numLatencySamples;
+    private long minStepLatencyNs;
+    private long maxStepLatencyNs;
+    private long totalStepLatencyNs;
+    private long lastProgressTimeNs;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public MacroScriptRunner(TxDataSink txDataSink) {
+        this.txDataSink = txDataSink;
+    }
+
+    /**
+     * Starts running a script in the background.
+     *
+     * @param script                        The script to run.
+     * @param macroScriptProgressListener   Called on the UI thread as the script runs. The last call has a "done" state.
+     * @throws IllegalStateException If a script is already running.
+     */
+    public void start(MacroScript script, MacroScriptProgressListener macroScriptProgressListener) {
+        if (isRunning)
+            throw new IllegalStateException("A script is already running.");
+        isRunning = true;
+
+        final long startTimeNs = System.nanoTime();
+        scheduler.execute(() -> {
+            this.script = script;
+            this.macroScriptProgressListener = macroScriptProgressListener;
+            stepIndex = 0;
+            currLineNum = script.steps.isEmpty() ? 0 : script.steps.get(0).lineNum;
+            numIterationsRemaining = new int[script.steps.size()];
+            isLastWaitForMatched = false;
+            rxBuffer.setLength(0);
+            waitForPattern = null;
+
+            numLatencySamples = 0;
+            minStepLatencyNs = Long.MAX_VALUE;
+            maxStepLatencyNs = 0;
+            totalStepLatencyNs = 0;
+            lastProgressTimeNs = startTimeNs;
+
+            postProgress(MacroScriptProgress.States.RUNNING);
+            runSteps(startTimeNs, false);
+        });
+    }
+
+    /**
+     * Stops the running script (if any). The progress listener is called with the <code>CANCELLED</code> state.
+     */
+    public void stop() {
+        scheduler.execute(() -> {
+            if (script != null)
+                finish(MacroScriptProgress.States.CANCELLED);
+        });
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Passes RX data to the running script, for <code>waitfor</code> steps to match against. Can be called from
+     * any thread, and does nothing if no script is running.
+     */
+    public void rxDataReceived(String data) {
+        if (!isRunning)
+            return;
+
+        final long receivedTimeNs = System.nanoTime();
+        scheduler.execute(() -> handleRxData(data, receivedTimeNs));
+    }
+
+    /**
+     * Runs steps until the script has to wait, or finishes.
+     *
+     * @param dueTimeNs         The time the first step should have started at. Used to measure the step latency.
+     * @param measureLatency    True if the first step started after waiting.
+     */
+    private void runSteps(long dueTimeNs, boolean measureLatency) {
+
+        pendingFuture = null;
+
+        if (measureLatency)
+            addLatencySample(System.nanoTime() - dueTimeNs);
+
+        for (int numStepsRun = 0; numStepsRun < MAX_NUM_STEPS_WITHOUT_YIELDING; numStepsRun++) {
+
+            if (stepIndex >= script.steps.size()) {
+                finish(MacroScriptProgress.States.FINISHED);
+                return;
+            }
+
+            final int currStepIndex = stepIndex++;
+            final MacroStep step = script.steps.get(currStepIndex);
+            currLineNum = step.lineNum;
+
+            switch (step.type) {
+                case SEND:
+                    // Responses to earlier sends are not matched by later waits
+                    rxBuffer.setLength(0);
+                    final byte[] data = step.data;
+                    uiThreadExecutor.execute(() -> txDataSink.send(data));
+                    break;
+                case WAIT:
+                    scheduleSteps(step.durationNs);
+                    postProgressIfDue();
+                    return;
+                case WAIT_FOR:
+                    if (findWaitForMatch(step.pattern)) {
+                        isLastWaitForMatched = true;
+                        break;
+                    }
+                    waitForPattern = step.pattern;
+                    final long timeoutTimeNs = System.nanoTime() + step.durationNs;
+                    pendingFuture = scheduler.schedule(() -> {
+                        waitForPattern = null;
+                        isLastWaitForMatched = false;
+                        runSteps(timeoutTimeNs, true);
+                    }, step.durationNs, TimeUnit.NANOSECONDS);
+                    postProgressIfDue();
+                    return;
+                case REPEAT_START:
+                    numIterationsRemaining[step.targetIndex] = step.count;
+                    break;
+                case REPEAT_END:
+                    if (--numIterationsRemaining[currStepIndex] > 0)
+                        stepIndex = step.targetIndex;
+                    break;
+                case GOTO:
+                    stepIndex = step.targetIndex;
+                    break;
+                case IF_MATCH:
+                    if (isLastWaitForMatched)
+                        stepIndex = step.targetIndex;
+                    break;
+                case IF_NO_MATCH:
+                    if (!isLastWaitForMatched)
+                        stepIndex = step.targetIndex;
+                    break;
+                default:
+                    throw new RuntimeException("MacroStep type not recognised.");
+            }
+        }
+
+        // Let any queued stop() or RX data run before carrying on
+        scheduleSteps(0);
+        postProgressIfDue();
+    }
+
+    private void scheduleSteps(long delayNs) {
+        final long dueTimeNs = System.nanoTime() + delayNs;
+        pendingFuture = scheduler.schedule(() -> runSteps(dueTimeNs, true), delayNs, TimeUnit.NANOSECONDS);
+    }
+
+    private void handleRxData(String data, long receivedTimeNs) {
+        if (script == null)
+            return;
+
+        rxBuffer.append(data);
+        if (rxBuffer.length() > MAX_RX_BUFFER_SIZE_CHARS)
+            rxBuffer.delete(0, rxBuffer.length() - MAX_RX_BUFFER_SIZE_CHARS);
+
+        if (waitForPattern != null && findWaitForMatch(waitForPattern)) {
+            pendingFuture.cancel(false);
+            waitForPattern = null;
+            isLastWaitForMatched = true;
+            runSteps(receivedTimeNs, true);
+        }
+    }
+
+    /**
+     * Looks for the pattern in the RX data. If found, the RX data up to the end of the match is removed, so that
+     * the next <code>waitfor</code> does not match it again.
+     */
+    private boolean findWaitForMatch(GuardedPattern pattern) {
+        GuardedMatcher matcher = pattern.matcher(rxBuffer);
+        if (!matcher.find())
+            return false;
+
+        rxBuffer.delete(0, matcher.end());
+        return true;
+    }
+
+    private void addLatencySample(long latencyNs) {
+        numLatencySamples++;
+        minStepLatencyNs = Math.min(minStepLatencyNs, latencyNs);
+        maxStepLatencyNs = Math.max(maxStepLatencyNs, latencyNs);
+        totalStepLatencyNs += latencyNs;
+    }
+
+    private void finish(MacroScriptProgress.States state) {
+        if (pendingFuture != null) {
+            pendingFuture.cancel(false);
+            pendingFuture = null;
+        }
+        waitForPattern = null;
+        rxBuffer.setLength(0);
+        script = null;
+
+        // Cleared before the last progress update, so that the listener can start another script
+        isRunning = false;
+
+        postProgress(state);
+        macroScriptProgressListener = null;
+    }
+
+    private void postProgressIfDue() {
+        final long nowNs = System.nanoTime();
+        if (nowNs - lastProgressTimeNs >= PROGRESS_UPDATE_PERIOD_NS) {
+            postProgress(MacroScriptProgress.States.RUNNING);
+            lastProgressTimeNs = nowNs;
+        }
+    }
+
+    private void postProgress(MacroScriptProgress.States state) {
+        final MacroScriptProgress macroScriptProgress = new MacroScriptProgress(
+                state,
+                currLineNum,
+                numLatencySamples,
+                (numLatencySamples == 0) ? 0.0 : minStepLatencyNs / 1000.0,
+                (numLatencySamples == 0) ? 0.0 : (totalStepLatencyNs / (double) numLatencySamples) / 1000.0,
+                maxStepLatencyNs / 1000.0);
+        final MacroScriptProgressListener listener = macroScriptProgressListener;
+        uiThreadExecutor.execute(() -> listener.run(macroScriptProgress));
+    }
+}
@@ -0,0 +1,80 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+
+/**
+ * A single compiled step of a <code>{@link MacroScript}</code>.
+ *
+ * Which of the fields are used depends on the type of step. Jump targets are indexes into the script's steps.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MacroStep {
+
+    public enum Types {
+        /**
+         * Sends <code>data</code>.
+         */
+        SEND,
+
+        /**
+         * Waits for <code>durationNs</code>.
+         */
+        WAIT,
+
+        /**
+         * Waits until <code>pattern</code> matches the RX data, or until <code>durationNs</code> has passed.
+         */
+        WAIT_FOR,
+
+        /**
+         * Starts a loop which runs <code>count</code> times. <code>targetIndex</code> is the index of the
+         * matching <code>REPEAT_END</code> step.
+         */
+        REPEAT_START,
+
+        /**
+         * Jumps back to <code>targetIndex</code> (the first step in the loop) if the loop has not finished.
+         */
+        REPEAT_END,
+
+        /**
+         * Always jumps to <code>targetIndex</code>.
+         */
+        GOTO,
+
+        /**
+         * Jumps to <code>targetIndex</code> if the last <code>WAIT_FOR</code> step matched.
+         */
+        IF_MATCH,
+
+        /**
+         * Jumps to <code>targetIndex</code> if the last <code>WAIT_FOR</code> step timed out.
+         */
+        IF_NO_MATCH,
+    }
+
+    public final Types type;
+
+    /**
+     * The line of the script this step was compiled from.
+     */
+    public final int lineNum;
+
+    byte[] data;
+
+    long durationNs;
+
+    GuardedPattern pattern;
+
+    int count;
+
+    int targetIndex;
+
+    MacroStep(Types type, int lineNum) {
+        this.type = type;
+        this.lineNum = lineNum;
+    }
+}
@@ -0,0 +1,12 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+/**
+ * Where a <code>{@link MacroScriptRunner}</code> sends TX data to. Always called on the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface TxDataSink {
+    void send(byte[] data);
+}
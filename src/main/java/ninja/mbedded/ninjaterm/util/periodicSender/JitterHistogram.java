@@ -0,0 +1,63 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+/**
+ * Counts how late each periodic send was, in buckets which get wider as the jitter increases.
+ *
+ * Not thread safe.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class JitterHistogram {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The (exclusive) upper limit of each bucket, in microseconds. There is one more bucket for everything above
+     * the last limit.
+     */
+    public static final long[] BUCKET_LIMITS_US = {10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final long[] counts = new long[BUCKET_LIMITS_US.length + 1];
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void add(long jitterNs) {
+        final long jitterUs = jitterNs / 1000;
+
+        int bucketIndex = 0;
+        while (bucketIndex < BUCKET_LIMITS_US.length && jitterUs >= BUCKET_LIMITS_US[bucketIndex])
+            bucketIndex++;
+
+        counts[bucketIndex]++;
+    }
+
+    /**
+     * @return A copy of the count in each bucket.
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    public static int getNumBuckets() {
+        return BUCKET_LIMITS_US.length + 1;
+    }
+
+    /**
+     * @return A short description of the range of the bucket, e.g. "<10us" or ">=5000us".
+     */
+    public static String getBucketLabel(int bucketIndex) {
+        if (bucketIndex < BUCKET_LIMITS_US.length)
+            return "<" + BUCKET_LIMITS_US[bucketIndex] + "us";
+        return ">=" + BUCKET_LIMITS_US[BUCKET_LIMITS_US.length - 1] + "us";
+    }
+}
@@ -0,0 +1,12 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+/**
+ * Where a <code>{@link PeriodicSender}</code> sends payloads to (normally a COM port). Called on the timer thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface PayloadSink {
+    void send(byte[] payload);
+}
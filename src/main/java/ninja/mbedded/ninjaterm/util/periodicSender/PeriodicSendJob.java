@@ -0,0 +1,106 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+/**
+ * A payload being sent every period by a <code>{@link PeriodicSender}</code>. Returned by
+ * <code>{@link PeriodicSender#start(byte[], long, PeriodicSendStatsListener)}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class PeriodicSendJob {
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public final long periodNs;
+
+    final PeriodicSendStatsListener periodicSendStatsListener;
+
+    private volatile byte[] payload;
+
+    volatile boolean isStopRequested = false;
+
+    /**
+     * Only accessed from the timer thread.
+     */
+    long nextDueTimeNs;
+    long lastStatsTimeNs;
+    private long numSends = 0;
+    private long numBytesSent = 0;
+    private long numMissedPeriods = 0;
+    private long firstSendTimeNs;
+    private long lastSendTimeNs;
+    private long minPeriodNs = Long.MAX_VALUE;
+    private long maxPeriodNs = 0;
+    private long maxJitterNs = 0;
+    private final JitterHistogram jitterHistogram = new JitterHistogram();
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    PeriodicSendJob(byte[] payload, long periodNs, PeriodicSendStatsListener periodicSendStatsListener) {
+        this.payload = payload;
+        this.periodNs = periodNs;
+        this.periodicSendStatsListener = periodicSendStatsListener;
+    }
+
+    /**
+     * Changes the payload. Takes effect from the next send. Can be called from any thread.
+     */
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * Records a send which started at the provided time, and moves the due time on to the next period. If the timer
+     * has fallen more than a period behind, the periods which have already passed are skipped rather than being sent
+     * in a burst.
+     */
+    void recordSend(long sendTimeNs, int numBytes) {
+
+        final long jitterNs = sendTimeNs - nextDueTimeNs;
+        jitterHistogram.add(jitterNs);
+        maxJitterNs = Math.max(maxJitterNs, jitterNs);
+
+        if (numSends == 0) {
+            firstSendTimeNs = sendTimeNs;
+        } else {
+            final long periodNs = sendTimeNs - lastSendTimeNs;
+            minPeriodNs = Math.min(minPeriodNs, periodNs);
+            maxPeriodNs = Math.max(maxPeriodNs, periodNs);
+        }
+        lastSendTimeNs = sendTimeNs;
+        numSends++;
+        numBytesSent += numBytes;
+
+        nextDueTimeNs += periodNs;
+        final long nowNs = System.nanoTime();
+        if (nextDueTimeNs <= nowNs) {
+            final long numPeriodsToSkip = (nowNs - nextDueTimeNs) / periodNs + 1;
+            numMissedPeriods += numPeriodsToSkip;
+            nextDueTimeNs += numPeriodsToSkip * periodNs;
+        }
+    }
+
+    PeriodicSendStats createStats(PeriodicSendStats.States state, String errorMsg) {
+        final boolean hasPeriods = numSends > 1;
+        return new PeriodicSendStats(
+                state,
+                numSends,
+                numBytesSent,
+                numMissedPeriods,
+                hasPeriods ? minPeriodNs / 1000.0 : 0.0,
+                hasPeriods ? ((lastSendTimeNs - firstSendTimeNs) / (double) (numSends - 1)) / 1000.0 : 0.0,
+                hasPeriods ? maxPeriodNs / 1000.0 : 0.0,
+                maxJitterNs / 1000.0,
+                jitterHistogram.getCounts(),
+                errorMsg);
+    }
+}
@@ -0,0 +1,71 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+/**
+ * A snapshot of the statistics of a <code>{@link PeriodicSendJob}</code>, from when it was started.
+ *
+ * The period is the time between the start of consecutive sends. The jitter is how long after it's due time each
+ * send started.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class PeriodicSendStats {
+
+    public enum States {
+        RUNNING,
+        STOPPED,
+        FAILED,
+    }
+
+    public final States state;
+
+    public final long numSends;
+
+    public final long numBytesSent;
+
+    /**
+     * The number of sends which were skipped because the timer fell more than one period behind.
+     */
+    public final long numMissedPeriods;
+
+    public final double minPeriodUs;
+
+    public final double avgPeriodUs;
+
+    public final double maxPeriodUs;
+
+    public final double maxJitterUs;
+
+    /**
+     * The number of sends in each bucket of <code>{@link JitterHistogram}</code>.
+     */
+    public final long[] jitterCounts;
+
+    /**
+     * Describes why sending failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public PeriodicSendStats(States state, long numSends, long numBytesSent, long numMissedPeriods,
+                             double minPeriodUs, double avgPeriodUs, double maxPeriodUs, double maxJitterUs,
+                             long[] jitterCounts, String errorMsg) {
+        this.state = state;
+        this.numSends = numSends;
+        this.numBytesSent = numBytesSent;
+        this.numMissedPeriods = numMissedPeriods;
+        this.minPeriodUs = minPeriodUs;
+        this.avgPeriodUs = avgPeriodUs;
+        this.maxPeriodUs = maxPeriodUs;
+        this.maxJitterUs = maxJitterUs;
+        this.jitterCounts = jitterCounts;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last update for the job.
+     */
+    public boolean isDone() {
+        return state == States.STOPPED || state == States.FAILED;
+    }
+}
@@ -0,0 +1,156 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends payloads at fixed periods (down to 1ms or less) on a dedicated, high priority timer thread.
+ *
+ * The timer thread parks until just before the next send is due, and then yields until it is due, so sends are not
+ * subject to the coarse wake-up granularity of a sleep. Sends are fixed-rate (so the average period does not drift),
+ * but if the timer falls more than a period behind, the missed periods are skipped and counted rather than being
+ * sent in a burst. Each job's period and jitter statistics are passed to the UI thread a few times a second.
+ *
+ * <code>start()</code> and <code>stop()</code> must be called from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class PeriodicSender {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The timer thread parks until this long before the next send is due, and then yields until it is due.
+     */
+    static final long SPIN_THRESHOLD_NS = 200000L;
+
+    /**
+     * The min. time between statistics updates for each job.
+     */
+    private static final long STATS_UPDATE_PERIOD_NS = 250000000L;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final PayloadSink payloadSink;
+
+    private final List<PeriodicSendJob> jobs = new CopyOnWriteArrayList<>();
+
+    /**
+     * Created when the first job is started.
+     */
+    private Thread timerThread;
+
+    /**
+     * Used to pass statistics back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public PeriodicSender(PayloadSink payloadSink) {
+        this.payloadSink = payloadSink;
+    }
+
+    /**
+     * Starts sending the payload every period. The first send happens straight away.
+     *
+     * @param payload                       The data to send.
+     * @param periodNs                      The time between sends.
+     * @param periodicSendStatsListener     Called on the UI thread with the job's statistics. The last call has a
+     *                                      "done" state.
+     * @return The job, which can be used to change the payload or stop sending.
+     */
+    public PeriodicSendJob start(byte[] payload, long periodNs, PeriodicSendStatsListener periodicSendStatsListener) {
+        if (periodNs <= 0)
+            throw new IllegalArgumentException("periodNs must be greater than 0.");
+
+        PeriodicSendJob job = new PeriodicSendJob(payload, periodNs, periodicSendStatsListener);
+        job.nextDueTimeNs = System.nanoTime();
+        job.lastStatsTimeNs = job.nextDueTimeNs;
+        jobs.add(job);
+
+        if (timerThread == null) {
+            timerThread = new Thread(this::runTimer, "PeriodicSender");
+            timerThread.setDaemon(true);
+            timerThread.setPriority(Thread.MAX_PRIORITY);
+            timerThread.start();
+        } else {
+            LockSupport.unpark(timerThread);
+        }
+
+        return job;
+    }
+
+    /**
+     * Stops sending the job's payload. The statistics listener is called one last time with the <code>STOPPED</code>
+     * state.
+     */
+    public void stop(PeriodicSendJob job) {
+        job.isStopRequested = true;
+        LockSupport.unpark(timerThread);
+    }
+
+    private void runTimer() {
+        while (true) {
+
+            long nextDueTimeNs = Long.MAX_VALUE;
+
+            for (PeriodicSendJob job : jobs) {
+
+                if (job.isStopRequested) {
+                    jobs.remove(job);
+                    postStats(job, PeriodicSendStats.States.STOPPED, null);
+                    continue;
+                }
+
+                final long sendTimeNs = System.nanoTime();
+                if (sendTimeNs >= job.nextDueTimeNs) {
+                    final byte[] payload = job.getPayload();
+                    try {
+                        payloadSink.send(payload);
+                    } catch (RuntimeException e) {
+                        jobs.remove(job);
+                        postStats(job, PeriodicSendStats.States.FAILED, e.getMessage());
+                        continue;
+                    }
+                    job.recordSend(sendTimeNs, payload.length);
+
+                    if (sendTimeNs - job.lastStatsTimeNs >= STATS_UPDATE_PERIOD_NS) {
+                        postStats(job, PeriodicSendStats.States.RUNNING, null);
+                        job.lastStatsTimeNs = sendTimeNs;
+                    }
+                }
+
+                nextDueTimeNs = Math.min(nextDueTimeNs, job.nextDueTimeNs);
+            }
+
+            // start() and stop() unpark this thread, so a new job (or a stop request) is handled straight away
+            if (nextDueTimeNs == Long.MAX_VALUE) {
+                LockSupport.park(this);
+            } else {
+                final long timeUntilDueNs = nextDueTimeNs - System.nanoTime();
+                if (timeUntilDueNs > SPIN_THRESHOLD_NS)
+                    LockSupport.parkNanos(this, timeUntilDueNs - SPIN_THRESHOLD_NS);
+                else if (timeUntilDueNs > 0)
+                    Thread.yield();
+            }
+        }
+    }
+
+    private void postStats(PeriodicSendJob job, PeriodicSendStats.States state, String errorMsg) {
+        final PeriodicSendStats periodicSendStats = job.createStats(state, errorMsg);
+        uiThreadExecutor.execute(() -> job.periodicSendStatsListener.run(periodicSendStats));
+    }
+}
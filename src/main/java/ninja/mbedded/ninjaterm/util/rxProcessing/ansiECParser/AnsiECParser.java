@@ -1,59 +1,194 @@
 package ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser;
 
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.paint.Color;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Utility class that decodes ANSI escape sequences.
  *
+ * Supports the full set of SGR (Select Graphic Rendition) sequences, "ESC[...m". This includes
+ * the text attributes (bold, faint, italic, underline, inverse, conceal, strikethrough), the standard
+ * and bright foreground/background colours, and the extended 256-colour and true-colour forms
+ * (both the ";" and ":" separated variants).
+ *
+ * The input is scanned once, char-by-char, and each SGR parameter is dispatched through a lookup table
+ * of actions (no regex or string splitting is performed). The graphic rendition state persists across calls
+ * to <code>parse()</code>, and a {@link ColourMarker} is only inserted into the output when the style
+ * actually changes at a released character.
+ *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-26
- * @last-modified   2016-10-17
+ * @last-modified   2026-10-18
  */
 public class AnsiECParser {
 
-    Map<String, Color> codeToNormalColourMap = new HashMap<>();
-    Map<String, Color> codeToBoldColourMap = new HashMap<>();
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    private static final char ESC_CHAR = '\u001B';
+
+    /**
+     * The maximum number of parameters that will be stored for a single SGR sequence. Any extra parameters
+     * are ignored.
+     */
+    private static final int MAX_NUM_PARAMS = 32;
+
+    /**
+     * Sequences longer than this are assumed to not be a valid escape sequence, and are passed through
+     * as text. This stops a stray "ESC[" from causing all the following data to be withheld.
+     */
+    private static final int MAX_SEQ_LENGTH = 128;
+
+    /**
+     * Parameters values are clamped to this maximum, to prevent integer overflow on garbage input.
+     */
+    private static final int MAX_PARAM_VALUE = 0xFFFF;
+
+    /**
+     * Returned from <code>scanSequence()</code> when the input ended before the sequence was complete.
+     */
+    private static final int SEQ_INCOMPLETE = -1;
 
-    private Pattern pattern;
+    /**
+     * Returned from <code>scanSequence()</code> when the chars are not a valid SGR sequence.
+     */
+    private static final int SEQ_NOT_SGR = -2;
+
+    //================================================================================================//
+    //=========================================== INTERFACES =========================================//
+    //================================================================================================//
+
+    /**
+     * An action performed for a particular SGR code.
+     */
+    private interface SgrAction {
+
+        /**
+         * @param parser    The parser whose state is modified.
+         * @param code      The SGR code which triggered this action.
+         * @param index     The index of the code in <code>params</code>.
+         * @return          The index of the next parameter to process.
+         */
+        int run(AnsiECParser parser, int code, int index);
+    }
 
     /**
-     * Partial matches and the end of provided input strings to <code>parse()</code> are
-     * stored in this variable for the next time <code>parse() is called.</code>
+     * Lookup table from SGR code to the action to perform. Codes not in this table (or null entries) are
+     * ignored.
      */
-//    private String withheldTextWithPartialMatch = "";
+    private static final SgrAction[] SGR_ACTIONS = new SgrAction[108];
+
+    static {
+        SGR_ACTIONS[0] = (parser, code, index) -> {
+            parser.foreground = SgrStyle.DEFAULT_COLOUR;
+            parser.background = SgrStyle.DEFAULT_COLOUR;
+            parser.attributes = 0;
+            return index + 1;
+        };
+
+        SGR_ACTIONS[1] = setAttribute(SgrStyle.ATTR_BOLD);
+        SGR_ACTIONS[2] = setAttribute(SgrStyle.ATTR_FAINT);
+        SGR_ACTIONS[3] = setAttribute(SgrStyle.ATTR_ITALIC);
+        SGR_ACTIONS[4] = setAttribute(SgrStyle.ATTR_UNDERLINE);
+        SGR_ACTIONS[7] = setAttribute(SgrStyle.ATTR_INVERSE);
+        SGR_ACTIONS[8] = setAttribute(SgrStyle.ATTR_CONCEAL);
+        SGR_ACTIONS[9] = setAttribute(SgrStyle.ATTR_STRIKETHROUGH);
+        // 21 is "doubly underlined" (or "bold off" on some terminals), we treat as underline
+        SGR_ACTIONS[21] = setAttribute(SgrStyle.ATTR_UNDERLINE);
+
+        SGR_ACTIONS[22] = clearAttribute(SgrStyle.ATTR_BOLD | SgrStyle.ATTR_FAINT);
+        SGR_ACTIONS[23] = clearAttribute(SgrStyle.ATTR_ITALIC);
+        SGR_ACTIONS[24] = clearAttribute(SgrStyle.ATTR_UNDERLINE);
+        SGR_ACTIONS[27] = clearAttribute(SgrStyle.ATTR_INVERSE);
+        SGR_ACTIONS[28] = clearAttribute(SgrStyle.ATTR_CONCEAL);
+        SGR_ACTIONS[29] = clearAttribute(SgrStyle.ATTR_STRIKETHROUGH);
+
+        for (int i = 0; i < 8; i++) {
+            SGR_ACTIONS[30 + i] = setForeground(i);
+            SGR_ACTIONS[40 + i] = setBackground(i);
+            SGR_ACTIONS[90 + i] = setForeground(8 + i);
+            SGR_ACTIONS[100 + i] = setBackground(8 + i);
+        }
+
+        SGR_ACTIONS[38] = (parser, code, index) -> parser.parseExtendedColour(index, true);
+        SGR_ACTIONS[39] = setForeground(SgrStyle.DEFAULT_COLOUR);
+        SGR_ACTIONS[48] = (parser, code, index) -> parser.parseExtendedColour(index, false);
+        SGR_ACTIONS[49] = setBackground(SgrStyle.DEFAULT_COLOUR);
+    }
+
+    private static SgrAction setAttribute(int attribute) {
+        return (parser, code, index) -> {
+            parser.attributes |= attribute;
+            return index + 1;
+        };
+    }
+
+    private static SgrAction clearAttribute(int attribute) {
+        return (parser, code, index) -> {
+            parser.attributes &= ~attribute;
+            return index + 1;
+        };
+    }
+
+    private static SgrAction setForeground(int packedColour) {
+        return (parser, code, index) -> {
+            parser.foreground = packedColour;
+            return index + 1;
+        };
+    }
+
+    private static SgrAction setBackground(int packedColour) {
+        return (parser, code, index) -> {
+            parser.background = packedColour;
+            return index + 1;
+        };
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
 
     public SimpleBooleanProperty isEnabled = new SimpleBooleanProperty(true);
 
+    /**
+     * The parameters of the SGR sequence currently being processed. Re-used between sequences.
+     */
+    private final int[] params = new int[MAX_NUM_PARAMS];
+
+    /**
+     * <code>isSubParam[i]</code> is true if <code>params[i]</code> was preceded by a ":" rather than a ";".
+     */
+    private final boolean[] isSubParam = new boolean[MAX_NUM_PARAMS];
+
+    private int numParams = 0;
+
+    private int foreground = SgrStyle.DEFAULT_COLOUR;
+    private int background = SgrStyle.DEFAULT_COLOUR;
+    private int attributes = 0;
+
+    /**
+     * The style that will be applied to the next released character.
+     */
+    private SgrStyle currStyle = SgrStyle.DEFAULT;
+
+    /**
+     * The style of the last colour marker inserted into the output (or the default style if no marker
+     * has been inserted yet).
+     */
+    private SgrStyle lastEmittedStyle = SgrStyle.DEFAULT;
+
+    /**
+     * Escape sequences are shifted into this object so they are removed from the input. Re-used to save
+     * creating a new object for every sequence.
+     */
+    private final StreamedData discardedData = new StreamedData();
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
     public AnsiECParser() {
-        // Populate the map with data
-        codeToNormalColourMap.put("30", Color.rgb(0, 0, 0));
-        codeToNormalColourMap.put("31", Color.rgb(170, 0, 0));
-        codeToNormalColourMap.put("32", Color.rgb(0, 170, 0));
-        codeToNormalColourMap.put("33", Color.rgb(170, 85, 0));
-        codeToNormalColourMap.put("34", Color.rgb(0, 0, 170));
-        codeToNormalColourMap.put("35", Color.rgb(170, 0, 170));
-        codeToNormalColourMap.put("36", Color.rgb(0, 170, 170));
-        codeToNormalColourMap.put("37", Color.rgb(170, 170, 170));
-
-        codeToBoldColourMap.put("30", Color.rgb(85, 85, 85));
-        codeToBoldColourMap.put("31", Color.rgb(255, 85, 85));
-        codeToBoldColourMap.put("32", Color.rgb(85, 255, 85));
-        codeToBoldColourMap.put("33", Color.rgb(255, 255, 85));
-        codeToBoldColourMap.put("34", Color.rgb(85, 85, 225));
-        codeToBoldColourMap.put("35", Color.rgb(255, 85, 255));
-        codeToBoldColourMap.put("36", Color.rgb(85, 255, 255));
-        codeToBoldColourMap.put("37", Color.rgb(255, 255, 255));
-
-        // This pattern matches an ANSI escape code. It matches an arbitrary number of
-        // numbers after the "[ESC][", separated by a ";" and then prefixed by a "m".
-        pattern = Pattern.compile("\u001B\\[[;\\d]*m");
     }
 
     /**
@@ -65,112 +200,224 @@ public class AnsiECParser {
      */
     public void parse(StreamedData inputData, StreamedData outputStreamedData) {
 
-//        System.out.println(getClass().getSimpleName() + ".parse() called with inputString = " + Debugging.convertNonPrintable(inputString));
-
-        // Prepend withheld text onto the start of the input string
-        // @// TODO: 2016-10-17 Remove the internal withheld data variable, and just keep the data in the inputData object until it is ready to be release. These next two lines are a hacky work around
-//        String withheldCharsAndInputString = withheldTextWithPartialMatch + inputData.getText();
-//        inputData.clear();
-
-//        withheldTextWithPartialMatch = "";
-
         if(!isEnabled.get()) {
-            // ASCII escape codes are disabled, so just return all the input plus any withheld text
-//            outputStreamedData.append(withheldCharsAndInputString);
+            // ASCII escape codes are disabled, so just return all the input
             outputStreamedData.shiftDataIn(inputData, inputData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
             return;
         }
 
         // IF WE REACH HERE ASCII ESCAPE CODE PARSING IS ENABLED
 
-        Matcher matcher = pattern.matcher(inputData.getText());
+        final String text = inputData.getText();
+
+        // The number of chars at the start of text which have already been removed from inputData
+        int numCharsShifted = 0;
+
+        int i = 0;
+        while (i < text.length()) {
+
+            if (text.charAt(i) != ESC_CHAR) {
+                i++;
+                continue;
+            }
+
+            int seqEnd = scanSequence(text, i);
 
-        //String remainingInput = "";
-        int currShiftIndex = 0;
+            if (seqEnd == SEQ_NOT_SGR) {
+                // Not an escape sequence we understand, the escape char is treated as normal text
+                i++;
+                continue;
+            }
 
-        //m.reset();
-        while (matcher.find()) {
-//            System.out.println("find() is true. m.start() = " + m.start() + ", m.end() = " + m.end() + ".");
+            // Everything up to the escape char can be released
+            releaseChars(inputData, outputStreamedData, i - numCharsShifted);
+            numCharsShifted = i;
 
-            // Everything up to the first matched character can be added to the last existing text node
-//            String preText = withheldCharsAndInputString.substring(currPositionInString, matcher.start());
-//            outputStreamedData.append(preText);
-            outputStreamedData.shiftDataIn(
-                    inputData,
-                    matcher.start() - currShiftIndex,
-                    StreamedData.MarkerBehaviour.NOT_FILTERING);
+            if (seqEnd == SEQ_INCOMPLETE) {
+                // Leave the partial escape sequence in the input, it will be processed
+                // on the next call to parse() when more data has arrived
+                return;
+            }
 
+            // Remove the escape sequence from the input. FILTERING is used so that
+            // any marker on the char immediately after the sequence stays in the input
+            discardedData.shiftDataIn(inputData, seqEnd - i, StreamedData.MarkerBehaviour.FILTERING);
+            discardedData.clear();
 
-            // Now extract the ANSI escape code
-            StreamedData ansiEscapeCode = new StreamedData();
-            ansiEscapeCode.shiftDataIn(
-                    inputData,
-                    matcher.end() - matcher.start(),
-                    StreamedData.MarkerBehaviour.NOT_FILTERING);
-            //System.out.println("ANSI esc seq = " + toHexString(ansiEscapeCode));
+            applyParams();
 
-            // Save the remaining text to process
-            //remainingInput = inputString.substring(m.end(), inputString.length());
+            numCharsShifted = seqEnd;
+            i = seqEnd;
+        }
 
-            // Extract the numbers from the escape code
-            String[] numbers = extractNumbersAsArray(ansiEscapeCode.getText());
+        // Release all remaining input
+        releaseChars(inputData, outputStreamedData, text.length() - numCharsShifted);
+    }
 
-            Map<String, Color> correctMapToUse;
-            if(numbers.length == 1) {
-                correctMapToUse = codeToNormalColourMap;
-            } else if(numbers.length == 2 && numbers[1].equals("1")) {
-                correctMapToUse = codeToBoldColourMap;
+    /**
+     * Scans an escape sequence starting at <code>startIndex</code>, which must point to an escape char.
+     * If the sequence is a valid SGR sequence, the parameters are stored in <code>params</code>.
+     *
+     * @return  The index of the char after the end of the sequence, <code>SEQ_INCOMPLETE</code> if the
+     *          text ends part way through a potentially valid sequence, or <code>SEQ_NOT_SGR</code>
+     *          if it is not a valid SGR sequence.
+     */
+    private int scanSequence(String text, int startIndex) {
+
+        int index = startIndex + 1;
+
+        if (index >= text.length())
+            return SEQ_INCOMPLETE;
+
+        if (text.charAt(index) != '[')
+            return SEQ_NOT_SGR;
+
+        index++;
+
+        numParams = 0;
+        int currValue = 0;
+        boolean currIsSubParam = false;
+
+        while (index < text.length()) {
+
+            if (index - startIndex > MAX_SEQ_LENGTH)
+                return SEQ_NOT_SGR;
+
+            char c = text.charAt(index);
+
+            if (c >= '0' && c <= '9') {
+                currValue = Math.min(currValue * 10 + (c - '0'), MAX_PARAM_VALUE);
+            } else if (c == ';' || c == ':' || c == 'm') {
+                if (numParams < MAX_NUM_PARAMS) {
+                    params[numParams] = currValue;
+                    isSubParam[numParams] = currIsSubParam;
+                    numParams++;
+                }
+
+                if (c == 'm')
+                    return index + 1;
+
+                currValue = 0;
+                currIsSubParam = (c == ':');
             } else {
-                // ANSI escape sequence is not supported. Remove it from input and continue
-                //throw new RuntimeException("Numbers not recognised!");
-                currShiftIndex = matcher.end();
-                continue;
+                return SEQ_NOT_SGR;
             }
 
-            // Get the colour associated with this code
-            Color color = correctMapToUse.get(numbers[0]);
+            index++;
+        }
+
+        return SEQ_INCOMPLETE;
+    }
+
+    /**
+     * Applies the parameters of the last scanned SGR sequence to the current graphic rendition state.
+     */
+    private void applyParams() {
+
+        int index = 0;
+        while (index < numParams) {
+            int code = params[index];
 
-            if(color == null) {
-                System.out.println("Escape sequence was not supported!");
-                // The number in the escape sequence was not recognised. Update the current position in input string
-                // to skip over this escape sequence, and continue to next iteration of loop.
-                currShiftIndex = matcher.end();
+            SgrAction action = (code < SGR_ACTIONS.length) ? SGR_ACTIONS[code] : null;
+
+            if (action == null) {
+                // Unsupported code, ignore it and any sub-parameters
+                index = skipSubParams(index + 1);
                 continue;
             }
 
-//            System.out.println("Valid escape seqeunce found.");
-
-            // Create new Text object with this new color, and add to the text nodes
-//            outputStreamedData.setColorToBeInsertedOnNextChar(color);
-            outputStreamedData.getMarkers().add(new ColourMarker(outputStreamedData.getText().length(), color));
+            index = action.run(this, code, index);
+        }
 
-            currShiftIndex = matcher.end();
+        currStyle = SgrStyle.of(foreground, background, attributes);
+    }
 
-        } // while (matcher.find())
+    /**
+     * Parses an extended colour, which is either "38;5;n" (256-colour palette) or "38;2;r;g;b" (true-colour),
+     * or the ":" separated equivalents "38:5:n", "38:2:r:g:b" and "38:2:id:r:g:b" (which include an
+     * optional colour space id). 48 instead of 38 is used for background colours.
+     *
+     * @param index         The index of the 38 or 48 code in <code>params</code>.
+     * @param isForeground  True to set the foreground colour, false to set the background.
+     * @return              The index of the next parameter to process.
+     */
+    private int parseExtendedColour(int index, boolean isForeground) {
+
+        int packedColour = SgrStyle.DEFAULT_COLOUR;
+        int nextIndex;
+
+        if (index + 1 < numParams && isSubParam[index + 1]) {
+            // ":" separated form, all of the colour information is within the sub-parameters
+            nextIndex = skipSubParams(index + 1);
+            int numSubParams = nextIndex - (index + 1);
+
+            if (numSubParams >= 2 && params[index + 1] == 5) {
+                packedColour = toPaletteColour(params[index + 2]);
+            } else if (numSubParams >= 4 && params[index + 1] == 2) {
+                // The colour space id is optional, and is present if there are 5 sub-parameters
+                int rgbIndex = (numSubParams >= 5) ? index + 3 : index + 2;
+                packedColour = toRgbColour(params[rgbIndex], params[rgbIndex + 1], params[rgbIndex + 2]);
+            }
+        } else {
+            // ";" separated form
+            if (index + 2 < numParams && params[index + 1] == 5) {
+                packedColour = toPaletteColour(params[index + 2]);
+                nextIndex = index + 3;
+            } else if (index + 4 < numParams && params[index + 1] == 2) {
+                packedColour = toRgbColour(params[index + 2], params[index + 3], params[index + 4]);
+                nextIndex = index + 5;
+            } else {
+                // Malformed, ignore the rest of the sequence
+                return numParams;
+            }
+        }
 
-        // ALL COMPLETE ANSI ESCAPE CODES FOUND!
+        if (packedColour == SgrStyle.DEFAULT_COLOUR)
+            return nextIndex;
 
-        // Shift remaining characters from input to output
-        outputStreamedData.shiftCharsInUntilPartialMatch(inputData, pattern);
+        if (isForeground)
+            foreground = packedColour;
+        else
+            background = packedColour;
 
+        return nextIndex;
     }
 
-    private String[] extractNumbersAsArray(String ansiEscapeCode) {
-
-        // Input should be in the form
-        // (ESC)[xx;xx;...xxm
-        // We want to extract the x's
+    /**
+     * @return  The index of the first parameter at or after <code>index</code> which is not a ":"
+     *          separated sub-parameter.
+     */
+    private int skipSubParams(int index) {
+        while (index < numParams && isSubParam[index])
+            index++;
+        return index;
+    }
 
-        // Trim of the (ESC) and [ chars from the start, and the m from the end
-        String trimmedString = ansiEscapeCode.substring(2, ansiEscapeCode.length() - 1);
+    private static int toPaletteColour(int paletteIndex) {
+        if (paletteIndex > 255)
+            return SgrStyle.DEFAULT_COLOUR;
+        return paletteIndex;
+    }
 
-        //System.out.println("trimmedString = " + trimmedString);
+    private static int toRgbColour(int red, int green, int blue) {
+        return SgrStyle.RGB_FLAG |
+                (Math.min(red, 255) << 16) |
+                (Math.min(green, 255) << 8) |
+                Math.min(blue, 255);
+    }
 
-        String[] numbers = trimmedString.split(";");
+    /**
+     * Releases chars from the input to the output, inserting a colour marker before them
+     * if the current style is different to the last one inserted.
+     */
+    private void releaseChars(StreamedData inputData, StreamedData outputStreamedData, int numChars) {
 
-        //System.out.println("numbers = " + toString(numbers));
+        if (numChars > 0 && !currStyle.equals(lastEmittedStyle)) {
+            outputStreamedData.getMarkers().add(new ColourMarker(outputStreamedData.getText().length(), currStyle));
+            lastEmittedStyle = currStyle;
+        }
 
-        return numbers;
+        outputStreamedData.shiftDataIn(inputData, numChars, StreamedData.MarkerBehaviour.NOT_FILTERING);
     }
 
 }
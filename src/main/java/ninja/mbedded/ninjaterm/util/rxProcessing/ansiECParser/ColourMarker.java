@@ -9,17 +9,35 @@ import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
 public class ColourMarker extends Marker {
 
     //public int position;
+
+    /**
+     * The foreground colour of the text. This is null if the default text colour should be used.
+     */
     public Color color;
 
+    /**
+     * The full graphic rendition style (colours and attributes) of the text, as set by ANSI SGR
+     * escape sequences.
+     */
+    public SgrStyle style;
+
     public ColourMarker(int charPos, Color color) {
         super(charPos, Association.CHAR_ON, 2);
         //this.charPos = charPos;
         this.color = color;
+        this.style = (color == null) ? SgrStyle.DEFAULT : SgrStyle.withForeground(color);
     }
 
-    public ColourMarker(ColourMarker colourMarker) {
+    public ColourMarker(int charPos, SgrStyle style) {
+        super(charPos, Association.CHAR_ON, 2);
+        this.color = style.getForeground();
+        this.style = style;
+    }
 
-        this(colourMarker.charPos, colourMarker.color);
+    public ColourMarker(ColourMarker colourMarker) {
+        super(colourMarker.charPos, Association.CHAR_ON, 2);
+        this.color = colourMarker.color;
+        this.style = colourMarker.style;
     }
 
     @Override
@@ -31,7 +49,7 @@ public class ColourMarker extends Marker {
     public String toString() {
         String output = "";
 
-        output = "{ charPos: " + charPos + ", color = " + color + " }";
+        output = "{ charPos: " + charPos + ", color = " + color + ", style = " + style + " }";
         return output;
     }
 }
@@ -0,0 +1,267 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser;
+
+import javafx.scene.paint.Color;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the graphic rendition state set by ANSI SGR (Select Graphic Rendition)
+ * escape sequences. This is attached to every {@link ColourMarker} created by the {@link AnsiECParser}.
+ * <p>
+ * Instances are interned (see {@link #of(int, int, int)}), so two markers which describe the same style will
+ * hold the same object, and renderers can compare styles by identity.
+ * <p>
+ * Colours are stored in "packed" form:
+ * <ul>
+ * <li>{@link #DEFAULT_COLOUR} means "use the default colour of the pane" (SGR 39/49)</li>
+ * <li>0-255 is an index into the xterm 256-colour palette (SGR 30-37, 40-47, 90-97, 100-107, 38;5;n, 48;5;n)</li>
+ * <li>{@link #RGB_FLAG} OR'd with a 24-bit RGB value is a true-colour (SGR 38;2;r;g;b, 48;2;r;g;b)</li>
+ * </ul>
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class SgrStyle {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    public static final int DEFAULT_COLOUR = -1;
+
+    public static final int RGB_FLAG = 0x1000000;
+
+    public static final int ATTR_BOLD = 1;
+    public static final int ATTR_FAINT = 1 << 1;
+    public static final int ATTR_ITALIC = 1 << 2;
+    public static final int ATTR_UNDERLINE = 1 << 3;
+    public static final int ATTR_INVERSE = 1 << 4;
+    public static final int ATTR_CONCEAL = 1 << 5;
+    public static final int ATTR_STRIKETHROUGH = 1 << 6;
+
+    /**
+     * The xterm 256-colour palette. Entries 0-15 are the standard and bright colours (the same values
+     * NinjaTerm has always used for ESC[3Xm and ESC[3X;1m), 16-231 are the 6x6x6 colour cube and 232-255 are
+     * the grey ramp.
+     */
+    private static final Color[] PALETTE = new Color[256];
+
+    /**
+     * Once this many styles have been interned, new styles are no longer cached. This stops a device which
+     * streams endless unique true-colours from growing the cache forever.
+     */
+    private static final int MAX_NUM_INTERNED_STYLES = 4096;
+
+    private static final ConcurrentHashMap<Long, SgrStyle> internedStyles = new ConcurrentHashMap<>();
+
+    static {
+        int[][] standardColours = {
+                {0, 0, 0},
+                {170, 0, 0},
+                {0, 170, 0},
+                {170, 85, 0},
+                {0, 0, 170},
+                {170, 0, 170},
+                {0, 170, 170},
+                {170, 170, 170},
+                {85, 85, 85},
+                {255, 85, 85},
+                {85, 255, 85},
+                {255, 255, 85},
+                {85, 85, 255},
+                {255, 85, 255},
+                {85, 255, 255},
+                {255, 255, 255},
+        };
+
+        for (int i = 0; i < 16; i++) {
+            PALETTE[i] = Color.rgb(standardColours[i][0], standardColours[i][1], standardColours[i][2]);
+        }
+
+        int[] cubeLevels = {0, 95, 135, 175, 215, 255};
+        for (int i = 0; i < 216; i++) {
+            PALETTE[16 + i] = Color.rgb(cubeLevels[i / 36], cubeLevels[(i / 6) % 6], cubeLevels[i % 6]);
+        }
+
+        for (int i = 0; i < 24; i++) {
+            int level = 8 + i * 10;
+            PALETTE[232 + i] = Color.rgb(level, level, level);
+        }
+    }
+
+    /**
+     * The style of text which has not been modified by any SGR sequence (or after SGR 0).
+     */
+    public static final SgrStyle DEFAULT = of(DEFAULT_COLOUR, DEFAULT_COLOUR, 0);
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final int packedForeground;
+    private final int packedBackground;
+    private final int attributes;
+
+    /**
+     * The resolved foreground colour, or null if the pane's default text colour should be used.
+     * Bold text using one of the 8 standard colours is resolved to the bright variant.
+     */
+    private final Color foreground;
+
+    /**
+     * The resolved background colour, or null if the pane's default background colour should be used.
+     */
+    private final Color background;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    private SgrStyle(int packedForeground, int packedBackground, int attributes) {
+        this.packedForeground = packedForeground;
+        this.packedBackground = packedBackground;
+        this.attributes = attributes;
+
+        int effectiveForeground = packedForeground;
+        if ((attributes & ATTR_BOLD) != 0 && packedForeground >= 0 && packedForeground < 8) {
+            effectiveForeground = packedForeground + 8;
+        }
+
+        this.foreground = toColor(effectiveForeground);
+        this.background = toColor(packedBackground);
+    }
+
+    /**
+     * Returns the interned style for the given packed colours and attribute bit field.
+     */
+    public static SgrStyle of(int packedForeground, int packedBackground, int attributes) {
+        long key = toKey(packedForeground, packedBackground, attributes);
+
+        SgrStyle style = internedStyles.get(key);
+        if (style != null)
+            return style;
+
+        style = new SgrStyle(packedForeground, packedBackground, attributes);
+
+        if (internedStyles.size() < MAX_NUM_INTERNED_STYLES) {
+            SgrStyle existing = internedStyles.putIfAbsent(key, style);
+            if (existing != null)
+                return existing;
+        }
+
+        return style;
+    }
+
+    /**
+     * Creates a style which has the provided (arbitrary) foreground colour and all other properties
+     * set to their defaults.
+     */
+    public static SgrStyle withForeground(Color color) {
+        int rgb = ((int) Math.round(color.getRed() * 255.0) << 16) |
+                ((int) Math.round(color.getGreen() * 255.0) << 8) |
+                (int) Math.round(color.getBlue() * 255.0);
+        return of(RGB_FLAG | rgb, DEFAULT_COLOUR, 0);
+    }
+
+    /**
+     * @return The colour for the provided xterm 256-colour palette index.
+     */
+    public static Color paletteColor(int index) {
+        return PALETTE[index];
+    }
+
+    private static long toKey(int packedForeground, int packedBackground, int attributes) {
+        // Each packed colour fits in 26 bits once offset by 1 (so DEFAULT_COLOUR becomes 0)
+        return ((long) (packedForeground + 1) << 34) | ((long) (packedBackground + 1) << 8) | (attributes & 0xFF);
+    }
+
+    private static Color toColor(int packedColour) {
+        if (packedColour == DEFAULT_COLOUR)
+            return null;
+
+        if ((packedColour & RGB_FLAG) != 0)
+            return Color.rgb((packedColour >> 16) & 0xFF, (packedColour >> 8) & 0xFF, packedColour & 0xFF);
+
+        return PALETTE[packedColour];
+    }
+
+    public int getPackedForeground() {
+        return packedForeground;
+    }
+
+    public int getPackedBackground() {
+        return packedBackground;
+    }
+
+    public int getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return The foreground colour, or null if the default text colour should be used.
+     */
+    public Color getForeground() {
+        return foreground;
+    }
+
+    /**
+     * @return The background colour, or null if the default background colour should be used.
+     */
+    public Color getBackground() {
+        return background;
+    }
+
+    public boolean isBold() {
+        return (attributes & ATTR_BOLD) != 0;
+    }
+
+    public boolean isFaint() {
+        return (attributes & ATTR_FAINT) != 0;
+    }
+
+    public boolean isItalic() {
+        return (attributes & ATTR_ITALIC) != 0;
+    }
+
+    public boolean isUnderline() {
+        return (attributes & ATTR_UNDERLINE) != 0;
+    }
+
+    public boolean isInverse() {
+        return (attributes & ATTR_INVERSE) != 0;
+    }
+
+    public boolean isConcealed() {
+        return (attributes & ATTR_CONCEAL) != 0;
+    }
+
+    public boolean isStrikethrough() {
+        return (attributes & ATTR_STRIKETHROUGH) != 0;
+    }
+
+    public boolean isDefault() {
+        return packedForeground == DEFAULT_COLOUR && packedBackground == DEFAULT_COLOUR && attributes == 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SgrStyle))
+            return false;
+
+        SgrStyle that = (SgrStyle) other;
+        return packedForeground == that.packedForeground &&
+                packedBackground == that.packedBackground &&
+                attributes == that.attributes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(toKey(packedForeground, packedBackground, attributes));
+    }
+
+    @Override
+    public String toString() {
+        return "{ foreground = " + foreground + ", background = " + background + ", attributes = " + attributes + " }";
+    }
+}
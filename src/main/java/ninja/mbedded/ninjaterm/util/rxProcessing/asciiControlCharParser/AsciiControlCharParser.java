@@ -2,13 +2,13 @@ package ninja.mbedded.ninjaterm.util.rxProcessing.asciiControlCharParser;
 
 import javafx.beans.property.SimpleBooleanProperty;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import org.slf4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Detects ASCII control characters and inserts the appropriate visible unicode character equivalent.
@@ -18,67 +18,55 @@ import java.util.regex.Pattern;
  * This needs to be run AFTER the new line parser has run, as this ASCII control char parser
  * will remove the characters that typically represent a new line.
  *
+ * Each control char (0x00-0x1F and 0x7F) has a <code>{@link ControlCharPolicy}</code>. The policies
+ * are compiled into a 256-entry lookup table of replacement strings, so <code>parse()</code> is a single
+ * pass over the input which copies runs of printable chars in bulk.
+ *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2017-10-08
+ * @last-modified 2026-10-18
  * @since 2016-10-17
  */
 public class AsciiControlCharParser {
 
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    private static final int TABLE_SIZE = 256;
+
+    private static final char DEL_CHAR = 0x7F;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     //================================================================================================//
     //=========================================== CLASS FIELDS =======================================//
     //================================================================================================//
 
     /**
      * When this is True, typically invisible ASCII control chars are converted into visible representations.
+     * This sets the default policy of all control chars (policies set with <code>setPolicy()</code> take
+     * precedence).
      */
     public SimpleBooleanProperty replaceWithVisibleSymbols = new SimpleBooleanProperty(false);
 
-    private Map<String, String> controlCharToVisibleChar = new HashMap<>();
+    /**
+     * Policies explicitly set by <code>setPolicy()</code>. null entries use the default policy.
+     */
+    private ControlCharPolicy[] policyOverrides = new ControlCharPolicy[TABLE_SIZE];
 
-    private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
+    /**
+     * The lookup table which is built from the policies. A null entry means the char is
+     * passed through unchanged, otherwise the char is replaced with the string (which may be empty).
+     */
+    private String[] replacementTable = new String[TABLE_SIZE];
+
+    /**
+     * Re-used between calls to <code>parse()</code>. Maps a char index in the input to the index of the
+     * start of it's replacement in the output.
+     */
+    private int[] outputPositions = new int[0];
 
-    private String[][] controlCharToVisibleCharA = {
-            { "\u0000", "␀"},
-            { "\u0001", "␁"},
-            { "\u0002", "␂"},
-            { "\u0003", "␃"},
-            { "\u0004", "␄"},
-            { "\u0005", "␅"},
-            { "\u0006", "␆"},
-            { "\u0007", "␇"},
-            { "\u0008", "␈"},
-            { "\u0009", "␉"},   // Horizontal tab (standard tab)
-            { "\n", "␤"},       // New-lines
-            { "\u000B", "␋"},
-            { "\u000C", "␌"},
-            { "\r", "↵"},       // Carriage return
-            { "\u000E", "␎"},
-            { "\u000F", "␏"},
-            { "\u0010", "␐"},
-            { "\u0011", "␑"},
-            { "\u0012", "␒"},
-            { "\u0013", "␓"},
-            { "\u0014", "␔"},
-            { "\u0015", "␕"},
-            { "\u0016", "␖"},
-            { "\u0017", "␗"},
-            { "\u0018", "␘"},
-            { "\u0019", "␙"},
-            { "\u001A", "␚"},
-            { "\u001B", "␛" },
-            { "\u001C", "␜" },
-            { "\u001D", "␝" },
-            { "\u001E", "␞" },
-            { "\u001F", "␟" },
-            { "\u0020", "␠" },
-            { "\u0021", "␡" },
-            //{ "\u0022", "␢" },
-            { "\u0023", "␣" },
-            { "\u0024", "␤" },
-            { "\u0025", "␥" },
-            { "\u0026", "␦" },
-
-    };
+    private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
     //================================================================================================//
     //========================================== CLASS METHODS =======================================//
@@ -86,58 +74,199 @@ public class AsciiControlCharParser {
 
     public AsciiControlCharParser() {
 
-        // Build the hashmap from the simple two-dimensional array
-        for(String[] controlCharToVisibleCharMapping : controlCharToVisibleCharA) {
-            controlCharToVisibleChar.put(controlCharToVisibleCharMapping[0], controlCharToVisibleCharMapping[1]);
+        replaceWithVisibleSymbols.addListener((observable, oldValue, newValue) -> {
+            buildReplacementTable();
+        });
+
+        buildReplacementTable();
+    }
+
+    /**
+     * @return True if the provided char is an ASCII control char (the same chars as matched by
+     *          the "\p{Cntrl}" regex).
+     */
+    public static boolean isControlChar(int c) {
+        return c < 0x20 || c == DEL_CHAR;
+    }
+
+    /**
+     * Sets the policy for a single control char, overriding the default set by
+     * <code>replaceWithVisibleSymbols</code>.
+     *
+     * @param controlChar   The control char (0x00-0x1F or 0x7F).
+     * @param policy        The policy to apply, or null to go back to the default policy.
+     */
+    public void setPolicy(char controlChar, ControlCharPolicy policy) {
+        if (!isControlChar(controlChar))
+            throw new IllegalArgumentException("controlChar must be an ASCII control char.");
+
+        policyOverrides[controlChar] = policy;
+        buildReplacementTable();
+    }
+
+    /**
+     * Sets the policy for all control chars, overriding the default set by
+     * <code>replaceWithVisibleSymbols</code>.
+     */
+    public void setPolicyForAll(ControlCharPolicy policy) {
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (isControlChar(c))
+                policyOverrides[c] = policy;
         }
+        buildReplacementTable();
+    }
+
+    /**
+     * @return The policy currently used for the provided control char.
+     */
+    public ControlCharPolicy getPolicy(char controlChar) {
+        if (!isControlChar(controlChar))
+            throw new IllegalArgumentException("controlChar must be an ASCII control char.");
+
+        if (policyOverrides[controlChar] != null)
+            return policyOverrides[controlChar];
+
+        return getDefaultPolicy(controlChar);
+    }
+
+    private ControlCharPolicy getDefaultPolicy(char controlChar) {
+        if (replaceWithVisibleSymbols.get())
+            return ControlCharPolicy.VISIBLE_SYMBOL;
 
+        // If we are not replacing with single char representations, we still want to keep the original
+        // character for tab chars, so they display in the UI!
+        if (controlChar == '\t')
+            return ControlCharPolicy.KEEP;
+
+        return ControlCharPolicy.DROP;
+    }
+
+    private void buildReplacementTable() {
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (!isControlChar(c)) {
+                replacementTable[c] = null;
+                continue;
+            }
+
+            switch (getPolicy((char) c)) {
+                case DROP:
+                    replacementTable[c] = "";
+                    break;
+                case KEEP:
+                    replacementTable[c] = null;
+                    break;
+                case VISIBLE_SYMBOL:
+                    replacementTable[c] = toVisibleSymbol((char) c);
+                    break;
+                case CARET_NOTATION:
+                    replacementTable[c] = "^" + (char) (c ^ 0x40);
+                    break;
+                case HEX_ESCAPE:
+                    replacementTable[c] = "\\x" + HEX_DIGITS[c >> 4] + HEX_DIGITS[c & 0xF];
+                    break;
+                default:
+                    throw new RuntimeException("ControlCharPolicy not recognised.");
+            }
+        }
+    }
+
+    private static String toVisibleSymbol(char controlChar) {
+        switch (controlChar) {
+            case '\n':
+                return "␤";
+            case '\r':
+                return "↵";
+            case DEL_CHAR:
+                return "␡";
+            default:
+                // The unicode "control pictures" block has a symbol for each
+                // C0 control char, in the same order
+                return String.valueOf((char) (0x2400 + controlChar));
+        }
     }
 
     public void parse(StreamedData input, StreamedData releasedText) {
 
-        Pattern pattern = Pattern.compile("\\p{Cntrl}");
+        final String text = input.getText();
+        final int length = text.length();
 
-        // Now create matcher object.
-        Matcher matcher = pattern.matcher(input.getText());
+        // Find the first char which needs replacing. If there are none, all the input
+        // can be shifted across in one go
+        int firstReplacementIndex = findNextReplacement(text, 0);
+        if (firstReplacementIndex == length) {
+            releasedText.shiftDataIn(input, length, StreamedData.MarkerBehaviour.NOT_FILTERING);
+            return;
+        }
 
-        //String output = "";
-        int currIndex = 0;
+        if (outputPositions.length < length + 1)
+            outputPositions = new int[length + 1];
 
-        while(matcher.find()) {
-//            logger.debug("Found regex match = \"" + matcher.group(0) + "\".");
-//            logger.debug("match start = " + matcher.start());
-//            logger.debug("match end = " + matcher.end());
+        StringBuilder output = new StringBuilder(length + 16);
 
-            // Look for character in map
-            String replacementChar = "";
+        int runStart = 0;
+        int replacementIndex = firstReplacementIndex;
+        while (true) {
 
-            if(replaceWithVisibleSymbols.get()) {
-                replacementChar = controlCharToVisibleChar.get(matcher.group(0));
-            } else {
-                // If we are not replacing with single char representations, we still may want to keep the original
-                // character (this is true for tab chars, so they display in the UI!)
-                if (matcher.group(0).equals("\t")) {
-                    replacementChar = "\t";
-                }
+            // Copy the run of chars which are passed through unchanged in bulk
+            for (int i = runStart; i < replacementIndex; i++) {
+                outputPositions[i] = output.length() + (i - runStart);
             }
+            output.append(text, runStart, replacementIndex);
+
+            if (replacementIndex == length)
+                break;
+
+            // Markers that point to the replaced char will point to the start
+            // of it's replacement
+            outputPositions[replacementIndex] = output.length();
+            output.append(replacementTable[text.charAt(replacementIndex)]);
+
+            runStart = replacementIndex + 1;
+            replacementIndex = findNextReplacement(text, runStart);
+        }
+
+        outputPositions[length] = output.length();
 
-            // Shift all characters before this match
-            releasedText.shiftDataIn(input, matcher.start() - currIndex, StreamedData.MarkerBehaviour.NOT_FILTERING);
+        //==============================================//
+        //================ MOVE MARKERS ================//
+        //==============================================//
 
-            // Safely delete this char from the input
-            // (it should now be the first character)
-            input.removeChar(0, false);
+        final int outputOffset = releasedText.getText().length();
 
-            currIndex = matcher.end();
+        // Markers are added before the text so that any trimming of the
+        // released data takes them into account
+        List<Marker> releasedMarkers = releasedText.getMarkers();
+        List<Marker> markersToMove = new ArrayList<>(input.getMarkers());
+        ColourMarker lastMovedColourMarker = null;
+        for (Marker marker : markersToMove) {
+            marker.setCharPos(outputOffset + outputPositions[marker.charPos]);
 
-            if(replacementChar != null) {
-                releasedText.append(replacementChar);
+            if (marker instanceof ColourMarker) {
+                // If all the chars between two colour changes were dropped, the
+                // earlier colour change no longer applies to anything
+                if (lastMovedColourMarker != null && lastMovedColourMarker.charPos == marker.charPos)
+                    releasedMarkers.remove(lastMovedColourMarker);
+                lastMovedColourMarker = (ColourMarker) marker;
             }
 
+            releasedMarkers.add(marker);
         }
 
-        // No more matches have been found, but we still need to copy the last piece of
-        // text across (if any)
-        releasedText.shiftDataIn(input, input.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        input.clear();
+        releasedText.append(output.toString());
+    }
+
+    /**
+     * @return The index of the next char at or after <code>startIndex</code> which has a replacement, or the
+     *          length of the text if there are none.
+     */
+    private int findNextReplacement(String text, int startIndex) {
+        final int length = text.length();
+        for (int i = startIndex; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < TABLE_SIZE && replacementTable[c] != null)
+                return i;
+        }
+        return length;
     }
 }
@@ -0,0 +1,36 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.asciiControlCharParser;
+
+/**
+ * The different ways the <code>{@link AsciiControlCharParser}</code> can handle a control character.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public enum ControlCharPolicy {
+
+    /**
+     * The control char is removed.
+     */
+    DROP,
+
+    /**
+     * The control char is passed through unchanged (e.g. tabs, so they display in the UI).
+     */
+    KEEP,
+
+    /**
+     * The control char is replaced with a visible unicode symbol (e.g. "␀" for NUL).
+     */
+    VISIBLE_SYMBOL,
+
+    /**
+     * The control char is replaced with caret notation (e.g. "^@" for NUL, "^?" for DEL).
+     */
+    CARET_NOTATION,
+
+    /**
+     * The control char is replaced with a hex escape (e.g. "\x00" for NUL).
+     */
+    HEX_ESCAPE,
+}
@@ -0,0 +1,92 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+/**
+ * Wraps a <code>CharSequence</code> and counts the number of characters read from it by the regex engine.
+ *
+ * Java's regex engine reads every character through <code>charAt()</code>, so the number of reads is a good
+ * measure of how much work (including backtracking) a match is doing. Once either the step or time budget
+ * is used up, a {@link RegexBudgetExceededException} is thrown, which unwinds the regex engine.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class BudgetedCharSequence implements CharSequence {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The time is only checked every this many steps, as <code>System.nanoTime()</code> is much slower
+     * than a char read.
+     */
+    private static final int STEPS_PER_TIME_CHECK = 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private CharSequence text = "";
+
+    private long stepsRemaining;
+
+    private int stepsUntilTimeCheck;
+
+    private long deadlineNs;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    void setText(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Starts a new budget. Call this before each call into the regex engine.
+     *
+     * @param maxNumSteps   The max. number of chars the regex engine can read.
+     * @param maxTimeNs     The max. amount of time the regex engine can run for, in nano-seconds.
+     */
+    void resetBudget(long maxNumSteps, long maxTimeNs) {
+        stepsRemaining = maxNumSteps;
+        stepsUntilTimeCheck = STEPS_PER_TIME_CHECK;
+        deadlineNs = System.nanoTime() + maxTimeNs;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--stepsRemaining < 0) {
+            throw new RegexBudgetExceededException("Regex step budget exceeded.");
+        }
+
+        if (--stepsUntilTimeCheck <= 0) {
+            stepsUntilTimeCheck = STEPS_PER_TIME_CHECK;
+            if (System.nanoTime() - deadlineNs > 0) {
+                throw new RegexBudgetExceededException("Regex time budget exceeded.");
+            }
+        }
+
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Only used by the regex engine to extract groups, which happens after matching, so
+     * this does not need to be budgeted.
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,238 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+import java.util.regex.Matcher;
+
+/**
+ * Performs match operations on a <code>CharSequence</code> using a {@link GuardedPattern}. The API is a subset
+ * of <code>java.util.regex.Matcher</code>.
+ *
+ * Regex patterns are run on a {@link BudgetedCharSequence} which wraps the text, so every call into the regex engine
+ * has a step and time budget. If the budget is used up, the pattern is switched into safe mode (plain text matching),
+ * and the operation is repeated with the plain text search.
+ *
+ * This class is not thread safe.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class GuardedMatcher {
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final GuardedPattern pattern;
+
+    private final BudgetedCharSequence budgetedText = new BudgetedCharSequence();
+
+    private final Matcher regexMatcher;
+
+    private CharSequence text;
+
+    private int regionStart;
+    private int regionEnd;
+
+    /**
+     * The index that the next call to <code>find()</code> starts searching from.
+     */
+    private int searchFrom;
+
+    private int matchStart = -1;
+    private int matchEnd = -1;
+
+    /**
+     * True if the last match was found by the regex engine (rather than the plain text search), so
+     * capturing groups are available.
+     */
+    private boolean isRegexMatch = false;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    GuardedMatcher(GuardedPattern pattern, CharSequence text) {
+        this.pattern = pattern;
+        regexMatcher = pattern.getRegex().matcher(budgetedText);
+        reset(text);
+    }
+
+    public GuardedPattern pattern() {
+        return pattern;
+    }
+
+    /**
+     * Resets this matcher to search the provided text. The region is set to the whole text.
+     */
+    public GuardedMatcher reset(CharSequence text) {
+        this.text = text;
+        budgetedText.setText(text);
+        regexMatcher.reset(budgetedText);
+        return region(0, text.length());
+    }
+
+    /**
+     * Limits the search to the chars between <code>start</code> (inclusive) and <code>end</code> (exclusive). Anchors
+     * such as "^" and "$" match at the region boundaries, as per <code>java.util.regex.Matcher</code>.
+     */
+    public GuardedMatcher region(int start, int end) {
+        regionStart = start;
+        regionEnd = end;
+        searchFrom = start;
+        matchStart = -1;
+        matchEnd = -1;
+        regexMatcher.region(start, end);
+        return this;
+    }
+
+    /**
+     * Finds the next match in the region, starting from the end of the previous match.
+     *
+     * @return True if a match was found.
+     */
+    public boolean find() {
+        if (searchFrom > regionEnd)
+            return false;
+
+        if (pattern.getEngine() == GuardedPattern.Engines.BACKTRACKING) {
+            budgetedText.resetBudget(pattern.getStepBudget(regionEnd - searchFrom), GuardedPattern.MAX_TIME_NS);
+            try {
+                if (regexMatcher.find()) {
+                    setMatch(regexMatcher.start(), regexMatcher.end());
+                    isRegexMatch = true;
+                    return true;
+                }
+                matchStart = -1;
+                matchEnd = -1;
+                searchFrom = regionEnd + 1;
+                return false;
+            } catch (RegexBudgetExceededException e) {
+                pattern.switchToSafeMode();
+                // Fall through and repeat the search with the literal engine
+            }
+        }
+
+        return findLiteral();
+    }
+
+    /**
+     * @return The start index of the last match.
+     */
+    public int start() {
+        if (matchStart < 0)
+            throw new IllegalStateException("No match available.");
+        return matchStart;
+    }
+
+    /**
+     * @return The index after the last char of the last match.
+     */
+    public int end() {
+        if (matchEnd < 0)
+            throw new IllegalStateException("No match available.");
+        return matchEnd;
+    }
+
+    /**
+     * @return The number of capturing groups in the pattern.
+     */
+    public int groupCount() {
+        return regexMatcher.groupCount();
+    }
+
+    /**
+     * @return The text captured by the group during the last match, or null if the group did not take part in
+     *          the match. Matches found by the plain text search (i.e. in safe mode) have no capturing groups, so
+     *          null is returned for any group other than 0.
+     */
+    public String group(int group) {
+        if (matchStart < 0)
+            throw new IllegalStateException("No match available.");
+
+        if (group == 0)
+            return text.subSequence(matchStart, matchEnd).toString();
+
+        if (!isRegexMatch)
+            return null;
+
+        // Read the group from the text directly, rather than through the budgeted text the regex engine ran on
+        final int groupStart = regexMatcher.start(group);
+        return (groupStart < 0) ? null : text.subSequence(groupStart, regexMatcher.end(group)).toString();
+    }
+
+    /**
+     * Looks for the start of a partial match at the end of the region, i.e. text which does not match yet but
+     * could if more chars were added. This resets any search in progress with <code>find()</code>.
+     *
+     * @return The index of the first char of the partial match, or -1 if there is no partial match.
+     */
+    public int findPartialMatchStart() {
+        final int start = regionStart;
+        final int end = regionEnd;
+
+        for (int i = start; i < end; i++) {
+            if (isPartialMatchAt(i, end))
+                return i;
+        }
+
+        return -1;
+    }
+
+    private boolean isPartialMatchAt(int index, int end) {
+
+        if (pattern.getEngine() == GuardedPattern.Engines.BACKTRACKING) {
+            budgetedText.resetBudget(pattern.getStepBudget(end - index), GuardedPattern.MAX_TIME_NS);
+            try {
+                regexMatcher.region(index, end);
+                regexMatcher.matches();
+                return regexMatcher.hitEnd();
+            } catch (RegexBudgetExceededException e) {
+                pattern.switchToSafeMode();
+            }
+        }
+
+        // With plain text, a partial match is when all the remaining chars are the
+        // start of one of the alternatives
+        final int numRemainingChars = end - index;
+        for (String literal : pattern.getLiterals()) {
+            if (numRemainingChars < literal.length() && regionMatches(index, literal, numRemainingChars))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean findLiteral() {
+        final String[] literals = pattern.getLiterals();
+
+        for (int i = searchFrom; i < regionEnd; i++) {
+            // The first alternative which matches is used, as per the regex engine
+            for (String literal : literals) {
+                if (literal.length() > 0 && i + literal.length() <= regionEnd && regionMatches(i, literal, literal.length())) {
+                    setMatch(i, i + literal.length());
+                    isRegexMatch = false;
+                    return true;
+                }
+            }
+        }
+
+        matchStart = -1;
+        matchEnd = -1;
+        searchFrom = regionEnd + 1;
+        return false;
+    }
+
+    private boolean regionMatches(int index, String literal, int numChars) {
+        for (int j = 0; j < numChars; j++) {
+            if (text.charAt(index + j) != literal.charAt(j))
+                return false;
+        }
+        return true;
+    }
+
+    private void setMatch(int start, int end) {
+        matchStart = start;
+        matchEnd = end;
+        // Stop empty matches from being found again at the same position
+        searchFrom = (end == start) ? end + 1 : end;
+    }
+}
@@ -0,0 +1,365 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled, user-provided regex pattern which is safe to run on the UI thread.
+ *
+ * When compiled, the pattern is analysed:
+ * <ul>
+ * <li>Patterns which are just plain text (or an alternation of plain text, e.g. "\r\n|\n") are matched
+ * with a simple literal search, which runs in linear time.</li>
+ * <li>All other patterns are run by Java's regex engine, with a step and time budget (see {@link GuardedMatcher}).
+ * Patterns which look like they could backtrack catastrophically (e.g. nested quantifiers such as "(a+)+", or
+ * back-references) get a smaller budget.</li>
+ * </ul>
+ *
+ * If a pattern ever uses up it's budget, it is permanently switched into a safe mode, where the pattern text is
+ * matched literally, and the <code>budgetExceededListeners</code> are called so the user can be told.
+ *
+ * Use {@link #matcher(CharSequence)} to create a matcher.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class GuardedPattern {
+
+    //================================================================================================//
+    //========================================= CLASS ENUMS ==========================================//
+    //================================================================================================//
+
+    public enum Engines {
+        LITERAL("Literal"),
+        BACKTRACKING("Regex"),
+        ;
+
+        private String label;
+
+        Engines(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The step budget for a single call into the regex engine is this, plus <code>STEPS_PER_CHAR</code>
+     * for every char in the region being searched.
+     */
+    static final long BASE_STEP_BUDGET = 100000;
+
+    static final long STEPS_PER_CHAR = 100;
+
+    /**
+     * Patterns which are potentially catastrophic have their step budget divided by this.
+     */
+    static final long CATASTROPHIC_BUDGET_DIVISOR = 10;
+
+    /**
+     * The max. time a single call into the regex engine can take.
+     */
+    static final long MAX_TIME_NS = 20000000;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final String pattern;
+
+    private final Pattern regex;
+
+    private final boolean isPotentiallyCatastrophic;
+
+    private Engines engine;
+
+    /**
+     * The alternatives which are searched for when using the <code>LITERAL</code> engine, in
+     * order of preference.
+     */
+    private String[] literals;
+
+    private boolean isInSafeMode = false;
+
+    private final List<RegexBudgetExceededListener> budgetExceededListeners;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * Compiles the provided pattern.
+     *
+     * @throws java.util.regex.PatternSyntaxException If the pattern is not a valid regex.
+     */
+    public static GuardedPattern compile(String pattern) {
+        return compile(pattern, new ArrayList<>());
+    }
+
+    /**
+     * Compiles the provided pattern.
+     *
+     * @param pattern                   The regex pattern.
+     * @param budgetExceededListeners   Listeners which are called if the pattern ever uses up it's budget. The list
+     *                                  is not copied, so listeners added to it later will also be called.
+     * @throws java.util.regex.PatternSyntaxException If the pattern is not a valid regex.
+     */
+    public static GuardedPattern compile(String pattern, List<RegexBudgetExceededListener> budgetExceededListeners) {
+        return new GuardedPattern(pattern, budgetExceededListeners);
+    }
+
+    private GuardedPattern(String pattern, List<RegexBudgetExceededListener> budgetExceededListeners) {
+        this.pattern = pattern;
+        this.budgetExceededListeners = budgetExceededListeners;
+
+        // Always compile, so that invalid patterns are rejected in the same way
+        // no matter which engine is used
+        regex = Pattern.compile(pattern);
+
+        literals = parseLiteralAlternatives(pattern);
+        engine = (literals != null) ? Engines.LITERAL : Engines.BACKTRACKING;
+
+        isPotentiallyCatastrophic = (engine == Engines.BACKTRACKING) && isPotentiallyCatastrophic(pattern);
+    }
+
+    public GuardedMatcher matcher(CharSequence text) {
+        return new GuardedMatcher(this, text);
+    }
+
+    /**
+     * @return The pattern this object was compiled from.
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    public Engines getEngine() {
+        return engine;
+    }
+
+    public boolean isPotentiallyCatastrophic() {
+        return isPotentiallyCatastrophic;
+    }
+
+    /**
+     * @return True if the pattern has used up it's budget, and is now being matched as plain text.
+     */
+    public boolean isInSafeMode() {
+        return isInSafeMode;
+    }
+
+    Pattern getRegex() {
+        return regex;
+    }
+
+    String[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @return The step budget for searching through <code>numChars</code> chars.
+     */
+    long getStepBudget(int numChars) {
+        long budget = BASE_STEP_BUDGET + STEPS_PER_CHAR * numChars;
+        if (isPotentiallyCatastrophic)
+            budget /= CATASTROPHIC_BUDGET_DIVISOR;
+        return budget;
+    }
+
+    /**
+     * Called by a {@link GuardedMatcher} when the regex engine has used up it's budget.
+     */
+    void switchToSafeMode() {
+        if (isInSafeMode)
+            return;
+
+        isInSafeMode = true;
+        engine = Engines.LITERAL;
+        literals = new String[]{pattern};
+
+        for (RegexBudgetExceededListener budgetExceededListener : budgetExceededListeners) {
+            budgetExceededListener.run(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    //================================================================================================//
+    //=========================================== ANALYSIS ===========================================//
+    //================================================================================================//
+
+    /**
+     * Checks if a pattern only consists of plain text (which may contain simple escapes such as "\n" or "\."),
+     * optionally separated by "|".
+     *
+     * @return The plain text alternatives, or null if the pattern contains any other regex constructs.
+     */
+    static String[] parseLiteralAlternatives(String pattern) {
+        List<String> alternatives = new ArrayList<>();
+        StringBuilder currAlternative = new StringBuilder();
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+
+            switch (c) {
+                case '|':
+                    if (currAlternative.length() == 0)
+                        return null;
+                    alternatives.add(currAlternative.toString());
+                    currAlternative.setLength(0);
+                    break;
+                case '\\':
+                    if (++i == pattern.length())
+                        return null;
+                    char escaped = toLiteralEscape(pattern.charAt(i));
+                    if (escaped == 0)
+                        return null;
+                    currAlternative.append(escaped);
+                    break;
+                case '.':
+                case '^':
+                case '$':
+                case '?':
+                case '*':
+                case '+':
+                case '(':
+                case ')':
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                    return null;
+                default:
+                    currAlternative.append(c);
+                    break;
+            }
+        }
+
+        // An empty alternative would match everywhere
+        if (currAlternative.length() == 0)
+            return null;
+        alternatives.add(currAlternative.toString());
+
+        return alternatives.toArray(new String[alternatives.size()]);
+    }
+
+    /**
+     * @return The char that the escape sequence "\c" represents, or 0 if it is not a simple literal escape
+     *          (e.g. "\d" or "\b").
+     */
+    private static char toLiteralEscape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            default:
+                // Escaped punctuation (e.g. "\." or "\\") is always the punctuation char itself
+                if (c < 0x80 && !Character.isLetterOrDigit(c))
+                    return c;
+                return 0;
+        }
+    }
+
+    /**
+     * A quick heuristic for patterns that can backtrack catastrophically. Detects:
+     * <ul>
+     * <li>Repeated groups which themselves contain a repetition (e.g. "(a+)+", "(\w*\s?)*").</li>
+     * <li>Back-references (e.g. "(a*)\1").</li>
+     * </ul>
+     * This will not find every slow pattern, which is why all regex patterns also have a budget.
+     */
+    static boolean isPotentiallyCatastrophic(String pattern) {
+
+        // For each open group, whether it contains a repetition
+        Deque<Boolean> groupStack = new ArrayDeque<>();
+        boolean currGroupHasRepetition = false;
+
+        // Whether the last thing was a group containing a repetition
+        boolean lastWasRepeatingGroup = false;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+
+            switch (c) {
+                case '\\':
+                    if (i + 1 < pattern.length()) {
+                        char next = pattern.charAt(i + 1);
+                        if ((next >= '1' && next <= '9') || next == 'k')
+                            return true;
+                    }
+                    i++;
+                    lastWasRepeatingGroup = false;
+                    break;
+                case '[':
+                    i = skipCharClass(pattern, i);
+                    lastWasRepeatingGroup = false;
+                    break;
+                case '(':
+                    groupStack.push(currGroupHasRepetition);
+                    currGroupHasRepetition = false;
+                    lastWasRepeatingGroup = false;
+                    break;
+                case ')':
+                    lastWasRepeatingGroup = currGroupHasRepetition;
+                    if (!groupStack.isEmpty())
+                        currGroupHasRepetition |= groupStack.pop();
+                    break;
+                case '*':
+                case '+':
+                case '{':
+                    if (lastWasRepeatingGroup)
+                        return true;
+                    currGroupHasRepetition = true;
+                    lastWasRepeatingGroup = false;
+                    break;
+                default:
+                    lastWasRepeatingGroup = false;
+                    break;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The index of the "]" which closes the char class that starts at <code>openIndex</code>.
+     */
+    private static int skipCharClass(String pattern, int openIndex) {
+        int depth = 0;
+        for (int i = openIndex; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && i > openIndex + 1 && !(i == openIndex + 2 && pattern.charAt(openIndex + 1) == '^')) {
+                if (--depth == 0)
+                    return i;
+            }
+        }
+        return pattern.length();
+    }
+}
@@ -0,0 +1,19 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+/**
+ * Thrown by a {@link BudgetedCharSequence} when the regex engine has used up it's budget. This is caught
+ * inside {@link GuardedMatcher} and never escapes to the caller.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class RegexBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    RegexBudgetExceededException(String message) {
+        // Stack trace is not needed, and is expensive to fill in
+        super(message, null, false, false);
+    }
+}
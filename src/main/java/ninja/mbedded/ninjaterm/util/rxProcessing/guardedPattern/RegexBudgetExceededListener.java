@@ -0,0 +1,13 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+/**
+ * Interface for listeners listening for when a user-provided regex pattern took too long to run, and has been
+ * switched to plain text matching.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public interface RegexBudgetExceededListener {
+    void run(GuardedPattern pattern);
+}
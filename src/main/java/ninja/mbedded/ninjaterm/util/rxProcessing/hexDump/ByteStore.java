@@ -0,0 +1,179 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.hexDump;
+
+/**
+ * Stores raw bytes in a ring buffer, so that the most recent bytes can be looked up by offset without
+ * converting them into strings.
+ *
+ * Every byte is given an offset, which is the number of bytes appended before it (since the store was created or
+ * last cleared). Offsets do not change when the oldest bytes are dropped.
+ *
+ * The backing array starts small and grows up to the capacity as bytes are added, so an empty store
+ * does not use much memory.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ByteStore {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    private static final int INITIAL_ARRAY_SIZE = 64 * 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final int capacity;
+
+    private byte[] buffer;
+
+    /**
+     * The offset of the oldest byte in the store.
+     */
+    private long startOffset = 0;
+
+    /**
+     * The offset that the next byte appended will be given.
+     */
+    private long endOffset = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param capacity The max. number of bytes to keep. Once full, the oldest bytes are dropped.
+     */
+    public ByteStore(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be greater than 0.");
+
+        this.capacity = capacity;
+        buffer = new byte[Math.min(INITIAL_ARRAY_SIZE, capacity)];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * @return The number of bytes in the store.
+     */
+    public int size() {
+        return (int) (endOffset - startOffset);
+    }
+
+    public void append(byte[] data) {
+        append(data, 0, data.length);
+    }
+
+    public void append(byte[] data, int dataOffset, int length) {
+
+        // Only the last "capacity" bytes can be kept
+        if (length > capacity) {
+            dataOffset += length - capacity;
+            endOffset += length - capacity;
+            startOffset = endOffset;
+            length = capacity;
+        }
+
+        final int newSize = (int) Math.min(endOffset + length - startOffset, capacity);
+        if (newSize > buffer.length)
+            growBuffer(newSize);
+
+        // Copy in up to two parts, in case the data wraps around the end of the array
+        int index = (int) (endOffset % buffer.length);
+        int numCopied = 0;
+        while (numCopied < length) {
+            final int numToCopy = Math.min(length - numCopied, buffer.length - index);
+            System.arraycopy(data, dataOffset + numCopied, buffer, index, numToCopy);
+            numCopied += numToCopy;
+            index = 0;
+        }
+
+        endOffset += length;
+        startOffset = Math.max(startOffset, endOffset - buffer.length);
+    }
+
+    /**
+     * @return The byte at the provided offset.
+     * @throws IndexOutOfBoundsException If the offset is not in the store.
+     */
+    public byte get(long offset) {
+        if (offset < startOffset || offset >= endOffset)
+            throw new IndexOutOfBoundsException("Offset " + offset + " is not in the store (start = " + startOffset + ", end = " + endOffset + ").");
+
+        return buffer[(int) (offset % buffer.length)];
+    }
+
+    /**
+     * Copies bytes out of the store. Only bytes which are in the store are copied.
+     *
+     * @param offset    The offset of the first byte to copy. Must not be less than <code>getStartOffset()</code>.
+     * @param output    The array to copy into.
+     * @param outputPos The position in <code>output</code> to copy the first byte to.
+     * @param length    The max. number of bytes to copy.
+     * @return The number of bytes copied. This is less than <code>length</code> if the end of the store was reached.
+     */
+    public int read(long offset, byte[] output, int outputPos, int length) {
+        if (offset < startOffset)
+            throw new IndexOutOfBoundsException("Offset " + offset + " has been dropped from the store (start = " + startOffset + ").");
+
+        length = (int) Math.max(Math.min(length, endOffset - offset), 0);
+
+        int index = (int) (offset % buffer.length);
+        int numCopied = 0;
+        while (numCopied < length) {
+            final int numToCopy = Math.min(length - numCopied, buffer.length - index);
+            System.arraycopy(buffer, index, output, outputPos + numCopied, numToCopy);
+            numCopied += numToCopy;
+            index = 0;
+        }
+
+        return length;
+    }
+
+    /**
+     * Removes all bytes, and resets the offsets back to 0.
+     */
+    public void clear() {
+        startOffset = 0;
+        endOffset = 0;
+        buffer = new byte[Math.min(INITIAL_ARRAY_SIZE, capacity)];
+    }
+
+    /**
+     * Grows the backing array so it can hold at least <code>minSize</code> bytes. Since the position of a byte in
+     * the array depends on the array length, the existing bytes are copied to their new positions.
+     */
+    private void growBuffer(int minSize) {
+        int newLength = buffer.length;
+        while (newLength < minSize)
+            newLength = (int) Math.min((long) newLength * 2, capacity);
+
+        byte[] oldContents = new byte[size()];
+        read(startOffset, oldContents, 0, oldContents.length);
+
+        buffer = new byte[newLength];
+
+        int index = (int) (startOffset % newLength);
+        int numCopied = 0;
+        while (numCopied < oldContents.length) {
+            final int numToCopy = Math.min(oldContents.length - numCopied, newLength - index);
+            System.arraycopy(oldContents, numCopied, buffer, index, numToCopy);
+            numCopied += numToCopy;
+            index = 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.hexDump;
+
+/**
+ * Formats rows of a hex dump (offset, hex bytes and ASCII side-by-side) straight from a
+ * <code>{@link ByteStore}</code>, using lookup tables rather than string formatting. A row looks like:
+ *
+ * <pre>
+ * 0000A0B0  48 65 6C 6C 6F 2C 20 77  6F 72 6C 64 21 0D 0A 00  |Hello, world!...|
+ * </pre>
+ *
+ * A gap is added after every 8 bytes in the hex column. Positions which are not in the store (before the start of
+ * the store, or after the end) are left blank.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class HexDumpFormatter {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * The number of hex digits used to display the offset at the start of each row. Only the lower
+     * 32 bits of the offset are displayed.
+     */
+    public static final int NUM_OFFSET_DIGITS = 8;
+
+    private static final int HEX_START_COL = NUM_OFFSET_DIGITS + 2;
+
+    private static final int BYTES_PER_GROUP = 8;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The two hex digits for every byte value.
+     */
+    private static final char[] HEX_HIGH_DIGIT = new char[256];
+    private static final char[] HEX_LOW_DIGIT = new char[256];
+
+    /**
+     * The char displayed in the ASCII column for every byte value. Non-printable bytes are displayed as ".".
+     */
+    private static final char[] ASCII_CHAR = new char[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HEX_HIGH_DIGIT[i] = HEX_DIGITS[i >>> 4];
+            HEX_LOW_DIGIT[i] = HEX_DIGITS[i & 0x0F];
+            ASCII_CHAR[i] = (i >= 0x20 && i < 0x7F) ? (char) i : '.';
+        }
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final int bytesPerRow;
+
+    /**
+     * Re-used between calls to hold the bytes of a row.
+     */
+    private final byte[] rowBytes;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param bytesPerRow The number of bytes displayed in each row. Must be a multiple of 8.
+     */
+    public HexDumpFormatter(int bytesPerRow) {
+        if (bytesPerRow <= 0 || bytesPerRow % BYTES_PER_GROUP != 0)
+            throw new IllegalArgumentException("bytesPerRow must be a multiple of " + BYTES_PER_GROUP + ".");
+
+        this.bytesPerRow = bytesPerRow;
+        rowBytes = new byte[bytesPerRow];
+    }
+
+    public int getBytesPerRow() {
+        return bytesPerRow;
+    }
+
+    /**
+     * @return The number of chars in every row.
+     */
+    public int getRowLength() {
+        return getAsciiColumn(bytesPerRow) + 1;
+    }
+
+    /**
+     * @return The column of the first of the two hex digits for the byte at the provided index in a row.
+     */
+    public int getHexColumn(int byteIndex) {
+        return HEX_START_COL + byteIndex * 3 + byteIndex / BYTES_PER_GROUP;
+    }
+
+    /**
+     * @return The column of the ASCII char for the byte at the provided index in a row.
+     */
+    public int getAsciiColumn(int byteIndex) {
+        return getHexColumn(bytesPerRow) + 1 + byteIndex;
+    }
+
+    /**
+     * @return The index of the byte in a row displayed at the provided column (in either the hex or ASCII
+     *          column), or -1 if there is no byte at the column.
+     */
+    public int getByteIndexAtColumn(int col) {
+        if (col >= getAsciiColumn(0) && col < getAsciiColumn(bytesPerRow))
+            return col - getAsciiColumn(0);
+
+        for (int byteIndex = 0; byteIndex < bytesPerRow; byteIndex++) {
+            final int hexCol = getHexColumn(byteIndex);
+            if (col == hexCol || col == hexCol + 1)
+                return byteIndex;
+        }
+        return -1;
+    }
+
+    /**
+     * Formats one row of the hex dump.
+     *
+     * @param byteStore The bytes to display.
+     * @param rowOffset The offset of the first byte in the row. This should be a multiple of <code>bytesPerRow</code>.
+     * @param output    The chars are written into here. Must be at least <code>getRowLength()</code> long.
+     */
+    public void formatRow(ByteStore byteStore, long rowOffset, char[] output) {
+
+        final int rowLength = getRowLength();
+        for (int col = 0; col < rowLength; col++)
+            output[col] = ' ';
+
+        // OFFSET
+        for (int digit = 0; digit < NUM_OFFSET_DIGITS; digit++) {
+            output[digit] = HEX_DIGITS[(int) (rowOffset >>> ((NUM_OFFSET_DIGITS - 1 - digit) * 4)) & 0x0F];
+        }
+
+        output[getAsciiColumn(0) - 1] = '|';
+        output[getAsciiColumn(bytesPerRow)] = '|';
+
+        // Skip any bytes at the start of the row which have been dropped from the store
+        final int firstByteIndex = (int) Math.max(Math.min(byteStore.getStartOffset() - rowOffset, bytesPerRow), 0);
+        final int numBytes = byteStore.read(rowOffset + firstByteIndex, rowBytes, firstByteIndex, bytesPerRow - firstByteIndex);
+
+        for (int byteIndex = firstByteIndex; byteIndex < firstByteIndex + numBytes; byteIndex++) {
+            final int value = rowBytes[byteIndex] & 0xFF;
+            final int hexCol = getHexColumn(byteIndex);
+            output[hexCol] = HEX_HIGH_DIGIT[value];
+            output[hexCol + 1] = HEX_LOW_DIGIT[value];
+            output[getAsciiColumn(byteIndex)] = ASCII_CHAR[value];
+        }
+    }
+}
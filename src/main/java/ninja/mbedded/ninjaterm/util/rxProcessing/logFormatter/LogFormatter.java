@@ -0,0 +1,316 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.logFormatter;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampMarker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Converts <code>{@link StreamedData}</code> objects (e.g. the output of the RX data engine) into UTF-8 encoded
+ * text for a log file, with new line markers turned into new lines and time stamp markers turned into time stamp
+ * text.
+ *
+ * The markers are walked once, in order, and the text is encoded straight into a byte buffer which is re-used
+ * between calls, so no intermediate Strings are built for each chunk of data.
+ *
+ * Colour markers are either dropped (the default), or turned back into ANSI SGR escape sequences so the log file
+ * can be viewed in colour (e.g. with <code>less -R</code>). The current style is remembered between calls, and an
+ * escape sequence is only written when the style changes. Time stamps are always written in the default style.
+ *
+ * Each object keeps track of the current style (and the previous time stamp, see
+ * <code>{@link TimeStampFormatter}</code>), so <code>reset()</code> should be called before formatting data for a
+ * new log file.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class LogFormatter {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    private static final int INITIAL_BUFFER_SIZE_BYTES = 4 * 1024;
+
+    private static final byte ESC = 0x1B;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * If true, colour markers are written as ANSI SGR escape sequences, otherwise they are dropped.
+     */
+    public SimpleBooleanProperty isAnsiStylingPreserved = new SimpleBooleanProperty(false);
+
+    /**
+     * Converts time stamp markers into text. Bind <code>timeStampFormatter.mode</code> and
+     * <code>timeStampFormatter.referenceTime</code> to change how time stamps are logged.
+     */
+    public TimeStampFormatter timeStampFormatter = new TimeStampFormatter();
+
+    /**
+     * The encoded new line sequence written for each new line marker.
+     */
+    private final byte[] newLineBytes;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE_BYTES];
+
+    private int length = 0;
+
+    /**
+     * The style of the text last written to the log. Only used when ANSI styling is preserved.
+     */
+    private SgrStyle currStyle = SgrStyle.DEFAULT;
+
+    /**
+     * The style which was last written to the log as an escape sequence.
+     */
+    private SgrStyle writtenStyle = SgrStyle.DEFAULT;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param newLineSequence The chars to write for each new line (e.g. "\n" or "\r\n").
+     */
+    public LogFormatter(String newLineSequence) {
+        newLineBytes = new byte[newLineSequence.length()];
+        for (int i = 0; i < newLineSequence.length(); i++) {
+            final char c = newLineSequence.charAt(i);
+            if (c >= 0x80)
+                throw new IllegalArgumentException("newLineSequence must only contain ASCII chars.");
+            newLineBytes[i] = (byte) c;
+        }
+
+        // The next styled text will re-apply it's style
+        isAnsiStylingPreserved.addListener((observable, oldValue, newValue) -> {
+            writtenStyle = SgrStyle.DEFAULT;
+        });
+    }
+
+    /**
+     * Forgets the current style and the previous time stamp, ready for a new log file.
+     */
+    public void reset() {
+        currStyle = SgrStyle.DEFAULT;
+        writtenStyle = SgrStyle.DEFAULT;
+        timeStampFormatter.reset();
+    }
+
+    /**
+     * Formats the provided data into the buffer returned by <code>getBuffer()</code>, replacing whatever was
+     * in the buffer before.
+     *
+     * @param streamedData The data to format. It's markers are sorted in place.
+     * @return The number of bytes written to the buffer.
+     */
+    public int format(StreamedData streamedData) {
+
+        length = 0;
+
+        final String text = streamedData.getText();
+        final List<Marker> markers = streamedData.getMarkers();
+        Collections.sort(markers);
+
+        int currPos = 0;
+
+        // Time stamp markers are sorted before new line markers at the same char position, but
+        // the new line has to be written first
+        TimeStampMarker pendingTimeStampMarker = null;
+
+        for (Marker marker : markers) {
+
+            if (marker.charPos > currPos) {
+                if (pendingTimeStampMarker != null) {
+                    appendTimeStamp(pendingTimeStampMarker);
+                    pendingTimeStampMarker = null;
+                }
+                appendText(text, currPos, marker.charPos);
+                currPos = marker.charPos;
+            }
+
+            if (marker instanceof NewLineMarker) {
+                appendBytes(newLineBytes);
+            } else if (marker instanceof TimeStampMarker) {
+                if (pendingTimeStampMarker != null)
+                    appendTimeStamp(pendingTimeStampMarker);
+                pendingTimeStampMarker = (TimeStampMarker) marker;
+            } else if (marker instanceof ColourMarker) {
+                // Applied lazily, so a style that is immediately replaced is never written
+                currStyle = ((ColourMarker) marker).style;
+            } else
+                throw new RuntimeException("Marker sub-type not supported.");
+        }
+
+        if (pendingTimeStampMarker != null)
+            appendTimeStamp(pendingTimeStampMarker);
+
+        appendText(text, currPos, text.length());
+
+        return length;
+    }
+
+    /**
+     * @return The buffer holding the output of the last call to <code>format()</code>. This is re-used, so it is
+     *          only valid until <code>format()</code> is called again.
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return The number of bytes in the buffer returned by <code>getBuffer()</code>.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    private void appendTimeStamp(TimeStampMarker timeStampMarker) {
+        if (isAnsiStylingPreserved.get())
+            applyStyle(SgrStyle.DEFAULT);
+
+        final CharSequence timeStamp = timeStampFormatter.formatToBuffer(timeStampMarker.localDateTime);
+        appendChars(timeStamp, 0, timeStamp.length());
+    }
+
+    /**
+     * Appends chars from <code>start</code> (inclusive) to <code>end</code> (exclusive) in the current style.
+     */
+    private void appendText(CharSequence text, int start, int end) {
+        if (start >= end)
+            return;
+
+        if (isAnsiStylingPreserved.get())
+            applyStyle(currStyle);
+
+        appendChars(text, start, end);
+    }
+
+    /**
+     * Appends chars from <code>start</code> (inclusive) to <code>end</code> (exclusive) as UTF-8.
+     */
+    private void appendChars(CharSequence text, int start, int end) {
+
+        // Worst case is 3 bytes per char (surrogate pairs take 4 bytes for 2 chars)
+        ensureCapacity(length + (end - start) * 3);
+
+        for (int i = start; i < end; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates can not be encoded
+                buffer[length++] = '?';
+            } else {
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Writes an SGR escape sequence for the provided style, if it is different to the last one written. The
+     * sequence always starts with a reset, so no attributes carry over from the previous style.
+     */
+    private void applyStyle(SgrStyle style) {
+        if (style.equals(writtenStyle))
+            return;
+
+        appendByte(ESC);
+        appendByte((byte) '[');
+        appendByte((byte) '0');
+
+        final int attributes = style.getAttributes();
+        if ((attributes & SgrStyle.ATTR_BOLD) != 0) appendParam(1);
+        if ((attributes & SgrStyle.ATTR_FAINT) != 0) appendParam(2);
+        if ((attributes & SgrStyle.ATTR_ITALIC) != 0) appendParam(3);
+        if ((attributes & SgrStyle.ATTR_UNDERLINE) != 0) appendParam(4);
+        if ((attributes & SgrStyle.ATTR_INVERSE) != 0) appendParam(7);
+        if ((attributes & SgrStyle.ATTR_CONCEAL) != 0) appendParam(8);
+        if ((attributes & SgrStyle.ATTR_STRIKETHROUGH) != 0) appendParam(9);
+
+        appendColour(style.getPackedForeground(), 30, 90, 38);
+        appendColour(style.getPackedBackground(), 40, 100, 48);
+
+        appendByte((byte) 'm');
+
+        writtenStyle = style;
+    }
+
+    /**
+     * Appends the SGR parameters for a packed colour (see <code>{@link SgrStyle}</code>).
+     *
+     * @param baseCode          The code for colour 0 of the standard 8 colours.
+     * @param brightBaseCode    The code for colour 0 of the bright 8 colours.
+     * @param extendedCode      The code which starts a 256-colour or RGB colour.
+     */
+    private void appendColour(int packedColour, int baseCode, int brightBaseCode, int extendedCode) {
+        if (packedColour == SgrStyle.DEFAULT_COLOUR)
+            return;
+
+        if ((packedColour & SgrStyle.RGB_FLAG) != 0) {
+            appendParam(extendedCode);
+            appendParam(2);
+            appendParam((packedColour >> 16) & 0xFF);
+            appendParam((packedColour >> 8) & 0xFF);
+            appendParam(packedColour & 0xFF);
+        } else if (packedColour < 8) {
+            appendParam(baseCode + packedColour);
+        } else if (packedColour < 16) {
+            appendParam(brightBaseCode + packedColour - 8);
+        } else {
+            appendParam(extendedCode);
+            appendParam(5);
+            appendParam(packedColour);
+        }
+    }
+
+    /**
+     * Appends ";" followed by the parameter (0-255) in decimal.
+     */
+    private void appendParam(int param) {
+        appendByte((byte) ';');
+        if (param >= 100)
+            appendByte((byte) ('0' + param / 100));
+        if (param >= 10)
+            appendByte((byte) ('0' + (param / 10) % 10));
+        appendByte((byte) ('0' + param % 10));
+    }
+
+    private void appendBytes(byte[] bytes) {
+        ensureCapacity(length + bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendByte(byte b) {
+        ensureCapacity(length + 1);
+        buffer[length++] = b;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, capacity));
+    }
+}
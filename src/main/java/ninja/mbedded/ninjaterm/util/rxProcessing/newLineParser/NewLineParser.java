@@ -2,11 +2,14 @@ package ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser;
 
 import javafx.beans.property.SimpleBooleanProperty;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.RegexBudgetExceededListener;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import org.slf4j.Logger;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Detects where to add new line markers in the input streamed text, and releases
@@ -14,7 +17,7 @@ import java.util.regex.Pattern;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-10-15
- * @last-modified 2016-10-18
+ * @last-modified 2026-10-18
  */
 public class NewLineParser {
 
@@ -30,7 +33,17 @@ public class NewLineParser {
      */
     public SimpleBooleanProperty isEnabled = new SimpleBooleanProperty(true);
 
-    private Pattern newLinePattern;
+    private GuardedPattern newLinePattern;
+
+    /**
+     * Re-used between calls to <code>parse()</code>.
+     */
+    private GuardedMatcher newLineMatcher;
+
+    /**
+     * Called if the new line pattern takes too long to run, and is switched to plain text matching.
+     */
+    public List<RegexBudgetExceededListener> regexBudgetExceededListeners = new ArrayList<>();
 
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
@@ -40,11 +53,13 @@ public class NewLineParser {
 
     public NewLineParser(String newLineString) {
         //this.newLineString = newLineString;
-        newLinePattern = Pattern.compile(newLineString);
+        newLinePattern = GuardedPattern.compile(newLineString, regexBudgetExceededListeners);
+        newLineMatcher = newLinePattern.matcher("");
     }
 
     public void setNewLinePattern(String newLineString) {
-        newLinePattern = Pattern.compile(newLineString);
+        newLinePattern = GuardedPattern.compile(newLineString, regexBudgetExceededListeners);
+        newLineMatcher = newLinePattern.matcher("");
     }
 
     public String getNewLinePattern() {
@@ -73,7 +88,7 @@ public class NewLineParser {
 
         // IF WE REACH HERE THEN THE NEW LINE PASER IS ENABLED
 
-        Matcher matcher = newLinePattern.matcher(input.getText());
+        GuardedMatcher matcher = newLineMatcher.reset(input.getText());
 
         int currShiftIndex = 0;
 
@@ -98,7 +113,7 @@ public class NewLineParser {
         // ALL NEW LINES FOUND!
 
         // Shift remaining characters from input to output
-        output.shiftCharsInUntilPartialMatch(input, newLinePattern);
+        output.shiftCharsInUntilPartialMatch(input, newLineMatcher);
 
 
     }
@@ -0,0 +1,156 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.rxDataEngine;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.RegexBudgetExceededListener;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamingFilter.StreamingFilter;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Sets up a new {@link StreamingFilter} with new filter settings, and (optionally) runs it over a snapshot of the
+ * buffered RX data. <code>run()</code> is designed to be called on a background thread, so that typing in a new filter
+ * pattern does not block the UI.
+ *
+ * The snapshot is processed in chunks of lines, and the job stops early if it is cancelled (which happens when a newer
+ * job is started). All other fields are only accessed on the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+class RefilterJob implements Runnable {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The number of lines which are filtered between checks to see if the job has been cancelled.
+     */
+    private static final int NUM_LINES_PER_CHUNK = 256;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    final String filterPattern;
+    final int linesBefore;
+    final int linesAfter;
+    final boolean invertMatch;
+
+    /**
+     * The buffered data to re-run the filter on. Null if the new settings only apply to new RX data.
+     */
+    private final StreamedData snapshot;
+
+    /**
+     * The new filter, which replaces the existing one when the job is finished.
+     */
+    final StreamingFilter filter = new StreamingFilter();
+
+    /**
+     * The data released by the filter from the snapshot.
+     */
+    final StreamedData output = new StreamedData();
+
+    /**
+     * Data from the snapshot which the filter has not yet released (i.e. a partial line).
+     */
+    final StreamedData remainingInput = new StreamedData();
+
+    /**
+     * Data released by the new line parser after the snapshot was taken. This still has to be filtered
+     * once the job is finished.
+     */
+    final StreamedData dataSinceSnapshot = new StreamedData();
+
+    /**
+     * Set if the filter pattern is not a valid regex.
+     */
+    String errorMsg = null;
+
+    private volatile boolean isCancelled = false;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param snapshot                      A copy of the buffered data to re-run the filter on, or null to only apply
+     *                                      the new settings to new RX data.
+     * @param regexBudgetExceededListener   Attached to the new filter. Note that this can be called from the
+     *                                      background thread.
+     */
+    RefilterJob(
+            String filterPattern,
+            int linesBefore,
+            int linesAfter,
+            boolean invertMatch,
+            StreamedData snapshot,
+            RegexBudgetExceededListener regexBudgetExceededListener) {
+
+        this.filterPattern = filterPattern;
+        this.linesBefore = linesBefore;
+        this.linesAfter = linesAfter;
+        this.invertMatch = invertMatch;
+        this.snapshot = snapshot;
+
+        filter.regexBudgetExceededListeners.add(regexBudgetExceededListener);
+    }
+
+    boolean isRerunOnExistingData() {
+        return snapshot != null;
+    }
+
+    void cancel() {
+        isCancelled = true;
+    }
+
+    boolean isCancelled() {
+        return isCancelled;
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            filter.setFilterPattern(filterPattern);
+        } catch (PatternSyntaxException e) {
+            errorMsg = e.getDescription();
+            return;
+        }
+
+        filter.setLinesBefore(linesBefore);
+        filter.setLinesAfter(linesAfter);
+        filter.setInvertMatch(invertMatch);
+
+        if (snapshot == null)
+            return;
+
+        while (snapshot.getText().length() > 0) {
+            if (isCancelled)
+                return;
+
+            remainingInput.shiftDataIn(snapshot, findEndOfChunk(snapshot), StreamedData.MarkerBehaviour.NOT_FILTERING);
+            filter.parse(remainingInput, output);
+        }
+    }
+
+    /**
+     * @return The index of the end of the first <code>NUM_LINES_PER_CHUNK</code> lines in the data, or the length of
+     *          the data if there are less lines than this.
+     */
+    private static int findEndOfChunk(StreamedData data) {
+        int numLines = 0;
+        List<Marker> markers = data.getMarkers();
+        for (int i = 0; i < markers.size(); i++) {
+            Marker marker = markers.get(i);
+            if (marker instanceof NewLineMarker && marker.charPos > 0 && ++numLines == NUM_LINES_PER_CHUNK)
+                return marker.charPos;
+        }
+        return data.getText().length();
+    }
+}
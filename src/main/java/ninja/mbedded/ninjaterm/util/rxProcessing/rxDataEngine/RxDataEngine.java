@@ -1,11 +1,15 @@
 package ninja.mbedded.ninjaterm.util.rxProcessing.rxDataEngine;
 
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.DataClearedListener;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.InvalidFilterPatternListener;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.RawDataReceivedListener;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.ScreenUpdatedListener;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.StreamedDataListener;
 import ninja.mbedded.ninjaterm.util.debugging.Debugging;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
@@ -14,21 +18,29 @@ import ninja.mbedded.ninjaterm.util.rxProcessing.Decoding.DecodingOptions;
 import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.AnsiECParser;
 import ninja.mbedded.ninjaterm.util.rxProcessing.asciiControlCharParser.AsciiControlCharParser;
 import ninja.mbedded.ninjaterm.util.rxProcessing.freezeParser.FreezeParser;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.RegexBudgetExceededListener;
 import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineParser;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamingFilter.StreamingFilter;
 import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampParser;
+import ninja.mbedded.ninjaterm.util.rxProcessing.vt100.VT100Parser;
+import ninja.mbedded.ninjaterm.util.rxProcessing.vt100.VT100Screen;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.ValueExtractor;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.ValueSeries;
 import ninja.mbedded.ninjaterm.util.stringUtils.StringUtils;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The entire RX data processing engine, encapsulated in a single class.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-30
+ * @last-modified 2026-10-18
  * @since 2016-10-14
  */
 public class RxDataEngine {
@@ -84,6 +96,24 @@ public class RxDataEngine {
 
     private StreamedData bufferBetweenAnsiParserAndNewLineParser = new StreamedData();
 
+    //==============================================//
+    //============ VT100 SCREEN EMULATION ==========//
+    //==============================================//
+
+    /**
+     * The emulated screen which is written to when screen emulation is enabled.
+     */
+    public VT100Screen screen = new VT100Screen();
+
+    private VT100Parser vt100Parser = new VT100Parser(screen);
+
+    /**
+     * When enabled, the output of the ANSI parser is written to <code>screen</code> (which handles
+     * cursor movement and erase sequences) instead of being passed through the new line parser
+     * and filter to the RX pane.
+     */
+    public SimpleBooleanProperty isScreenEmulationEnabled = new SimpleBooleanProperty(false);
+
     //==============================================//
     //================ NEW LINE PARSER =============//
     //==============================================//
@@ -94,6 +124,16 @@ public class RxDataEngine {
 
     private StreamedData bufferBetweenNewLineParserAndFiltering = new StreamedData();
 
+    //==============================================//
+    //=============== VALUE EXTRACTION =============//
+    //==============================================//
+
+    /**
+     * Extracts numeric values from RX lines for plotting. Add a <code>{@link ValueSeries}</code> to
+     * <code>valueExtractor.valueSeries</code> to start extracting values.
+     */
+    public ValueExtractor valueExtractor = new ValueExtractor();
+
     //==============================================//
     //==================== FILTER ==================//
     //==============================================//
@@ -103,6 +143,26 @@ public class RxDataEngine {
      */
     private StreamingFilter streamingFilter = new StreamingFilter();
 
+    /**
+     * Runs the filter over the buffered data on a background thread when the filter settings
+     * are changed.
+     */
+    private ExecutorService refilterExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RxDataEngine refilter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Used to pass the results of a refilter back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    /**
+     * The most recent refilter job, or null if no job is in progress.
+     */
+    private RefilterJob currRefilterJob = null;
+
     /**
      * Buffer to hold the streamed text which is output from the filter and
      * consumed by the <code>asciiControlCharParser</code>.
@@ -136,6 +196,30 @@ public class RxDataEngine {
      */
     public List<StreamedDataListener> newOutputListeners = new ArrayList<>();
 
+    /**
+     * This event is emitted when screen emulation is enabled and one or more rows of the
+     * screen have changed.
+     */
+    public List<ScreenUpdatedListener> screenUpdatedListeners = new ArrayList<>();
+
+    /**
+     * This event is emitted when a user-provided pattern (new line or filter pattern) takes too long to run,
+     * and has been switched to plain text matching.
+     */
+    public List<RegexBudgetExceededListener> regexBudgetExceededListeners = new ArrayList<>();
+
+    /**
+     * This event is emitted when a background refilter has finished, just before the re-filtered
+     * buffered data is emitted through the <code>newOutputListeners</code>. The RX pane should clear all existing
+     * data when this occurs.
+     */
+    public List<DataClearedListener> filterOutputResetListeners = new ArrayList<>();
+
+    /**
+     * This event is emitted if the pattern provided to <code>refilterInBackground()</code> is not a valid regex.
+     */
+    public List<InvalidFilterPatternListener> invalidFilterPatternListeners = new ArrayList<>();
+
     /**
      * The maximum buffer size of any <code>StreamedData</code> object within the <code>{@link RxDataEngine}</code>.
      */
@@ -149,6 +233,16 @@ public class RxDataEngine {
 
     public RxDataEngine() {
 
+        // Forward all regex budget exceeded events from the parsers which use
+        // user-provided patterns
+        RegexBudgetExceededListener regexBudgetExceededForwarder = pattern -> {
+            for (RegexBudgetExceededListener regexBudgetExceededListener : regexBudgetExceededListeners) {
+                regexBudgetExceededListener.run(pattern);
+            }
+        };
+        timeStampParser.regexBudgetExceededListeners.add(regexBudgetExceededForwarder);
+        newLineParser.regexBudgetExceededListeners.add(regexBudgetExceededForwarder);
+        streamingFilter.regexBudgetExceededListeners.add(regexBudgetExceededForwarder);
 
         isTimeStampParserEnabled.bindBidirectional(timeStampParser.isEnabled);
 
@@ -216,6 +310,17 @@ public class RxDataEngine {
         rawRxData.addListener((observable, oldValue, newValue) -> {
             trimRawRxData();
         });
+
+        //==============================================//
+        //======== VT100 SCREEN EMULATION SETUP ========//
+        //==============================================//
+
+        isScreenEmulationEnabled.addListener((observable, oldValue, newValue) -> {
+            logger.debug("isScreenEmulationEnabled set to " + newValue + ".");
+
+            // Start with a blank screen every time emulation is enabled
+            screen.reset();
+        });
     }
 
     /**
@@ -318,6 +423,16 @@ public class RxDataEngine {
 
 //        logger.debug("releasedData = " + Debugging.convertNonPrintable(releasedData.toString()));
 
+        //==============================================//
+        //=========== VT100 SCREEN EMULATION ===========//
+        //==============================================//
+
+        if (isScreenEmulationEnabled.get()) {
+            // This consumes all of the ANSI parser output, so nothing new is passed
+            // onto the new line parser and filter
+            vt100Parser.parse(releasedData);
+        }
+
         // Now add all the new ANSI parser output to any that was not used up by the
         // streaming filter from last time
         bufferBetweenAnsiParserAndNewLineParser.shiftDataIn(releasedData, releasedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
@@ -339,6 +454,18 @@ public class RxDataEngine {
         // we don't want to add them twice
         totalNewLineParserOutput.copyCharsFrom(releasedData, releasedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
 
+        // If a refilter is running on a snapshot of the above buffer, it also needs any new data
+        if (currRefilterJob != null && currRefilterJob.isRerunOnExistingData()) {
+            currRefilterJob.dataSinceSnapshot.copyCharsFrom(releasedData, releasedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        }
+
+        //==============================================//
+        //=============== VALUE EXTRACTION =============//
+        //==============================================//
+
+        // Values are extracted before filtering, so that plots are not affected by the filter
+        valueExtractor.parse(releasedData, System.currentTimeMillis());
+
         // Add released text to buffer
         bufferBetweenNewLineParserAndFiltering.shiftDataIn(releasedData, releasedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
 
@@ -396,28 +523,125 @@ public class RxDataEngine {
             newStreamedDataListener.run(copyOfFilterOutput);
         }
 
+        // Only notify screen listeners if something on the screen has changed. The listeners
+        // are responsible for clearing the dirty rows once they have been rendered
+        if (isScreenEmulationEnabled.get() && screen.isDirty()) {
+            for (ScreenUpdatedListener screenUpdatedListener : screenUpdatedListeners) {
+                screenUpdatedListener.run(screen);
+            }
+        }
+
 //        logger.debug(getClass().getSimpleName() + ".addRxData() finished.");
     }
 
     /**
-     * Call this when the filter pattern has changed, to re-run the filter pattern
-     * on existing data and display new filtered data to the user.
+     * Applies new filter settings without blocking the UI thread. The pattern is compiled and validated (and the filter
+     * optionally re-run over the buffered data) on a background thread. The existing filter keeps filtering new data until
+     * this has finished, at which point the new filter is swapped in.
+     * <p>
+     * If this is called again before a previous call has finished, the previous call is cancelled, so only the
+     * newest settings are ever applied.
+     * <p>
+     * Must be called from the UI thread.
+     *
+     * @param rerunOnExistingData   If true, the <code>filterOutputResetListeners</code> are called and the re-filtered
+     *                              buffered data is emitted to the <code>newOutputListeners</code>. If false, the new settings
+     *                              only apply to new RX data.
      */
-    public void rerunFilterOnExistingData() {
-        // Clear all filter output
-        bufferBetweenFilterAndControlCharParser.clear();
+    public void refilterInBackground(String filterPattern, int linesBefore, int linesAfter, boolean invertMatch, boolean rerunOnExistingData) {
+
+        cancelRefilter();
 
-        // We need to run the entire ANSI parser output back through the filter
-        // Make a temp. StreamedData object that can be consumed (we want to preserve
-        // totalNewLineParserOutput).
-        StreamedData toBeConsumed = new StreamedData(totalNewLineParserOutput);
+        // The new filter could be run on the background thread, so any budget exceeded events
+        // have to be passed back to the UI thread
+        RegexBudgetExceededListener regexBudgetExceededForwarder = pattern -> uiThreadExecutor.execute(() -> {
+            for (RegexBudgetExceededListener regexBudgetExceededListener : regexBudgetExceededListeners) {
+                regexBudgetExceededListener.run(pattern);
+            }
+        });
 
-        // The normal bufferBetweenAnsiParserAndNewLineParser should now be changed to point
-        // to this toBeConsumed object
-        bufferBetweenNewLineParserAndFiltering = toBeConsumed;
+        RefilterJob refilterJob = new RefilterJob(
+                filterPattern,
+                linesBefore,
+                linesAfter,
+                invertMatch,
+                rerunOnExistingData ? new StreamedData(totalNewLineParserOutput) : null,
+                regexBudgetExceededForwarder);
+
+        currRefilterJob = refilterJob;
+
+        refilterExecutor.execute(() -> {
+            refilterJob.run();
+            uiThreadExecutor.execute(() -> refilterJobFinished(refilterJob));
+        });
+    }
+
+    /**
+     * Cancels any refilter started with <code>refilterInBackground()</code> which has not finished yet.
+     */
+    public void cancelRefilter() {
+        if (currRefilterJob != null) {
+            currRefilterJob.cancel();
+            currRefilterJob = null;
+        }
+    }
+
+    /**
+     * @return True if a refilter started with <code>refilterInBackground()</code> has not finished yet.
+     */
+    public boolean isRefilterInProgress() {
+        return currRefilterJob != null;
+    }
+
+    /**
+     * Called on the UI thread when a refilter job has finished running on the background thread.
+     */
+    private void refilterJobFinished(RefilterJob refilterJob) {
 
-        // Re-call parse() to process tha above changes, but
-        // don't provide any new data
+        // Ignore any stale jobs
+        if (refilterJob != currRefilterJob || refilterJob.isCancelled()) {
+            return;
+        }
+        currRefilterJob = null;
+
+        if (refilterJob.errorMsg != null) {
+            for (InvalidFilterPatternListener invalidFilterPatternListener : invalidFilterPatternListeners) {
+                invalidFilterPatternListener.run(refilterJob.filterPattern, refilterJob.errorMsg);
+            }
+            return;
+        }
+
+        streamingFilter = refilterJob.filter;
+
+        if (!refilterJob.isRerunOnExistingData()) {
+            return;
+        }
+
+        for (DataClearedListener filterOutputResetListener : filterOutputResetListeners) {
+            filterOutputResetListener.run();
+        }
+
+        // Replace the filter input with what the new filter has not processed yet (which includes
+        // any data that was received while the job was running)
+        bufferBetweenNewLineParserAndFiltering.clear();
+        bufferBetweenNewLineParserAndFiltering.shiftDataIn(
+                refilterJob.remainingInput,
+                refilterJob.remainingInput.getText().length(),
+                StreamedData.MarkerBehaviour.NOT_FILTERING);
+        bufferBetweenNewLineParserAndFiltering.shiftDataIn(
+                refilterJob.dataSinceSnapshot,
+                refilterJob.dataSinceSnapshot.getText().length(),
+                StreamedData.MarkerBehaviour.NOT_FILTERING);
+
+        // Replace the filter output with the re-filtered buffered data
+        bufferBetweenFilterAndControlCharParser.clear();
+        bufferBetweenFilterAndControlCharParser.shiftDataIn(
+                refilterJob.output,
+                refilterJob.output.getText().length(),
+                StreamedData.MarkerBehaviour.NOT_FILTERING);
+
+        // Re-call parse() to filter the remaining data and emit everything to the
+        // listeners, but don't provide any new data
         parse(new byte[]{});
     }
 
@@ -439,10 +663,27 @@ public class RxDataEngine {
         streamingFilter.setFilterPattern(filterPattern);
     }
 
+    /**
+     * Sets the number of lines of context the streaming filter releases before and after
+     * each matching line.
+     */
+    public void setFilterContext(int linesBefore, int linesAfter) {
+        streamingFilter.setLinesBefore(linesBefore);
+        streamingFilter.setLinesAfter(linesAfter);
+    }
+
+    /**
+     * @param invertMatch If true, the streaming filter only releases lines which do NOT match the filter pattern.
+     */
+    public void setFilterInvertMatch(boolean invertMatch) {
+        streamingFilter.setInvertMatch(invertMatch);
+    }
+
     /**
      * Clears data from all internal buffers.
      */
     public void clearAllData() {
+        cancelRefilter();
         bufferBetweenDecoderAndTimeStampParser.clear();
         bufferBetweenTimeStampParserAndFreezeParser.clear();
         bufferBetweenFreezeParserAndAnsiParser.clear();
@@ -450,6 +691,9 @@ public class RxDataEngine {
         bufferBetweenNewLineParserAndFiltering.clear();
         bufferBetweenFilterAndControlCharParser.clear();
         totalNewLineParserOutput.clear();
+        streamingFilter.reset();
+        valueExtractor.clear();
+        screen.reset();
     }
 
 }
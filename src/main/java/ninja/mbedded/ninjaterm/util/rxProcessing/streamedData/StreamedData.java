@@ -6,6 +6,7 @@ import ninja.mbedded.ninjaterm.util.debugging.Debugging;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
 import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampMarker;
 import org.slf4j.Logger;
@@ -22,7 +23,7 @@ import java.util.regex.Pattern;
  * whose output is another <code>{@link StreamedData}</code> object.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-10-27
+ * @last-modified 2026-10-18
  * @since 2016-09-28
  */
 public class StreamedData {
@@ -514,6 +515,25 @@ public class StreamedData {
         }
     }
 
+    /**
+     * Same as <code>{@link #shiftCharsInUntilPartialMatch(StreamedData, Pattern)}</code>, except the partial match
+     * is found with a {@link GuardedMatcher}, which is safe to use with user-provided patterns.
+     * <p>
+     * The matcher is reset to the text of the <code>input</code>.
+     *
+     * @param input   The input <code>StreamedData</code> object to shift data from.
+     * @param matcher The matcher for the regex pattern that defines a match.
+     */
+    public void shiftCharsInUntilPartialMatch(StreamedData input, GuardedMatcher matcher) {
+        int startIndexOfPartialMatch = matcher.reset(input.getText()).findPartialMatchStart();
+
+        if (startIndexOfPartialMatch == -1) {
+            shiftDataIn(input, input.getText().length(), MarkerBehaviour.NOT_FILTERING);
+        } else {
+            shiftDataIn(input, startIndexOfPartialMatch, MarkerBehaviour.NOT_FILTERING);
+        }
+    }
+
     /**
      * Splits the text up at the new lines as specified by the new line markers.
      * <p>
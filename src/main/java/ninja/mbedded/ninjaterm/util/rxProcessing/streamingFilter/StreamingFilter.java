@@ -1,130 +1,364 @@
 package ninja.mbedded.ninjaterm.util.rxProcessing.streamingFilter;
 
-import ninja.mbedded.ninjaterm.util.debugging.Debugging;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.RegexBudgetExceededListener;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import org.slf4j.Logger;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <p>
- * Class contains a static method for shifting a provided number of characters from one input
- * <code>{@link StreamedData}</code> object to another output <code>{@link StreamedData}</code>
- * object.</p>
+ * Filters an incoming stream of data line-by-line, only releasing lines which contain a match to
+ * the filter pattern (or lines which don't, if <code>invertMatch</code> is set), in a similar
+ * fashion to <code>grep</code>.</p>
+ *
+ * <p>
+ * Lines are found using the new line markers in the input, and the regex is run directly on
+ * a region of the input text, so no substrings are created. Lines of context before a match
+ * (<code>grep -B</code>) are held in a fixed-size ring until either a match occurs (and they are
+ * released) or they are pushed out by newer lines. Lines of context after a match
+ * (<code>grep -A</code>) are released as they arrive.</p>
+ *
+ * <p>
+ * The pattern is user-provided, so it is run as a {@link GuardedPattern}, which can't hang the UI.</p>
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-09-28
- * @last-modified 2016-10-03
+ * @last-modified 2026-10-18
  */
 public class StreamingFilter {
 
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of lines of context before or after a match. The held lines ring is allocated up front
+     * (and again for every refilter), so this stops a typo from using up all memory.
+     */
+    public static final int MAX_CONTEXT_LINES = 10000;
+
+    //================================================================================================//
+    //============================================ ENUMS =============================================//
+    //================================================================================================//
+
+    /**
+     * The operations which can be performed on the start of the input. Consecutive operations of the same
+     * type are merged, so that runs of lines are shifted/discarded in one go.
+     */
+    private enum InputOps {
+        NONE,
+        RELEASE,
+        DISCARD,
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
     private boolean releaseTextOnCurrLine = false;
 
     private String filterPattern = "";
 
-    Pattern regexPattern;
+    GuardedPattern regexPattern;
+
+    /**
+     * Re-used for every line, to save creating a new matcher each time.
+     */
+    private GuardedMatcher matcher;
+
+    /**
+     * Called if the filter pattern takes too long to run, and is switched to plain text matching.
+     */
+    public List<RegexBudgetExceededListener> regexBudgetExceededListeners = new ArrayList<>();
+
+    private boolean invertMatch = false;
+
+    private int linesAfter = 0;
+
+    /**
+     * The number of lines of context after a match that are still to be released.
+     */
+    private int numAfterLinesRemaining = 0;
+
+    /**
+     * Holds the complete lines which did not match, in case a match occurs within the next
+     * <code>linesBefore</code> lines.
+     */
+    private StreamedData heldLines = new StreamedData();
+
+    /**
+     * A ring of the lengths of the lines in <code>heldLines</code>. The capacity of the ring is the number
+     * of lines of context to show before a match.
+     */
+    private int[] heldLineLengths = new int[0];
+    private int heldLinesRingStart = 0;
+    private int numHeldLines = 0;
+
+    /**
+     * Used to throw away data, by shifting into this object and then clearing.
+     */
+    private StreamedData discardedData = new StreamedData();
+
+    private InputOps pendingOp = InputOps.NONE;
+    private int numPendingChars = 0;
+
+    /**
+     * The index of the first input marker which could still be the end of the current line. This moves forward
+     * as lines are found, so the markers are only walked once per call to <code>parse()</code>. It goes back to 0
+     * whenever data is removed from the start of the input, as that removes markers too.
+     */
+    private int markerCursor = 0;
 
     private Logger logger = LoggerUtils.createLoggerFor(getClass().getName());
 
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException If the pattern is not a valid regex. The existing
+     *                                                pattern is kept.
+     */
     public void setFilterPattern(String filterPattern) {
 
+        // Compile first, so nothing changes if the pattern is invalid
+        regexPattern = GuardedPattern.compile(filterPattern, regexBudgetExceededListeners);
+        matcher = regexPattern.matcher("");
         this.filterPattern = filterPattern;
-        regexPattern = Pattern.compile(filterPattern);
 
         // Reset filter engine
-        releaseTextOnCurrLine = false;
+        reset();
+    }
+
+    /**
+     * @param invertMatch If true, only lines which do NOT contain a match are released (<code>grep -v</code>).
+     */
+    public void setInvertMatch(boolean invertMatch) {
+        this.invertMatch = invertMatch;
+        reset();
+    }
+
+    /**
+     * Sets the number of lines of context to release before a matching line (<code>grep -B</code>).
+     */
+    public void setLinesBefore(int linesBefore) {
+        if (linesBefore < 0 || linesBefore > MAX_CONTEXT_LINES)
+            throw new IllegalArgumentException("linesBefore must be between 0 and " + MAX_CONTEXT_LINES + ".");
+
+        heldLineLengths = new int[linesBefore];
+        reset();
+    }
+
+    /**
+     * Sets the number of lines of context to release after a matching line (<code>grep -A</code>).
+     */
+    public void setLinesAfter(int linesAfter) {
+        if (linesAfter < 0 || linesAfter > MAX_CONTEXT_LINES)
+            throw new IllegalArgumentException("linesAfter must be between 0 and " + MAX_CONTEXT_LINES + ".");
 
+        this.linesAfter = linesAfter;
+        reset();
+    }
+
+    /**
+     * Resets the filter state. Any lines currently held as context before a match are
+     * thrown away.
+     */
+    public void reset() {
+        releaseTextOnCurrLine = false;
+        numAfterLinesRemaining = 0;
+        heldLines.clear();
+        heldLinesRingStart = 0;
+        numHeldLines = 0;
+        markerCursor = 0;
     }
 
     /**
      * This method provides a filtering function based on an incoming stream of data.
-     *
+     * <p>
+     * Complete lines are removed from the input once they have been processed. An incomplete line
+     * at the end of the input is left there until more data arrives, unless it already contains a match.
      */
     public void parse(
             StreamedData inputStreamedData,
             StreamedData outputStreamedData) {
 
-//        logger.debug(getClass().getSimpleName() + ".parse() called with:");
-//        logger.debug("inputStreamedData { " + Debugging.convertNonPrintable(inputStreamedData.toString()) + "}.");
-//        logger.debug("outputStreamedData { " + Debugging.convertNonPrintable(outputStreamedData.toString()) + "}.");
-
-        if(filterPattern.equals("")) {
-//            logger.debug("Filter text empty. Not performing any filtering.");
-
+        if (filterPattern.equals("")) {
             // Shift all input to output
             outputStreamedData.shiftDataIn(inputStreamedData, inputStreamedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
             return;
         }
 
-        if(inputStreamedData.getText().equals("")) {
-//            logger.debug("No filtering to perform. Returning...");
+        if (inputStreamedData.getText().equals("")) {
             return;
         }
 
-        // Search for new line characters
-        //String lines[] = inputStreamedData.getText().split("(?<=[\\n])");
-        String lines[] = inputStreamedData.splitTextAtNewLines();
+        // Data may have been added to or removed from the input since the last call
+        markerCursor = 0;
 
-        for (String line : lines) {
+        while (true) {
+
+            // Any pending chars are still at the start of the input, so the line
+            // we are processing starts after them
+            final String text = inputStreamedData.getText();
+            final int lineStart = numPendingChars;
+            if (lineStart >= text.length())
+                break;
+
+            int lineEnd = findLineEnd(inputStreamedData, lineStart);
+            boolean isLineComplete = lineEnd >= 0;
+            if (!isLineComplete)
+                lineEnd = text.length();
+
+            final int lineLength = lineEnd - lineStart;
 
             // Check to see if we can release all text on this line without even bothering
             // to check for a match. This will occur if a match has already occurred on this line.
-            if(releaseTextOnCurrLine) {
-//                logger.debug("releaseTextOnCurrLine = true. Releasing text " + Debugging.convertNonPrintable(line));
-                outputStreamedData.shiftDataIn(inputStreamedData, line.length(), StreamedData.MarkerBehaviour.FILTERING);
+            if (releaseTextOnCurrLine) {
+                queueInputOp(inputStreamedData, outputStreamedData, InputOps.RELEASE, lineLength);
 
-                /*if(hasNewLineChar(line)) {
+                if (isLineComplete) {
                     releaseTextOnCurrLine = false;
-                }*/
+                    numAfterLinesRemaining = linesAfter;
+                }
+                continue;
+            }
 
-                if(line != lines[lines.length - 1]) {
-                    releaseTextOnCurrLine = false;
+            if (!isLineComplete) {
+                // With an inverted match we can't tell if a partial line is going to be released
+                // until it is complete, as the rest of the line could still contain a match
+                if (!invertMatch && isMatch(text, lineStart, lineEnd)) {
+                    releaseHeldLines(inputStreamedData, outputStreamedData);
+                    queueInputOp(inputStreamedData, outputStreamedData, InputOps.RELEASE, lineLength);
+
+                    // Any other text which arrives on this line will be released without question
+                    releaseTextOnCurrLine = true;
                 }
 
-                // Jump to next iteration of for loop
-//                logger.debug("Going to next iteration of loop.");
-                continue;
+                // Otherwise, leave the partial line in the input until more data arrives
+                break;
             }
 
+            if (isMatch(text, lineStart, lineEnd) != invertMatch) {
+                releaseHeldLines(inputStreamedData, outputStreamedData);
+                queueInputOp(inputStreamedData, outputStreamedData, InputOps.RELEASE, lineLength);
+                numAfterLinesRemaining = linesAfter;
+            } else if (numAfterLinesRemaining > 0) {
+                queueInputOp(inputStreamedData, outputStreamedData, InputOps.RELEASE, lineLength);
+                numAfterLinesRemaining--;
+            } else if (heldLineLengths.length > 0) {
+                holdLine(inputStreamedData, outputStreamedData, lineLength);
+            } else {
+                // No match found on this line, and since this line is completed, we know there can never be a match
+                queueInputOp(inputStreamedData, outputStreamedData, InputOps.DISCARD, lineLength);
+            }
+        }
+
+        applyPendingInputOp(inputStreamedData, outputStreamedData);
+    }
+
+    /**
+     * @return True if the filter pattern is found in the text between <code>start</code> (inclusive)
+     *          and <code>end</code> (exclusive).
+     */
+    private boolean isMatch(String text, int start, int end) {
+        return matcher.reset(text).region(start, end).find();
+    }
+
+    /**
+     * @return The index of the end of the line which starts at <code>lineStart</code> (i.e. the position of
+     *          the next new line marker), or -1 if the line is not yet complete.
+     */
+    private int findLineEnd(StreamedData input, int lineStart) {
+        // Markers are in order, so the first new line marker after the start of the line is the end of it.
+        // Lines are found in order too, so any marker before the cursor is at or before the start of this line.
+        List<Marker> markers = input.getMarkers();
+        for (; markerCursor < markers.size(); markerCursor++) {
+            Marker marker = markers.get(markerCursor);
+            if (marker instanceof NewLineMarker && marker.charPos > lineStart)
+                return marker.charPos;
+        }
+        return -1;
+    }
 
-            Matcher matcher = regexPattern.matcher(line);
+    /**
+     * Queues an operation on the next <code>numChars</code> of the input. If this is the same type of operation
+     * as the one already pending, the two are merged.
+     */
+    private void queueInputOp(StreamedData input, StreamedData output, InputOps op, int numChars) {
+        if (op != pendingOp)
+            applyPendingInputOp(input, output);
 
-            if (matcher.find()) {
-                // Match in line found!
-//                logger.debug("Match in line found. Line = " + Debugging.convertNonPrintable(line));
+        pendingOp = op;
+        numPendingChars += numChars;
+    }
 
-                // We can release all text/nodes up to the end of this line
-                int numCharsToRelease = line.length();
-//                logger.debug("numCharsToRelease = " + numCharsToRelease);
-                outputStreamedData.shiftDataIn(inputStreamedData, numCharsToRelease, StreamedData.MarkerBehaviour.FILTERING);
+    private void applyPendingInputOp(StreamedData input, StreamedData output) {
+        switch (pendingOp) {
+            case NONE:
+                break;
+            case RELEASE:
+                output.shiftDataIn(input, numPendingChars, StreamedData.MarkerBehaviour.FILTERING);
+                break;
+            case DISCARD:
+                discard(input, numPendingChars);
+                break;
+            default:
+                throw new RuntimeException("InputOps not recognised.");
+        }
 
-                // Check to see if this is the last line. If so, set the releaseTextOnCurrLine to true
-                // so that next time this function is called, any other text which is also on this line
-                // will be released without question
+        pendingOp = InputOps.NONE;
+        numPendingChars = 0;
+        markerCursor = 0;
+    }
 
-                //if(line == lines[lines.length - 1] && !hasNewLineChar(line)) {
-                if(line == lines[lines.length - 1]) {
-                    releaseTextOnCurrLine = true;
-                }
-            } else {
-                // No match found on this line. If this line is completed, then we know there can never be a match,
-                // and it can be deleted from the heldStreamedText
-//                logger.debug("No match found on line = " + Debugging.convertNonPrintable(line));
-
-                //if(hasNewLineChar(line)) {
-                if(line != lines[lines.length - 1]) {
-//                    logger.debug("Deleting line.");
-                    inputStreamedData.removeCharsFromStart(line.length(), true);
-                }
+    /**
+     * Moves the next line in the input into the ring of held lines, throwing away the oldest held line
+     * if the ring is full.
+     */
+    private void holdLine(StreamedData input, StreamedData output, int lineLength) {
+        applyPendingInputOp(input, output);
 
-            }
-        } // for (String line : lines)
+        if (numHeldLines == heldLineLengths.length) {
+            discard(heldLines, heldLineLengths[heldLinesRingStart]);
+            heldLinesRingStart = (heldLinesRingStart + 1) % heldLineLengths.length;
+            numHeldLines--;
+        }
 
-//        logger.debug(getClass().getSimpleName() + ".parse() finished. Variables are now:");
-//        logger.debug("inputStreamedData { " + Debugging.convertNonPrintable(inputStreamedData.toString()) + "}.");
-//        logger.debug("outputStreamedData { " + Debugging.convertNonPrintable(outputStreamedData.toString()) + "}.");
+        heldLines.shiftDataIn(input, lineLength, StreamedData.MarkerBehaviour.FILTERING);
+        markerCursor = 0;
+        heldLineLengths[(heldLinesRingStart + numHeldLines) % heldLineLengths.length] = lineLength;
+        numHeldLines++;
     }
 
+    /**
+     * Releases all held lines to the output, as context before a match.
+     */
+    private void releaseHeldLines(StreamedData input, StreamedData output) {
+        if (numHeldLines == 0)
+            return;
+
+        // Anything pending in the input arrived before the held lines
+        applyPendingInputOp(input, output);
+
+        output.shiftDataIn(heldLines, heldLines.getText().length(), StreamedData.MarkerBehaviour.FILTERING);
+        heldLinesRingStart = 0;
+        numHeldLines = 0;
+    }
+
+    /**
+     * Removes the provided number of chars from the start of <code>data</code>, along with all the
+     * markers that belong to them.
+     */
+    private void discard(StreamedData data, int numChars) {
+        discardedData.shiftDataIn(data, numChars, StreamedData.MarkerBehaviour.FILTERING);
+        discardedData.clear();
+    }
 }
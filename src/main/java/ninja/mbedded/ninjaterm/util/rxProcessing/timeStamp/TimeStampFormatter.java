@@ -0,0 +1,225 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp;
+
+import javafx.beans.property.SimpleObjectProperty;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Converts the time of a <code>{@link TimeStampMarker}</code> into the text which is displayed
+ * (or logged) at the start of a line.
+ *
+ * Supports wall-clock time stamps, time since the COM port was opened, and the time since the previous
+ * time stamp (useful for profiling the timing of a device).
+ *
+ * Absolute time stamps re-use the formatted "date and time to the second" prefix between calls, so
+ * only the milli-seconds have to be formatted for each new line. Each object keeps track of the previous
+ * time stamp for the delta mode, so each consumer of time stamps should have it's own object.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class TimeStampFormatter {
+
+    //================================================================================================//
+    //========================================= CLASS ENUMS ==========================================//
+    //================================================================================================//
+
+    public enum Modes {
+        ABSOLUTE("Absolute"),
+        SINCE_PORT_OPEN("Since port opened"),
+        DELTA("Delta since previous line"),
+        ;
+
+        private String label;
+
+        Modes(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * Formats the part of an absolute time stamp which only changes once per second.
+     */
+    private static final DateTimeFormatter SECONDS_PREFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH-mm-ss.");
+
+    private static final String SUFFIX = ": ";
+
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    //================================================================================================//
+    //========================================= CLASS FIELDS =========================================//
+    //================================================================================================//
+
+    public SimpleObjectProperty<Modes> mode = new SimpleObjectProperty<>(Modes.ABSOLUTE);
+
+    /**
+     * The time that <code>SINCE_PORT_OPEN</code> time stamps are relative to. This is typically bound to
+     * the time the COM port was last opened.
+     */
+    public SimpleObjectProperty<LocalDateTime> referenceTime = new SimpleObjectProperty<>(LocalDateTime.now());
+
+    /**
+     * The epoch second that <code>cachedSecondsPrefix</code> was formatted for.
+     */
+    private long cachedEpochSecond = Long.MIN_VALUE;
+
+    private String cachedSecondsPrefix = "";
+
+    /**
+     * The last time stamp passed to <code>format()</code>, used by the <code>DELTA</code> mode.
+     */
+    private LocalDateTime previousTimeStamp = null;
+
+    /**
+     * Re-used between calls to <code>format()</code>.
+     */
+    private StringBuilder stringBuilder = new StringBuilder();
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public TimeStampFormatter() {
+        mode.addListener((observable, oldValue, newValue) -> {
+            reset();
+        });
+
+        referenceTime.addListener((observable, oldValue, newValue) -> {
+            reset();
+        });
+    }
+
+    /**
+     * Forgets the previous time stamp, so the next <code>DELTA</code> time stamp will be 0.
+     */
+    public void reset() {
+        previousTimeStamp = null;
+    }
+
+    /**
+     * Formats the provided time stamp according to the selected mode.
+     *
+     * @param timeStamp The time stamp to format.
+     * @return The text to display at the start of the line (includes a trailing ": ").
+     */
+    public String format(LocalDateTime timeStamp) {
+        return formatToBuffer(timeStamp).toString();
+    }
+
+    /**
+     * Same as <code>format()</code>, but returns the formatter's internal buffer rather than creating a new String.
+     * Useful for consumers which copy the chars somewhere else straight away (e.g. into a byte buffer).
+     *
+     * @param timeStamp The time stamp to format.
+     * @return The text to display at the start of the line. Only valid until this formatter is called again.
+     */
+    public CharSequence formatToBuffer(LocalDateTime timeStamp) {
+
+        stringBuilder.setLength(0);
+
+        switch (mode.get()) {
+            case ABSOLUTE:
+                appendAbsolute(timeStamp);
+                break;
+            case SINCE_PORT_OPEN:
+                appendDuration(Duration.between(referenceTime.get(), timeStamp));
+                break;
+            case DELTA:
+                appendDuration(previousTimeStamp == null ? Duration.ZERO : Duration.between(previousTimeStamp, timeStamp));
+                break;
+            default:
+                throw new RuntimeException("Time stamp mode not recognised.");
+        }
+
+        previousTimeStamp = timeStamp;
+
+        stringBuilder.append(SUFFIX);
+        return stringBuilder;
+    }
+
+    /**
+     * Replaces all time stamp markers in the provided data with the formatted time stamp text.
+     *
+     * @param streamedData The data to insert time stamps into. This is consumed if it contains any time stamps.
+     * @return Data with the time stamps inserted as text (this is the input object if there were no time stamps).
+     */
+    public StreamedData insertTimeStamps(StreamedData streamedData) {
+
+        List<TimeStampMarker> timeStampMarkers = streamedData.getTimeStampMarkers();
+        if (timeStampMarkers.isEmpty())
+            return streamedData;
+
+        timeStampMarkers.sort((a, b) -> Integer.compare(a.charPos, b.charPos));
+
+        StreamedData output = new StreamedData();
+        for (TimeStampMarker timeStampMarker : timeStampMarkers) {
+            // The marker's char position is updated as the data before it is shifted out,
+            // so it always points to the correct char in what remains of the input.
+            // FILTERING means colour markers on the same char stay in the input, and are
+            // applied after the time stamp text
+            output.shiftDataIn(streamedData, timeStampMarker.charPos, StreamedData.MarkerBehaviour.FILTERING);
+            streamedData.getMarkers().remove(timeStampMarker);
+            output.append(format(timeStampMarker.localDateTime));
+        }
+
+        output.shiftDataIn(streamedData, streamedData.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        return output;
+    }
+
+    /**
+     * Appends a time stamp in the form "yyyy-MM-dd HH-mm-ss.SSS".
+     */
+    private void appendAbsolute(LocalDateTime timeStamp) {
+        // The offset does not matter, the epoch second is only used to detect when the
+        // second has changed
+        long epochSecond = timeStamp.toEpochSecond(ZoneOffset.UTC);
+        if (epochSecond != cachedEpochSecond) {
+            cachedSecondsPrefix = timeStamp.format(SECONDS_PREFIX_FORMATTER);
+            cachedEpochSecond = epochSecond;
+        }
+
+        stringBuilder.append(cachedSecondsPrefix);
+        appendZeroPadded(timeStamp.getNano() / NANOS_PER_MILLI, 3);
+    }
+
+    /**
+     * Appends a duration in the form "+s.SSSs" (e.g. "+12.034s"). Negative durations are
+     * shown with a "-".
+     */
+    private void appendDuration(Duration duration) {
+        if (duration.isNegative()) {
+            stringBuilder.append('-');
+            duration = duration.negated();
+        } else {
+            stringBuilder.append('+');
+        }
+
+        stringBuilder.append(duration.getSeconds());
+        stringBuilder.append('.');
+        appendZeroPadded(duration.getNano() / NANOS_PER_MILLI, 3);
+        stringBuilder.append('s');
+    }
+
+    private void appendZeroPadded(long value, int numDigits) {
+        for (long limit = 10; numDigits > 1; numDigits--, limit *= 10) {
+            if (value < limit)
+                stringBuilder.append('0');
+        }
+        stringBuilder.append(value);
+    }
+}
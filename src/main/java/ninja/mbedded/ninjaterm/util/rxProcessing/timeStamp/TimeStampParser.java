@@ -2,19 +2,22 @@ package ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp;
 
 import javafx.beans.property.SimpleBooleanProperty;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.RegexBudgetExceededListener;
 import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import org.slf4j.Logger;
 
 import java.time.LocalDateTime;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Parses a {@link StreamedData} object and adds time stamp markers.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-11-23
- * @last-modified 2016-11-25
+ * @last-modified 2026-10-18
  **/
 public class TimeStampParser {
 
@@ -30,7 +33,17 @@ public class TimeStampParser {
      */
     public SimpleBooleanProperty isEnabled = new SimpleBooleanProperty(true);
 
-    private Pattern newLinePattern;
+    private GuardedPattern newLinePattern;
+
+    /**
+     * Re-used between calls to <code>parse()</code>.
+     */
+    private GuardedMatcher newLineMatcher;
+
+    /**
+     * Called if the new line pattern takes too long to run, and is switched to plain text matching.
+     */
+    public List<RegexBudgetExceededListener> regexBudgetExceededListeners = new ArrayList<>();
 
     private boolean nextCharIsOnNewLine = true;
 
@@ -42,11 +55,13 @@ public class TimeStampParser {
 
     public TimeStampParser(String newLineString) {
         //this.newLineString = newLineString;
-        newLinePattern = Pattern.compile(newLineString);
+        newLinePattern = GuardedPattern.compile(newLineString, regexBudgetExceededListeners);
+        newLineMatcher = newLinePattern.matcher("");
     }
 
     public void setNewLinePattern(String newLineString) {
-        newLinePattern = Pattern.compile(newLineString);
+        newLinePattern = GuardedPattern.compile(newLineString, regexBudgetExceededListeners);
+        newLineMatcher = newLinePattern.matcher("");
     }
 
     public String getNewLinePattern() {
@@ -75,7 +90,7 @@ public class TimeStampParser {
 
         // IF WE REACH HERE THEN THE PARSER IS ENABLED
 
-        Matcher matcher = newLinePattern.matcher(input.getText());
+        GuardedMatcher matcher = newLineMatcher.reset(input.getText());
 
         int currShiftIndex = 0;
 
@@ -105,7 +120,7 @@ public class TimeStampParser {
         int beforeLength = output.getText().length();
 
         // Shift remaining characters from input to output
-        output.shiftCharsInUntilPartialMatch(input, newLinePattern);
+        output.shiftCharsInUntilPartialMatch(input, newLineMatcher);
 
         if(output.getText().length() > beforeLength && nextCharIsOnNewLine) {
             output.getMarkers().add(new TimeStampMarker(beforeLength, LocalDateTime.now()));
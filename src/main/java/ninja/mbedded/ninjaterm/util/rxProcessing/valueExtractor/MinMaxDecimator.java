@@ -0,0 +1,123 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+/**
+ * Reduces the samples in a time range down to at most 4 points per pixel column, so that a chart can draw millions
+ * of samples at interactive frame rates.
+ *
+ * The time range is split into buckets (normally one per pixel column), and for each bucket only the first, min.,
+ * max. and last samples are kept (the "M4" algorithm). A line drawn through these points covers exactly the same
+ * pixels as a line drawn through all of the samples, so no spikes are lost.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class MinMaxDecimator {
+
+    /**
+     * The max. number of points output for each bucket.
+     */
+    public static final int MAX_POINTS_PER_BUCKET = 4;
+
+    /**
+     * Decimates the samples between the indexes.
+     *
+     * @param samples       The samples to decimate.
+     * @param fromIndex     The index of the first sample to include.
+     * @param toIndex       The index after the last sample to include.
+     * @param startTimeMs   The time at the start of the first bucket.
+     * @param endTimeMs     The time at the end of the last bucket. Samples outside of the time range are put
+     *                      into the first or last bucket.
+     * @param numBuckets    The number of buckets to split the time range into.
+     * @param outTimes      Filled with the times of the output points, relative to <code>startTimeMs</code>.
+     *                      Must have room for <code>numBuckets * MAX_POINTS_PER_BUCKET</code> points.
+     * @param outValues     Filled with the values of the output points.
+     * @return The number of points output, in time order.
+     */
+    public static int decimate(
+            SampleBuffer samples,
+            int fromIndex,
+            int toIndex,
+            long startTimeMs,
+            long endTimeMs,
+            int numBuckets,
+            double[] outTimes,
+            double[] outValues) {
+
+        final double bucketsPerMs = numBuckets / (double) Math.max(endTimeMs - startTimeMs, 1);
+
+        int numPointsOut = 0;
+
+        int currBucket = -1;
+        int firstIndex = -1;
+        int minIndex = -1;
+        int maxIndex = -1;
+        int lastIndex = -1;
+
+        for (int i = fromIndex; i <= toIndex; i++) {
+
+            int bucket = -1;
+            if (i < toIndex) {
+                bucket = (int) ((samples.getTime(i) - startTimeMs) * bucketsPerMs);
+                bucket = Math.max(Math.min(bucket, numBuckets - 1), 0);
+
+                if (bucket == currBucket) {
+                    final double value = samples.getValue(i);
+                    if (value < samples.getValue(minIndex))
+                        minIndex = i;
+                    if (value > samples.getValue(maxIndex))
+                        maxIndex = i;
+                    lastIndex = i;
+                    continue;
+                }
+            }
+
+            // Moved into a new bucket (or past the last sample), so output the points for the previous bucket
+            if (currBucket >= 0) {
+                numPointsOut = outputBucket(samples, startTimeMs, firstIndex, minIndex, maxIndex, lastIndex, outTimes, outValues, numPointsOut);
+            }
+
+            currBucket = bucket;
+            firstIndex = i;
+            minIndex = i;
+            maxIndex = i;
+            lastIndex = i;
+        }
+
+        return numPointsOut;
+    }
+
+    /**
+     * Outputs the first, min., max. and last samples of a bucket, in index order and without duplicates.
+     */
+    private static int outputBucket(
+            SampleBuffer samples,
+            long startTimeMs,
+            int firstIndex,
+            int minIndex,
+            int maxIndex,
+            int lastIndex,
+            double[] outTimes,
+            double[] outValues,
+            int numPointsOut) {
+
+        final int lowerIndex = Math.min(minIndex, maxIndex);
+        final int upperIndex = Math.max(minIndex, maxIndex);
+
+        numPointsOut = outputPoint(samples, startTimeMs, firstIndex, outTimes, outValues, numPointsOut);
+        if (lowerIndex != firstIndex)
+            numPointsOut = outputPoint(samples, startTimeMs, lowerIndex, outTimes, outValues, numPointsOut);
+        if (upperIndex != lowerIndex)
+            numPointsOut = outputPoint(samples, startTimeMs, upperIndex, outTimes, outValues, numPointsOut);
+        if (lastIndex != upperIndex)
+            numPointsOut = outputPoint(samples, startTimeMs, lastIndex, outTimes, outValues, numPointsOut);
+
+        return numPointsOut;
+    }
+
+    private static int outputPoint(SampleBuffer samples, long startTimeMs, int index, double[] outTimes, double[] outValues, int numPointsOut) {
+        outTimes[numPointsOut] = samples.getTime(index) - startTimeMs;
+        outValues[numPointsOut] = samples.getValue(index);
+        return numPointsOut + 1;
+    }
+}
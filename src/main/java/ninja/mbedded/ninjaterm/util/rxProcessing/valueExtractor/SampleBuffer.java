@@ -0,0 +1,156 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+/**
+ * Stores (time, value) samples in a ring buffer made from primitive arrays, so that millions of samples can be kept
+ * without boxing each one into an object.
+ *
+ * Samples are indexed from 0 (the oldest sample) to <code>size() - 1</code> (the newest). Sample times are expected
+ * to never decrease, which allows samples to be looked up by time with a binary search.
+ *
+ * The backing arrays start small and grow up to the capacity as samples are added, so an empty buffer
+ * does not use much memory.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class SampleBuffer {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    private static final int INITIAL_ARRAY_SIZE = 4 * 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final int capacity;
+
+    private long[] times;
+
+    private double[] values;
+
+    /**
+     * The array index of the oldest sample.
+     */
+    private int head = 0;
+
+    private int size = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param capacity The max. number of samples to keep. Once full, the oldest samples are dropped.
+     */
+    public SampleBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be greater than 0.");
+
+        this.capacity = capacity;
+        times = new long[Math.min(INITIAL_ARRAY_SIZE, capacity)];
+        values = new double[times.length];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of samples in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a sample, dropping the oldest sample if the buffer is full.
+     *
+     * @param timeMs    The time of the sample, in milliseconds.
+     * @param value     The value of the sample.
+     */
+    public void add(long timeMs, double value) {
+
+        if (size == times.length && times.length < capacity)
+            growArrays();
+
+        final int index;
+        if (size == times.length) {
+            // Full, so overwrite the oldest sample
+            index = head;
+            head = (head + 1) % times.length;
+        } else {
+            index = (head + size) % times.length;
+            size++;
+        }
+
+        times[index] = timeMs;
+        values[index] = value;
+    }
+
+    /**
+     * @return The time of the sample (0 is the oldest sample).
+     */
+    public long getTime(int index) {
+        return times[toArrayIndex(index)];
+    }
+
+    /**
+     * @return The value of the sample (0 is the oldest sample).
+     */
+    public double getValue(int index) {
+        return values[toArrayIndex(index)];
+    }
+
+    /**
+     * @return The index of the first sample at or after the time, or <code>size()</code> if all samples are
+     *          before the time.
+     */
+    public int indexOfFirstAtOrAfter(long timeMs) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (getTime(mid) < timeMs)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int toArrayIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in the buffer (size = " + size + ").");
+
+        final int arrayIndex = head + index;
+        return (arrayIndex >= times.length) ? arrayIndex - times.length : arrayIndex;
+    }
+
+    /**
+     * Doubles the size of the arrays (up to the capacity), unwrapping the samples so the oldest is at index 0.
+     */
+    private void growArrays() {
+        final int newLength = (int) Math.min((long) times.length * 2, capacity);
+
+        long[] newTimes = new long[newLength];
+        double[] newValues = new double[newLength];
+        for (int i = 0; i < size; i++) {
+            final int arrayIndex = (head + i) % times.length;
+            newTimes[i] = times[arrayIndex];
+            newValues[i] = values[arrayIndex];
+        }
+
+        times = newTimes;
+        values = newValues;
+        head = 0;
+    }
+}
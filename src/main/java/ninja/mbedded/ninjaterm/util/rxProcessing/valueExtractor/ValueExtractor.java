@@ -0,0 +1,92 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RX processing stage which splits the output of the new line parser into lines, and runs the pattern of every
+ * <code>{@link ValueSeries}</code> over each complete line. Any values found are added to the series' samples.
+ *
+ * This stage does not modify or consume its input.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ValueExtractor {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    /**
+     * Only the last this many chars of a line are kept while waiting for the line to end, so that data
+     * with no new lines does not use up memory.
+     */
+    static final int MAX_LINE_LENGTH = 10000;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * The series to extract values for.
+     */
+    public List<ValueSeries> valueSeries = new ArrayList<>();
+
+    /**
+     * The chars of the current line which have been received so far.
+     */
+    private final StringBuilder currLine = new StringBuilder();
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * @param input     New output from the new line parser. This is not modified.
+     * @param timeMs    The time the data was received, which is given to any values extracted from it.
+     */
+    public void parse(StreamedData input, long timeMs) {
+
+        // Nothing to extract, so don't bother building up lines
+        if (valueSeries.isEmpty()) {
+            currLine.setLength(0);
+            return;
+        }
+
+        final String text = input.getText();
+
+        int lineStart = 0;
+        for (Marker marker : input.getMarkers()) {
+            if (!(marker instanceof NewLineMarker))
+                continue;
+
+            final int lineEnd = Math.min(marker.getCharPos(), text.length());
+            currLine.append(text, lineStart, lineEnd);
+            extractValues(timeMs);
+            currLine.setLength(0);
+            lineStart = lineEnd;
+        }
+
+        currLine.append(text, lineStart, text.length());
+        if (currLine.length() > MAX_LINE_LENGTH)
+            currLine.delete(0, currLine.length() - MAX_LINE_LENGTH);
+    }
+
+    public void clear() {
+        currLine.setLength(0);
+    }
+
+    private void extractValues(long timeMs) {
+        for (ValueSeries series : valueSeries) {
+            final double value = series.extractValue(currLine);
+            if (!Double.isNaN(value))
+                series.samples.add(timeMs, value);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedMatcher;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+
+/**
+ * A series of numeric values extracted from RX lines by a user-provided regex pattern.
+ *
+ * The value is taken from the first capturing group of the pattern, or from the whole match if the pattern has no
+ * capturing groups. e.g. the pattern <code>temperature = (-?\d+)</code> extracts 21 from the line
+ * <code>TEMP: Measured temperature = 21C.</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ValueSeries {
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    public final GuardedPattern pattern;
+
+    /**
+     * The colour the series is drawn in.
+     */
+    public final Color color;
+
+    /**
+     * All the values extracted so far, with the time they were received.
+     */
+    public final SampleBuffer samples;
+
+    private final GuardedMatcher matcher;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public ValueSeries(GuardedPattern pattern, Color color, int maxNumSamples) {
+        this.pattern = pattern;
+        this.color = color;
+        samples = new SampleBuffer(maxNumSamples);
+        matcher = pattern.matcher("");
+    }
+
+    public String getName() {
+        return pattern.pattern();
+    }
+
+    /**
+     * @return The value extracted from the line, or <code>Double.NaN</code> if the pattern does not match the line,
+     *          or the matched text is not a number.
+     */
+    public double extractValue(CharSequence line) {
+        matcher.reset(line);
+        if (!matcher.find())
+            return Double.NaN;
+
+        final String valueText = matcher.group(matcher.groupCount() > 0 ? 1 : 0);
+        if (valueText == null)
+            return Double.NaN;
+
+        try {
+            return Double.parseDouble(valueText.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
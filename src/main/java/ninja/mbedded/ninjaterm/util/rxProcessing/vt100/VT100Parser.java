@@ -0,0 +1,293 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.vt100;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import ninja.mbedded.ninjaterm.util.rxProcessing.Marker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+
+/**
+ * Parses the cursor movement and erase escape sequences sent by devices which draw menus or
+ * full-screen status displays, and applies them (and all printable text) to a {@link VT100Screen}.
+ *
+ * This is designed to consume the output of the {@link ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.AnsiECParser}.
+ * The ANSI parser has already removed all SGR sequences and converted them into {@link ColourMarker}s,
+ * which are used here to set the style of the written cells. All other CSI sequences are passed
+ * through the ANSI parser as text, and are handled here.
+ *
+ * The parser state is kept between calls to <code>parse()</code>, so sequences can be split across
+ * multiple calls.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class VT100Parser {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    private static final int MAX_NUM_PARAMS = 16;
+
+    private static final int MAX_PARAM_VALUE = 0xFFFF;
+
+    //================================================================================================//
+    //============================================ ENUMS =============================================//
+    //================================================================================================//
+
+    private enum State {
+        GROUND,
+        ESCAPE,
+        CSI,
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * If true, a received line feed also performs a carriage return. Most embedded devices
+     * only send "\n" to start a new line, so this is enabled by default.
+     */
+    public SimpleBooleanProperty lineFeedImpliesCarriageReturn = new SimpleBooleanProperty(true);
+
+    private final VT100Screen screen;
+
+    private State state = State.GROUND;
+
+    private final int[] params = new int[MAX_NUM_PARAMS];
+    private int numParams = 0;
+    private int currParam = 0;
+    private boolean currParamHasDigits = false;
+
+    /**
+     * True if the CSI sequence contained a private mode char (e.g. "?" in "ESC[?25l").
+     */
+    private boolean isPrivateSequence = false;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public VT100Parser(VT100Screen screen) {
+        this.screen = screen;
+    }
+
+    public VT100Screen getScreen() {
+        return screen;
+    }
+
+    /**
+     * Applies all data in the input to the screen. All text and markers are consumed from the input.
+     *
+     * @param inputData The streamed data to apply to the screen.
+     */
+    public void parse(StreamedData inputData) {
+
+        final String text = inputData.getText();
+
+        int markerIndex = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            // Apply any style changes which occur on this char
+            while (markerIndex < inputData.getMarkers().size()) {
+                Marker marker = inputData.getMarkers().get(markerIndex);
+                if (marker.charPos > i)
+                    break;
+                if (marker instanceof ColourMarker)
+                    screen.setStyle(((ColourMarker) marker).style);
+                markerIndex++;
+            }
+
+            processChar(text.charAt(i));
+        }
+
+        // Style changes can also occur at the very end of the input
+        for (; markerIndex < inputData.getMarkers().size(); markerIndex++) {
+            Marker marker = inputData.getMarkers().get(markerIndex);
+            if (marker instanceof ColourMarker)
+                screen.setStyle(((ColourMarker) marker).style);
+        }
+
+        inputData.clear();
+    }
+
+    private void processChar(char c) {
+        switch (state) {
+            case GROUND:
+                processGroundChar(c);
+                break;
+            case ESCAPE:
+                processEscapeChar(c);
+                break;
+            case CSI:
+                processCsiChar(c);
+                break;
+            default:
+                throw new RuntimeException("State not recognised.");
+        }
+    }
+
+    private void processGroundChar(char c) {
+        switch (c) {
+            case '\u001B':
+                state = State.ESCAPE;
+                break;
+            case '\r':
+                screen.carriageReturn();
+                break;
+            case '\n':
+            case '\u000B':
+            case '\u000C':
+                if (lineFeedImpliesCarriageReturn.get())
+                    screen.carriageReturn();
+                screen.lineFeed();
+                break;
+            case '\b':
+                screen.backspace();
+                break;
+            case '\t':
+                screen.tab();
+                break;
+            default:
+                // Ignore all other control chars (e.g. bell)
+                if (c >= 0x20 && c != 0x7F)
+                    screen.putChar(c);
+                break;
+        }
+    }
+
+    private void processEscapeChar(char c) {
+        switch (c) {
+            case '[':
+                numParams = 0;
+                currParam = 0;
+                currParamHasDigits = false;
+                isPrivateSequence = false;
+                state = State.CSI;
+                return;
+            case '7':
+                screen.saveCursor();
+                break;
+            case '8':
+                screen.restoreCursor();
+                break;
+            case 'c':
+                screen.reset();
+                break;
+            case 'D':
+                screen.lineFeed();
+                break;
+            case 'E':
+                screen.carriageReturn();
+                screen.lineFeed();
+                break;
+            case 'M':
+                screen.reverseIndex();
+                break;
+            default:
+                // Unsupported escape sequence, ignore
+                break;
+        }
+
+        state = State.GROUND;
+    }
+
+    private void processCsiChar(char c) {
+        if (c >= '0' && c <= '9') {
+            currParam = Math.min(currParam * 10 + (c - '0'), MAX_PARAM_VALUE);
+            currParamHasDigits = true;
+        } else if (c == ';') {
+            storeParam();
+        } else if (c == '?' || c == '>' || c == '=') {
+            isPrivateSequence = true;
+        } else if (c >= 0x40 && c <= 0x7E) {
+            // Final byte, sequence complete
+            storeParam();
+            state = State.GROUND;
+            if (!isPrivateSequence)
+                dispatchCsi(c);
+        } else if (c == '\u001B') {
+            // Sequence aborted, a new one has started
+            state = State.ESCAPE;
+        } else if (c < 0x20) {
+            // Control chars are still executed in the middle of a sequence
+            processGroundChar(c);
+        }
+        // Any other intermediate chars are ignored
+    }
+
+    private void storeParam() {
+        if (numParams < MAX_NUM_PARAMS) {
+            // A missing parameter is stored as -1, so that the default can be applied
+            params[numParams++] = currParamHasDigits ? currParam : -1;
+        }
+        currParam = 0;
+        currParamHasDigits = false;
+    }
+
+    /**
+     * @return The parameter at the provided index, or <code>defaultValue</code> if it was not provided
+     *          (or was 0, for those commands where 0 means the default).
+     */
+    private int getParam(int index, int defaultValue) {
+        if (index >= numParams || params[index] < 0)
+            return defaultValue;
+        return params[index];
+    }
+
+    private int getCountParam(int index) {
+        return Math.max(getParam(index, 1), 1);
+    }
+
+    private void dispatchCsi(char finalChar) {
+        switch (finalChar) {
+            case 'A':
+                screen.moveCursorBy(-getCountParam(0), 0);
+                break;
+            case 'B':
+                screen.moveCursorBy(getCountParam(0), 0);
+                break;
+            case 'C':
+                screen.moveCursorBy(0, getCountParam(0));
+                break;
+            case 'D':
+                screen.moveCursorBy(0, -getCountParam(0));
+                break;
+            case 'E':
+                screen.moveCursorBy(getCountParam(0), 0);
+                screen.carriageReturn();
+                break;
+            case 'F':
+                screen.moveCursorBy(-getCountParam(0), 0);
+                screen.carriageReturn();
+                break;
+            case 'G':
+                screen.moveCursorTo(screen.getCursorRow(), getCountParam(0) - 1);
+                break;
+            case 'd':
+                screen.moveCursorTo(getCountParam(0) - 1, screen.getCursorCol());
+                break;
+            case 'H':
+            case 'f':
+                screen.moveCursorTo(getCountParam(0) - 1, getCountParam(1) - 1);
+                break;
+            case 'J':
+                screen.eraseInDisplay(getParam(0, 0));
+                break;
+            case 'K':
+                screen.eraseInLine(getParam(0, 0));
+                break;
+            case 's':
+                screen.saveCursor();
+                break;
+            case 'u':
+                screen.restoreCursor();
+                break;
+            default:
+                // Unsupported sequence (includes SGR if the ANSI parser is disabled), ignore
+                break;
+        }
+    }
+}
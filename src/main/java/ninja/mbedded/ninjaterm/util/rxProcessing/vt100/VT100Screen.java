@@ -0,0 +1,408 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.vt100;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size grid of character cells which emulates the screen of a VT100-style terminal.
+ *
+ * Each cell holds a character and the {@link SgrStyle} it was written with. Every operation
+ * that modifies a row marks it as dirty, so that a UI element only has to re-render the rows which
+ * have changed since it last called <code>clearDirtyRows()</code>.
+ *
+ * Rows and columns are 0-based.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class VT100Screen {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    public static final int DEFAULT_NUM_ROWS = 24;
+    public static final int DEFAULT_NUM_COLS = 80;
+
+    private static final int TAB_WIDTH = 8;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private int numRows;
+    private int numCols;
+
+    private char[][] chars;
+    private SgrStyle[][] styles;
+
+    private boolean[] dirtyRows;
+    private int numDirtyRows;
+
+    private int cursorRow = 0;
+    private int cursorCol = 0;
+
+    private int savedCursorRow = 0;
+    private int savedCursorCol = 0;
+
+    /**
+     * The style applied to characters written with <code>putChar()</code>.
+     */
+    private SgrStyle currStyle = SgrStyle.DEFAULT;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public VT100Screen() {
+        this(DEFAULT_NUM_ROWS, DEFAULT_NUM_COLS);
+    }
+
+    public VT100Screen(int numRows, int numCols) {
+        resize(numRows, numCols);
+    }
+
+    /**
+     * Resizes the screen. This clears the screen, homes the cursor and marks all rows as dirty.
+     */
+    public void resize(int numRows, int numCols) {
+        if (numRows <= 0 || numCols <= 0)
+            throw new IllegalArgumentException("numRows and numCols must both be greater than 0.");
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+
+        chars = new char[numRows][numCols];
+        styles = new SgrStyle[numRows][numCols];
+        dirtyRows = new boolean[numRows];
+
+        reset();
+    }
+
+    /**
+     * Clears the screen, homes the cursor, resets the style and marks all rows as dirty.
+     */
+    public void reset() {
+        for (int row = 0; row < numRows; row++) {
+            blankRow(row);
+        }
+
+        cursorRow = 0;
+        cursorCol = 0;
+        savedCursorRow = 0;
+        savedCursorCol = 0;
+        currStyle = SgrStyle.DEFAULT;
+
+        markAllRowsDirty();
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    public int getCursorRow() {
+        return cursorRow;
+    }
+
+    public int getCursorCol() {
+        return cursorCol;
+    }
+
+    public void setStyle(SgrStyle style) {
+        currStyle = style;
+    }
+
+    public SgrStyle getStyle() {
+        return currStyle;
+    }
+
+    //================================================================================================//
+    //======================================== TEXT OUTPUT ===========================================//
+    //================================================================================================//
+
+    /**
+     * Writes a printable character at the cursor position and advances the cursor. If the cursor
+     * is past the last column, the text wraps onto the next line first (scrolling if needed).
+     */
+    public void putChar(char c) {
+        if (cursorCol >= numCols) {
+            cursorCol = 0;
+            lineFeed();
+        }
+
+        chars[cursorRow][cursorCol] = c;
+        styles[cursorRow][cursorCol] = currStyle;
+        markRowDirty(cursorRow);
+
+        cursorCol++;
+    }
+
+    public void carriageReturn() {
+        cursorCol = 0;
+    }
+
+    /**
+     * Moves the cursor down one row, scrolling the screen up if the cursor is on the last row.
+     */
+    public void lineFeed() {
+        if (cursorRow < numRows - 1) {
+            cursorRow++;
+        } else {
+            scrollUp();
+        }
+    }
+
+    /**
+     * Moves the cursor up one row, scrolling the screen down if the cursor is on the first row (the opposite
+     * of <code>lineFeed()</code>).
+     */
+    public void reverseIndex() {
+        if (cursorRow > 0) {
+            cursorRow--;
+        } else {
+            scrollDown();
+        }
+    }
+
+    public void backspace() {
+        if (cursorCol >= numCols)
+            cursorCol = numCols - 1;
+        if (cursorCol > 0)
+            cursorCol--;
+    }
+
+    /**
+     * Moves the cursor to the next tab stop (every 8 columns), or the last column.
+     */
+    public void tab() {
+        cursorCol = Math.min((cursorCol / TAB_WIDTH + 1) * TAB_WIDTH, numCols - 1);
+    }
+
+    //================================================================================================//
+    //====================================== CURSOR MOVEMENT =========================================//
+    //================================================================================================//
+
+    /**
+     * Moves the cursor to the provided position, clamping to the screen boundaries.
+     */
+    public void moveCursorTo(int row, int col) {
+        cursorRow = clamp(row, 0, numRows - 1);
+        cursorCol = clamp(col, 0, numCols - 1);
+    }
+
+    /**
+     * Moves the cursor relative to it's current position, clamping to the screen boundaries.
+     */
+    public void moveCursorBy(int numRowsDown, int numColsRight) {
+        moveCursorTo(cursorRow + numRowsDown, Math.min(cursorCol, numCols - 1) + numColsRight);
+    }
+
+    public void saveCursor() {
+        savedCursorRow = cursorRow;
+        savedCursorCol = cursorCol;
+    }
+
+    public void restoreCursor() {
+        moveCursorTo(savedCursorRow, savedCursorCol);
+    }
+
+    //================================================================================================//
+    //============================================ ERASING ===========================================//
+    //================================================================================================//
+
+    /**
+     * Erases part or all of the display (CSI J).
+     *
+     * @param mode  0 = from cursor to end of screen, 1 = from start of screen to cursor, 2 (or 3) = entire screen.
+     */
+    public void eraseInDisplay(int mode) {
+        switch (mode) {
+            case 0:
+                eraseInLine(0);
+                for (int row = cursorRow + 1; row < numRows; row++) {
+                    blankRow(row);
+                    markRowDirty(row);
+                }
+                break;
+            case 1:
+                for (int row = 0; row < cursorRow; row++) {
+                    blankRow(row);
+                    markRowDirty(row);
+                }
+                eraseInLine(1);
+                break;
+            case 2:
+            case 3:
+                for (int row = 0; row < numRows; row++) {
+                    blankRow(row);
+                    markRowDirty(row);
+                }
+                break;
+            default:
+                // Unsupported mode, ignore
+                break;
+        }
+    }
+
+    /**
+     * Erases part or all of the cursor's row (CSI K).
+     *
+     * @param mode  0 = from cursor to end of line, 1 = from start of line to cursor, 2 = entire line.
+     */
+    public void eraseInLine(int mode) {
+        int col = Math.min(cursorCol, numCols - 1);
+
+        switch (mode) {
+            case 0:
+                blankCells(cursorRow, col, numCols);
+                break;
+            case 1:
+                blankCells(cursorRow, 0, col + 1);
+                break;
+            case 2:
+                blankCells(cursorRow, 0, numCols);
+                break;
+            default:
+                // Unsupported mode, ignore
+                return;
+        }
+
+        markRowDirty(cursorRow);
+    }
+
+    //================================================================================================//
+    //========================================= ROW ACCESS ===========================================//
+    //================================================================================================//
+
+    /**
+     * @return The text of the provided row, with trailing spaces removed.
+     */
+    public String getRowText(int row) {
+        char[] rowChars = chars[row];
+
+        int length = numCols;
+        while (length > 0 && rowChars[length - 1] == ' ' && styles[row][length - 1].getBackground() == null)
+            length--;
+
+        return new String(rowChars, 0, length);
+    }
+
+    /**
+     * @return The style of the cell at the provided position.
+     */
+    public SgrStyle getStyleAt(int row, int col) {
+        return styles[row][col];
+    }
+
+    public char getCharAt(int row, int col) {
+        return chars[row][col];
+    }
+
+    //================================================================================================//
+    //====================================== DIRTY ROW TRACKING ======================================//
+    //================================================================================================//
+
+    public boolean isRowDirty(int row) {
+        return dirtyRows[row];
+    }
+
+    /**
+     * @return True if at least one row has changed since <code>clearDirtyRows()</code> was last called.
+     */
+    public boolean isDirty() {
+        return numDirtyRows > 0;
+    }
+
+    public int getNumDirtyRows() {
+        return numDirtyRows;
+    }
+
+    /**
+     * Should be called by the UI once it has rendered all dirty rows.
+     */
+    public void clearDirtyRows() {
+        Arrays.fill(dirtyRows, false);
+        numDirtyRows = 0;
+    }
+
+    public void markAllRowsDirty() {
+        Arrays.fill(dirtyRows, true);
+        numDirtyRows = numRows;
+    }
+
+    private void markRowDirty(int row) {
+        if (!dirtyRows[row]) {
+            dirtyRows[row] = true;
+            numDirtyRows++;
+        }
+    }
+
+    //================================================================================================//
+    //========================================= PRIVATE HELPERS ======================================//
+    //================================================================================================//
+
+    /**
+     * Scrolls all rows up by one, discarding the top row and blanking the bottom row. The row arrays
+     * are rotated rather than copied.
+     */
+    private void scrollUp() {
+        char[] topChars = chars[0];
+        SgrStyle[] topStyles = styles[0];
+
+        System.arraycopy(chars, 1, chars, 0, numRows - 1);
+        System.arraycopy(styles, 1, styles, 0, numRows - 1);
+
+        chars[numRows - 1] = topChars;
+        styles[numRows - 1] = topStyles;
+        blankRow(numRows - 1);
+
+        // Every row has changed position
+        markAllRowsDirty();
+    }
+
+    /**
+     * Scrolls all rows down by one, discarding the bottom row and blanking the top row. The row arrays
+     * are rotated rather than copied.
+     */
+    private void scrollDown() {
+        char[] bottomChars = chars[numRows - 1];
+        SgrStyle[] bottomStyles = styles[numRows - 1];
+
+        System.arraycopy(chars, 0, chars, 1, numRows - 1);
+        System.arraycopy(styles, 0, styles, 1, numRows - 1);
+
+        chars[0] = bottomChars;
+        styles[0] = bottomStyles;
+        blankRow(0);
+
+        // Every row has changed position
+        markAllRowsDirty();
+    }
+
+    private void blankRow(int row) {
+        blankCells(row, 0, numCols);
+    }
+
+    /**
+     * Blanks the cells from <code>startCol</code> (inclusive) to <code>endCol</code> (exclusive). Erased
+     * cells take on the current background colour, as per the VT100 behaviour.
+     */
+    private void blankCells(int row, int startCol, int endCol) {
+        Arrays.fill(chars[row], startCol, endCol, ' ');
+
+        SgrStyle blankStyle = (currStyle.getBackground() == null) ?
+                SgrStyle.DEFAULT :
+                SgrStyle.of(SgrStyle.DEFAULT_COLOUR, currStyle.getPackedBackground(), 0);
+        Arrays.fill(styles[row], startCol, endCol, blankStyle);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
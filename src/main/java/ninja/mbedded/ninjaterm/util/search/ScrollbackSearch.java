@@ -0,0 +1,127 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+import javafx.application.Platform;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches the scrollback of a COM data pane on a background thread.
+ *
+ * The pane reports every change to its text with <code>textAppended()</code>, <code>textTrimmed()</code> and
+ * <code>textCleared()</code>. These changes are applied to a <code>{@link TrigramIndex}</code> on the background
+ * thread, in the same order as searches are started, so a search always sees the text as it was when the search was
+ * started. Hits are passed back to the UI thread in batches as they are found.
+ *
+ * All public methods must be called from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class ScrollbackSearch {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    /**
+     * The max. number of hits passed to the UI thread at once.
+     */
+    static final int NUM_HITS_PER_BATCH = 1000;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    /**
+     * Only accessed from the search thread.
+     */
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+
+    /**
+     * Runs all index updates and searches, in order. Can be replaced in unit tests.
+     */
+    Executor searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ScrollbackSearch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Used to pass hits back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    /**
+     * Incremented every time a search is started or cancelled. A search stops (and its hits are ignored) once
+     * this no longer matches the ID it was started with.
+     */
+    private final AtomicInteger currSearchId = new AtomicInteger(0);
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void textAppended(String text) {
+        searchExecutor.execute(() -> trigramIndex.append(text));
+    }
+
+    public void textTrimmed(int numChars) {
+        searchExecutor.execute(() -> trigramIndex.trimStart(numChars));
+    }
+
+    public void textCleared() {
+        searchExecutor.execute(trigramIndex::clear);
+    }
+
+    /**
+     * Starts a new search, cancelling any search which has not finished yet.
+     *
+     * @param query                     The literal text to search for.
+     * @param matchCase                 If false, case is ignored.
+     * @param searchHitsFoundListener   Called on the UI thread with the hits, in batches. The last call has
+     *                                  <code>isFinished</code> set to true. Not called at all if the search
+     *                                  is cancelled.
+     */
+    public void search(String query, boolean matchCase, SearchHitsFoundListener searchHitsFoundListener) {
+
+        final int searchId = currSearchId.incrementAndGet();
+
+        searchExecutor.execute(() -> {
+
+            final long[] batch = new long[NUM_HITS_PER_BATCH];
+            final int[] numHitsInBatch = {0};
+
+            trigramIndex.findAll(query, matchCase, hitPos -> {
+                batch[numHitsInBatch[0]++] = hitPos;
+                if (numHitsInBatch[0] == batch.length) {
+                    postHits(searchId, Arrays.copyOf(batch, batch.length), false, searchHitsFoundListener);
+                    numHitsInBatch[0] = 0;
+                }
+                return searchId == currSearchId.get();
+            });
+
+            postHits(searchId, Arrays.copyOf(batch, numHitsInBatch[0]), true, searchHitsFoundListener);
+        });
+    }
+
+    /**
+     * Cancels any search which has not finished yet. No more hits will be passed to its listener.
+     */
+    public void cancelSearch() {
+        currSearchId.incrementAndGet();
+    }
+
+    private void postHits(int searchId, long[] hitPositions, boolean isFinished, SearchHitsFoundListener searchHitsFoundListener) {
+        uiThreadExecutor.execute(() -> {
+            // Ignore hits from stale searches. This is checked on the UI thread so that no hits are passed
+            // on after cancelSearch() or search() has returned
+            if (searchId != currSearchId.get())
+                return;
+            searchHitsFoundListener.run(hitPositions, isFinished);
+        });
+    }
+}
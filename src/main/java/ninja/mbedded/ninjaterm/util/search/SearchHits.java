@@ -0,0 +1,101 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+/**
+ * The hits found by a search, stored in ascending order of absolute position. Finding the next or previous hit from
+ * any position is a binary search, so jumping between hits is fast even when there are a lot of them.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class SearchHits {
+
+    private long[] positions = new long[16];
+
+    private int size = 0;
+
+    /**
+     * Adds hits to the end. The hits must be in ascending order, and after all hits already added.
+     */
+    public void addAll(long[] newPositions, int numNewPositions) {
+        if (size + numNewPositions > positions.length) {
+            long[] grownPositions = new long[Math.max(positions.length * 2, size + numNewPositions)];
+            System.arraycopy(positions, 0, grownPositions, 0, size);
+            positions = grownPositions;
+        }
+        System.arraycopy(newPositions, 0, positions, size, numNewPositions);
+        size += numNewPositions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int index) {
+        return positions[index];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes all hits which start before the position (e.g. because that text has been trimmed).
+     */
+    public void removeBefore(long pos) {
+        final int numToRemove = lowerBound(pos);
+        if (numToRemove == 0)
+            return;
+
+        System.arraycopy(positions, numToRemove, positions, 0, size - numToRemove);
+        size -= numToRemove;
+    }
+
+    /**
+     * @return The index of the hit at the position, or -1 if there is no hit at that position.
+     */
+    public int indexOf(long pos) {
+        final int index = lowerBound(pos);
+        return (index < size && positions[index] == pos) ? index : -1;
+    }
+
+    /**
+     * @return The index of the first hit after the position, wrapping around to the first hit if there is none.
+     *          -1 if there are no hits.
+     */
+    public int indexOfNext(long pos) {
+        if (size == 0)
+            return -1;
+
+        final int index = lowerBound(pos + 1);
+        return (index == size) ? 0 : index;
+    }
+
+    /**
+     * @return The index of the last hit before the position, wrapping around to the last hit if there is none.
+     *          -1 if there are no hits.
+     */
+    public int indexOfPrevious(long pos) {
+        if (size == 0)
+            return -1;
+
+        final int index = lowerBound(pos) - 1;
+        return (index < 0) ? size - 1 : index;
+    }
+
+    /**
+     * @return The index of the first hit which is >= pos.
+     */
+    private int lowerBound(long pos) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (positions[mid] < pos)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
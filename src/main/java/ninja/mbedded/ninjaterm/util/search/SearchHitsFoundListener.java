@@ -0,0 +1,19 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+/**
+ * Interface for listeners listening for hits found by a background search. A search can call this many times
+ * with batches of hits, so results can be displayed before the search has finished.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public interface SearchHitsFoundListener {
+
+    /**
+     * @param hitPositions  The absolute positions of the new hits, in ascending order and after all hits
+     *                      previously passed in for the same search. May be empty.
+     * @param isFinished    True if this is the last batch of hits for the search.
+     */
+    void run(long[] hitPositions, boolean isFinished);
+}
@@ -0,0 +1,256 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A trigram index over a stream of text which is appended to at the end and trimmed from the start, like the
+ * scrollback of a COM data pane.
+ *
+ * All positions are absolute, i.e. they count every char ever appended, so a position stays valid (and refers to
+ * the same char) after the start of the text has been trimmed. Searches for queries of 3 or more chars only
+ * look at the positions of the query's rarest trigram, so repeated searches over a full buffer do not have to
+ * scan all of the text. Trigrams are indexed case-insensitively, so one index serves both case-sensitive and
+ * case-insensitive searches.
+ *
+ * Not thread safe. All methods are designed to be called from the same (background) thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class TrigramIndex {
+
+    //================================================================================================//
+    //========================================== INNER CLASSES =======================================//
+    //================================================================================================//
+
+    /**
+     * Receives the hits from <code>findAll()</code>.
+     */
+    public interface HitConsumer {
+
+        /**
+         * @param hitPos The absolute position of the first char of the hit.
+         * @return True to keep searching, false to stop the search.
+         */
+        boolean accept(long hitPos);
+    }
+
+    /**
+     * The (ascending) positions of every occurrence of one trigram.
+     */
+    private static class PostingList {
+
+        long[] positions = new long[4];
+        int size = 0;
+
+        void add(long pos) {
+            if (size == positions.length) {
+                long[] newPositions = new long[size * 2];
+                System.arraycopy(positions, 0, newPositions, 0, size);
+                positions = newPositions;
+            }
+            positions[size++] = pos;
+        }
+
+        /**
+         * @return The index of the first position which is >= pos.
+         */
+        int lowerBound(long pos) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (positions[mid] < pos)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * The absolute position of the first char in <code>text</code>.
+     */
+    private long startPos = 0;
+
+    /**
+     * Maps a packed (lower case) trigram to the positions it occurs at. Positions before <code>startPos</code> are
+     * stale, and are skipped when searching until the index is next rebuilt.
+     */
+    private final Map<Long, PostingList> postingLists = new HashMap<>();
+
+    /**
+     * The number of chars trimmed since the index was last rebuilt.
+     */
+    private int numCharsTrimmedSinceRebuild = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    /**
+     * Appends text to the end, indexing any new trigrams (including those which span the previous end of the text).
+     */
+    public void append(CharSequence newText) {
+        final int oldLength = text.length();
+        text.append(newText);
+        indexFrom(Math.max(oldLength - 2, 0));
+    }
+
+    /**
+     * Removes chars from the start of the text. The positions of the remaining chars do not change.
+     */
+    public void trimStart(int numChars) {
+        numChars = Math.min(numChars, text.length());
+        if (numChars <= 0)
+            return;
+
+        text.delete(0, numChars);
+        startPos += numChars;
+        numCharsTrimmedSinceRebuild += numChars;
+
+        // Stale positions are only skipped when searching, so rebuild the index once there are more stale
+        // positions than live ones. This keeps the cost of trimming proportional to the number of chars trimmed
+        if (numCharsTrimmedSinceRebuild > text.length()) {
+            postingLists.clear();
+            numCharsTrimmedSinceRebuild = 0;
+            indexFrom(0);
+        }
+    }
+
+    /**
+     * Removes all text. Positions keep counting up from where they were, so hits found before the clear do not
+     * refer to new text.
+     */
+    public void clear() {
+        startPos += text.length();
+        text.setLength(0);
+        postingLists.clear();
+        numCharsTrimmedSinceRebuild = 0;
+    }
+
+    /**
+     * @return The absolute position of the first char of text.
+     */
+    public long getStartPos() {
+        return startPos;
+    }
+
+    /**
+     * @return The absolute position one past the last char of text.
+     */
+    public long getEndPos() {
+        return startPos + text.length();
+    }
+
+    /**
+     * @return The text between the two absolute positions, which must be within the text.
+     */
+    public String getText(long fromPos, long toPos) {
+        return text.substring((int) (fromPos - startPos), (int) (toPos - startPos));
+    }
+
+    /**
+     * Finds all occurrences of the query, in ascending order. Overlapping occurrences are all found.
+     *
+     * @param query         The literal text to search for.
+     * @param matchCase     If false, the case of the query and text is ignored.
+     * @param hitConsumer   Called for every hit, and can stop the search early.
+     * @return The number of hits passed to the consumer.
+     */
+    public int findAll(String query, boolean matchCase, HitConsumer hitConsumer) {
+        if (query.isEmpty() || query.length() > text.length())
+            return 0;
+
+        if (query.length() < 3)
+            return findAllByScanning(query, matchCase, hitConsumer);
+
+        // Find the query trigram with the fewest positions. Any missing trigram means there can be no hits
+        PostingList rarestPostingList = null;
+        int rarestTrigramOffset = 0;
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            final PostingList postingList = postingLists.get(packTrigram(query, i));
+            if (postingList == null)
+                return 0;
+
+            if (rarestPostingList == null || postingList.size < rarestPostingList.size) {
+                rarestPostingList = postingList;
+                rarestTrigramOffset = i;
+            }
+        }
+
+        int numHits = 0;
+        for (int i = rarestPostingList.lowerBound(startPos + rarestTrigramOffset); i < rarestPostingList.size; i++) {
+            final int hitIndex = (int) (rarestPostingList.positions[i] - rarestTrigramOffset - startPos);
+            if (hitIndex + query.length() > text.length())
+                break;
+
+            if (regionMatches(hitIndex, query, matchCase)) {
+                numHits++;
+                if (!hitConsumer.accept(startPos + hitIndex))
+                    break;
+            }
+        }
+        return numHits;
+    }
+
+    /**
+     * Used for queries too short to have a trigram.
+     */
+    private int findAllByScanning(String query, boolean matchCase, HitConsumer hitConsumer) {
+        int numHits = 0;
+        for (int hitIndex = 0; hitIndex + query.length() <= text.length(); hitIndex++) {
+            if (regionMatches(hitIndex, query, matchCase)) {
+                numHits++;
+                if (!hitConsumer.accept(startPos + hitIndex))
+                    break;
+            }
+        }
+        return numHits;
+    }
+
+    private boolean regionMatches(int textIndex, String query, boolean matchCase) {
+        for (int i = 0; i < query.length(); i++) {
+            final char textChar = text.charAt(textIndex + i);
+            final char queryChar = query.charAt(i);
+            if (textChar == queryChar)
+                continue;
+            if (matchCase || Character.toLowerCase(textChar) != Character.toLowerCase(queryChar))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds every trigram starting at or after the index to the posting lists.
+     */
+    private void indexFrom(int fromIndex) {
+        for (int i = fromIndex; i + 3 <= text.length(); i++) {
+            final Long trigram = packTrigram(text, i);
+            PostingList postingList = postingLists.get(trigram);
+            if (postingList == null) {
+                postingList = new PostingList();
+                postingLists.put(trigram, postingList);
+            }
+            postingList.add(startPos + i);
+        }
+    }
+
+    /**
+     * Packs the 3 (lower-cased) chars starting at the index into one key.
+     */
+    private static long packTrigram(CharSequence chars, int index) {
+        return ((long) Character.toLowerCase(chars.charAt(index)) << 32)
+                | ((long) Character.toLowerCase(chars.charAt(index + 1)) << 16)
+                | Character.toLowerCase(chars.charAt(index + 2));
+    }
+}
@@ -0,0 +1,104 @@
+package ninja.mbedded.ninjaterm.util.txBuffer;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * A growable buffer of bytes waiting to be sent out a COM port.
+ *
+ * Bytes are stored in a primitive array, so adding a large block of data (e.g. a paste) is a single array copy rather
+ * than one boxed object and one list change event per byte. The UI can observe the number of bytes in the buffer
+ * through <code>length</code>, which changes at most once per method call.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class TxBuffer {
+
+    //================================================================================================//
+    //====================================== CLASS CONSTANTS =========================================//
+    //================================================================================================//
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * If the array has grown past this size, it is shrunk back to the initial capacity when the buffer is cleared,
+     * so that one large paste does not hold on to memory.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+
+    private ReadOnlyIntegerWrapper lengthWrapper = new ReadOnlyIntegerWrapper(0);
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    public final ReadOnlyIntegerProperty length = lengthWrapper.getReadOnlyProperty();
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void append(byte[] newData) {
+        append(newData, 0, newData.length);
+    }
+
+    public void append(byte[] newData, int offset, int numBytes) {
+        if (numBytes == 0)
+            return;
+
+        final int size = size();
+        if (size + numBytes > data.length) {
+            byte[] grownData = new byte[Math.max(data.length * 2, size + numBytes)];
+            System.arraycopy(data, 0, grownData, 0, size);
+            data = grownData;
+        }
+
+        System.arraycopy(newData, offset, data, size, numBytes);
+        lengthWrapper.set(size + numBytes);
+    }
+
+    /**
+     * Removes the last byte in the buffer.
+     *
+     * @return True if a byte was removed, false if the buffer was already empty.
+     */
+    public boolean removeLast() {
+        if (size() == 0)
+            return false;
+
+        lengthWrapper.set(size() - 1);
+        return true;
+    }
+
+    public int size() {
+        return lengthWrapper.get();
+    }
+
+    public byte get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size());
+        return data[index];
+    }
+
+    /**
+     * @return A copy of all the bytes in the buffer.
+     */
+    public byte[] toByteArray() {
+        byte[] copy = new byte[size()];
+        System.arraycopy(data, 0, copy, 0, copy.length);
+        return copy;
+    }
+
+    public void clear() {
+        if (data.length > MAX_RETAINED_CAPACITY)
+            data = new byte[INITIAL_CAPACITY];
+        lengthWrapper.set(0);
+    }
+}
@@ -0,0 +1,39 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * Table-driven CRC-16 as used by XMODEM-CRC and YMODEM (polynomial 0x1021, initial value 0, no reflection).
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class Crc16 {
+
+    private static final int POLYNOMIAL = 0x1021;
+
+    /**
+     * The CRC of each possible high byte, so that the CRC can be updated a byte at a time rather than a bit at a time.
+     */
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = ((crc & 0x8000) != 0) ? (crc << 1) ^ POLYNOMIAL : crc << 1;
+            }
+            TABLE[i] = crc & 0xFFFF;
+        }
+    }
+
+    /**
+     * @return The CRC of the bytes between the indexes (the end index is exclusive).
+     */
+    public static int calculate(byte[] data, int fromIndex, int toIndex) {
+        int crc = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            crc = ((crc << 8) ^ TABLE[((crc >> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,61 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * A thread-safe queue of received bytes. Bytes are pushed in by the thread receiving data (e.g. the COM port's RX
+ * thread), and read out one at a time, with a timeout, by the transfer thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class RxByteQueue {
+
+    private byte[] buffer = new byte[4096];
+
+    /**
+     * The index of the next byte to read.
+     */
+    private int head = 0;
+
+    private int size = 0;
+
+    public synchronized void push(byte[] data) {
+        if (size + data.length > buffer.length) {
+            byte[] grownBuffer = new byte[Math.max(buffer.length * 2, size + data.length)];
+            for (int i = 0; i < size; i++) {
+                grownBuffer[i] = buffer[(head + i) % buffer.length];
+            }
+            buffer = grownBuffer;
+            head = 0;
+        }
+
+        for (byte dataByte : data) {
+            buffer[(head + size) % buffer.length] = dataByte;
+            size++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return The oldest byte in the queue (0-255), or -1 if the queue is still empty after the timeout.
+     */
+    public synchronized int read(long timeoutMs) throws InterruptedException {
+        final long endTimeMs = System.currentTimeMillis() + timeoutMs;
+        while (size == 0) {
+            final long remainingMs = endTimeMs - System.currentTimeMillis();
+            if (remainingMs <= 0)
+                return -1;
+            wait(remainingMs);
+        }
+
+        final int value = buffer[head] & 0xFF;
+        head = (head + 1) % buffer.length;
+        size--;
+        return value;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+}
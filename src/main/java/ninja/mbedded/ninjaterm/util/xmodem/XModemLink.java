@@ -0,0 +1,18 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * The connection to the receiver that a <code>{@link XModemSender}</code> talks over (normally a COM port).
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface XModemLink {
+
+    void write(byte[] data);
+
+    /**
+     * @return The next byte received (0-255), or -1 if no byte was received within the timeout.
+     */
+    int read(long timeoutMs) throws InterruptedException;
+}
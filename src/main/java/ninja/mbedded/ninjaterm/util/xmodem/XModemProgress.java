@@ -0,0 +1,60 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * A snapshot of the progress of a file being sent by a <code>{@link XModemSender}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class XModemProgress {
+
+    public enum States {
+        WAITING_FOR_RECEIVER,
+        SENDING,
+        FINISHED,
+        CANCELLED,
+        FAILED,
+    }
+
+    public final States state;
+
+    /**
+     * The number of file bytes acknowledged by the receiver.
+     */
+    public final long numBytesSent;
+
+    public final long totalNumBytes;
+
+    /**
+     * The average rate that file bytes have been acknowledged since the first block was sent. This does not include
+     * block headers, padding or re-sent blocks, so is always less than the line rate.
+     */
+    public final double bytesPerSecond;
+
+    /**
+     * The number of blocks which had to be re-sent.
+     */
+    public final int numRetries;
+
+    /**
+     * Describes why the transfer failed. Only set if <code>state</code> is <code>FAILED</code>.
+     */
+    public final String errorMsg;
+
+    public XModemProgress(States state, long numBytesSent, long totalNumBytes, double bytesPerSecond, int numRetries, String errorMsg) {
+        this.state = state;
+        this.numBytesSent = numBytesSent;
+        this.totalNumBytes = totalNumBytes;
+        this.bytesPerSecond = bytesPerSecond;
+        this.numRetries = numRetries;
+        this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return True if this is the last progress update for the transfer.
+     */
+    public boolean isDone() {
+        return state == States.FINISHED || state == States.CANCELLED || state == States.FAILED;
+    }
+}
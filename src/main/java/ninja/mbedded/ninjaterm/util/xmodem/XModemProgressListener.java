@@ -0,0 +1,10 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public interface XModemProgressListener {
+    void run(XModemProgress xModemProgress);
+}
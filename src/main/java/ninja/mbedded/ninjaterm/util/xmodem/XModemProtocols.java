@@ -0,0 +1,37 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+/**
+ * The file transfer protocols supported by <code>{@link XModemSender}</code>.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public enum XModemProtocols {
+    XMODEM_CRC("XMODEM-CRC", 128, false),
+    XMODEM_1K("XMODEM-1K", 1024, false),
+    YMODEM("YMODEM", 1024, true);
+
+    private String label;
+
+    /**
+     * The max. number of data bytes in a block.
+     */
+    public final int blockSizeBytes;
+
+    /**
+     * If true, the file name and size are sent in a header block (block 0) before the data.
+     */
+    public final boolean hasHeaderBlock;
+
+    XModemProtocols(String label, int blockSizeBytes, boolean hasHeaderBlock) {
+        this.label = label;
+        this.blockSizeBytes = blockSizeBytes;
+        this.hasHeaderBlock = hasHeaderBlock;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,412 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends a file to a receiver (e.g. a bootloader) using XMODEM-CRC, XMODEM-1K or YMODEM, on a background thread.
+ *
+ * The protocols are stop-and-wait: each block is re-sent (up to <code>MAX_NUM_RETRIES</code> times) until the
+ * receiver acknowledges it. If an XMODEM receiver asks for checksums rather than CRCs, 128 byte blocks with checksums
+ * are sent instead. The last block is sent as a 128 byte block if the remaining data fits in one, to reduce padding.
+ *
+ * Only one file can be sent at a time. <code>send()</code> and <code>cancel()</code> must be called from the UI thread.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class XModemSender {
+
+    //================================================================================================//
+    //======================================== CLASS CONSTANTS =======================================//
+    //================================================================================================//
+
+    static final byte SOH = 0x01;
+    static final byte STX = 0x02;
+    static final byte EOT = 0x04;
+    static final byte ACK = 0x06;
+    static final byte NAK = 0x15;
+    static final byte CAN = 0x18;
+    static final byte CRC_REQUEST = 'C';
+
+    /**
+     * Used to pad the last block of the file.
+     */
+    static final byte PADDING = 0x1A;
+
+    static final int SHORT_BLOCK_SIZE_BYTES = 128;
+
+    /**
+     * The max. number of times a block is re-sent before the transfer fails.
+     */
+    static final int MAX_NUM_RETRIES = 10;
+
+    /**
+     * The max. time blocking reads wait for before checking if the transfer has been cancelled.
+     */
+    private static final long CANCEL_CHECK_PERIOD_MS = 100;
+
+    /**
+     * The min. time between progress updates while sending.
+     */
+    private static final long PROGRESS_UPDATE_PERIOD_MS = 100;
+
+    //================================================================================================//
+    //========================================= INNER CLASSES ========================================//
+    //================================================================================================//
+
+    private static class CancelledException extends Exception {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static class TransferException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        TransferException(String message) {
+            super(message);
+        }
+    }
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private final XModemLink link;
+
+    /**
+     * The time to wait for the receiver to respond to a block before re-sending it. Can be changed in unit tests.
+     */
+    long responseTimeoutMs = 10000;
+
+    /**
+     * The time to wait for the receiver to request the first block. Can be changed in unit tests.
+     */
+    long receiverStartTimeoutMs = 60000;
+
+    /**
+     * Runs the transfers. Can be replaced in unit tests.
+     */
+    Executor transferExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "XModemSender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Used to pass progress back to the UI thread. Can be replaced in unit tests.
+     */
+    Executor uiThreadExecutor = Platform::runLater;
+
+    private volatile boolean isCancelRequested = false;
+
+    /**
+     * Only accessed from the transfer thread.
+     */
+    private int numRetries;
+    private long startTimeMs;
+    private long lastProgressTimeMs;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public XModemSender(XModemLink link) {
+        this.link = link;
+    }
+
+    /**
+     * Starts sending a file in the background.
+     *
+     * @param file                      The file to send.
+     * @param protocol                  The protocol to send the file with.
+     * @param xModemProgressListener    Called on the UI thread as the file is sent. The last call has a "done" state.
+     */
+    public void send(File file, XModemProtocols protocol, XModemProgressListener xModemProgressListener) {
+        isCancelRequested = false;
+        transferExecutor.execute(() -> sendOnThisThread(file, protocol, xModemProgressListener));
+    }
+
+    /**
+     * Cancels the current transfer. The receiver is told that the transfer has been cancelled, and the progress
+     * listener is called with the <code>CANCELLED</code> state.
+     */
+    public void cancel() {
+        isCancelRequested = true;
+    }
+
+    private void sendOnThisThread(File file, XModemProtocols protocol, XModemProgressListener xModemProgressListener) {
+
+        numRetries = 0;
+        startTimeMs = System.currentTimeMillis();
+        lastProgressTimeMs = startTimeMs;
+
+        long totalNumBytes = 0;
+        long numBytesSent = 0;
+
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+            totalNumBytes = fileChannel.size();
+
+            postProgress(XModemProgress.States.WAITING_FOR_RECEIVER, 0, totalNumBytes, null, xModemProgressListener);
+
+            boolean useCrc = waitForReceiverStart(receiverStartTimeoutMs);
+            if (protocol.hasHeaderBlock) {
+                if (!useCrc)
+                    throw new TransferException("Receiver did not request CRCs, which are required for YMODEM.");
+
+                sendBlock(0, createHeaderBlockData(file.getName(), totalNumBytes), useCrc);
+
+                // The receiver asks for the data blocks in the same way it asked for the header
+                waitForReceiverStart(responseTimeoutMs);
+            }
+
+            startTimeMs = System.currentTimeMillis();
+            postProgress(XModemProgress.States.SENDING, 0, totalNumBytes, null, xModemProgressListener);
+
+            // 1K blocks are only used with CRCs
+            final int maxBlockSizeBytes = useCrc ? protocol.blockSizeBytes : SHORT_BLOCK_SIZE_BYTES;
+            final byte[] longBlockData = new byte[maxBlockSizeBytes];
+            final byte[] shortBlockData = new byte[SHORT_BLOCK_SIZE_BYTES];
+
+            int blockNum = 1;
+            while (numBytesSent < totalNumBytes) {
+
+                final long numBytesRemaining = totalNumBytes - numBytesSent;
+                final byte[] blockData = (numBytesRemaining <= SHORT_BLOCK_SIZE_BYTES) ? shortBlockData : longBlockData;
+                final int numBytesInBlock = (int) Math.min(blockData.length, numBytesRemaining);
+
+                readFully(fileChannel, numBytesSent, blockData, numBytesInBlock);
+                Arrays.fill(blockData, numBytesInBlock, blockData.length, PADDING);
+
+                sendBlock(blockNum & 0xFF, blockData, useCrc);
+
+                numBytesSent += numBytesInBlock;
+                blockNum++;
+
+                final long nowMs = System.currentTimeMillis();
+                if (nowMs - lastProgressTimeMs >= PROGRESS_UPDATE_PERIOD_MS) {
+                    postProgress(XModemProgress.States.SENDING, numBytesSent, totalNumBytes, null, xModemProgressListener);
+                    lastProgressTimeMs = nowMs;
+                }
+            }
+
+            sendEndOfTransmission();
+
+            if (protocol.hasHeaderBlock) {
+                // An empty header block tells the receiver there are no more files in the batch
+                waitForReceiverStart(responseTimeoutMs);
+                sendBlock(0, new byte[SHORT_BLOCK_SIZE_BYTES], useCrc);
+            }
+
+        } catch (CancelledException | InterruptedException e) {
+            sendCancel();
+            postProgress(XModemProgress.States.CANCELLED, numBytesSent, totalNumBytes, null, xModemProgressListener);
+            return;
+        } catch (TransferException e) {
+            sendCancel();
+            postProgress(XModemProgress.States.FAILED, numBytesSent, totalNumBytes, e.getMessage(), xModemProgressListener);
+            return;
+        } catch (IOException | RuntimeException e) {
+            postProgress(XModemProgress.States.FAILED, numBytesSent, totalNumBytes, e.getMessage(), xModemProgressListener);
+            return;
+        }
+
+        postProgress(XModemProgress.States.FINISHED, numBytesSent, totalNumBytes, null, xModemProgressListener);
+    }
+
+    /**
+     * Waits for the receiver to request a block.
+     *
+     * @return True if the receiver requested CRCs, false if it requested checksums.
+     */
+    private boolean waitForReceiverStart(long timeoutMs) throws CancelledException, InterruptedException, TransferException {
+        final long endTimeMs = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            final int value = readByte(endTimeMs - System.currentTimeMillis());
+            switch (value) {
+                case -1:
+                    throw new TransferException("Timed out waiting for the receiver to start.");
+                case CRC_REQUEST:
+                    return true;
+                case NAK:
+                    return false;
+                case CAN:
+                    checkForReceiverCancel();
+                    break;
+                default:
+                    // Ignore anything else (e.g. text printed by a bootloader before it starts receiving)
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sends a block, re-sending it until the receiver acknowledges it.
+     *
+     * @param blockData The data to send. Must be 128 or 1024 bytes long.
+     */
+    private void sendBlock(int blockNum, byte[] blockData, boolean useCrc) throws CancelledException, InterruptedException, TransferException {
+
+        final byte[] packet = new byte[3 + blockData.length + (useCrc ? 2 : 1)];
+        packet[0] = (blockData.length == SHORT_BLOCK_SIZE_BYTES) ? SOH : STX;
+        packet[1] = (byte) blockNum;
+        packet[2] = (byte) (0xFF - blockNum);
+        System.arraycopy(blockData, 0, packet, 3, blockData.length);
+
+        if (useCrc) {
+            final int crc = Crc16.calculate(blockData, 0, blockData.length);
+            packet[packet.length - 2] = (byte) (crc >> 8);
+            packet[packet.length - 1] = (byte) crc;
+        } else {
+            int checksum = 0;
+            for (byte dataByte : blockData) {
+                checksum += dataByte & 0xFF;
+            }
+            packet[packet.length - 1] = (byte) checksum;
+        }
+
+        for (int attempt = 0; attempt <= MAX_NUM_RETRIES; attempt++) {
+            if (attempt > 0)
+                numRetries++;
+
+            checkForCancel();
+            link.write(packet);
+
+            if (readResponse() == ACK)
+                return;
+        }
+
+        throw new TransferException("Block " + blockNum + " was not acknowledged after " + MAX_NUM_RETRIES + " retries.");
+    }
+
+    private void sendEndOfTransmission() throws CancelledException, InterruptedException, TransferException {
+        // Receivers may NAK the first EOT to make sure it was not line noise, so this normally takes two attempts
+        for (int attempt = 0; attempt <= MAX_NUM_RETRIES; attempt++) {
+            checkForCancel();
+            link.write(new byte[]{EOT});
+
+            if (readResponse() == ACK)
+                return;
+        }
+
+        throw new TransferException("End of transmission was not acknowledged after " + MAX_NUM_RETRIES + " retries.");
+    }
+
+    /**
+     * Waits for the receiver to ACK or NAK.
+     *
+     * @return ACK, NAK, or -1 if there was no response within the timeout.
+     */
+    private int readResponse() throws CancelledException, InterruptedException, TransferException {
+        final long endTimeMs = System.currentTimeMillis() + responseTimeoutMs;
+        while (true) {
+            final int value = readByte(endTimeMs - System.currentTimeMillis());
+            switch (value) {
+                case -1:
+                case ACK:
+                case NAK:
+                    return value;
+                case CAN:
+                    checkForReceiverCancel();
+                    break;
+                default:
+                    // Ignore line noise
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Called after a CAN is received. Two CANs in a row mean the receiver has cancelled the transfer.
+     */
+    private void checkForReceiverCancel() throws CancelledException, InterruptedException, TransferException {
+        if (readByte(responseTimeoutMs) == CAN)
+            throw new TransferException("The receiver cancelled the transfer.");
+    }
+
+    /**
+     * Reads the next byte from the link, checking regularly if the transfer has been cancelled.
+     *
+     * @return The byte (0-255), or -1 if no byte was received within the timeout.
+     */
+    private int readByte(long timeoutMs) throws CancelledException, InterruptedException {
+        final long endTimeMs = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            checkForCancel();
+
+            final long remainingMs = endTimeMs - System.currentTimeMillis();
+            if (remainingMs <= 0)
+                return -1;
+
+            final int value = link.read(Math.min(remainingMs, CANCEL_CHECK_PERIOD_MS));
+            if (value >= 0)
+                return value;
+        }
+    }
+
+    private void checkForCancel() throws CancelledException {
+        if (isCancelRequested)
+            throw new CancelledException();
+    }
+
+    private void sendCancel() {
+        try {
+            link.write(new byte[]{CAN, CAN, CAN});
+        } catch (RuntimeException e) {
+            // The link may be the reason the transfer failed, so nothing else can be done
+        }
+    }
+
+    /**
+     * Creates the data for YMODEM block 0, which holds the file name and size.
+     */
+    static byte[] createHeaderBlockData(String fileName, long fileSizeBytes) {
+        final byte[] nameBytes = fileName.getBytes(StandardCharsets.UTF_8);
+        final byte[] sizeBytes = Long.toString(fileSizeBytes).getBytes(StandardCharsets.US_ASCII);
+
+        // The name and size are both null-terminated
+        final int numBytesUsed = nameBytes.length + 1 + sizeBytes.length + 1;
+        final byte[] blockData = new byte[(numBytesUsed <= SHORT_BLOCK_SIZE_BYTES) ? SHORT_BLOCK_SIZE_BYTES : 1024];
+
+        System.arraycopy(nameBytes, 0, blockData, 0, Math.min(nameBytes.length, blockData.length - sizeBytes.length - 2));
+        System.arraycopy(sizeBytes, 0, blockData, Math.min(nameBytes.length, blockData.length - sizeBytes.length - 2) + 1, sizeBytes.length);
+        return blockData;
+    }
+
+    private static void readFully(FileChannel fileChannel, long position, byte[] data, int numBytes) throws IOException {
+        final ByteBuffer byteBuffer = ByteBuffer.wrap(data, 0, numBytes);
+        while (byteBuffer.hasRemaining()) {
+            if (fileChannel.read(byteBuffer, position + byteBuffer.position()) < 0)
+                throw new IOException("File ended early (was it modified while being sent?).");
+        }
+    }
+
+    private void postProgress(
+            XModemProgress.States state,
+            long numBytesSent,
+            long totalNumBytes,
+            String errorMsg,
+            XModemProgressListener xModemProgressListener) {
+
+        final long elapsedTimeMs = Math.max(System.currentTimeMillis() - startTimeMs, 1);
+        final XModemProgress xModemProgress = new XModemProgress(
+                state,
+                numBytesSent,
+                totalNumBytes,
+                numBytesSent * 1000.0 / elapsedTimeMs,
+                numRetries,
+                errorMsg);
+
+        uiThreadExecutor.execute(() -> xModemProgressListener.run(xModemProgress));
+    }
+}
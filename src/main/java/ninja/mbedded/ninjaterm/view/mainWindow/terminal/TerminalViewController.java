@@ -12,7 +12,9 @@ import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.comSettings.ComSettingsViewController;
+import ninja.mbedded.ninjaterm.view.mainWindow.terminal.hexView.HexViewViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.logging.LoggingViewController;
+import ninja.mbedded.ninjaterm.view.mainWindow.terminal.plot.PlotViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.stats.StatsViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.TxRxViewController;
 import org.controlsfx.glyphfont.FontAwesome;
@@ -26,7 +28,7 @@ import java.util.Optional;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-08-23
- * @last-modified 2016-11-05
+ * @last-modified 2026-10-18
  */
 public class TerminalViewController {
 
@@ -49,6 +51,12 @@ public class TerminalViewController {
     @FXML
     public Tab txRxView;
 
+    @FXML
+    private HexViewViewController hexViewViewController;
+
+    @FXML
+    private PlotViewController plotViewController;
+
     @FXML
     private LoggingViewController loggingViewController;
 
@@ -119,6 +127,18 @@ public class TerminalViewController {
 
         statsViewController.init(terminal);
 
+        //==============================================//
+        //=========== INIT HEX VIEW SUB-TAB ============//
+        //==============================================//
+
+        hexViewViewController.init(model, terminal);
+
+        //==============================================//
+        //============= INIT PLOT SUB-TAB ==============//
+        //==============================================//
+
+        plotViewController.init(model, terminal);
+
         //==============================================//
         //============= SETUP CONTEXT MENU =============//
         //==============================================//
@@ -0,0 +1,125 @@
+package ninja.mbedded.ninjaterm.view.mainWindow.terminal.hexView;
+
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.javafx.hexDumpPane.HexDumpPane;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
+
+/**
+ * Controller for the "HexView" sub-tab which is part of a terminal tab. Displays the raw RX bytes as a hex dump.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class HexViewViewController {
+
+    //================================================================================================//
+    //========================================== FXML BINDINGS =======================================//
+    //================================================================================================//
+
+    @FXML
+    private ComboBox<Integer> bytesPerRowComboBox;
+
+    @FXML
+    private TextField highlightByteTextField;
+
+    @FXML
+    private Label selectedByteLabel;
+
+    @FXML
+    private HexDumpPane hexDumpPane;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private Terminal terminal;
+
+    public HexViewViewController() { }
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void init(Model model, Terminal terminal) {
+
+        this.terminal = terminal;
+
+        //==============================================//
+        //=============== HEX DUMP SETUP ===============//
+        //==============================================//
+
+        hexDumpPane.setByteStore(terminal.txRx.rxByteStore);
+
+        // The pane only redraws once per frame, so it is fine to tell it about every packet
+        terminal.txRx.rxDataEngine.rawDataReceivedListeners.add(data -> {
+            hexDumpPane.dataChanged();
+        });
+
+        terminal.txRx.rxDataClearedListeners.add(() -> {
+            hexDumpPane.dataChanged();
+        });
+
+        //==============================================//
+        //============= BYTES PER ROW SETUP ============//
+        //==============================================//
+
+        bytesPerRowComboBox.setItems(FXCollections.observableArrayList(8, 16, 32));
+
+        bytesPerRowComboBox.setOnAction(event -> {
+            hexDumpPane.bytesPerRow.set(bytesPerRowComboBox.getSelectionModel().getSelectedItem());
+        });
+
+        // Set default
+        bytesPerRowComboBox.getSelectionModel().select((Integer) hexDumpPane.bytesPerRow.get());
+
+        //==============================================//
+        //============== HIGHLIGHT SETUP ===============//
+        //==============================================//
+
+        highlightByteTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+            hexDumpPane.highlightedByteValue.set(parseByteValue(newValue));
+        });
+
+        TooltipUtil.addDefaultTooltip(highlightByteTextField, "Enter a byte value in hex (e.g. 0D) to highlight every byte with that value.");
+
+        //==============================================//
+        //=========== SELECTED BYTE SETUP ==============//
+        //==============================================//
+
+        hexDumpPane.selectedOffset.addListener((observable, oldValue, newValue) -> {
+            updateSelectedByteLabel();
+        });
+        updateSelectedByteLabel();
+    }
+
+    private void updateSelectedByteLabel() {
+        final long offset = hexDumpPane.selectedOffset.get();
+        if (offset < 0) {
+            selectedByteLabel.setText("Click on a byte to select it.");
+            return;
+        }
+
+        final int value = terminal.txRx.rxByteStore.get(offset) & 0xFF;
+        selectedByteLabel.setText(String.format("Offset: 0x%08X (%d), Value: 0x%02X (%d)", offset, offset, value, value));
+    }
+
+    /**
+     * @return The byte value (0-255) represented by the provided hex string, or -1 if the string is not a valid
+     *          byte value.
+     */
+    private static int parseByteValue(String text) {
+        try {
+            final int value = Integer.parseInt(text.trim(), 16);
+            return (value >= 0 && value <= 0xFF) ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package ninja.mbedded.ninjaterm.view.mainWindow.terminal.logging;
 
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import jfxtras.scene.control.ToggleGroupValue;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.model.terminal.logging.CaptureReplay;
 import ninja.mbedded.ninjaterm.model.terminal.logging.Logging;
+import ninja.mbedded.ninjaterm.util.asyncLogWriter.DurabilityModes;
+import ninja.mbedded.ninjaterm.util.capture.ReplayProgress;
+import ninja.mbedded.ninjaterm.util.javafx.applyTextField.ApplyTextField;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
 import org.controlsfx.glyphfont.FontAwesome;
 import org.controlsfx.glyphfont.GlyphFont;
 
@@ -20,7 +30,7 @@ import java.io.File;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-09-16
- * @last-modified 2016-10-17
+ * @last-modified 2026-10-18
  */
 public class LoggingViewController {
 
@@ -52,9 +62,60 @@ public class LoggingViewController {
     @FXML
     private RadioButton rxPaneOutputRadioButton;
 
+    @FXML
+    private RadioButton binaryCaptureRadioButton;
+
+    @FXML
+    private CheckBox preserveAnsiStylingCheckBox;
+
+    @FXML
+    private VBox durabilityVBox;
+
+    @FXML
+    private RadioButton flushOnNewLineRadioButton;
+
+    @FXML
+    private RadioButton flushPeriodicallyRadioButton;
+
+    @FXML
+    private ApplyTextField flushPeriodTextField;
+
+    @FXML
+    private VBox rotationVBox;
+
+    @FXML
+    private ApplyTextField rotateFileSizeTextField;
+
+    @FXML
+    private ApplyTextField rotateFilePeriodTextField;
+
+    @FXML
+    private ApplyTextField rotateFileNumLinesTextField;
+
+    @FXML
+    private ApplyTextField maxNumRotatedFilesTextField;
+
     @FXML
     private Button startStopLoggingButton;
 
+    @FXML
+    private VBox replayVBox;
+
+    @FXML
+    private TextField captureFilePathTextField;
+
+    @FXML
+    private Button browseCaptureButton;
+
+    @FXML
+    private ComboBox<CaptureReplay.ReplaySpeeds> replaySpeedComboBox;
+
+    @FXML
+    private Button startStopReplayButton;
+
+    @FXML
+    private Label replayProgressLabel;
+
     //================================================================================================//
     //=========================================== CLASS FIELDS =======================================//
     //================================================================================================//
@@ -68,6 +129,8 @@ public class LoggingViewController {
 
     private ToggleGroupValue<Logging.WhatAreWeLogging> whatAreWeLoggingTGV = new ToggleGroupValue<>();
 
+    private ToggleGroupValue<DurabilityModes> durabilityModeTGV = new ToggleGroupValue<>();
+
     //================================================================================================//
     //========================================== CLASS METHODS =======================================//
     //================================================================================================//
@@ -101,6 +164,10 @@ public class LoggingViewController {
             } else {
                 terminal.logging.disableLogging();
             }
+        });
+
+        // Logging can also be disabled by the model (e.g. if the log file can not be written to)
+        terminal.logging.isLogging.addListener((observable, oldValue, newValue) -> {
             updateLoggingTabBasedOnIsLogging();
         });
 
@@ -122,9 +189,143 @@ public class LoggingViewController {
 
         whatAreWeLoggingTGV.add(rawRxDataAsAsciiRadioButton, Logging.WhatAreWeLogging.RAW_RX_DATA_AS_ASCII);
         whatAreWeLoggingTGV.add(rxPaneOutputRadioButton, Logging.WhatAreWeLogging.RX_PANE_OUTPUT);
+        whatAreWeLoggingTGV.add(binaryCaptureRadioButton, Logging.WhatAreWeLogging.BINARY_CAPTURE);
 
         Bindings.bindBidirectional(whatAreWeLoggingTGV.valueProperty(), terminal.logging.selWhatAreWeLogging);
 
+        preserveAnsiStylingCheckBox.selectedProperty().bindBidirectional(terminal.logging.isAnsiStylingPreserved);
+
+        // Only the RX pane output has colours to preserve
+        preserveAnsiStylingCheckBox.disableProperty().bind(
+                terminal.logging.isLogging.or(
+                        terminal.logging.selWhatAreWeLogging.isNotEqualTo(Logging.WhatAreWeLogging.RX_PANE_OUTPUT)));
+
+        TooltipUtil.addDefaultTooltip(preserveAnsiStylingCheckBox, "If ticked, the colours and styles shown in the RX pane are written to the log file as ANSI escape codes (view the file with e.g. \"less -R\"). Otherwise the log file only contains plain text.");
+
+        TooltipUtil.addDefaultTooltip(binaryCaptureRadioButton, "Logs the raw TX and RX data, with timestamps, to a compact binary file. This can be replayed into the RX pane later (see \"Replay Capture\" below). The durability and rotation settings do not apply to binary captures.");
+
+        //==============================================//
+        //=========== DURABILITY MODE SETUP ============//
+        //==============================================//
+
+        durabilityModeTGV.add(flushOnNewLineRadioButton, DurabilityModes.FLUSH_ON_NEW_LINE);
+        durabilityModeTGV.add(flushPeriodicallyRadioButton, DurabilityModes.FLUSH_PERIODICALLY);
+
+        Bindings.bindBidirectional(durabilityModeTGV.valueProperty(), terminal.logging.selDurabilityMode);
+
+        setupIntegerTextField(flushPeriodTextField, terminal.logging.flushPeriodMs, "Flush period", Logging.MIN_FLUSH_PERIOD_MS);
+
+        TooltipUtil.addDefaultTooltip(durabilityVBox, "Logged data is written to the file in the background. \"On every new line\" writes each complete line straight away (partial lines wait for the flush period). \"Every flush period\" writes less often, which is easier on slow disks, but more data is lost if NinjaTerm crashes.");
+
+        //==============================================//
+        //=========== LOG FILE ROTATION SETUP ==========//
+        //==============================================//
+
+        setupIntegerTextField(rotateFileSizeTextField, terminal.logging.rotateFileSizeMb, "Rotation size", 0);
+        setupIntegerTextField(rotateFilePeriodTextField, terminal.logging.rotateFilePeriodMins, "Rotation period", 0);
+        setupIntegerTextField(rotateFileNumLinesTextField, terminal.logging.rotateFileNumLines, "Rotation line count", 0);
+        setupIntegerTextField(maxNumRotatedFilesTextField, terminal.logging.maxNumRotatedFiles, "Max. number of rotated files", 0);
+
+        TooltipUtil.addDefaultTooltip(rotationVBox, "When any of these limits is reached, the log file is renamed (with the time it was started added to its name), gzip-compressed in the background, and a new log file is started. Set a limit to 0 to disable it.");
+
+        //==============================================//
+        //============= REPLAY CAPTURE SETUP ===========//
+        //==============================================//
+
+        setupReplay();
+
+    }
+
+    /**
+     * Sets up the controls for replaying a binary capture file into the RX pane.
+     */
+    private void setupReplay() {
+
+        captureFilePathTextField.textProperty().bindBidirectional(terminal.captureReplay.captureFilePath);
+
+        browseCaptureButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select Capture File");
+            File selectedFile = fileChooser.showOpenDialog(browseCaptureButton.getScene().getWindow());
+
+            // Nothing to do if the user cancelled
+            if (selectedFile != null)
+                terminal.captureReplay.captureFilePath.set(selectedFile.getAbsolutePath());
+        });
+
+        replaySpeedComboBox.getItems().setAll(CaptureReplay.ReplaySpeeds.values());
+        replaySpeedComboBox.valueProperty().bindBidirectional(terminal.captureReplay.selReplaySpeed);
+
+        startStopReplayButton.setOnAction(event -> {
+            if (!terminal.captureReplay.isReplaying.get()) {
+                terminal.captureReplay.startReplay();
+            } else {
+                terminal.captureReplay.stopReplay();
+            }
+        });
+
+        terminal.captureReplay.isReplaying.addListener((observable, oldValue, newValue) -> {
+            updateReplayControls();
+        });
+        updateReplayControls();
+
+        terminal.captureReplay.replayProgress.addListener((observable, oldValue, newValue) -> {
+            updateReplayProgressLabel(newValue);
+        });
+        updateReplayProgressLabel(terminal.captureReplay.replayProgress.get());
+
+        TooltipUtil.addDefaultTooltip(replayVBox, "Feeds the RX data in a binary capture file into the RX pane, as if it had just been received. \"1x\" keeps the original timing, \"Max.\" replays as fast as the RX pane can process the data.");
+    }
+
+    private void updateReplayControls() {
+        final boolean isReplaying = terminal.captureReplay.isReplaying.get();
+
+        startStopReplayButton.setGraphic(glyphFont.create(isReplaying ? FontAwesome.Glyph.STOP : FontAwesome.Glyph.PLAY));
+        startStopReplayButton.setText(isReplaying ? "Stop" : "Start");
+
+        captureFilePathTextField.setDisable(isReplaying);
+        browseCaptureButton.setDisable(isReplaying);
+        replaySpeedComboBox.setDisable(isReplaying);
+    }
+
+    private void updateReplayProgressLabel(ReplayProgress replayProgress) {
+        if (replayProgress == null) {
+            replayProgressLabel.setText("");
+            return;
+        }
+
+        replayProgressLabel.setText(String.format("%d bytes, %.1fs of capture in %.1fs (max. lag %.1fms)",
+                replayProgress.numBytesReplayed,
+                replayProgress.captureTimeMs / 1000.0,
+                replayProgress.elapsedTimeMs / 1000.0,
+                replayProgress.maxLagMs));
+    }
+
+    /**
+     * Keeps an integer property in the model in sync with a text field. Invalid values are reported and the
+     * text field is reset to the current value.
+     */
+    private void setupIntegerTextField(ApplyTextField textField, SimpleIntegerProperty property, String name, int minValue) {
+
+        textField.setText(Integer.toString(property.get()));
+        textField.onApply.addListener((observable, oldValue, newValue) -> {
+            int value;
+            try {
+                value = Integer.parseInt(newValue.trim());
+            } catch (NumberFormatException e) {
+                model.status.addErr(name + " is not a valid integer.");
+                textField.setText(Integer.toString(property.get()));
+                return;
+            }
+
+            if (value < minValue) {
+                model.status.addErr(name + " must be " + minValue + " or greater.");
+                textField.setText(Integer.toString(property.get()));
+                return;
+            }
+
+            property.set(value);
+        });
     }
 
     private void openFileChooser() {
@@ -159,6 +360,11 @@ public class LoggingViewController {
             overwriteFileBehaviourRadioButton.setDisable(false);
             rawRxDataAsAsciiRadioButton.setDisable(false);
             rxPaneOutputRadioButton.setDisable(false);
+            binaryCaptureRadioButton.setDisable(false);
+            flushOnNewLineRadioButton.setDisable(false);
+            flushPeriodicallyRadioButton.setDisable(false);
+            flushPeriodTextField.setDisable(false);
+            rotationVBox.setDisable(false);
 
         } else {
             startStopLoggingButton.setGraphic(glyphFont.create(FontAwesome.Glyph.STOP));
@@ -173,6 +379,11 @@ public class LoggingViewController {
             overwriteFileBehaviourRadioButton.setDisable(true);
             rawRxDataAsAsciiRadioButton.setDisable(true);
             rxPaneOutputRadioButton.setDisable(true);
+            binaryCaptureRadioButton.setDisable(true);
+            flushOnNewLineRadioButton.setDisable(true);
+            flushPeriodicallyRadioButton.setDisable(true);
+            flushPeriodTextField.setDisable(true);
+            rotationVBox.setDisable(true);
         }
     }
 
@@ -0,0 +1,186 @@
+package ninja.mbedded.ninjaterm.view.mainWindow.terminal.plot;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.fxml.FXML;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.javafx.plotPane.PlotPane;
+import ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor.ValueSeries;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
+
+/**
+ * Controller for the "Plot" sub-tab which is part of a terminal tab. Plots numeric values extracted from RX lines
+ * against time.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class PlotViewController {
+
+    //================================================================================================//
+    //=========================================== ENUMS ==============================================//
+    //================================================================================================//
+
+    private enum TimeWindow {
+        SECONDS_10("10s", 10000),
+        MINUTE_1("1min", 60000),
+        MINUTES_10("10min", 600000),
+        ALL("All", 0);
+
+        private final String label;
+        private final long durationMs;
+
+        TimeWindow(String label, long durationMs) {
+            this.label = label;
+            this.durationMs = durationMs;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    //================================================================================================//
+    //========================================== FXML BINDINGS =======================================//
+    //================================================================================================//
+
+    @FXML
+    private TextField patternTextField;
+
+    @FXML
+    private Button addSeriesButton;
+
+    @FXML
+    private ComboBox<TimeWindow> timeWindowComboBox;
+
+    @FXML
+    private Button clearButton;
+
+    @FXML
+    private HBox seriesHBox;
+
+    @FXML
+    private PlotPane plotPane;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private Terminal terminal;
+
+    public PlotViewController() { }
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public void init(Model model, Terminal terminal) {
+
+        this.terminal = terminal;
+
+        //==============================================//
+        //================ PLOT PANE SETUP =============//
+        //==============================================//
+
+        plotPane.setValueSeries(terminal.plotting.valueSeries);
+        plotPane.timeWindowMs.bind(terminal.plotting.timeWindowMs);
+
+        // Values are extracted before the raw data listeners are called, and the pane only redraws
+        // once per frame, so it is fine to tell it about every packet
+        terminal.txRx.rxDataEngine.rawDataReceivedListeners.add(data -> {
+            plotPane.dataChanged();
+        });
+
+        //==============================================//
+        //================= SERIES SETUP ===============//
+        //==============================================//
+
+        addSeriesButton.setOnAction(event -> {
+            addSeries();
+        });
+
+        patternTextField.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ENTER) {
+                addSeries();
+            }
+        });
+
+        terminal.plotting.valueSeries.addListener((ListChangeListener<ValueSeries>) change -> {
+            updateSeriesHBox();
+        });
+        updateSeriesHBox();
+
+        TooltipUtil.addDefaultTooltip(patternTextField, "Enter a regex which matches RX lines containing a number, " +
+                "e.g. \"temperature = (\\d+)\". The number is taken from the first capturing group, or from the " +
+                "whole match if there are no capturing groups. Lines are matched before any filtering is applied.");
+
+        //==============================================//
+        //============== TIME WINDOW SETUP =============//
+        //==============================================//
+
+        timeWindowComboBox.setItems(FXCollections.observableArrayList(TimeWindow.values()));
+
+        timeWindowComboBox.setOnAction(event -> {
+            terminal.plotting.timeWindowMs.set(timeWindowComboBox.getSelectionModel().getSelectedItem().durationMs);
+        });
+
+        // Set default
+        for (TimeWindow timeWindow : TimeWindow.values()) {
+            if (timeWindow.durationMs == terminal.plotting.timeWindowMs.get()) {
+                timeWindowComboBox.getSelectionModel().select(timeWindow);
+            }
+        }
+
+        //==============================================//
+        //================= CLEAR SETUP ================//
+        //==============================================//
+
+        clearButton.setOnAction(event -> {
+            terminal.plotting.clearSamples();
+            plotPane.dataChanged();
+        });
+
+        TooltipUtil.addDefaultTooltip(clearButton, "Removes all plotted values. The series are kept.");
+    }
+
+    private void addSeries() {
+        if (patternTextField.getText().isEmpty())
+            return;
+
+        if (terminal.plotting.addSeries(patternTextField.getText()) != null) {
+            patternTextField.clear();
+        }
+    }
+
+    /**
+     * Rebuilds the row of series (one coloured label and remove button for each).
+     */
+    private void updateSeriesHBox() {
+        seriesHBox.getChildren().clear();
+
+        for (ValueSeries series : terminal.plotting.valueSeries) {
+            Label nameLabel = new Label(series.getName());
+            nameLabel.setTextFill(series.color);
+
+            Button removeButton = new Button("x");
+            removeButton.setOnAction(event -> {
+                terminal.plotting.removeSeries(series);
+            });
+            TooltipUtil.addDefaultTooltip(removeButton, "Stop plotting this series.");
+
+            HBox seriesEntry = new HBox(5, nameLabel, removeButton);
+            seriesEntry.setAlignment(Pos.CENTER_LEFT);
+            seriesHBox.getChildren().add(seriesEntry);
+        }
+    }
+}
@@ -13,7 +13,7 @@ import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-09-16
- * @last-modified 2016-11-22
+ * @last-modified 2026-10-18
  */
 public class StatsViewController {
 
@@ -42,6 +42,24 @@ public class StatsViewController {
     @FXML
     private Label bytesPerSecondRxLabel;
 
+    @FXML
+    private VBox loggingVBox;
+
+    @FXML
+    private Label logBacklogLabel;
+
+    @FXML
+    private Label logWriteLatencyLabel;
+
+    @FXML
+    private Label logMaxWriteLatencyLabel;
+
+    @FXML
+    private Label logNumCharsDroppedLabel;
+
+    @FXML
+    private Label logNumFilesRotatedLabel;
+
     //================================================================================================//
     //=========================================== CLASS FIELDS =======================================//
     //================================================================================================//
@@ -120,6 +138,37 @@ public class StatsViewController {
         // Set default (giving bogus data as it is not used)
         bytesPerSecondRxChangeListener.changed(new SimpleDoubleProperty(), 0.0, 0.0);
 
+        //==============================================//
+        //================ LOGGING SETUP ===============//
+        //==============================================//
+
+        TooltipUtil.addDefaultTooltip(loggingVBox, "Logged data is written to the log file in the background. The backlog is the data waiting to be written, and the write latency is how long it waited for. Data is dropped if the log file can not keep up.");
+
+        logBacklogLabel.setText(Long.toString(terminal.stats.logBacklogChars.get()));
+        terminal.stats.logBacklogChars.addListener((observable, oldValue, newValue) -> {
+            logBacklogLabel.setText(Long.toString(newValue.longValue()));
+        });
+
+        logWriteLatencyLabel.setText(String.format("%.1f", terminal.stats.logWriteLatencyMs.get()));
+        terminal.stats.logWriteLatencyMs.addListener((observable, oldValue, newValue) -> {
+            logWriteLatencyLabel.setText(String.format("%.1f", newValue.doubleValue()));
+        });
+
+        logMaxWriteLatencyLabel.setText(String.format("%.1f", terminal.stats.logMaxWriteLatencyMs.get()));
+        terminal.stats.logMaxWriteLatencyMs.addListener((observable, oldValue, newValue) -> {
+            logMaxWriteLatencyLabel.setText(String.format("%.1f", newValue.doubleValue()));
+        });
+
+        logNumCharsDroppedLabel.setText(Long.toString(terminal.stats.logNumCharsDropped.get()));
+        terminal.stats.logNumCharsDropped.addListener((observable, oldValue, newValue) -> {
+            logNumCharsDroppedLabel.setText(Long.toString(newValue.longValue()));
+        });
+
+        logNumFilesRotatedLabel.setText(Long.toString(terminal.stats.logNumFilesRotated.get()));
+        terminal.stats.logNumFilesRotated.addListener((observable, oldValue, newValue) -> {
+            logNumFilesRotatedLabel.setText(Long.toString(newValue.longValue()));
+        });
+
     }
 
 }
@@ -9,6 +9,9 @@ import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Control;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TitledPane;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
@@ -19,9 +22,12 @@ import ninja.mbedded.ninjaterm.util.javafx.comDataPane.ComDataPane;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.colouriser.ColouriserViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.display.DisplayViewController;
+import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.fileTransfer.FileTransferViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.filters.FiltersViewController;
+import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.find.FindViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.formatting.FormattingViewController;
 import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.macros.MacrosViewController;
+import ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.sendFile.SendFileViewController;
 import org.controlsfx.control.PopOver;
 import org.controlsfx.glyphfont.FontAwesome;
 import org.controlsfx.glyphfont.GlyphFont;
@@ -32,7 +38,7 @@ import org.slf4j.Logger;
  * can open it's own COM port.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2017-02-20
+ * @last-modified 2026-10-18
  * @since 2016-07-16
  */
 public class TxRxViewController {
@@ -65,12 +71,18 @@ public class TxRxViewController {
     //========================================== FXML BINDINGS =======================================//
     //================================================================================================//
 
+    @FXML
+    private Tab rxTxTab;
+
     @FXML
     private GridPane dataContainerGridPane;
 
 //    @FXML
 //    private ComDataPaneWeb rxComDataPane;
 
+//    @FXML
+//    private ComDataPaneCanvas rxComDataPane;
+
     @FXML
     private ComDataPane rxComDataPane;
 
@@ -80,6 +92,9 @@ public class TxRxViewController {
 //    @FXML
 //    private ComDataPaneWeb txComDataPane;
 
+//    @FXML
+//    private ComDataPaneCanvas txComDataPane;
+
     @FXML
     private ComDataPane txComDataPane;
 
@@ -103,9 +118,21 @@ public class TxRxViewController {
     @FXML
     private MacrosViewController macrosViewController;
 
+    @FXML
+    private SendFileViewController sendFileViewController;
+
+    @FXML
+    private FileTransferViewController fileTransferViewController;
+
     @FXML
     private FiltersViewController filtersViewController;
 
+    @FXML
+    private TitledPane findTitledPane;
+
+    @FXML
+    private FindViewController findViewController;
+
     @FXML
     private DisplayViewController displayViewController;
 
@@ -294,6 +321,21 @@ public class TxRxViewController {
 
 //        setupPopover(loader.getRoot(), "Filters", filtersButton);
 
+        //==============================================//
+        //================= FIND SETUP =================//
+        //==============================================//
+
+        findViewController.init(model, terminal, rxComDataPane);
+
+        // Ctrl-F (Cmd-F on Mac) while the data panes have focus opens the find pane
+        dataContainerGridPane.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.isShortcutDown() && event.getCode() == KeyCode.F) {
+                findTitledPane.setExpanded(true);
+                findViewController.focusSearchTextField();
+                event.consume();
+            }
+        });
+
         //==============================================//
         //=========== FREEZE RX BUTTON SETUP ===========//
         //==============================================//
@@ -345,10 +387,28 @@ public class TxRxViewController {
 
         // Add a listener for the new ComDataPane object
         terminal.txRx.rxDataEngine.newOutputListeners.add(streamedData -> {
-            rxComDataPane.addData(streamedData);
+            // When screen emulation is enabled, the RX pane is updated by the screen listener below
+            if (!terminal.txRx.display.screenEmulationEnabled.get())
+                rxComDataPane.addData(streamedData);
+        });
+
+        terminal.txRx.rxDataEngine.screenUpdatedListeners.add(screen -> {
+            rxComDataPane.updateScreen(screen);
+        });
+
+        // Switching between screen emulation and streamed data starts the RX pane afresh
+        terminal.txRx.display.screenEmulationEnabled.addListener((observable, oldValue, newValue) -> {
+            rxComDataPane.clearData();
+            if (newValue)
+                rxComDataPane.updateScreen(terminal.txRx.rxDataEngine.screen);
         });
 
         rxComDataPane.bufferSize.bind(terminal.txRx.display.bufferSizeChars);
+        rxComDataPane.maxRefreshRateHz.bind(terminal.txRx.display.maxRefreshRateHz);
+
+        // TIME STAMPS
+        rxComDataPane.timeStampFormatter.mode.bind(terminal.txRx.formatting.selTimeStampMode);
+        rxComDataPane.timeStampFormatter.referenceTime.bind(terminal.txRx.formatting.timeStampReferenceTime);
 
         // Bind to stats
         rxComDataPane.currNumChars.addListener((observable, oldValue, newValue) -> {
@@ -397,6 +457,7 @@ public class TxRxViewController {
         });
 
         txComDataPane.bufferSize.bind(terminal.txRx.display.bufferSizeChars);
+        txComDataPane.maxRefreshRateHz.bind(terminal.txRx.display.maxRefreshRateHz);
 
         // Bind to stats
         txComDataPane.currNumChars.addListener((observable, oldValue, newValue) -> {
@@ -436,6 +497,22 @@ public class TxRxViewController {
         // state
         updateTxRxPaneLayout();
 
+        //==============================================//
+        //====== PAUSE RENDERING WHEN NOT VISIBLE ======//
+        //==============================================//
+
+        // Data keeps being parsed and buffered for terminals which can't be seen, but is only
+        // rendered once the terminal's TX/RX tab is selected again
+        model.selTerminal.addListener((observable, oldValue, newValue) -> {
+            updateRenderingPaused();
+        });
+
+        rxTxTab.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            updateRenderingPaused();
+        });
+
+        updateRenderingPaused();
+
         //==============================================//
         //============ SETUP DIRECTION TEXT ============//
         //==============================================//
@@ -480,6 +557,18 @@ public class TxRxViewController {
 
         macrosViewController.init(model, terminal, glyphFont);
 
+        //==============================================//
+        //=============== SEND FILE SETUP ==============//
+        //==============================================//
+
+        sendFileViewController.init(model, terminal);
+
+        //==============================================//
+        //============= FILE TRANSFER SETUP ============//
+        //==============================================//
+
+        fileTransferViewController.init(model, terminal);
+
         //! @debug
         dataContainerGridPane.heightProperty().addListener((observable, oldValue, newValue) -> {
             resizeTxRxPanes();
@@ -487,6 +576,16 @@ public class TxRxViewController {
 
     }
 
+    /**
+     * Pauses rendering of the TX and RX data panes if this terminal or its TX/RX tab is not selected.
+     */
+    private void updateRenderingPaused() {
+        final boolean isVisible = model.selTerminal.get() == terminal && rxTxTab.isSelected();
+
+        rxComDataPane.isRenderingPaused.set(!isVisible);
+        txComDataPane.isRenderingPaused.set(!isVisible);
+    }
+
     private void refreshFreezeRxButton() {
         if (!terminal.txRx.rxDataEngine.isFrozen.get()) {
             freezeRxButton.setText("Freeze RX");
@@ -25,7 +25,7 @@ import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-09-16
- * @last-modified 2018-11-05
+ * @last-modified 2026-10-18
  */
 public class DisplayViewController {
 
@@ -48,9 +48,15 @@ public class DisplayViewController {
     @FXML
     private ApplyTextField bufferSizeTextField;
 
+    @FXML
+    private CheckBox screenEmulationCheckBox;
+
     @FXML
     private ComboBox<Double> textSizeComboBox;
 
+    @FXML
+    private ComboBox<Double> maxRefreshRateComboBox;
+
     @FXML
     private ColorPicker textColorPicker;
 
@@ -206,6 +212,16 @@ public class DisplayViewController {
 
         TooltipUtil.addDefaultTooltip(bufferSizeTextField, "The max. number of characters to store in the TX and RX panes. Once the num. of characters exceeds this limit, the oldest characters are removed from the UI (this does not affect logging).");
 
+        //==============================================//
+        //=========== SCREEN EMULATION SETUP ===========//
+        //==============================================//
+
+        Bindings.bindBidirectional(
+                screenEmulationCheckBox.selectedProperty(),
+                terminal.txRx.display.screenEmulationEnabled);
+
+        TooltipUtil.addDefaultTooltip(screenEmulationCheckBox, "If enabled, the RX pane emulates a fixed size (80x24) VT100 screen. Use this for devices which draw menus or status screens using cursor movement and erase escape sequences. Filtering and time stamps are not applied in this mode.");
+
         //================================================================================================//
         // TEXT SIZE/COLOR SETUP
         //================================================================================================//
@@ -220,6 +236,18 @@ public class DisplayViewController {
         // Set default
         textSizeComboBox.getSelectionModel().select(terminal.txRx.display.textSizePx.get());
 
+        // MAX. REFRESH RATE
+        maxRefreshRateComboBox.setOnAction(event -> {
+            terminal.txRx.display.maxRefreshRateHz.set(maxRefreshRateComboBox.getSelectionModel().getSelectedItem());
+        });
+
+        maxRefreshRateComboBox.setItems(terminal.txRx.display.refreshRates);
+
+        // Set default
+        maxRefreshRateComboBox.getSelectionModel().select(terminal.txRx.display.maxRefreshRateHz.get());
+
+        TooltipUtil.addDefaultTooltip(maxRefreshRateComboBox, "The max. number of times per second that new data is drawn in the TX and RX panes. Data received between frames is drawn at once. Lower this if the UI becomes slow at high data rates.");
+
         // TEXT COLOR
         textColorPicker.setValue(terminal.txRx.display.textColor.get());
         textColorPicker.setOnAction(event -> {
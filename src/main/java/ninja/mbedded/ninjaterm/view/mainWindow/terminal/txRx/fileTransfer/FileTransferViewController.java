@@ -0,0 +1,160 @@
+package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.fileTransfer;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.FileChooser;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.fileTransfer.FileTransfer;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemProgress;
+import ninja.mbedded.ninjaterm.util.xmodem.XModemProtocols;
+
+import java.io.File;
+
+/**
+ * Backend for the file transfer pane, which sends a file with XMODEM or YMODEM.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FileTransferViewController {
+
+    //================================================================================================//
+    //========================================== FXML BINDINGS =======================================//
+    //================================================================================================//
+
+    @FXML
+    private ComboBox<XModemProtocols> protocolComboBox;
+
+    @FXML
+    private Button sendFileButton;
+
+    @FXML
+    private Button cancelButton;
+
+    @FXML
+    private ProgressBar progressBar;
+
+    @FXML
+    private Label progressLabel;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private Terminal terminal;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public FileTransferViewController() {
+    }
+
+    public void init(Model model, Terminal terminal) {
+
+        this.terminal = terminal;
+
+        final FileTransfer fileTransfer = terminal.txRx.fileTransfer;
+
+        //==============================================//
+        //================ PROTOCOL SETUP ==============//
+        //==============================================//
+
+        protocolComboBox.getItems().setAll(XModemProtocols.values());
+
+        protocolComboBox.setOnAction(event -> {
+            fileTransfer.selProtocol.set(protocolComboBox.getSelectionModel().getSelectedItem());
+        });
+
+        // Set default
+        protocolComboBox.getSelectionModel().select(fileTransfer.selProtocol.get());
+
+        TooltipUtil.addDefaultTooltip(protocolComboBox, "XMODEM-CRC sends 128 byte blocks, XMODEM-1K sends 1024 byte blocks, and YMODEM also sends the file name and size. Choose the protocol the receiver (e.g. a bootloader) expects.");
+
+        //==============================================//
+        //================ BUTTONS SETUP ===============//
+        //==============================================//
+
+        sendFileButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select File To Send");
+            File selectedFile = fileChooser.showOpenDialog(sendFileButton.getScene().getWindow());
+
+            // Null means the user closed the dialog without choosing a file
+            if (selectedFile == null)
+                return;
+
+            fileTransfer.sendFile(selectedFile);
+        });
+
+        TooltipUtil.addDefaultTooltip(sendFileButton, "Starts the transfer. Start the receiver before or after clicking this. While the transfer is running, RX data is not shown in the RX pane.");
+
+        cancelButton.setOnAction(event -> {
+            fileTransfer.cancel();
+        });
+
+        //==============================================//
+        //================ PROGRESS SETUP ==============//
+        //==============================================//
+
+        fileTransfer.isTransferring.addListener((observable, oldValue, newValue) -> {
+            updateControls();
+        });
+
+        fileTransfer.state.addListener((observable, oldValue, newValue) -> {
+            updateProgress();
+        });
+
+        fileTransfer.numBytesSent.addListener((observable, oldValue, newValue) -> {
+            updateProgress();
+        });
+
+        updateControls();
+        updateProgress();
+    }
+
+    private void updateControls() {
+        final boolean isTransferring = terminal.txRx.fileTransfer.isTransferring.get();
+
+        protocolComboBox.setDisable(isTransferring);
+        sendFileButton.setDisable(isTransferring);
+        cancelButton.setDisable(!isTransferring);
+    }
+
+    private void updateProgress() {
+        final FileTransfer fileTransfer = terminal.txRx.fileTransfer;
+
+        if (fileTransfer.state.get() == null) {
+            progressBar.setProgress(0.0);
+            progressLabel.setText("");
+            return;
+        }
+
+        if (fileTransfer.state.get() == XModemProgress.States.WAITING_FOR_RECEIVER) {
+            // Show an animated bar until the receiver starts
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+            progressLabel.setText("Waiting for receiver...");
+            return;
+        }
+
+        progressBar.setProgress((fileTransfer.totalNumBytes.get() == 0) ? 1.0 :
+                fileTransfer.numBytesSent.get() / (double) fileTransfer.totalNumBytes.get());
+
+        // Show how close the transfer is to the max. possible speed of the COM port
+        final double efficiencyPercent = (fileTransfer.lineRateBytesPerSecond.get() > 0) ?
+                fileTransfer.bytesPerSecond.get() / fileTransfer.lineRateBytesPerSecond.get() * 100.0 : 0.0;
+
+        progressLabel.setText(String.format("%d / %d bytes, %.1f kB/s (%.0f%% of line rate), %d retries",
+                fileTransfer.numBytesSent.get(),
+                fileTransfer.totalNumBytes.get(),
+                fileTransfer.bytesPerSecond.get() / 1000.0,
+                efficiencyPercent,
+                fileTransfer.numRetries.get()));
+    }
+}
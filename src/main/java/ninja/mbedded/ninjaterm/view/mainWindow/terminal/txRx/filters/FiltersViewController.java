@@ -1,19 +1,24 @@
 package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.filters;
 
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.util.converter.NumberStringConverter;
 import jfxtras.scene.control.ToggleGroupValue;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.filters.Filters;
+import ninja.mbedded.ninjaterm.util.javafx.applyTextField.ApplyTextField;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamingFilter.StreamingFilter;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
 
 /**
  * Backend for the filters pop-up window.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-09-21
- * @last-modified 2016-10-02
+ * @last-modified 2026-10-18
  */
 public class FiltersViewController {
 
@@ -24,6 +29,15 @@ public class FiltersViewController {
     @FXML
     private TextField filterTextTextField;
 
+    @FXML
+    private ApplyTextField linesBeforeTextField;
+
+    @FXML
+    private ApplyTextField linesAfterTextField;
+
+    @FXML
+    private CheckBox invertMatchCheckBox;
+
     @FXML
     private RadioButton applyToNewRxDataOnlyCheckBox;
 
@@ -53,6 +67,20 @@ public class FiltersViewController {
         // Bind the text in the filter text textfield to the string in the model
         Bindings.bindBidirectional(filterTextTextField.textProperty(), terminal.txRx.filters.filterText);
 
+        //==============================================//
+        //============ CONTEXT LINES SETUP =============//
+        //==============================================//
+
+        bindContextLines(model, linesBeforeTextField, terminal.txRx.filters.linesBefore, "Lines before");
+        bindContextLines(model, linesAfterTextField, terminal.txRx.filters.linesAfter, "Lines after");
+
+        TooltipUtil.addDefaultTooltip(linesBeforeTextField, "The number of lines to show before each matching line (like grep -B).");
+        TooltipUtil.addDefaultTooltip(linesAfterTextField, "The number of lines to show after each matching line (like grep -A).");
+
+        Bindings.bindBidirectional(invertMatchCheckBox.selectedProperty(), terminal.txRx.filters.invertMatch);
+
+        TooltipUtil.addDefaultTooltip(invertMatchCheckBox, "If ticked, only lines which do NOT match the filter text are shown (like grep -v).");
+
         //==============================================//
         //=============== RADIOBUTTON SETUP ============//
         //==============================================//
@@ -64,4 +92,43 @@ public class FiltersViewController {
         Bindings.bindBidirectional(filterApplyTypesTGV.valueProperty(), terminal.txRx.filters.filterApplyType);
 
     }
+
+    /**
+     * Binds a text field to a "number of context lines" property, converting the text to a
+     * non-negative integer no greater than <code>StreamingFilter.MAX_CONTEXT_LINES</code>.
+     */
+    private void bindContextLines(Model model, ApplyTextField textField, SimpleIntegerProperty property, String name) {
+        Bindings.bindBidirectional(
+                textField.onApply,
+                property,
+                new NumberStringConverter() {
+                    @Override
+                    public Number fromString(String value) {
+                        int intValue;
+                        try {
+                            intValue = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            model.status.addErr(name + " is not a valid integer.");
+                            return property.get();
+                        }
+
+                        if (intValue < 0) {
+                            model.status.addErr(name + " must be 0 or greater.");
+                            return property.get();
+                        }
+
+                        if (intValue > StreamingFilter.MAX_CONTEXT_LINES) {
+                            model.status.addErr(name + " must be " + StreamingFilter.MAX_CONTEXT_LINES + " or less.");
+                            return property.get();
+                        }
+
+                        return intValue;
+                    }
+
+                    @Override
+                    public String toString(Number value) {
+                        return ((Integer) value).toString();
+                    }
+                });
+    }
 }
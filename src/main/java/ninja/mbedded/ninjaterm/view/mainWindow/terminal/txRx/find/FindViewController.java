@@ -0,0 +1,268 @@
+package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.find;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.util.javafx.comDataPane.ComDataPane;
+import ninja.mbedded.ninjaterm.util.search.SearchHits;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
+
+/**
+ * Backend for the find pane, which searches the scrollback of the RX data pane.
+ *
+ * Searches run on a background thread (see <code>{@link ninja.mbedded.ninjaterm.util.search.ScrollbackSearch}</code>),
+ * and hits are shown as they are found. Jumping between hits only uses the hits already found, so it is
+ * instant. If new data has arrived since the last search, the search is re-run in the background after the jump.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class FindViewController {
+
+    //================================================================================================//
+    //========================================== FXML BINDINGS =======================================//
+    //================================================================================================//
+
+    @FXML
+    private TextField searchTextField;
+
+    @FXML
+    private Button findPreviousButton;
+
+    @FXML
+    private Button findNextButton;
+
+    @FXML
+    private Label numHitsLabel;
+
+    @FXML
+    private CheckBox matchCaseCheckBox;
+
+    @FXML
+    private CheckBox highlightAllCheckBox;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private ComDataPane comDataPane;
+
+    /**
+     * The query of the most recent search.
+     */
+    private String query = "";
+
+    /**
+     * All hits found by the most recent search. Replaced when a search is re-run because of new data.
+     */
+    private SearchHits searchHits = new SearchHits();
+
+    private boolean isSearchFinished = true;
+
+    /**
+     * Set when the text in the data pane changes, so the hits may be out-of-date.
+     */
+    private boolean isDataChangedSinceSearch = false;
+
+    /**
+     * The absolute position of the hit the user last jumped to, or -1 if there is none.
+     */
+    private long currHitPos = -1;
+
+    /**
+     * Set to 1 (next) or -1 (previous) if the user tried to jump to a hit before any hits were found. The jump
+     * happens as soon as the first hits arrive.
+     */
+    private int pendingJumpDirection = 0;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public FindViewController() {
+    }
+
+    public void init(Model model, Terminal terminal, ComDataPane comDataPane) {
+
+        this.comDataPane = comDataPane;
+
+        searchTextField.textProperty().addListener((observable, oldValue, newValue) -> {
+            runSearch(false);
+        });
+
+        matchCaseCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            runSearch(false);
+        });
+
+        highlightAllCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            updateHighlights();
+        });
+
+        // Enter jumps to the next hit, Shift-Enter to the previous one, and Escape ends the search
+        searchTextField.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.ENTER) {
+                if (event.isShiftDown())
+                    findPrevious();
+                else
+                    findNext();
+                event.consume();
+            } else if (event.getCode() == KeyCode.ESCAPE) {
+                searchTextField.setText("");
+                event.consume();
+            }
+        });
+
+        findNextButton.setOnAction(event -> {
+            findNext();
+        });
+
+        findPreviousButton.setOnAction(event -> {
+            findPrevious();
+        });
+
+        comDataPane.currNumChars.addListener((observable, oldValue, newValue) -> {
+            isDataChangedSinceSearch = true;
+        });
+
+        TooltipUtil.addDefaultTooltip(searchTextField, "Searches the RX data for this text. Press Enter for the next match, or Shift-Enter for the previous match.");
+        TooltipUtil.addDefaultTooltip(highlightAllCheckBox, "If ticked, all matches in the RX data are highlighted, not just the current one.");
+
+        updateNumHitsLabel();
+    }
+
+    /**
+     * Moves keyboard focus to the search text field, selecting any existing text.
+     */
+    public void focusSearchTextField() {
+        searchTextField.requestFocus();
+        searchTextField.selectAll();
+    }
+
+    /**
+     * Starts a new background search with the current query.
+     *
+     * @param keepCurrHit   If true, the existing hits (and the current hit) are kept until the search is finished.
+     *                      This is used to refresh the hits when new data has arrived.
+     */
+    private void runSearch(boolean keepCurrHit) {
+
+        final SearchHits newSearchHits;
+        if (keepCurrHit) {
+            newSearchHits = new SearchHits();
+        } else {
+            searchHits.clear();
+            newSearchHits = searchHits;
+            currHitPos = -1;
+            pendingJumpDirection = 0;
+            query = searchTextField.getText();
+            comDataPane.clearSearchHighlights();
+        }
+
+        isDataChangedSinceSearch = false;
+
+        if (query.isEmpty()) {
+            comDataPane.scrollbackSearch.cancelSearch();
+            isSearchFinished = true;
+            updateNumHitsLabel();
+            return;
+        }
+
+        isSearchFinished = false;
+        updateNumHitsLabel();
+
+        comDataPane.scrollbackSearch.search(query, matchCaseCheckBox.isSelected(), (hitPositions, isFinished) -> {
+            newSearchHits.addAll(hitPositions, hitPositions.length);
+
+            if (isFinished) {
+                searchHits = newSearchHits;
+                isSearchFinished = true;
+            }
+
+            if (pendingJumpDirection != 0 && searchHits.size() != 0) {
+                jump(pendingJumpDirection);
+            } else if (isFinished) {
+                updateHighlights();
+            }
+
+            updateNumHitsLabel();
+        });
+    }
+
+    private void findNext() {
+        jump(1);
+    }
+
+    private void findPrevious() {
+        jump(-1);
+    }
+
+    /**
+     * Jumps to the next (direction = 1) or previous (direction = -1) hit, relative to the current hit.
+     */
+    private void jump(int direction) {
+
+        if (query.isEmpty())
+            return;
+
+        // Hits in text which has been trimmed from the pane can't be jumped to
+        searchHits.removeBefore(comDataPane.getStartPos());
+
+        final int hitIndex;
+        if (direction > 0)
+            hitIndex = searchHits.indexOfNext((currHitPos >= 0) ? currHitPos : comDataPane.getStartPos() - 1);
+        else
+            hitIndex = searchHits.indexOfPrevious((currHitPos >= 0) ? currHitPos : Long.MAX_VALUE);
+
+        if (hitIndex < 0) {
+            // Nothing found yet, so jump once the first hits arrive
+            if (!isSearchFinished)
+                pendingJumpDirection = direction;
+        } else {
+            pendingJumpDirection = 0;
+            currHitPos = searchHits.get(hitIndex);
+            comDataPane.scrollToPos(currHitPos);
+            updateHighlights();
+            updateNumHitsLabel();
+        }
+
+        if (isDataChangedSinceSearch && isSearchFinished)
+            runSearch(true);
+    }
+
+    private void updateHighlights() {
+        if (query.isEmpty()) {
+            comDataPane.clearSearchHighlights();
+            return;
+        }
+
+        comDataPane.setSearchHighlights(
+                searchHits,
+                query.length(),
+                (currHitPos >= 0) ? searchHits.indexOf(currHitPos) : -1,
+                highlightAllCheckBox.isSelected());
+    }
+
+    private void updateNumHitsLabel() {
+        if (query.isEmpty()) {
+            numHitsLabel.setText("");
+            return;
+        }
+
+        final String numHits = searchHits.size() + (isSearchFinished ? "" : "+");
+
+        if (isSearchFinished && searchHits.size() == 0) {
+            numHitsLabel.setText("No matches");
+        } else if (currHitPos >= 0 && searchHits.indexOf(currHitPos) >= 0) {
+            numHitsLabel.setText((searchHits.indexOf(currHitPos) + 1) + " of " + numHits);
+        } else {
+            numHitsLabel.setText(numHits + " matches");
+        }
+    }
+}
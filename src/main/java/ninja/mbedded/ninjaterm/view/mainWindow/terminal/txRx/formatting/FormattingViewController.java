@@ -12,6 +12,7 @@ import ninja.mbedded.ninjaterm.model.terminal.txRx.formatting.Formatting;
 import ninja.mbedded.ninjaterm.util.javafx.applyTextField.ApplyTextField;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.util.rxProcessing.Decoding.DecodingOptions;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
 import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
 import org.slf4j.Logger;
 
@@ -19,7 +20,7 @@ import org.slf4j.Logger;
  * Controller for the formatting pop-up window.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-25
+ * @last-modified 2026-10-18
  * @since 2016-09-26
  */
 public class FormattingViewController {
@@ -68,6 +69,9 @@ public class FormattingViewController {
     @FXML
     private CheckBox timeStampCheckBox;
 
+    @FXML
+    private ComboBox<TimeStampFormatter.Modes> timeStampModeComboBox;
+
     //================================================================================================//
     //=========================================== CLASS FIELDS =======================================//
     //================================================================================================//
@@ -149,5 +153,11 @@ public class FormattingViewController {
 
         timeStampCheckBox.selectedProperty().bindBidirectional(terminal.txRx.formatting.isTimeStampingEnabled);
 
+        timeStampModeComboBox.getItems().setAll(TimeStampFormatter.Modes.values());
+        timeStampModeComboBox.getSelectionModel().select(terminal.txRx.formatting.selTimeStampMode.get());
+        terminal.txRx.formatting.selTimeStampMode.bind(timeStampModeComboBox.getSelectionModel().selectedItemProperty());
+
+        TooltipUtil.addDefaultTooltip(timeStampModeComboBox, "Absolute shows the date and time each line was received. \"Since port opened\" shows the time since the COM port was opened. \"Delta since previous line\" shows the time between each line and the one before it.");
+
     }
 }
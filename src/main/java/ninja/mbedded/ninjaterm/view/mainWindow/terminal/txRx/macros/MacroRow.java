@@ -1,5 +1,7 @@
 package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.macros;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -23,7 +25,7 @@ import java.io.IOException;
  * Represents a single row in the macro GridPane.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-08
+ * @last-modified 2026-10-18
  * @since 2016-11-05
  */
 public class MacroRow {
@@ -36,6 +38,13 @@ public class MacroRow {
     public TextField nameTextField = new TextField();
     public TextField sequenceTextField = new TextField();
     public Button runButton = new Button();
+    public Button repeatButton = new Button();
+
+    /**
+     * Held here (and added to the macro as a weak listener), so that rows which have been removed from the
+     * macro pane do not keep listening to the macro.
+     */
+    private ChangeListener<Boolean> isRepeatingListener;
 
     public MacroRow(Model model, Terminal terminal, Macro macro, GlyphFont glyphFont) {
 
@@ -81,11 +90,50 @@ public class MacroRow {
         //==============================================//
 
         runButton.setOnAction(event -> {
-            terminal.txRx.macroManager.runMacro(macro);
+            // Pressing the button of a running script stops it
+            if (terminal.txRx.macroManager.runningScriptMacro.get() == macro)
+                terminal.txRx.macroManager.stopScript();
+            else
+                terminal.txRx.macroManager.runMacro(macro);
+        });
+        updateRunButton(terminal.txRx.macroManager.runningScriptMacro.get());
+        TooltipUtil.addDefaultTooltip(runButton, "Click to run the macro. If the macro is a script which is running, click to stop it.");
+
+        //==============================================//
+        //============= REPEAT BUTTON SETUP ============//
+        //==============================================//
+
+        repeatButton.setOnAction(event -> {
+            if (macro.isRepeating.get())
+                terminal.txRx.macroManager.stopRepeating(macro);
+            else
+                terminal.txRx.macroManager.startRepeating(macro);
         });
-        runButton.setGraphic(glyphFont.create(FontAwesome.Glyph.SHARE_SQUARE));
-        TooltipUtil.addDefaultTooltip(runButton, "Click to run the macro.");
+        isRepeatingListener = (observable, oldValue, newValue) -> {
+            updateRepeatButton();
+        };
+        macro.isRepeating.addListener(new WeakChangeListener<>(isRepeatingListener));
+        updateRepeatButton();
+        TooltipUtil.addDefaultTooltip(repeatButton, "Click to start sending the macro periodically (the period can be changed by double-clicking the macro name). Click again to stop.");
+
+    }
+
+    /**
+     * Shows a stop icon on the run button while this row's macro is the running script.
+     * @param runningScriptMacro    The macro whose script is running, or null.
+     */
+    public void updateRunButton(Macro runningScriptMacro) {
+        if (runningScriptMacro == macro)
+            runButton.setGraphic(glyphFont.create(FontAwesome.Glyph.STOP));
+        else
+            runButton.setGraphic(glyphFont.create(FontAwesome.Glyph.SHARE_SQUARE));
+    }
 
+    private void updateRepeatButton() {
+        if (macro.isRepeating.get())
+            repeatButton.setGraphic(glyphFont.create(FontAwesome.Glyph.STOP));
+        else
+            repeatButton.setGraphic(glyphFont.create(FontAwesome.Glyph.REPEAT));
     }
 
     public void showMacrosManagerWindow() {
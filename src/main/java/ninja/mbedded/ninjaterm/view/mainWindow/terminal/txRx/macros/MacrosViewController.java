@@ -1,16 +1,23 @@
 package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.macros;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.macros.Macro;
 import ninja.mbedded.ninjaterm.util.javafx.GridPaneHelper;
+import ninja.mbedded.ninjaterm.util.periodicSender.JitterHistogram;
+import ninja.mbedded.ninjaterm.util.periodicSender.PeriodicSendStats;
 import org.controlsfx.glyphfont.GlyphFont;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ListIterator;
 
 /**
@@ -18,7 +25,7 @@ import java.util.ListIterator;
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since 2016-11-05
- * @last-modified 2016-11-14
+ * @last-modified 2026-10-18
  */
 public class MacrosViewController {
 
@@ -29,6 +36,12 @@ public class MacrosViewController {
     @FXML
     private GridPane macroGridPane;
 
+    @FXML
+    private Label scriptStatusLabel;
+
+    @FXML
+    private Label repeatStatsLabel;
+
 
     //================================================================================================//
     //=========================================== CLASS FIELDS =======================================//
@@ -38,6 +51,14 @@ public class MacrosViewController {
     Terminal terminal;
     GlyphFont glyphFont;
 
+    private List<MacroRow> macroRows = new ArrayList<>();
+
+    /**
+     * Added to every macro as a weak listener, so that macros which have been removed can be garbage collected.
+     */
+    private InvalidationListener repeatStatsListener = observable -> updateRepeatStatsLabel();
+    private WeakInvalidationListener weakRepeatStatsListener = new WeakInvalidationListener(repeatStatsListener);
+
     //================================================================================================//
     //========================================== CLASS METHODS =======================================//
     //================================================================================================//
@@ -59,6 +80,25 @@ public class MacrosViewController {
 
         redrawMacroGridPane();
 
+        //==============================================//
+        //========== SCRIPT STATUS LABEL SETUP =========//
+        //==============================================//
+
+        terminal.txRx.macroManager.runningScriptMacro.addListener((observable, oldValue, newValue) -> {
+            for (MacroRow macroRow : macroRows) {
+                macroRow.updateRunButton(newValue);
+            }
+            updateScriptStatusLabel();
+        });
+        terminal.txRx.macroManager.currScriptLineNum.addListener((observable, oldValue, newValue) -> {
+            updateScriptStatusLabel();
+        });
+        terminal.txRx.macroManager.maxStepLatencyUs.addListener((observable, oldValue, newValue) -> {
+            updateScriptStatusLabel();
+        });
+        updateScriptStatusLabel();
+        updateRepeatStatsLabel();
+
     }
 
     public void redrawMacroGridPane() {
@@ -73,13 +113,72 @@ public class MacrosViewController {
         }
 
         // Repopulate GridPane with macro rows
+        macroRows.clear();
         for(Macro macro : terminal.txRx.macroManager.macros) {
 
             MacroRow macroRow = new MacroRow(model, terminal, macro, glyphFont);
-            macroGridPane.addRow(GridPaneHelper.getNumRows(macroGridPane), macroRow.nameTextField, macroRow.sequenceTextField, macroRow.runButton);
+            macroRows.add(macroRow);
+            macroGridPane.addRow(GridPaneHelper.getNumRows(macroGridPane), macroRow.nameTextField, macroRow.sequenceTextField, macroRow.runButton, macroRow.repeatButton);
+
+            // Removed first, so the listener is not added twice when the grid is redrawn with the same macros
+            macro.repeatStats.removeListener(weakRepeatStatsListener);
+            macro.isRepeating.removeListener(weakRepeatStatsListener);
+            macro.repeatStats.addListener(weakRepeatStatsListener);
+            macro.isRepeating.addListener(weakRepeatStatsListener);
 
         }
 
 
     }
+
+    private void updateScriptStatusLabel() {
+        Macro runningScriptMacro = terminal.txRx.macroManager.runningScriptMacro.get();
+
+        scriptStatusLabel.setVisible(runningScriptMacro != null);
+        scriptStatusLabel.setManaged(runningScriptMacro != null);
+        if (runningScriptMacro == null)
+            return;
+
+        scriptStatusLabel.setText(String.format("Running \"%s\" (line %d). Step latency: avg %.0fus, max %.0fus.",
+                runningScriptMacro.name.get(),
+                terminal.txRx.macroManager.currScriptLineNum.get(),
+                terminal.txRx.macroManager.avgStepLatencyUs.get(),
+                terminal.txRx.macroManager.maxStepLatencyUs.get()));
+    }
+
+    /**
+     * Shows the period and jitter histogram of every macro which is being sent periodically, one per line.
+     */
+    private void updateRepeatStatsLabel() {
+        StringBuilder text = new StringBuilder();
+
+        for (Macro macro : terminal.txRx.macroManager.macros) {
+            PeriodicSendStats stats = macro.repeatStats.get();
+            if (!macro.isRepeating.get() || stats == null)
+                continue;
+
+            if (text.length() != 0)
+                text.append("\n");
+
+            text.append(String.format("\"%s\" every %dms: sent %d, missed %d. Period (min/avg/max) = %.3f/%.3f/%.3fms. Jitter:",
+                    macro.name.get(),
+                    macro.repeatPeriodMs.get(),
+                    stats.numSends,
+                    stats.numMissedPeriods,
+                    stats.minPeriodUs / 1000.0,
+                    stats.avgPeriodUs / 1000.0,
+                    stats.maxPeriodUs / 1000.0));
+
+            // Only the buckets which have something in them are shown, to keep the histogram short
+            for (int i = 0; i < stats.jitterCounts.length; i++) {
+                if (stats.jitterCounts[i] == 0)
+                    continue;
+                text.append(String.format(" %s %.1f%%", JitterHistogram.getBucketLabel(i), 100.0 * stats.jitterCounts[i] / stats.numSends));
+            }
+        }
+
+        repeatStatsLabel.setText(text.toString());
+        repeatStatsLabel.setVisible(text.length() != 0);
+        repeatStatsLabel.setManaged(text.length() != 0);
+    }
 }
@@ -12,6 +12,8 @@ import ninja.mbedded.ninjaterm.model.Model;
 import ninja.mbedded.ninjaterm.model.terminal.Terminal;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.macros.Encodings;
 import ninja.mbedded.ninjaterm.model.terminal.txRx.macros.Macro;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.macros.MacroManager;
+import ninja.mbedded.ninjaterm.util.javafx.applyTextField.ApplyTextField;
 import ninja.mbedded.ninjaterm.util.loggerUtils.LoggerUtils;
 import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
 import org.controlsfx.glyphfont.FontAwesome;
@@ -26,7 +28,7 @@ import org.slf4j.Logger;
  * is pressed.
  *
  * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
- * @last-modified 2016-11-11
+ * @last-modified 2026-10-18
  * @since 2016-11-08
  */
 public class MacrosManagerViewController {
@@ -54,11 +56,14 @@ public class MacrosManagerViewController {
     private ComboBox<Encodings> encodingComboBox;
 
     @FXML
-    private TextField sequenceTextField;
+    private TextArea sequenceTextArea;
 
     @FXML
     private CheckBox sendSequenceImmediatelyCheckBox;
 
+    @FXML
+    private ApplyTextField repeatPeriodTextField;
+
     @FXML
     private Button okButton;
 
@@ -179,10 +184,10 @@ public class MacrosManagerViewController {
         TooltipUtil.addDefaultTooltip(encodingComboBox, "Choose the encoding of the sequence. The entered sequence must be valid for the specified encoding.");
 
         //==============================================//
-        //=========== SEQUENCE TEXTFIELD SETUP =========//
+        //=========== SEQUENCE TEXTAREA SETUP ==========//
         //==============================================//
 
-        TooltipUtil.addDefaultTooltip(sequenceTextField, "The sequence of data to send when this macro's send button is pressed. This sequence must be valid for the chosen encoding.");
+        TooltipUtil.addDefaultTooltip(sequenceTextArea, "The sequence of data to send (or script to run) when this macro's send button is pressed. This sequence must be valid for the chosen encoding.");
 
         //==============================================//
         //== SEND SEQUENCE IMMEDIATELY CHECKBOX SETUP ==//
@@ -190,6 +195,35 @@ public class MacrosManagerViewController {
 
         TooltipUtil.addDefaultTooltip(sendSequenceImmediatelyCheckBox, "When ticked, the macro's sequence will be sent as soon as the \"send\" button is pressed. If unticked, the send behaviour will depend on the \"Send Behaviour\" in the Formatting pop-up.");
 
+        //==============================================//
+        //========= REPEAT PERIOD TEXTFIELD SETUP ======//
+        //==============================================//
+
+        repeatPeriodTextField.onApply.addListener((observable, oldValue, newValue) -> {
+            Macro selMacro = macrosListView.getSelectionModel().getSelectedItem();
+            if (selMacro == null)
+                return;
+
+            int repeatPeriodMs;
+            try {
+                repeatPeriodMs = Integer.parseInt(newValue.trim());
+            } catch (NumberFormatException e) {
+                model.status.addErr("Repeat period is not a valid integer.");
+                repeatPeriodTextField.setText(Integer.toString(selMacro.repeatPeriodMs.get()));
+                return;
+            }
+
+            if (repeatPeriodMs < MacroManager.MIN_REPEAT_PERIOD_MS) {
+                model.status.addErr("Repeat period must be " + MacroManager.MIN_REPEAT_PERIOD_MS + "ms or greater.");
+                repeatPeriodTextField.setText(Integer.toString(selMacro.repeatPeriodMs.get()));
+                return;
+            }
+
+            selMacro.repeatPeriodMs.set(repeatPeriodMs);
+        });
+
+        TooltipUtil.addDefaultTooltip(repeatPeriodTextField, "The time between sends when this macro is sent periodically with its repeat button. Changes take effect the next time the macro is started.");
+
         //==============================================//
         //=============== OK BUTTON SETUP ==============//
         //==============================================//
@@ -232,7 +266,7 @@ public class MacrosManagerViewController {
         if(oldMacro != null) {
             nameTextField.textProperty().unbindBidirectional(oldMacro.name);
             oldMacro.encoding.unbind();
-            sequenceTextField.textProperty().unbindBidirectional(oldMacro.sequence);
+            sequenceTextArea.textProperty().unbindBidirectional(oldMacro.sequence);
             sendSequenceImmediatelyCheckBox.selectedProperty().unbindBidirectional(oldMacro.sendSequenceImmediately);
         }
 
@@ -240,8 +274,9 @@ public class MacrosManagerViewController {
         nameTextField.textProperty().bindBidirectional(newMacro.name);
         encodingComboBox.getSelectionModel().select(newMacro.encoding.get());
         newMacro.encoding.bind(encodingComboBox.getSelectionModel().selectedItemProperty());
-        sequenceTextField.textProperty().bindBidirectional(newMacro.sequence);
+        sequenceTextArea.textProperty().bindBidirectional(newMacro.sequence);
         sendSequenceImmediatelyCheckBox.selectedProperty().bindBidirectional(newMacro.sendSequenceImmediately);
+        repeatPeriodTextField.setText(Integer.toString(newMacro.repeatPeriodMs.get()));
     }
 
     private void addNewMacro() {
@@ -0,0 +1,177 @@
+package ninja.mbedded.ninjaterm.view.mainWindow.terminal.txRx.sendFile;
+
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.stage.FileChooser;
+import ninja.mbedded.ninjaterm.model.Model;
+import ninja.mbedded.ninjaterm.model.terminal.Terminal;
+import ninja.mbedded.ninjaterm.model.terminal.txRx.sendFile.SendFile;
+import ninja.mbedded.ninjaterm.util.javafx.applyTextField.ApplyTextField;
+import ninja.mbedded.ninjaterm.util.tooltip.TooltipUtil;
+
+import java.io.File;
+
+/**
+ * Backend for the send file pane, which streams a file out of the COM port.
+ *
+ * @author Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since 2026-10-18
+ * @last-modified 2026-10-18
+ */
+public class SendFileViewController {
+
+    //================================================================================================//
+    //========================================== FXML BINDINGS =======================================//
+    //================================================================================================//
+
+    @FXML
+    private ApplyTextField chunkSizeTextField;
+
+    @FXML
+    private ApplyTextField chunkDelayTextField;
+
+    @FXML
+    private ApplyTextField lineDelayTextField;
+
+    @FXML
+    private Button sendFileButton;
+
+    @FXML
+    private Button cancelButton;
+
+    @FXML
+    private ProgressBar progressBar;
+
+    @FXML
+    private Label progressLabel;
+
+    //================================================================================================//
+    //=========================================== CLASS FIELDS =======================================//
+    //================================================================================================//
+
+    private Model model;
+    private Terminal terminal;
+
+    //================================================================================================//
+    //========================================== CLASS METHODS =======================================//
+    //================================================================================================//
+
+    public SendFileViewController() {
+    }
+
+    public void init(Model model, Terminal terminal) {
+
+        this.model = model;
+        this.terminal = terminal;
+
+        final SendFile sendFile = terminal.txRx.sendFile;
+
+        //==============================================//
+        //================ SETTINGS SETUP ==============//
+        //==============================================//
+
+        setupIntegerTextField(chunkSizeTextField, sendFile.chunkSizeBytes, "Chunk size", 1);
+        setupIntegerTextField(chunkDelayTextField, sendFile.chunkDelayMs, "Chunk delay", 0);
+        setupIntegerTextField(lineDelayTextField, sendFile.lineDelayMs, "Line delay", 0);
+
+        TooltipUtil.addDefaultTooltip(chunkSizeTextField, "The max. number of bytes written to the COM port at once.");
+        TooltipUtil.addDefaultTooltip(chunkDelayTextField, "The time to wait after each chunk is sent. Use this if the device cannot keep up with data sent at the full baud rate.");
+        TooltipUtil.addDefaultTooltip(lineDelayTextField, "The time to wait after each new line character is sent. Use this if the device needs time to process each line.");
+
+        //==============================================//
+        //================ BUTTONS SETUP ===============//
+        //==============================================//
+
+        sendFileButton.setOnAction(event -> {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Select File To Send");
+            File selectedFile = fileChooser.showOpenDialog(sendFileButton.getScene().getWindow());
+
+            // Null means the user closed the dialog without choosing a file
+            if (selectedFile == null)
+                return;
+
+            sendFile.sendFile(selectedFile);
+        });
+
+        TooltipUtil.addDefaultTooltip(sendFileButton, "Sends the contents of a file out of the COM port. The file is read as it is sent, so large files can be sent. The sent data is not shown in the TX pane.");
+
+        cancelButton.setOnAction(event -> {
+            sendFile.cancel();
+        });
+
+        //==============================================//
+        //================ PROGRESS SETUP ==============//
+        //==============================================//
+
+        sendFile.isSending.addListener((observable, oldValue, newValue) -> {
+            updateControls();
+        });
+
+        sendFile.numBytesSent.addListener((observable, oldValue, newValue) -> {
+            updateProgress();
+        });
+
+        updateControls();
+        updateProgress();
+    }
+
+    /**
+     * Binds an integer setting to a text field. Invalid values are rejected with an error message, and the
+     * previous value is restored.
+     */
+    private void setupIntegerTextField(ApplyTextField textField, SimpleIntegerProperty property, String name, int minValue) {
+
+        textField.setText(Integer.toString(property.get()));
+
+        textField.onApply.addListener((observable, oldValue, newValue) -> {
+            int intValue;
+            try {
+                intValue = Integer.parseInt(newValue.trim());
+            } catch (NumberFormatException e) {
+                model.status.addErr(name + " is not a valid integer.");
+                textField.setText(Integer.toString(property.get()));
+                return;
+            }
+
+            if (intValue < minValue) {
+                model.status.addErr(name + " must be " + minValue + " or greater.");
+                textField.setText(Integer.toString(property.get()));
+                return;
+            }
+
+            property.set(intValue);
+        });
+    }
+
+    private void updateControls() {
+        final boolean isSending = terminal.txRx.sendFile.isSending.get();
+
+        sendFileButton.setDisable(isSending);
+        cancelButton.setDisable(!isSending);
+
+        // The settings are only read at the start of a send
+        chunkSizeTextField.setDisable(isSending);
+        chunkDelayTextField.setDisable(isSending);
+        lineDelayTextField.setDisable(isSending);
+    }
+
+    private void updateProgress() {
+        final SendFile sendFile = terminal.txRx.sendFile;
+
+        if (sendFile.totalNumBytes.get() == 0) {
+            progressBar.setProgress(0.0);
+            progressLabel.setText("");
+            return;
+        }
+
+        progressBar.setProgress(sendFile.numBytesSent.get() / (double) sendFile.totalNumBytes.get());
+        progressLabel.setText(String.format("%d / %d bytes (%.1f kB/s)",
+                sendFile.numBytesSent.get(),
+                sendFile.totalNumBytes.get(),
+                sendFile.bytesPerSecond.get() / 1000.0));
+    }
+}
@@ -0,0 +1,404 @@
+package ninja.mbedded.ninjaterm.util.asyncLogWriter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link AsyncLogWriter}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class AsyncLogWriterTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    private volatile LogWriterStats lastStats;
+
+    private CountDownLatch doneLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        file = temporaryFolder.newFile("log.txt");
+        doneLatch = new CountDownLatch(1);
+    }
+
+    @Test
+    public void writeAndCloseTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc");
+        asyncLogWriter.write("def\r\n");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(LogWriterStats.States.CLOSED, lastStats.state);
+        assertEquals(8, lastStats.numCharsWritten);
+        assertEquals(0, lastStats.backlogChars);
+        assertEquals(0, lastStats.numCharsDropped);
+        assertEquals("abcdef\r\n", readFile());
+    }
+
+    @Test
+    public void writeBytesTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        byte[] buffer = "xxabcxx".getBytes("UTF-8");
+        asyncLogWriter.write(buffer, 2, 3);
+
+        // The writer should of copied the bytes, so the buffer can be re-used straight away
+        Arrays.fill(buffer, (byte) 'y');
+        asyncLogWriter.write(buffer, 0, 2);
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(LogWriterStats.States.CLOSED, lastStats.state);
+        assertEquals(5, lastStats.numCharsWritten);
+        assertEquals("abcyy", readFile());
+    }
+
+    @Test
+    public void writeUtf8Test() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("a\u00B0b\u20AC");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // Sizes are counted in encoded bytes
+        assertEquals(7, lastStats.numCharsWritten);
+        assertEquals("a\u00B0b\u20AC", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void flushPeriodicallyWaitsForPeriodTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc\n");
+        Thread.sleep(200);
+
+        // The flush period has not passed yet, so nothing should of been written
+        assertEquals("", readFile());
+
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        assertEquals("abc\n", readFile());
+    }
+
+    @Test
+    public void flushPeriodicallyWritesAfterPeriodTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 20);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc");
+
+        assertTrue(waitForFileContents("abc"));
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void flushOnNewLineTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_ON_NEW_LINE, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc");
+        asyncLogWriter.write("def\n");
+
+        // The new line wakes the writer up, even though the flush period is long
+        assertTrue(waitForFileContents("abcdef\n"));
+
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(LogWriterStats.States.CLOSED, lastStats.state);
+    }
+
+    @Test
+    public void groupCommitSizeTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < AsyncLogWriter.GROUP_COMMIT_SIZE_CHARS / 4; i++) {
+            asyncLogWriter.write("abcd");
+            expected.append("abcd");
+        }
+
+        // Enough data is queued to be written straight away, even though the flush period is long
+        assertTrue(waitForFileContents(expected.toString()));
+
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dropsDataWhenBacklogFullTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000);
+        asyncLogWriter.maxBacklogChars = 5;
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc");
+        asyncLogWriter.write("def");
+        asyncLogWriter.write("gh");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(3, lastStats.numCharsDropped);
+        assertEquals("abcgh", readFile());
+    }
+
+    @Test
+    public void appendTest() throws Exception {
+        Files.write(file.toPath(), "old\n".getBytes());
+
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_ON_NEW_LINE, 1000);
+        asyncLogWriter.open(file, true, this::handleStats);
+        asyncLogWriter.write("new\n");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals("old\nnew\n", readFile());
+    }
+
+    @Test
+    public void overwriteTest() throws Exception {
+        Files.write(file.toPath(), "old\n".getBytes());
+
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_ON_NEW_LINE, 1000);
+        asyncLogWriter.open(file, false, this::handleStats);
+        asyncLogWriter.write("new\n");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals("new\n", readFile());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFlushPeriodTest() throws Exception {
+        new AsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void openTwiceTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 1000);
+        asyncLogWriter.open(file, false, this::handleStats);
+        try {
+            asyncLogWriter.open(file, false, this::handleStats);
+        } finally {
+            asyncLogWriter.close();
+        }
+    }
+
+    @Test
+    public void rotateOnNumLinesTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000,
+                new LogRotationPolicy(0, 0, 2, 0));
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("1\n2\n3\n4\n5");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(LogWriterStats.States.CLOSED, lastStats.state);
+        assertEquals(2, lastStats.numFilesRotated);
+        assertEquals(0, lastStats.numCompressionFailures);
+
+        File[] rotatedFiles = getRotatedFiles();
+        assertEquals(2, rotatedFiles.length);
+        assertEquals("1\n2\n", readCompressedFile(rotatedFiles[0]));
+        assertEquals("3\n4\n", readCompressedFile(rotatedFiles[1]));
+        assertEquals("5", readFile());
+    }
+
+    @Test
+    public void rotateOnSizeSplitsAtNewLineTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000,
+                new LogRotationPolicy(10, 0, 0, 0));
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc\ndefg\nhijklmnopqrs\n");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // Lines are kept whole where they fit, and long lines are split at the size limit
+        File[] rotatedFiles = getRotatedFiles();
+        assertEquals(2, rotatedFiles.length);
+        assertEquals("abc\ndefg\n", readCompressedFile(rotatedFiles[0]));
+        assertEquals("hijklmnopq", readCompressedFile(rotatedFiles[1]));
+        assertEquals("rs\n", readFile());
+    }
+
+    @Test
+    public void rotateOnAgeTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_ON_NEW_LINE, 10000,
+                new LogRotationPolicy(0, 50, 0, 0));
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("abc\n");
+
+        final long endTimeNs = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (getRotatedFiles().length == 0 && System.nanoTime() < endTimeNs) {
+            Thread.sleep(5);
+        }
+
+        asyncLogWriter.write("def\n");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        File[] rotatedFiles = getRotatedFiles();
+        assertEquals(1, rotatedFiles.length);
+        assertEquals("abc\n", readCompressedFile(rotatedFiles[0]));
+        assertEquals("def\n", readFile());
+    }
+
+    @Test
+    public void maxNumRotatedFilesTest() throws Exception {
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000,
+                new LogRotationPolicy(0, 0, 1, 2));
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("1\n2\n3\n4\n5\n6");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // Only the newest rotated files are kept
+        assertEquals(5, lastStats.numFilesRotated);
+        File[] rotatedFiles = getRotatedFiles();
+        assertEquals(2, rotatedFiles.length);
+        assertEquals("4\n", readCompressedFile(rotatedFiles[0]));
+        assertEquals("5\n", readCompressedFile(rotatedFiles[1]));
+        assertEquals("6", readFile());
+    }
+
+    @Test
+    public void maxNumRotatedFilesCountsExistingFilesTest() throws Exception {
+        // Left behind by an earlier session, and deliberately created out of order
+        writeCompressedFile(new File(temporaryFolder.getRoot(), "log.2000-01-01-00-00-00-2.txt.gz"), "b\n");
+        writeCompressedFile(new File(temporaryFolder.getRoot(), "log.2000-01-01-00-00-00.txt.gz"), "a\n");
+        writeCompressedFile(new File(temporaryFolder.getRoot(), "log.1999-12-31-23-59-59.txt.gz"), "0\n");
+
+        AsyncLogWriter asyncLogWriter = createAsyncLogWriter(DurabilityModes.FLUSH_PERIODICALLY, 10000,
+                new LogRotationPolicy(0, 0, 1, 2));
+        asyncLogWriter.open(file, false, this::handleStats);
+
+        asyncLogWriter.write("1\n2");
+        asyncLogWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // The oldest existing files are deleted to make room for the new one
+        assertEquals(1, lastStats.numFilesRotated);
+        File[] rotatedFiles = getRotatedFiles();
+        assertEquals(2, rotatedFiles.length);
+        assertEquals("b\n", readCompressedFile(rotatedFiles[0]));
+        assertEquals("1\n", readCompressedFile(rotatedFiles[1]));
+        assertEquals("2", readFile());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeRotationLimitTest() throws Exception {
+        new LogRotationPolicy(-1, 0, 0, 0);
+    }
+
+    private AsyncLogWriter createAsyncLogWriter(DurabilityModes durabilityMode, long flushPeriodMs) {
+        return createAsyncLogWriter(durabilityMode, flushPeriodMs, LogRotationPolicy.NONE);
+    }
+
+    private AsyncLogWriter createAsyncLogWriter(DurabilityModes durabilityMode, long flushPeriodMs, LogRotationPolicy logRotationPolicy) {
+        AsyncLogWriter asyncLogWriter = new AsyncLogWriter(durabilityMode, flushPeriodMs, logRotationPolicy);
+        asyncLogWriter.uiThreadExecutor = Runnable::run;
+        return asyncLogWriter;
+    }
+
+    private void handleStats(LogWriterStats logWriterStats) {
+        lastStats = logWriterStats;
+        if (logWriterStats.isDone())
+            doneLatch.countDown();
+    }
+
+    private String readFile() throws Exception {
+        return new String(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * @return The rotated files, oldest first.
+     */
+    private File[] getRotatedFiles() {
+        File[] rotatedFiles = temporaryFolder.getRoot().listFiles((dir, name) -> name.endsWith(".gz"));
+        Arrays.sort(rotatedFiles, (a, b) -> {
+            int result = getRotatedTimestamp(a).compareTo(getRotatedTimestamp(b));
+            return (result != 0) ? result : Integer.compare(getRotatedNumber(a), getRotatedNumber(b));
+        });
+        return rotatedFiles;
+    }
+
+    /**
+     * Rotated files are named "log.<timestamp>[-<number>].txt.gz", where the timestamp has 6 parts separated by '-'.
+     */
+    private String getRotatedTimestamp(File rotatedFile) {
+        String[] parts = rotatedFile.getName().split("\\.")[1].split("-");
+        return String.join("-", Arrays.copyOfRange(parts, 0, 6));
+    }
+
+    private int getRotatedNumber(File rotatedFile) {
+        String[] parts = rotatedFile.getName().split("\\.")[1].split("-");
+        return (parts.length > 6) ? Integer.parseInt(parts[6]) : 1;
+    }
+
+    private String readCompressedFile(File compressedFile) throws Exception {
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(compressedFile))) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int numBytesRead;
+            while ((numBytesRead = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, numBytesRead);
+            }
+            return new String(outputStream.toByteArray());
+        }
+    }
+
+    private void writeCompressedFile(File compressedFile, String contents) throws Exception {
+        try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(compressedFile))) {
+            outputStream.write(contents.getBytes());
+        }
+    }
+
+    /**
+     * Polls the file until it has the expected contents, or a few seconds pass.
+     */
+    private boolean waitForFileContents(String expected) throws Exception {
+        final long endTimeNs = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < endTimeNs) {
+            if (readFile().equals(expected))
+                return true;
+            Thread.sleep(5);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,226 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link CaptureReplayer}</code> class.
+ *
+ * The capture files are written directly (rather than with a <code>{@link CaptureWriter}</code>) so that the
+ * timestamps are known. The replays run on the replayer's real thread, so the limits on the timing are kept loose
+ * enough to pass on a busy machine.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class CaptureReplayerTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    private CaptureReplayer captureReplayer;
+
+    /**
+     * All data passed to the sink.
+     */
+    private ByteArrayOutputStream replayedData;
+
+    private volatile ReplayProgress lastProgress;
+
+    private CountDownLatch doneLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        file = temporaryFolder.newFile("capture.ntcap");
+        replayedData = new ByteArrayOutputStream();
+        doneLatch = new CountDownLatch(1);
+
+        captureReplayer = new CaptureReplayer(rxData -> {
+            synchronized (replayedData) {
+                replayedData.write(rxData, 0, rxData.length);
+            }
+        });
+        captureReplayer.uiThreadExecutor = Runnable::run;
+    }
+
+    @Test
+    public void maxSpeedTest() throws Exception {
+        writeCapture(
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "ab".getBytes()),
+                new CaptureRecord(ms(1000), CaptureDirections.TX, "COM1", "tx".getBytes()),
+                new CaptureRecord(ms(10000), CaptureDirections.RX, "COM1", "cd".getBytes()));
+
+        captureReplayer.start(file, CaptureReplayer.MAX_SPEED, this::handleProgress);
+        assertTrue(doneLatch.await(2, TimeUnit.SECONDS));
+
+        // TX data is skipped
+        assertEquals(ReplayProgress.States.FINISHED, lastProgress.state);
+        assertEquals("abcd", getReplayedData());
+        assertEquals(2, lastProgress.numRecordsReplayed);
+        assertEquals(4, lastProgress.numBytesReplayed);
+        assertEquals(10000.0, lastProgress.captureTimeMs, 0.001);
+        assertTrue(!captureReplayer.isRunning());
+    }
+
+    @Test
+    public void maxSpeedLargeCaptureTest() throws Exception {
+        CaptureRecord[] records = new CaptureRecord[1000];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < records.length; i++) {
+            String data = "line " + i + "\n";
+            records[i] = new CaptureRecord(ms(i * 10), CaptureDirections.RX, "COM1", data.getBytes());
+            expected.append(data);
+        }
+        writeCapture(records);
+
+        captureReplayer.start(file, CaptureReplayer.MAX_SPEED, this::handleProgress);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(ReplayProgress.States.FINISHED, lastProgress.state);
+        assertEquals(expected.toString(), getReplayedData());
+    }
+
+    @Test
+    public void realTimeTest() throws Exception {
+        writeCapture(
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "a".getBytes()),
+                new CaptureRecord(ms(100), CaptureDirections.RX, "COM1", "b".getBytes()));
+
+        final long startTimeNs = System.nanoTime();
+        captureReplayer.start(file, 1.0, this::handleProgress);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        final long durationNs = System.nanoTime() - startTimeNs;
+
+        assertEquals("ab", getReplayedData());
+        assertTrue(durationNs >= ms(100));
+    }
+
+    @Test
+    public void spedUpTest() throws Exception {
+        writeCapture(
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "a".getBytes()),
+                new CaptureRecord(ms(1000), CaptureDirections.RX, "COM1", "b".getBytes()));
+
+        final long startTimeNs = System.nanoTime();
+        captureReplayer.start(file, 10.0, this::handleProgress);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        final long durationNs = System.nanoTime() - startTimeNs;
+
+        assertEquals("ab", getReplayedData());
+        assertTrue(durationNs >= ms(100));
+        assertTrue(durationNs < ms(900));
+    }
+
+    @Test
+    public void stopTest() throws Exception {
+        writeCapture(
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "a".getBytes()),
+                new CaptureRecord(ms(60000), CaptureDirections.RX, "COM1", "b".getBytes()));
+
+        captureReplayer.start(file, 1.0, this::handleProgress);
+        Thread.sleep(50);
+        captureReplayer.stop();
+        assertTrue(doneLatch.await(2, TimeUnit.SECONDS));
+
+        assertEquals(ReplayProgress.States.CANCELLED, lastProgress.state);
+        assertEquals("a", getReplayedData());
+    }
+
+    @Test
+    public void truncatedFileTest() throws Exception {
+        writeCapture(
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "abc".getBytes()),
+                new CaptureRecord(0, CaptureDirections.RX, "COM1", "def".getBytes()));
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+
+        captureReplayer.start(file, CaptureReplayer.MAX_SPEED, this::handleProgress);
+        assertTrue(doneLatch.await(2, TimeUnit.SECONDS));
+
+        // Everything before the truncated record is still replayed
+        assertEquals(ReplayProgress.States.FAILED, lastProgress.state);
+        assertEquals("Capture file is truncated.", lastProgress.errorMsg);
+        assertEquals("abc", getReplayedData());
+    }
+
+    @Test(expected = CaptureFormatException.class)
+    public void notACaptureFileTest() throws Exception {
+        Files.write(file.toPath(), "hello, world".getBytes());
+        captureReplayer.start(file, 1.0, this::handleProgress);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSpeedTest() throws Exception {
+        writeCapture();
+        captureReplayer.start(file, 0.0, this::handleProgress);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void startTwiceTest() throws Exception {
+        writeCapture(new CaptureRecord(ms(60000), CaptureDirections.RX, "COM1", "a".getBytes()));
+        captureReplayer.start(file, 1.0, this::handleProgress);
+        try {
+            captureReplayer.start(file, 1.0, this::handleProgress);
+        } finally {
+            captureReplayer.stop();
+        }
+    }
+
+    private void handleProgress(ReplayProgress replayProgress) {
+        lastProgress = replayProgress;
+        if (replayProgress.isDone())
+            doneLatch.countDown();
+    }
+
+    private String getReplayedData() {
+        synchronized (replayedData) {
+            return new String(replayedData.toByteArray());
+        }
+    }
+
+    private static long ms(long timeMs) {
+        return TimeUnit.MILLISECONDS.toNanos(timeMs);
+    }
+
+    /**
+     * Writes a capture file containing the records (all on port 0).
+     */
+    private void writeCapture(CaptureRecord... records) throws Exception {
+        try (DataOutputStream outputStream = new DataOutputStream(new FileOutputStream(file))) {
+            CaptureFormat.writeHeader(outputStream, 0);
+
+            outputStream.writeByte(CaptureFormat.RECORD_TYPE_PORT);
+            CaptureFormat.writeVarLong(outputStream, 0);
+            CaptureFormat.writeVarLong(outputStream, 4);
+            outputStream.write("COM1".getBytes());
+
+            long lastTimestampNs = 0;
+            for (CaptureRecord record : records) {
+                outputStream.writeByte(CaptureFormat.RECORD_TYPE_DATA);
+                CaptureFormat.writeVarLong(outputStream, record.timestampNs - lastTimestampNs);
+                outputStream.writeByte(record.direction.code);
+                CaptureFormat.writeVarLong(outputStream, 0);
+                CaptureFormat.writeVarLong(outputStream, record.data.length);
+                outputStream.write(record.data);
+                lastTimestampNs = record.timestampNs;
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package ninja.mbedded.ninjaterm.util.capture;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the <code>{@link CaptureWriter}</code> class, which read the capture files back with a
+ * <code>{@link CaptureReader}</code>.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class CaptureWriterTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    private volatile CaptureWriterStats lastStats;
+
+    private CountDownLatch doneLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        file = temporaryFolder.newFile("capture.ntcap");
+        doneLatch = new CountDownLatch(1);
+    }
+
+    @Test
+    public void roundTripTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.open(file, false, this::handleStats);
+
+        captureWriter.append(CaptureDirections.TX, "COM1", "abc".getBytes());
+        Thread.sleep(5);
+        captureWriter.append(CaptureDirections.RX, "COM1", new byte[]{0x00, (byte) 0xFF, 0x0A});
+        captureWriter.append(CaptureDirections.RX, "COM2", "def".getBytes());
+        closeAndWait(captureWriter);
+
+        assertEquals(CaptureWriterStats.States.CLOSED, lastStats.state);
+        assertEquals(3, lastStats.numRecordsWritten);
+        assertEquals(9, lastStats.numBytesWritten);
+        assertEquals(0, lastStats.backlogBytes);
+
+        try (CaptureReader captureReader = new CaptureReader(file)) {
+            CaptureRecord record1 = captureReader.read();
+            assertEquals(CaptureDirections.TX, record1.direction);
+            assertEquals("COM1", record1.port);
+            assertArrayEquals("abc".getBytes(), record1.data);
+
+            CaptureRecord record2 = captureReader.read();
+            assertEquals(CaptureDirections.RX, record2.direction);
+            assertEquals("COM1", record2.port);
+            assertArrayEquals(new byte[]{0x00, (byte) 0xFF, 0x0A}, record2.data);
+            assertTrue(record2.timestampNs - record1.timestampNs >= TimeUnit.MILLISECONDS.toNanos(5));
+
+            CaptureRecord record3 = captureReader.read();
+            assertEquals("COM2", record3.port);
+            assertArrayEquals("def".getBytes(), record3.data);
+            assertTrue(record3.timestampNs >= record2.timestampNs);
+
+            assertNull(captureReader.read());
+        }
+    }
+
+    @Test
+    public void dataIsCopiedTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.open(file, false, this::handleStats);
+
+        byte[] data = "abc".getBytes();
+        captureWriter.append(CaptureDirections.RX, "COM1", data);
+        data[0] = 'x';
+        closeAndWait(captureWriter);
+
+        try (CaptureReader captureReader = new CaptureReader(file)) {
+            assertArrayEquals("abc".getBytes(), captureReader.read().data);
+        }
+    }
+
+    @Test
+    public void appendStartsNewSessionTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.open(file, false, this::handleStats);
+        captureWriter.append(CaptureDirections.RX, "COM1", "abc".getBytes());
+        closeAndWait(captureWriter);
+
+        doneLatch = new CountDownLatch(1);
+        captureWriter = createCaptureWriter();
+        captureWriter.open(file, true, this::handleStats);
+        captureWriter.append(CaptureDirections.RX, "COM3", "def".getBytes());
+        closeAndWait(captureWriter);
+
+        try (CaptureReader captureReader = new CaptureReader(file)) {
+            CaptureRecord record1 = captureReader.read();
+            assertEquals("COM1", record1.port);
+            assertArrayEquals("abc".getBytes(), record1.data);
+
+            // Port IDs start again in the second session, but time does not go backwards
+            CaptureRecord record2 = captureReader.read();
+            assertEquals("COM3", record2.port);
+            assertArrayEquals("def".getBytes(), record2.data);
+            assertTrue(record2.timestampNs >= record1.timestampNs);
+
+            assertNull(captureReader.read());
+        }
+    }
+
+    @Test
+    public void dropsDataWhenBacklogFullTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.maxBacklogBytes = 5;
+        captureWriter.open(file, false, this::handleStats);
+
+        captureWriter.append(CaptureDirections.RX, "COM1", "abc".getBytes());
+        captureWriter.append(CaptureDirections.RX, "COM1", "def".getBytes());
+        captureWriter.append(CaptureDirections.RX, "COM1", "gh".getBytes());
+        closeAndWait(captureWriter);
+
+        assertEquals(3, lastStats.numBytesDropped);
+        assertEquals(2, lastStats.numRecordsWritten);
+    }
+
+    @Test
+    public void notACaptureFileTest() throws Exception {
+        Files.write(file.toPath(), "hello, world".getBytes());
+        try {
+            new CaptureReader(file);
+            fail("Expected CaptureFormatException.");
+        } catch (CaptureFormatException e) {
+            assertEquals("Not a NinjaTerm capture file.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void truncatedFileTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.open(file, false, this::handleStats);
+        captureWriter.append(CaptureDirections.RX, "COM1", "abc".getBytes());
+        captureWriter.append(CaptureDirections.RX, "COM1", "def".getBytes());
+        closeAndWait(captureWriter);
+
+        // Cut the last data byte off
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(Arrays.copyOf(bytes, bytes.length - 1));
+        }
+
+        try (CaptureReader captureReader = new CaptureReader(file)) {
+            assertArrayEquals("abc".getBytes(), captureReader.read().data);
+            try {
+                captureReader.read();
+                fail("Expected CaptureFormatException.");
+            } catch (CaptureFormatException e) {
+                assertEquals("Capture file is truncated.", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void largeRecordTest() throws Exception {
+        CaptureWriter captureWriter = createCaptureWriter();
+        captureWriter.open(file, false, this::handleStats);
+
+        byte[] data = new byte[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        captureWriter.append(CaptureDirections.RX, "COM1", data);
+        closeAndWait(captureWriter);
+
+        try (CaptureReader captureReader = new CaptureReader(file)) {
+            assertArrayEquals(data, captureReader.read().data);
+        }
+    }
+
+    private CaptureWriter createCaptureWriter() {
+        CaptureWriter captureWriter = new CaptureWriter();
+        captureWriter.uiThreadExecutor = Runnable::run;
+        return captureWriter;
+    }
+
+    private void closeAndWait(CaptureWriter captureWriter) throws Exception {
+        captureWriter.close();
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    private void handleStats(CaptureWriterStats captureWriterStats) {
+        lastStats = captureWriterStats;
+        if (captureWriterStats.isDone())
+            doneLatch.countDown();
+    }
+}
@@ -0,0 +1,150 @@
+package ninja.mbedded.ninjaterm.util.fileSender;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link FileSender}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class FileSenderTests {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FileSender fileSender;
+
+    /**
+     * Copies of every chunk passed to the sink.
+     */
+    private List<byte[]> chunks;
+
+    private List<FileSendProgress> progressUpdates;
+
+    @Before
+    public void setUp() throws Exception {
+        chunks = new ArrayList<>();
+        progressUpdates = new ArrayList<>();
+
+        fileSender = new FileSender(chunk -> chunks.add(chunk.clone()));
+
+        // Run everything on this thread, so each send has finished by the time send() returns
+        fileSender.sendExecutor = Runnable::run;
+        fileSender.uiThreadExecutor = Runnable::run;
+    }
+
+    @Test
+    public void sendsWholeFileInChunksTest() throws Exception {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        fileSender.send(createFile(data), 64, 0, 0, progressUpdates::add);
+
+        assertArrayEquals(data, joinChunks());
+        for (byte[] chunk : chunks) {
+            assertTrue(chunk.length <= 64);
+        }
+        assertEquals(16, chunks.size());
+
+        FileSendProgress lastProgress = progressUpdates.get(progressUpdates.size() - 1);
+        assertEquals(FileSendProgress.States.FINISHED, lastProgress.state);
+        assertEquals(1000, lastProgress.numBytesSent);
+        assertEquals(1000, lastProgress.totalNumBytes);
+    }
+
+    @Test
+    public void lineDelayEndsChunksAtNewLinesTest() throws Exception {
+        byte[] data = "ab\ncdef\n\ng".getBytes();
+
+        fileSender.send(createFile(data), 4, 0, 1, progressUpdates::add);
+
+        assertArrayEquals(data, joinChunks());
+        assertEquals(5, chunks.size());
+        assertArrayEquals("ab\n".getBytes(), chunks.get(0));
+        assertArrayEquals("cdef".getBytes(), chunks.get(1));
+        assertArrayEquals("\n".getBytes(), chunks.get(2));
+        assertArrayEquals("\n".getBytes(), chunks.get(3));
+        assertArrayEquals("g".getBytes(), chunks.get(4));
+    }
+
+    @Test
+    public void emptyFileTest() throws Exception {
+        fileSender.send(createFile(new byte[0]), 64, 0, 0, progressUpdates::add);
+
+        assertEquals(0, chunks.size());
+        assertEquals(1, progressUpdates.size());
+        assertEquals(FileSendProgress.States.FINISHED, progressUpdates.get(0).state);
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        fileSender = new FileSender(chunk -> {
+            chunks.add(chunk.clone());
+            fileSender.cancel();
+        });
+        fileSender.sendExecutor = Runnable::run;
+        fileSender.uiThreadExecutor = Runnable::run;
+
+        // The delay would make this test take a long time if the cancel did not end it early
+        fileSender.send(createFile(new byte[100]), 10, 60000, 0, progressUpdates::add);
+
+        assertEquals(1, chunks.size());
+        FileSendProgress lastProgress = progressUpdates.get(progressUpdates.size() - 1);
+        assertEquals(FileSendProgress.States.CANCELLED, lastProgress.state);
+        assertEquals(10, lastProgress.numBytesSent);
+    }
+
+    @Test
+    public void sinkErrorTest() throws Exception {
+        fileSender = new FileSender(chunk -> {
+            throw new RuntimeException("Port closed.");
+        });
+        fileSender.sendExecutor = Runnable::run;
+        fileSender.uiThreadExecutor = Runnable::run;
+
+        fileSender.send(createFile(new byte[100]), 10, 0, 0, progressUpdates::add);
+
+        assertEquals(1, progressUpdates.size());
+        assertEquals(FileSendProgress.States.FAILED, progressUpdates.get(0).state);
+        assertEquals("Port closed.", progressUpdates.get(0).errorMsg);
+    }
+
+    @Test
+    public void missingFileTest() throws Exception {
+        fileSender.send(new File(temporaryFolder.getRoot(), "missing.bin"), 10, 0, 0, progressUpdates::add);
+
+        assertEquals(1, progressUpdates.size());
+        assertEquals(FileSendProgress.States.FAILED, progressUpdates.get(0).state);
+    }
+
+    private File createFile(byte[] data) throws Exception {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private byte[] joinChunks() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] chunk : chunks) {
+            output.write(chunk, 0, chunk.length);
+        }
+        return output.toByteArray();
+    }
+}
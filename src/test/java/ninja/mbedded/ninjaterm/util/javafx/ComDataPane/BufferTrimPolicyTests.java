@@ -0,0 +1,80 @@
+package ninja.mbedded.ninjaterm.util.javafx.ComDataPane;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.javafx.comDataPane.BufferTrimPolicy;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link BufferTrimPolicy}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class BufferTrimPolicyTests {
+
+    @Test
+    public void noTrimBelowHighWatermarkTest() throws Exception {
+        assertEquals(0, BufferTrimPolicy.getNumCharsToTrim(0, 100));
+        assertEquals(0, BufferTrimPolicy.getNumCharsToTrim(100, 100));
+    }
+
+    @Test
+    public void trimToLowWatermarkTest() throws Exception {
+        // Exceeding the buffer by one char should trim back down to 80%
+        assertEquals(21, BufferTrimPolicy.getNumCharsToTrim(101, 100));
+        assertEquals(70, BufferTrimPolicy.getNumCharsToTrim(150, 100));
+    }
+
+    @Test
+    public void roundUpToLineEndTest() throws Exception {
+        int[] lineLengths = { 5, 3, 10 };
+
+        // Line 0 is 6 chars including the new line, line 1 is 4
+        assertEquals(6, BufferTrimPolicy.roundUpToLineEnd(1, lineLengths.length, i -> lineLengths[i]));
+        assertEquals(6, BufferTrimPolicy.roundUpToLineEnd(6, lineLengths.length, i -> lineLengths[i]));
+        assertEquals(10, BufferTrimPolicy.roundUpToLineEnd(7, lineLengths.length, i -> lineLengths[i]));
+
+        // Trims which end in the last line can't be rounded up
+        assertEquals(12, BufferTrimPolicy.roundUpToLineEnd(12, lineLengths.length, i -> lineLengths[i]));
+        assertEquals(0, BufferTrimPolicy.roundUpToLineEnd(0, lineLengths.length, i -> lineLengths[i]));
+    }
+
+    @Test
+    public void truncatePendingDataTest() throws Exception {
+        StreamedData pendingData = new StreamedData();
+        pendingData.append("12345");
+
+        assertFalse(BufferTrimPolicy.truncatePendingData(pendingData, 5));
+        assertEquals("12345", pendingData.getText());
+
+        pendingData.append("678");
+        assertTrue(BufferTrimPolicy.truncatePendingData(pendingData, 5));
+        assertEquals("45678", pendingData.getText());
+        assertEquals(0, pendingData.getColourMarkers().size());
+    }
+
+    @Test
+    public void truncatePendingDataKeepsColourTest() throws Exception {
+        StreamedData pendingData = new StreamedData();
+        pendingData.append("123456");
+        pendingData.addMarker(new ColourMarker(1, Color.RED));
+        pendingData.addMarker(new ColourMarker(5, Color.BLUE));
+
+        assertTrue(BufferTrimPolicy.truncatePendingData(pendingData, 3));
+        assertEquals("456", pendingData.getText());
+
+        // The kept text starts in the colour set in the dropped text
+        assertEquals(2, pendingData.getColourMarkers().size());
+        assertEquals(0, pendingData.getColourMarkers().get(0).charPos);
+        assertEquals(Color.RED, pendingData.getColourMarkers().get(0).color);
+        assertEquals(2, pendingData.getColourMarkers().get(1).charPos);
+        assertEquals(Color.BLUE, pendingData.getColourMarkers().get(1).color);
+    }
+}
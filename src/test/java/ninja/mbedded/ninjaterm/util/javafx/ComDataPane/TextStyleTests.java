@@ -0,0 +1,97 @@
+package ninja.mbedded.ninjaterm.util.javafx.ComDataPane;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.javafx.comDataPane.TextStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for the <code>{@link TextStyle}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class TextStyleTests {
+
+    @Test
+    public void equalStylesInternToSameInstanceTest() throws Exception {
+
+        TextStyle style1 = TextStyle.EMPTY.updateFontSize(12).updateTextColor(Color.RED);
+        TextStyle style2 = TextStyle.EMPTY.updateFontSize(12).updateTextColor(Color.RED);
+
+        assertNotSame(style1, style2);
+        assertEquals(style1, style2);
+
+        assertSame(style1.intern(), style2.intern());
+    }
+
+    @Test
+    public void differentStylesInternToDifferentInstancesTest() throws Exception {
+
+        TextStyle red = TextStyle.EMPTY.updateFontSize(12).updateTextColor(Color.RED).intern();
+        TextStyle boldRed = red.updateBold(true).intern();
+
+        assertNotSame(red, boldRed);
+        assertSame(boldRed, TextStyle.EMPTY.updateFontSize(12).updateTextColor(Color.RED).updateBold(true).intern());
+    }
+
+    @Test
+    public void sgrBackgroundColourTest() throws Exception {
+
+        // Red on blue
+        TextStyle textStyle = TextStyle.fromSgrStyle(
+                SgrStyle.of(1, 4, 0), "Consolas", 12, Color.GREEN, Color.BLACK);
+
+        assertEquals(
+                TextStyle.EMPTY.updateFontFamily("Consolas").updateFontSize(12)
+                        .updateTextColor(SgrStyle.paletteColor(1))
+                        .updateBackgroundColor(SgrStyle.paletteColor(4)),
+                textStyle);
+    }
+
+    @Test
+    public void sgrDefaultBackgroundColourTest() throws Exception {
+
+        // The pane's background is used, so no background colour should be set
+        TextStyle textStyle = TextStyle.fromSgrStyle(
+                SgrStyle.of(1, SgrStyle.DEFAULT_COLOUR, 0), "Consolas", 12, Color.GREEN, Color.BLACK);
+
+        assertEquals(
+                TextStyle.EMPTY.updateFontFamily("Consolas").updateFontSize(12).updateTextColor(SgrStyle.paletteColor(1)),
+                textStyle);
+    }
+
+    @Test
+    public void sgrInverseTest() throws Exception {
+
+        // Inverse red on blue is blue on red
+        TextStyle textStyle = TextStyle.fromSgrStyle(
+                SgrStyle.of(1, 4, SgrStyle.ATTR_INVERSE), "Consolas", 12, Color.GREEN, Color.BLACK);
+
+        assertEquals(
+                TextStyle.EMPTY.updateFontFamily("Consolas").updateFontSize(12)
+                        .updateTextColor(SgrStyle.paletteColor(4))
+                        .updateBackgroundColor(SgrStyle.paletteColor(1)),
+                textStyle);
+    }
+
+    @Test
+    public void sgrInverseDefaultColoursTest() throws Exception {
+
+        // Inverse with default colours is the pane's background colour on it's text colour
+        TextStyle textStyle = TextStyle.fromSgrStyle(
+                SgrStyle.of(SgrStyle.DEFAULT_COLOUR, SgrStyle.DEFAULT_COLOUR, SgrStyle.ATTR_INVERSE),
+                "Consolas", 12, Color.GREEN, Color.BLACK);
+
+        assertEquals(
+                TextStyle.EMPTY.updateFontFamily("Consolas").updateFontSize(12)
+                        .updateTextColor(Color.BLACK)
+                        .updateBackgroundColor(Color.GREEN),
+                textStyle);
+    }
+}
@@ -0,0 +1,149 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneCanvas;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link LineStore}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class LineStoreTests {
+
+    private LineStore lineStore;
+
+    @Before
+    public void setUp() throws Exception {
+        lineStore = new LineStore();
+    }
+
+    @Test
+    public void newLineMarkersSplitLinesTest() throws Exception {
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.addMarker(new NewLineMarker(3));
+        lineStore.append(streamedData);
+
+        assertEquals(2, lineStore.getNumLines());
+        assertEquals("123", lineStore.getLineText(0));
+        assertEquals("456", lineStore.getLineText(1));
+        assertEquals(7, lineStore.getNumChars());
+
+        // Input should of been consumed
+        assertEquals("", streamedData.getText());
+        assertEquals(0, streamedData.getMarkers().size());
+
+        // Continue the open line
+        streamedData.append("78");
+        streamedData.addMarker(new NewLineMarker(2));
+        lineStore.append(streamedData);
+
+        assertEquals(3, lineStore.getNumLines());
+        assertEquals("45678", lineStore.getLineText(1));
+        assertEquals("", lineStore.getLineText(2));
+    }
+
+    @Test
+    public void colourMarkersCreateRunsTest() throws Exception {
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("abcdef");
+        streamedData.addMarker(new ColourMarker(2, Color.RED));
+        streamedData.addMarker(new NewLineMarker(4));
+        lineStore.append(streamedData);
+
+        Line line = lineStore.getLine(0);
+        assertEquals(2, line.getNumRuns());
+        assertEquals(SgrStyle.DEFAULT, line.getStyleAt(1));
+        assertEquals(Color.RED, line.getStyleAt(2).getForeground());
+
+        // The style should carry over to the next line
+        line = lineStore.getLine(1);
+        assertEquals(1, line.getNumRuns());
+        assertEquals(Color.RED, line.getStyleAt(0).getForeground());
+    }
+
+    @Test
+    public void trimRemovesOldestLinesTest() throws Exception {
+
+        lineStore.setMaxNumChars(8);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456789");
+        streamedData.addMarker(new NewLineMarker(3));
+        streamedData.addMarker(new NewLineMarker(6));
+        lineStore.append(streamedData);
+
+        // "123\n" should of been removed
+        assertEquals(2, lineStore.getNumLines());
+        assertEquals(1, lineStore.getFirstLineNumber());
+        assertEquals("456", lineStore.getLineText(0));
+        assertEquals("789", lineStore.getLineText(1));
+        assertEquals(7, lineStore.getNumChars());
+    }
+
+    @Test
+    public void trimOpenLineTest() throws Exception {
+
+        lineStore.setMaxNumChars(4);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.addMarker(new ColourMarker(3, Color.RED));
+        lineStore.append(streamedData);
+
+        assertEquals(1, lineStore.getNumLines());
+        assertEquals("3456", lineStore.getLineText(0));
+
+        Line line = lineStore.getLine(0);
+        assertEquals(2, line.getNumRuns());
+        assertEquals(SgrStyle.DEFAULT, line.getStyleAt(0));
+        assertEquals(Color.RED, line.getStyleAt(1).getForeground());
+    }
+
+    @Test
+    public void getTextAcrossLinesTest() throws Exception {
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("abcdefghi");
+        streamedData.addMarker(new NewLineMarker(3));
+        streamedData.addMarker(new NewLineMarker(6));
+        lineStore.append(streamedData);
+
+        assertEquals("bc\ndef\ngh", lineStore.getText(0, 1, 2, 2));
+        assertEquals("b", lineStore.getText(0, 1, 0, 2));
+        // Columns past the end of the line are clamped
+        assertEquals("c\nd", lineStore.getText(0, 2, 1, 1));
+        assertEquals("\nd", lineStore.getText(0, 10, 1, 1));
+    }
+
+    @Test
+    public void manyLinesTest() throws Exception {
+
+        lineStore.setMaxNumChars(3000);
+
+        StreamedData streamedData = new StreamedData();
+        for (int i = 0; i < 5000; i++) {
+            streamedData.addMarker(new NewLineMarker(streamedData.getText().length() + 1));
+            streamedData.append(String.valueOf(i % 10));
+        }
+        lineStore.append(streamedData);
+
+        // Each line is 1 char plus the new line, with the empty open line at the end
+        assertEquals(1501, lineStore.getNumLines());
+        assertEquals(3500, lineStore.getFirstLineNumber());
+        assertEquals("0", lineStore.getLineText(0));
+        assertEquals("9", lineStore.getLineText(1499));
+        assertEquals("", lineStore.getLineText(1500));
+    }
+}
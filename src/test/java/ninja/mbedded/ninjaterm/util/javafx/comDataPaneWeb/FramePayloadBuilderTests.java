@@ -0,0 +1,66 @@
+package ninja.mbedded.ninjaterm.util.javafx.comDataPaneWeb;
+
+import javafx.scene.paint.Color;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link FramePayloadBuilder}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class FramePayloadBuilderTests {
+
+    private FramePayloadBuilder framePayloadBuilder;
+
+    @Before
+    public void setUp() throws Exception {
+        framePayloadBuilder = new FramePayloadBuilder();
+    }
+
+    @Test
+    public void emptyTest() throws Exception {
+        assertTrue(framePayloadBuilder.isEmpty());
+        assertEquals("[]", framePayloadBuilder.build());
+    }
+
+    @Test
+    public void consecutiveTextIsMergedTest() throws Exception {
+        framePayloadBuilder.addText("abc");
+        framePayloadBuilder.addText("\n");
+        framePayloadBuilder.addText("def");
+
+        assertFalse(framePayloadBuilder.isEmpty());
+        assertEquals("[[0,\"abc\\ndef\"]]", framePayloadBuilder.build());
+        assertEquals(7, framePayloadBuilder.getNumChars());
+    }
+
+    @Test
+    public void colorAndTimeStampTest() throws Exception {
+        framePayloadBuilder.addText("abc");
+        framePayloadBuilder.addColor(Color.RED);
+        framePayloadBuilder.addText("def");
+        framePayloadBuilder.addTimeStamp("12:00 ");
+
+        assertEquals("[[0,\"abc\"],[1,\"#FF0000\"],[0,\"def\"],[2,\"12:00 \"]]", framePayloadBuilder.build());
+        // Time stamps count as displayed chars, colours do not
+        assertEquals(12, framePayloadBuilder.getNumChars());
+
+        framePayloadBuilder.clear();
+        assertTrue(framePayloadBuilder.isEmpty());
+        assertEquals(0, framePayloadBuilder.getNumChars());
+    }
+
+    @Test
+    public void escapingTest() throws Exception {
+        framePayloadBuilder.addText("\"\\\t\u0001é<");
+
+        assertEquals("[[0,\"\\\"\\\\\\t\\u0001\\u00e9<\"]]", framePayloadBuilder.build());
+    }
+}
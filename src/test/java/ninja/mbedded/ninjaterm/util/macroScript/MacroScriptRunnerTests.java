@@ -0,0 +1,179 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link MacroScriptRunner}</code> class.
+ *
+ * The scripts run on the runner's real scheduler thread, so that waits are really timed.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class MacroScriptRunnerTests {
+
+    private MacroScriptRunner macroScriptRunner;
+
+    /**
+     * Every send, as a string.
+     */
+    private List<String> sends;
+
+    /**
+     * If set, this is passed back as RX data whenever anything is sent.
+     */
+    private volatile String response;
+
+    private volatile MacroScriptProgress lastProgress;
+
+    private CountDownLatch doneLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        sends = Collections.synchronizedList(new ArrayList<>());
+        response = null;
+        doneLatch = new CountDownLatch(1);
+
+        macroScriptRunner = new MacroScriptRunner(data -> {
+            sends.add(new String(data));
+            if (response != null)
+                macroScriptRunner.rxDataReceived(response);
+        });
+        macroScriptRunner.uiThreadExecutor = Runnable::run;
+    }
+
+    @Test
+    public void sendAndWaitTest() throws Exception {
+        final long startTimeNs = System.nanoTime();
+        run("send \"a\"; wait 20; send \"b\"");
+        final long durationNs = System.nanoTime() - startTimeNs;
+
+        assertEquals(MacroScriptProgress.States.FINISHED, lastProgress.state);
+        assertEquals(2, sends.size());
+        assertEquals("a", sends.get(0));
+        assertEquals("b", sends.get(1));
+        assertTrue(durationNs >= 20000000);
+
+        // The step after the wait is the only one which started after waiting
+        assertEquals(1, lastProgress.numLatencySamples);
+        assertTrue(lastProgress.minStepLatencyUs <= lastProgress.avgStepLatencyUs);
+        assertTrue(lastProgress.avgStepLatencyUs <= lastProgress.maxStepLatencyUs);
+    }
+
+    @Test
+    public void waitForMatchTest() throws Exception {
+        response = "AT\r\nOK\r\n";
+
+        final long startTimeNs = System.nanoTime();
+        run("send \"AT\\r\"\n" +
+                "waitfor \"O[K]\" 10000\n" +
+                "ifmatch ok\n" +
+                "send \"fail\"\n" +
+                "label ok\n" +
+                "send \"pass\"");
+        final long durationNs = System.nanoTime() - startTimeNs;
+
+        assertEquals(MacroScriptProgress.States.FINISHED, lastProgress.state);
+        assertEquals(2, sends.size());
+        assertEquals("pass", sends.get(1));
+
+        // The match should end the wait long before the timeout
+        assertTrue(durationNs < 5000000000L);
+    }
+
+    @Test
+    public void waitForOnlyMatchesRxDataSinceLastSendTest() throws Exception {
+        response = "OK";
+
+        // The second waitfor can't match the response to the first send, as it has already been matched
+        run("send \"a\"; waitfor \"OK\" 10000; waitfor \"OK\" 20; ifnomatch timedOut; send \"matched\"; label timedOut");
+
+        assertEquals(1, sends.size());
+    }
+
+    @Test
+    public void waitForTimeoutTest() throws Exception {
+        run("send \"AT\"\n" +
+                "waitfor \"OK\" 20\n" +
+                "ifnomatch timedOut\n" +
+                "send \"matched\"\n" +
+                "goto done\n" +
+                "label timedOut\n" +
+                "send \"timed out\"\n" +
+                "label done");
+
+        assertEquals(MacroScriptProgress.States.FINISHED, lastProgress.state);
+        assertEquals(2, sends.size());
+        assertEquals("timed out", sends.get(1));
+        assertEquals(1, lastProgress.numLatencySamples);
+    }
+
+    @Test
+    public void nestedRepeatTest() throws Exception {
+        run("repeat 3; send \"a\"; repeat 2; send \"b\"; end; end");
+
+        assertEquals("abbabbabb", String.join("", sends));
+    }
+
+    @Test
+    public void stopTest() throws Exception {
+        macroScriptRunner.start(MacroScript.compile("label loop\nwait 1\ngoto loop"), this::handleProgress);
+        assertTrue(macroScriptRunner.isRunning());
+
+        Thread.sleep(20);
+        macroScriptRunner.stop();
+
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(MacroScriptProgress.States.CANCELLED, lastProgress.state);
+        assertEquals(2, lastProgress.currLineNum);
+        assertTrue(lastProgress.numLatencySamples > 0);
+        assertFalse(macroScriptRunner.isRunning());
+    }
+
+    @Test
+    public void loopWithoutWaitingCanBeStoppedTest() throws Exception {
+        macroScriptRunner.start(MacroScript.compile("label loop; goto loop"), this::handleProgress);
+
+        Thread.sleep(20);
+        macroScriptRunner.stop();
+
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(MacroScriptProgress.States.CANCELLED, lastProgress.state);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void onlyOneScriptAtATimeTest() throws Exception {
+        macroScriptRunner.start(MacroScript.compile("wait 10000"), this::handleProgress);
+        try {
+            macroScriptRunner.start(MacroScript.compile("wait 1"), this::handleProgress);
+        } finally {
+            macroScriptRunner.stop();
+        }
+    }
+
+    /**
+     * Runs the script, waiting until it is done.
+     */
+    private void run(String script) throws Exception {
+        macroScriptRunner.start(MacroScript.compile(script), this::handleProgress);
+        assertTrue(doneLatch.await(10, TimeUnit.SECONDS));
+    }
+
+    private void handleProgress(MacroScriptProgress macroScriptProgress) {
+        lastProgress = macroScriptProgress;
+        if (macroScriptProgress.isDone())
+            doneLatch.countDown();
+    }
+}
@@ -0,0 +1,111 @@
+package ninja.mbedded.ninjaterm.util.macroScript;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the <code>{@link MacroScript}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class MacroScriptTests {
+
+    @Test
+    public void commandsTest() throws Exception {
+        MacroScript script = MacroScript.compile(
+                "SEND \"AT\\r\\n\"\n" +
+                "sendhex 0D 0A\n" +
+                "wait 0.5\n" +
+                "waitfor \"OK\" 100");
+
+        assertEquals(4, script.steps.size());
+
+        assertEquals(MacroStep.Types.SEND, script.steps.get(0).type);
+        assertArrayEquals("AT\r\n".getBytes(), script.steps.get(0).data);
+
+        assertEquals(MacroStep.Types.SEND, script.steps.get(1).type);
+        assertArrayEquals(new byte[]{0x0D, 0x0A}, script.steps.get(1).data);
+
+        assertEquals(MacroStep.Types.WAIT, script.steps.get(2).type);
+        assertEquals(500000, script.steps.get(2).durationNs);
+
+        assertEquals(MacroStep.Types.WAIT_FOR, script.steps.get(3).type);
+        assertEquals("OK", script.steps.get(3).pattern.pattern());
+        assertEquals(100000000, script.steps.get(3).durationNs);
+        assertEquals(4, script.steps.get(3).lineNum);
+    }
+
+    @Test
+    public void separatorsAndCommentsTest() throws Exception {
+        MacroScript script = MacroScript.compile(
+                "# A comment\n" +
+                "send \"a;b#c\\\"\"; wait 1 # Another comment\n" +
+                "\n" +
+                ";;");
+
+        assertEquals(2, script.steps.size());
+        assertArrayEquals("a;b#c\"".getBytes(), script.steps.get(0).data);
+        assertEquals(2, script.steps.get(0).lineNum);
+        assertEquals(2, script.steps.get(1).lineNum);
+    }
+
+    @Test
+    public void jumpTargetsTest() throws Exception {
+        MacroScript script = MacroScript.compile(
+                "label start\n" +
+                "repeat 3\n" +
+                "send \"a\"\n" +
+                "end\n" +
+                "ifnomatch start\n" +
+                "goto done\n" +
+                "label done");
+
+        assertEquals(5, script.steps.size());
+
+        // REPEAT_START points at it's END, and END points back to the first step in the loop
+        assertEquals(MacroStep.Types.REPEAT_START, script.steps.get(0).type);
+        assertEquals(3, script.steps.get(0).count);
+        assertEquals(2, script.steps.get(0).targetIndex);
+        assertEquals(MacroStep.Types.REPEAT_END, script.steps.get(2).type);
+        assertEquals(1, script.steps.get(2).targetIndex);
+
+        assertEquals(MacroStep.Types.IF_NO_MATCH, script.steps.get(3).type);
+        assertEquals(0, script.steps.get(3).targetIndex);
+
+        // A label at the end of the script points past the last step
+        assertEquals(MacroStep.Types.GOTO, script.steps.get(4).type);
+        assertEquals(5, script.steps.get(4).targetIndex);
+    }
+
+    @Test
+    public void errorsTest() throws Exception {
+        assertCompileError("send \"a\"\nfoo", 2, "not recognised");
+        assertCompileError("send a", 1, "Expected quoted text");
+        assertCompileError("send \"a", 1, "Missing closing quote");
+        assertCompileError("sendhex 0D0", 1, "even number");
+        assertCompileError("wait -1", 1, "not a valid number");
+        assertCompileError("wait", 1, "needs 1 argument");
+        assertCompileError("waitfor \"(\" 100", 1, "not a valid regex");
+        assertCompileError("repeat 0\nend", 1, "at least 1");
+        assertCompileError("send \"a\"\nend", 2, "without a matching \"repeat\"");
+        assertCompileError("repeat 2\nrepeat 2\nend", 1, "without a matching \"end\"");
+        assertCompileError("send \"a\"\ngoto nowhere", 2, "not defined");
+        assertCompileError("label a\nlabel a", 2, "more than once");
+    }
+
+    private void assertCompileError(String script, int expectedLineNum, String expectedMessagePart) {
+        try {
+            MacroScript.compile(script);
+            fail("Script \"" + script + "\" should not have compiled.");
+        } catch (MacroScriptException e) {
+            assertEquals(expectedLineNum, e.lineNum);
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessagePart));
+        }
+    }
+}
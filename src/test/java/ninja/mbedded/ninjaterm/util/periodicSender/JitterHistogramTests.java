@@ -0,0 +1,39 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link JitterHistogram}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class JitterHistogramTests {
+
+    @Test
+    public void bucketsTest() throws Exception {
+        JitterHistogram jitterHistogram = new JitterHistogram();
+
+        jitterHistogram.add(0);
+        jitterHistogram.add(9999);
+        jitterHistogram.add(10000);
+        jitterHistogram.add(150000);
+        jitterHistogram.add(4999999);
+        jitterHistogram.add(5000000);
+        jitterHistogram.add(1000000000);
+
+        assertArrayEquals(new long[]{2, 1, 0, 0, 1, 0, 0, 0, 1, 2}, jitterHistogram.getCounts());
+    }
+
+    @Test
+    public void bucketLabelsTest() throws Exception {
+        assertEquals(10, JitterHistogram.getNumBuckets());
+        assertEquals("<10us", JitterHistogram.getBucketLabel(0));
+        assertEquals("<5000us", JitterHistogram.getBucketLabel(8));
+        assertEquals(">=5000us", JitterHistogram.getBucketLabel(9));
+    }
+}
@@ -0,0 +1,144 @@
+package ninja.mbedded.ninjaterm.util.periodicSender;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link PeriodicSender}</code> class.
+ *
+ * The sends happen on the sender's real timer thread, so the limits on the timing are kept loose enough to pass
+ * on a busy machine.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class PeriodicSenderTests {
+
+    private PeriodicSender periodicSender;
+
+    /**
+     * Every payload sent, as a string.
+     */
+    private List<String> sends;
+
+    private volatile PeriodicSendStats lastStats;
+
+    private CountDownLatch doneLatch;
+
+    @Before
+    public void setUp() throws Exception {
+        sends = Collections.synchronizedList(new ArrayList<>());
+        doneLatch = new CountDownLatch(1);
+
+        periodicSender = new PeriodicSender(payload -> sends.add(new String(payload)));
+        periodicSender.uiThreadExecutor = Runnable::run;
+    }
+
+    @Test
+    public void sendsEveryPeriodTest() throws Exception {
+        final long startTimeNs = System.nanoTime();
+        PeriodicSendJob job = periodicSender.start("a".getBytes(), 2000000, this::handleStats);
+
+        Thread.sleep(200);
+        periodicSender.stop(job);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        final long durationNs = System.nanoTime() - startTimeNs;
+
+        assertEquals(PeriodicSendStats.States.STOPPED, lastStats.state);
+        assertEquals(sends.size(), lastStats.numSends);
+        assertEquals(sends.size(), lastStats.numBytesSent);
+
+        // Ideally 100 sends. Sends are never early, and missed periods are skipped, so the
+        // number of sends plus the number missed can't be more than the number of periods which have passed
+        assertTrue(lastStats.numSends >= 20);
+        assertTrue(lastStats.numSends + lastStats.numMissedPeriods <= durationNs / 2000000 + 1);
+
+        assertTrue(lastStats.minPeriodUs <= lastStats.avgPeriodUs);
+        assertTrue(lastStats.avgPeriodUs <= lastStats.maxPeriodUs);
+        assertTrue(lastStats.avgPeriodUs >= 1500.0);
+
+        long numJitterSamples = 0;
+        for (long count : lastStats.jitterCounts) {
+            numJitterSamples += count;
+        }
+        assertEquals(lastStats.numSends, numJitterSamples);
+    }
+
+    @Test
+    public void changePayloadTest() throws Exception {
+        PeriodicSendJob job = periodicSender.start("a".getBytes(), 1000000, this::handleStats);
+
+        Thread.sleep(50);
+        job.setPayload("bb".getBytes());
+        Thread.sleep(50);
+        periodicSender.stop(job);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // Once the payload has changed, only the new payload is sent
+        assertEquals("a", sends.get(0));
+        assertEquals("bb", sends.get(sends.size() - 1));
+        final int firstNewIndex = sends.indexOf("bb");
+        for (int i = firstNewIndex; i < sends.size(); i++) {
+            assertEquals("bb", sends.get(i));
+        }
+        assertEquals(firstNewIndex + 2 * (sends.size() - firstNewIndex), lastStats.numBytesSent);
+    }
+
+    @Test
+    public void multipleJobsTest() throws Exception {
+        CountDownLatch bothDoneLatch = new CountDownLatch(2);
+        PeriodicSendStatsListener listener = periodicSendStats -> {
+            if (periodicSendStats.isDone())
+                bothDoneLatch.countDown();
+        };
+
+        PeriodicSendJob fastJob = periodicSender.start("f".getBytes(), 1000000, listener);
+        PeriodicSendJob slowJob = periodicSender.start("s".getBytes(), 20000000, listener);
+
+        Thread.sleep(100);
+        periodicSender.stop(fastJob);
+        periodicSender.stop(slowJob);
+        assertTrue(bothDoneLatch.await(5, TimeUnit.SECONDS));
+
+        final int numFastSends = Collections.frequency(sends, "f");
+        final int numSlowSends = Collections.frequency(sends, "s");
+        assertTrue(numSlowSends >= 1);
+        assertTrue(numFastSends > numSlowSends);
+    }
+
+    @Test
+    public void sendFailureStopsJobTest() throws Exception {
+        periodicSender = new PeriodicSender(payload -> {
+            throw new RuntimeException("Port not opened.");
+        });
+        periodicSender.uiThreadExecutor = Runnable::run;
+
+        periodicSender.start("a".getBytes(), 1000000, this::handleStats);
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(PeriodicSendStats.States.FAILED, lastStats.state);
+        assertEquals("Port not opened.", lastStats.errorMsg);
+        assertEquals(0, lastStats.numSends);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPeriodTest() throws Exception {
+        periodicSender.start("a".getBytes(), 0, this::handleStats);
+    }
+
+    private void handleStats(PeriodicSendStats periodicSendStats) {
+        lastStats = periodicSendStats;
+        if (periodicSendStats.isDone())
+            doneLatch.countDown();
+    }
+}
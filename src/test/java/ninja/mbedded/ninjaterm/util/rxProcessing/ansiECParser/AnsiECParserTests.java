@@ -8,13 +8,15 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for the AnsiECParser class.
  *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-26
- * @last-modified   2016-10-17
+ * @last-modified   2026-10-18
  */
 public class AnsiECParserTests {
 
@@ -203,4 +205,132 @@ public class AnsiECParserTests {
         assertEquals("abc\u001B[12;\u001B[def", releasedData.getText());
         assertEquals(0, releasedData.getColourMarkers().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void backgroundColourTest() throws Exception {
+
+        inputData.append("abc\u001B[44mdef");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdef", releasedData.getText());
+        assertEquals(1, releasedData.getColourMarkers().size());
+        assertEquals(3, releasedData.getColourMarkers().get(0).charPos);
+
+        // Foreground is not changed, only background
+        assertNull(releasedData.getColourMarkers().get(0).color);
+        assertEquals(Color.rgb(0, 0, 170), releasedData.getColourMarkers().get(0).style.getBackground());
+    }
+
+    @Test
+    public void resetTest() throws Exception {
+
+        inputData.append("abc\u001B[31mdef\u001B[0mghi");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdefghi", releasedData.getText());
+        assertEquals(2, releasedData.getColourMarkers().size());
+        assertEquals(Color.rgb(170, 0, 0), releasedData.getColourMarkers().get(0).color);
+        assertEquals(6, releasedData.getColourMarkers().get(1).charPos);
+        assertNull(releasedData.getColourMarkers().get(1).color);
+        assertTrue(releasedData.getColourMarkers().get(1).style.isDefault());
+    }
+
+    @Test
+    public void brightColourTest() throws Exception {
+
+        inputData.append("abc\u001B[92mdef");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals(1, releasedData.getColourMarkers().size());
+        assertEquals(Color.rgb(85, 255, 85), releasedData.getColourMarkers().get(0).color);
+    }
+
+    @Test
+    public void palette256ColourTest() throws Exception {
+
+        // 196 is pure red in the 6x6x6 colour cube, 244 is in the grey ramp
+        inputData.append("abc\u001B[38;5;196mdef\u001B[38;5;244mghi");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdefghi", releasedData.getText());
+        assertEquals(2, releasedData.getColourMarkers().size());
+        assertEquals(Color.rgb(255, 0, 0), releasedData.getColourMarkers().get(0).color);
+        assertEquals(Color.rgb(128, 128, 128), releasedData.getColourMarkers().get(1).color);
+    }
+
+    @Test
+    public void trueColourTest() throws Exception {
+
+        inputData.append("abc\u001B[38;2;12;34;56;48;2;200;100;50mdef");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdef", releasedData.getText());
+        assertEquals(1, releasedData.getColourMarkers().size());
+        assertEquals(Color.rgb(12, 34, 56), releasedData.getColourMarkers().get(0).color);
+        assertEquals(Color.rgb(200, 100, 50), releasedData.getColourMarkers().get(0).style.getBackground());
+    }
+
+    @Test
+    public void colonSeparatedColourTest() throws Exception {
+
+        // Both with and without the optional colour space id
+        inputData.append("a\u001B[38:2::1:2:3mb\u001B[38:2:4:5:6mc\u001B[38:5:9md");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcd", releasedData.getText());
+        assertEquals(3, releasedData.getColourMarkers().size());
+        assertEquals(Color.rgb(1, 2, 3), releasedData.getColourMarkers().get(0).color);
+        assertEquals(Color.rgb(4, 5, 6), releasedData.getColourMarkers().get(1).color);
+        assertEquals(Color.rgb(255, 85, 85), releasedData.getColourMarkers().get(2).color);
+    }
+
+    @Test
+    public void attributesTest() throws Exception {
+
+        inputData.append("abc\u001B[1;3;4;9mdef\u001B[22;23;24;29mghi");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals(2, releasedData.getColourMarkers().size());
+
+        SgrStyle style = releasedData.getColourMarkers().get(0).style;
+        assertTrue(style.isBold());
+        assertTrue(style.isItalic());
+        assertTrue(style.isUnderline());
+        assertTrue(style.isStrikethrough());
+
+        assertTrue(releasedData.getColourMarkers().get(1).style.isDefault());
+    }
+
+    @Test
+    public void stylePersistsAcrossCallsTest() throws Exception {
+
+        inputData.append("abc\u001B[33m");
+        ansiECParser.parse(inputData, releasedData);
+
+        // No chars have been released with the new style yet, so no marker should be present
+        assertEquals("abc", releasedData.getText());
+        assertEquals(0, releasedData.getColourMarkers().size());
+
+        inputData.append("def");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdef", releasedData.getText());
+        assertEquals(1, releasedData.getColourMarkers().size());
+        assertEquals(3, releasedData.getColourMarkers().get(0).charPos);
+        assertEquals(Color.rgb(170, 85, 0), releasedData.getColourMarkers().get(0).color);
+    }
+
+    @Test
+    public void consecutiveSequencesCoalesceTest() throws Exception {
+
+        // Back-to-back sequences with no text between them should only produce one marker,
+        // and repeating the current style should produce none
+        inputData.append("abc\u001B[31m\u001B[1mdef\u001B[31mghi");
+        ansiECParser.parse(inputData, releasedData);
+
+        assertEquals("abcdefghi", releasedData.getText());
+        assertEquals(1, releasedData.getColourMarkers().size());
+        assertEquals(3, releasedData.getColourMarkers().get(0).charPos);
+        assertEquals(Color.rgb(255, 85, 85), releasedData.getColourMarkers().get(0).color);
+    }
+}
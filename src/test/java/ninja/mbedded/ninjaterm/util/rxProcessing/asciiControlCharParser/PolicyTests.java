@@ -0,0 +1,102 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.asciiControlCharParser;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the per-char <code>{@link ControlCharPolicy}</code>s of the <code>AsciiControlCharParser</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class PolicyTests {
+
+    private AsciiControlCharParser asciiControlCharParser;
+
+    private StreamedData input;
+    private StreamedData releasedText;
+
+    @Before
+    public void setUp() throws Exception {
+        asciiControlCharParser = new AsciiControlCharParser();
+
+        input = new StreamedData();
+        releasedText = new StreamedData();
+    }
+
+    @Test
+    public void tabKeptByDefaultTest() throws Exception {
+        input.append("a\tb\u0007c");
+        asciiControlCharParser.parse(input, releasedText);
+        assertEquals("a\tbc", releasedText.getText());
+    }
+
+    @Test
+    public void caretNotationTest() throws Exception {
+        asciiControlCharParser.setPolicyForAll(ControlCharPolicy.CARET_NOTATION);
+
+        input.append("a\u0000b\u001Bc\u007F");
+        asciiControlCharParser.parse(input, releasedText);
+        assertEquals("a^@b^[c^?", releasedText.getText());
+    }
+
+    @Test
+    public void hexEscapeTest() throws Exception {
+        asciiControlCharParser.setPolicyForAll(ControlCharPolicy.HEX_ESCAPE);
+
+        input.append("a\rb\u001F");
+        asciiControlCharParser.parse(input, releasedText);
+        assertEquals("a\\x0Db\\x1F", releasedText.getText());
+    }
+
+    @Test
+    public void perCharPolicyTest() throws Exception {
+        asciiControlCharParser.replaceWithVisibleSymbols.set(true);
+        asciiControlCharParser.setPolicy('\r', ControlCharPolicy.DROP);
+        asciiControlCharParser.setPolicy('\u0007', ControlCharPolicy.HEX_ESCAPE);
+
+        input.append("a\r\nb\u0007c\u007F");
+        asciiControlCharParser.parse(input, releasedText);
+        assertEquals("a␤b\\x07c␡", releasedText.getText());
+
+        // Removing the override goes back to the default policy
+        asciiControlCharParser.setPolicy('\r', null);
+        assertEquals(ControlCharPolicy.VISIBLE_SYMBOL, asciiControlCharParser.getPolicy('\r'));
+    }
+
+    @Test
+    public void markersShiftedTest() throws Exception {
+        asciiControlCharParser.setPolicyForAll(ControlCharPolicy.CARET_NOTATION);
+
+        // New line markers point to the space after the new line char
+        input.append("ab\ncd\nef");
+        input.addMarker(new NewLineMarker(3));
+        input.addMarker(new NewLineMarker(6));
+        asciiControlCharParser.parse(input, releasedText);
+
+        assertEquals("ab^Jcd^Jef", releasedText.getText());
+        assertEquals(2, releasedText.getNewLineMarkers().size());
+        assertEquals(4, releasedText.getNewLineMarkers().get(0).charPos);
+        assertEquals(8, releasedText.getNewLineMarkers().get(1).charPos);
+    }
+
+    @Test
+    public void markersShiftedWithExistingOutputTest() throws Exception {
+        releasedText.append("123");
+
+        input.append("ab\ncd");
+        input.addMarker(new NewLineMarker(3));
+        asciiControlCharParser.parse(input, releasedText);
+
+        assertEquals("123abcd", releasedText.getText());
+        assertEquals(1, releasedText.getNewLineMarkers().size());
+        assertEquals(5, releasedText.getNewLineMarkers().get(0).charPos);
+        assertEquals("", input.getText());
+        assertEquals(0, input.getMarkers().size());
+    }
+}
@@ -0,0 +1,133 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the <code>{@link GuardedPattern}</code> and <code>{@link GuardedMatcher}</code> classes.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class GuardedPatternTests {
+
+    @Test
+    public void literalAnalysisTest() throws Exception {
+        assertEquals(GuardedPattern.Engines.LITERAL, GuardedPattern.compile("abc").getEngine());
+        assertEquals(GuardedPattern.Engines.LITERAL, GuardedPattern.compile("\\n").getEngine());
+        assertEquals(GuardedPattern.Engines.LITERAL, GuardedPattern.compile("\\r\\n|\\n").getEngine());
+        assertEquals(GuardedPattern.Engines.LITERAL, GuardedPattern.compile("1\\.2").getEngine());
+
+        assertEquals(GuardedPattern.Engines.BACKTRACKING, GuardedPattern.compile("a.c").getEngine());
+        assertEquals(GuardedPattern.Engines.BACKTRACKING, GuardedPattern.compile("\\d").getEngine());
+        assertEquals(GuardedPattern.Engines.BACKTRACKING, GuardedPattern.compile("a|").getEngine());
+        assertEquals(GuardedPattern.Engines.BACKTRACKING, GuardedPattern.compile("").getEngine());
+    }
+
+    @Test
+    public void groupTest() throws Exception {
+        GuardedMatcher matcher = GuardedPattern.compile("= (-?\\d+)C").matcher("TEMP: Measured temperature = -21C.");
+
+        assertEquals(1, matcher.groupCount());
+        assertTrue(matcher.find());
+        assertEquals("= -21C", matcher.group(0));
+        assertEquals("-21", matcher.group(1));
+
+        // Plain text patterns only have group 0
+        matcher = GuardedPattern.compile("TEMP").matcher("TEMP: 21C");
+        assertTrue(matcher.find());
+        assertEquals("TEMP", matcher.group(0));
+        assertEquals(0, matcher.groupCount());
+    }
+
+    @Test
+    public void catastrophicAnalysisTest() throws Exception {
+        assertTrue(GuardedPattern.isPotentiallyCatastrophic("(a+)+b"));
+        assertTrue(GuardedPattern.isPotentiallyCatastrophic("(\\w*\\s?)*$"));
+        assertTrue(GuardedPattern.isPotentiallyCatastrophic("((ab)*c)*"));
+        assertTrue(GuardedPattern.isPotentiallyCatastrophic("(a*)\\1"));
+
+        assertFalse(GuardedPattern.isPotentiallyCatastrophic("(ab)+"));
+        assertFalse(GuardedPattern.isPotentiallyCatastrophic("a+b*"));
+        assertFalse(GuardedPattern.isPotentiallyCatastrophic("[(a+)]+"));
+        assertFalse(GuardedPattern.isPotentiallyCatastrophic("\\(a+\\)+"));
+    }
+
+    @Test
+    public void literalFindTest() throws Exception {
+        GuardedMatcher matcher = GuardedPattern.compile("\\r\\n|\\n").matcher("a\r\nb\nc");
+
+        assertTrue(matcher.find());
+        assertEquals(1, matcher.start());
+        assertEquals(3, matcher.end());
+
+        assertTrue(matcher.find());
+        assertEquals(4, matcher.start());
+        assertEquals(5, matcher.end());
+
+        assertFalse(matcher.find());
+    }
+
+    @Test
+    public void regionTest() throws Exception {
+        GuardedMatcher matcher = GuardedPattern.compile("^b").matcher("abc");
+
+        assertFalse(matcher.find());
+
+        // Anchors match at the start of the region
+        matcher.region(1, 3);
+        assertTrue(matcher.find());
+        assertEquals(1, matcher.start());
+
+        // Literals can't match across the end of the region
+        matcher = GuardedPattern.compile("bc").matcher("abc");
+        matcher.region(0, 2);
+        assertFalse(matcher.find());
+    }
+
+    @Test
+    public void partialMatchTest() throws Exception {
+        // Literal engine
+        assertEquals(2, GuardedPattern.compile("\\r\\n").matcher("ab\r").findPartialMatchStart());
+        assertEquals(-1, GuardedPattern.compile("\\r\\n").matcher("abc").findPartialMatchStart());
+
+        // Regex engine
+        assertEquals(2, GuardedPattern.compile("\\r+\\n").matcher("ab\r\r").findPartialMatchStart());
+        assertEquals(-1, GuardedPattern.compile("\\r+\\n").matcher("abc").findPartialMatchStart());
+    }
+
+    @Test
+    public void budgetExceededTest() throws Exception {
+
+        List<RegexBudgetExceededListener> listeners = new ArrayList<>();
+        List<GuardedPattern> slowPatterns = new ArrayList<>();
+        listeners.add(slowPatterns::add);
+
+        GuardedPattern pattern = GuardedPattern.compile("(.*a){20}", listeners);
+        assertTrue(pattern.isPotentiallyCatastrophic());
+
+        // There are only 19 "a"s, so this can never match, but without a budget it would take a long time to fail
+        GuardedMatcher matcher = pattern.matcher("aaaaaaaaaaaaaaaaaaa!");
+        assertFalse(matcher.find());
+
+        assertTrue(pattern.isInSafeMode());
+        assertEquals(GuardedPattern.Engines.LITERAL, pattern.getEngine());
+        assertEquals(1, slowPatterns.size());
+        assertEquals(pattern, slowPatterns.get(0));
+
+        // Pattern is now matched as plain text
+        matcher.reset("x(.*a){20}");
+        assertTrue(matcher.find());
+        assertEquals(1, matcher.start());
+
+        // Listeners are only called once
+        matcher.reset("aaaaaaaaaaaaaaaaaaa!");
+        assertFalse(matcher.find());
+        assertEquals(1, slowPatterns.size());
+    }
+}
@@ -0,0 +1,85 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.hexDump;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link ByteStore}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class ByteStoreTests {
+
+    @Test
+    public void appendAndGetTest() throws Exception {
+        ByteStore byteStore = new ByteStore(10);
+        byteStore.append(new byte[]{ 1, 2, 3 });
+
+        assertEquals(0, byteStore.getStartOffset());
+        assertEquals(3, byteStore.getEndOffset());
+        assertEquals(3, byteStore.size());
+        assertEquals(2, byteStore.get(1));
+    }
+
+    @Test
+    public void oldestBytesDroppedTest() throws Exception {
+        ByteStore byteStore = new ByteStore(4);
+        byteStore.append(new byte[]{ 1, 2, 3 });
+        byteStore.append(new byte[]{ 4, 5, 6 });
+
+        assertEquals(2, byteStore.getStartOffset());
+        assertEquals(6, byteStore.getEndOffset());
+        assertEquals(3, byteStore.get(2));
+        assertEquals(6, byteStore.get(5));
+
+        // Read across the end of the ring
+        byte[] output = new byte[6];
+        assertEquals(4, byteStore.read(2, output, 1, 5));
+        assertArrayEquals(new byte[]{ 0, 3, 4, 5, 6, 0 }, output);
+    }
+
+    @Test
+    public void appendMoreThanCapacityTest() throws Exception {
+        ByteStore byteStore = new ByteStore(3);
+        byteStore.append(new byte[]{ 1, 2, 3, 4, 5 });
+
+        assertEquals(2, byteStore.getStartOffset());
+        assertEquals(5, byteStore.getEndOffset());
+        assertEquals(3, byteStore.get(2));
+        assertEquals(5, byteStore.get(4));
+    }
+
+    @Test
+    public void growTest() throws Exception {
+        // Large enough that the backing array has to grow
+        final int capacity = 200 * 1024;
+        ByteStore byteStore = new ByteStore(capacity);
+
+        byte[] data = new byte[1000];
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < data.length; j++)
+                data[j] = (byte) (i * data.length + j);
+            byteStore.append(data);
+        }
+
+        assertEquals(capacity, byteStore.size());
+        assertEquals(300 * 1000, byteStore.getEndOffset());
+        for (long offset = byteStore.getStartOffset(); offset < byteStore.getEndOffset(); offset += 997) {
+            assertEquals((byte) offset, byteStore.get(offset));
+        }
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        ByteStore byteStore = new ByteStore(10);
+        byteStore.append(new byte[]{ 1, 2, 3 });
+        byteStore.clear();
+
+        assertEquals(0, byteStore.size());
+        assertEquals(0, byteStore.getEndOffset());
+    }
+}
@@ -0,0 +1,54 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.hexDump;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link HexDumpFormatter}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class HexDumpFormatterTests {
+
+    @Test
+    public void fullRowTest() throws Exception {
+        ByteStore byteStore = new ByteStore(100);
+        byteStore.append("Hello, world!\r\n\0".getBytes());
+
+        HexDumpFormatter formatter = new HexDumpFormatter(16);
+        char[] output = new char[formatter.getRowLength()];
+        formatter.formatRow(byteStore, 0, output);
+
+        assertEquals("00000000  48 65 6C 6C 6F 2C 20 77  6F 72 6C 64 21 0D 0A 00  |Hello, world!...|", new String(output));
+    }
+
+    @Test
+    public void partialRowsTest() throws Exception {
+        // Capacity of 10 means the first 2 bytes are dropped
+        ByteStore byteStore = new ByteStore(10);
+        byteStore.append("0123456789AB".getBytes());
+
+        HexDumpFormatter formatter = new HexDumpFormatter(8);
+        char[] output = new char[formatter.getRowLength()];
+
+        formatter.formatRow(byteStore, 0, output);
+        assertEquals("00000000        32 33 34 35 36 37  |  234567|", new String(output));
+
+        formatter.formatRow(byteStore, 8, output);
+        assertEquals("00000008  38 39 41 42              |89AB    |", new String(output));
+    }
+
+    @Test
+    public void byteIndexAtColumnTest() throws Exception {
+        HexDumpFormatter formatter = new HexDumpFormatter(16);
+
+        assertEquals(-1, formatter.getByteIndexAtColumn(0));
+        assertEquals(0, formatter.getByteIndexAtColumn(formatter.getHexColumn(0) + 1));
+        assertEquals(-1, formatter.getByteIndexAtColumn(formatter.getHexColumn(0) + 2));
+        assertEquals(8, formatter.getByteIndexAtColumn(formatter.getHexColumn(8)));
+        assertEquals(15, formatter.getByteIndexAtColumn(formatter.getAsciiColumn(15)));
+    }
+}
@@ -0,0 +1,163 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.logFormatter;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.SgrStyle;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampFormatter;
+import ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp.TimeStampMarker;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link LogFormatter}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class LogFormatterTests {
+
+    private LogFormatter logFormatter;
+
+    @Before
+    public void setUp() throws Exception {
+        logFormatter = new LogFormatter("\r\n");
+        logFormatter.timeStampFormatter.mode.set(TimeStampFormatter.Modes.SINCE_PORT_OPEN);
+        logFormatter.timeStampFormatter.referenceTime.set(LocalDateTime.of(2016, 11, 25, 9, 0, 0));
+    }
+
+    @Test
+    public void plainTextTest() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123");
+
+        assertEquals("123", format(streamedData));
+    }
+
+    @Test
+    public void newLinesTest() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.getMarkers().add(new NewLineMarker(3));
+        streamedData.getMarkers().add(new NewLineMarker(6));
+
+        assertEquals("123\r\n456\r\n", format(streamedData));
+    }
+
+    @Test
+    public void timeStampsTest() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.getMarkers().add(new TimeStampMarker(0, LocalDateTime.of(2016, 11, 25, 9, 0, 1)));
+        streamedData.getMarkers().add(new NewLineMarker(3));
+        streamedData.getMarkers().add(new TimeStampMarker(3, LocalDateTime.of(2016, 11, 25, 9, 0, 2)));
+
+        // The second time stamp is at the same position as the new line, but must come after it
+        assertEquals("+1.000s: 123\r\n+2.000s: 456", format(streamedData));
+    }
+
+    @Test
+    public void timeStampAtEndTest() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123");
+        streamedData.getMarkers().add(new NewLineMarker(3));
+        streamedData.getMarkers().add(new TimeStampMarker(3, LocalDateTime.of(2016, 11, 25, 9, 0, 1)));
+
+        assertEquals("123\r\n+1.000s: ", format(streamedData));
+    }
+
+    @Test
+    public void coloursStrippedTest() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.getMarkers().add(new ColourMarker(3, Color.RED));
+
+        assertEquals("123456", format(streamedData));
+    }
+
+    @Test
+    public void coloursPreservedTest() throws Exception {
+        logFormatter.isAnsiStylingPreserved.set(true);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456789");
+        streamedData.getMarkers().add(new ColourMarker(3, SgrStyle.of(1, SgrStyle.DEFAULT_COLOUR, SgrStyle.ATTR_BOLD)));
+        streamedData.getMarkers().add(new ColourMarker(6, SgrStyle.DEFAULT));
+
+        assertEquals("123\u001B[0;1;31m456\u001B[0m789", format(streamedData));
+    }
+
+    @Test
+    public void extendedColoursPreservedTest() throws Exception {
+        logFormatter.isAnsiStylingPreserved.set(true);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("12");
+        streamedData.getMarkers().add(new ColourMarker(0, SgrStyle.of(SgrStyle.RGB_FLAG | 0x0A0B0C, 200, 0)));
+        streamedData.getMarkers().add(new ColourMarker(1, SgrStyle.of(9, 12, SgrStyle.ATTR_UNDERLINE)));
+
+        assertEquals("\u001B[0;38;2;10;11;12;48;5;200m1\u001B[0;4;91;104m2", format(streamedData));
+    }
+
+    @Test
+    public void stylePersistsBetweenCallsTest() throws Exception {
+        logFormatter.isAnsiStylingPreserved.set(true);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123");
+        streamedData.getMarkers().add(new ColourMarker(0, SgrStyle.of(2, SgrStyle.DEFAULT_COLOUR, 0)));
+        assertEquals("\u001B[0;32m123", format(streamedData));
+
+        // Style has already been written, so should not be written again
+        streamedData = new StreamedData();
+        streamedData.append("456");
+        assertEquals("456", format(streamedData));
+    }
+
+    @Test
+    public void timeStampsUnstyledTest() throws Exception {
+        logFormatter.isAnsiStylingPreserved.set(true);
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("123456");
+        streamedData.getMarkers().add(new ColourMarker(0, SgrStyle.of(2, SgrStyle.DEFAULT_COLOUR, 0)));
+        streamedData.getMarkers().add(new NewLineMarker(3));
+        streamedData.getMarkers().add(new TimeStampMarker(3, LocalDateTime.of(2016, 11, 25, 9, 0, 1)));
+
+        assertEquals("\u001B[0;32m123\r\n\u001B[0m+1.000s: \u001B[0;32m456", format(streamedData));
+    }
+
+    @Test
+    public void utf8Test() throws Exception {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append("a\u00B0b\u20ACc\uD83D\uDE00");
+
+        assertEquals("a\u00B0b\u20ACc\uD83D\uDE00", format(streamedData));
+    }
+
+    @Test
+    public void bufferGrowsTest() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append((char) ('a' + i % 26));
+        }
+
+        StreamedData streamedData = new StreamedData();
+        streamedData.append(text.toString());
+
+        assertEquals(text.toString(), format(streamedData));
+    }
+
+    private String format(StreamedData streamedData) {
+        int length = logFormatter.format(streamedData);
+        assertEquals(length, logFormatter.getLength());
+        return new String(logFormatter.getBuffer(), 0, length, StandardCharsets.UTF_8);
+    }
+}
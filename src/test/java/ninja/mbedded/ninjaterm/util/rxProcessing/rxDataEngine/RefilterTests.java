@@ -0,0 +1,150 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.rxDataEngine;
+
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Unit tests for the <code>refilterInBackground()</code> method of the <code>{@link RxDataEngine}</code> class.
+ *
+ * The test thread acts as the UI thread. The engine's <code>uiThreadExecutor</code> is replaced with a queue,
+ * which is run by <code>waitForRefilter()</code>.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class RefilterTests {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private RxDataEngine rxDataEngine;
+
+    private StreamedData output;
+
+    private int numOutputResets;
+
+    private List<String> invalidPatterns;
+
+    private BlockingQueue<Runnable> uiThreadTasks;
+
+    @Before
+    public void setUp() throws Exception {
+        output = new StreamedData();
+        numOutputResets = 0;
+        invalidPatterns = new ArrayList<>();
+        uiThreadTasks = new LinkedBlockingQueue<>();
+
+        rxDataEngine = new RxDataEngine();
+        rxDataEngine.uiThreadExecutor = uiThreadTasks::add;
+        rxDataEngine.newLinePattern.set("\n");
+
+        rxDataEngine.newOutputListeners.add(streamedText -> {
+            output.shiftDataIn(streamedText, streamedText.getText().length(), StreamedData.MarkerBehaviour.NOT_FILTERING);
+        });
+
+        rxDataEngine.filterOutputResetListeners.add(() -> {
+            numOutputResets++;
+            output.clear();
+        });
+
+        rxDataEngine.invalidFilterPatternListeners.add((filterPattern, errorMsg) -> {
+            invalidPatterns.add(filterPattern);
+        });
+
+        rxDataEngine.parse("123\n456\n789\n".getBytes());
+    }
+
+    @Test
+    public void refilterReplacesOutputTest() throws Exception {
+        assertEquals("123456789", output.getText());
+
+        rxDataEngine.refilterInBackground("4", 0, 0, false, true);
+        waitForRefilter();
+
+        assertEquals(1, numOutputResets);
+        // The new line chars are removed, but the new line markers are kept
+        assertEquals("456", output.getText());
+        assertEquals(1, output.getNewLineMarkers().size());
+    }
+
+    @Test
+    public void newDataOnlyTest() throws Exception {
+
+        rxDataEngine.refilterInBackground("4", 0, 0, false, false);
+        waitForRefilter();
+
+        // Existing output should not be touched
+        assertEquals(0, numOutputResets);
+        assertEquals("123456789", output.getText());
+
+        rxDataEngine.parse("abc\n444\n".getBytes());
+
+        assertEquals("123456789444", output.getText());
+    }
+
+    @Test
+    public void staleRefilterIsCancelledTest() throws Exception {
+
+        rxDataEngine.refilterInBackground("1", 0, 0, false, true);
+        rxDataEngine.refilterInBackground("7", 0, 0, false, true);
+        waitForRefilter();
+
+        // Only the newest refilter should of been applied
+        assertEquals(1, numOutputResets);
+        assertEquals("789", output.getText());
+    }
+
+    @Test
+    public void dataReceivedDuringRefilterTest() throws Exception {
+
+        rxDataEngine.refilterInBackground("4", 0, 0, false, true);
+
+        // The refilter can't finish until the UI thread tasks are run, so this data
+        // is received while the refilter is in progress
+        rxDataEngine.parse("444\nabc\n".getBytes());
+        waitForRefilter();
+
+        assertEquals("456444", output.getText());
+        assertEquals(2, output.getNewLineMarkers().size());
+
+        // Check the new filter is being used for new data
+        rxDataEngine.parse("123\n345\n".getBytes());
+
+        assertEquals("456444345", output.getText());
+    }
+
+    @Test
+    public void invalidPatternTest() throws Exception {
+
+        rxDataEngine.refilterInBackground("(", 0, 0, false, true);
+        waitForRefilter();
+
+        assertEquals(1, invalidPatterns.size());
+        assertEquals("(", invalidPatterns.get(0));
+
+        // Existing output should not be touched
+        assertEquals(0, numOutputResets);
+        assertEquals("123456789", output.getText());
+    }
+
+    /**
+     * Runs the tasks passed to the UI thread until the refilter has finished.
+     */
+    private void waitForRefilter() throws Exception {
+        while (rxDataEngine.isRefilterInProgress()) {
+            Runnable uiThreadTask = uiThreadTasks.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertNotNull("Refilter did not finish in time.", uiThreadTask);
+            uiThreadTask.run();
+        }
+    }
+}
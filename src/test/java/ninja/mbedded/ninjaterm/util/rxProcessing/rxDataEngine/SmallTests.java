@@ -5,14 +5,19 @@ import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 
 /**
  * Unit tests for the <code>copyCharsFrom()</code> method of <code>StreamedData</code> class.
  *
  * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
  * @since           2016-09-27
- * @last-modified   2016-11-24
+ * @last-modified   2026-10-18
  */
 public class SmallTests {
 
@@ -71,6 +76,8 @@ public class SmallTests {
 
     @Test
     public void resetFilterTest() throws Exception {
+        BlockingQueue<Runnable> uiThreadTasks = new LinkedBlockingQueue<>();
+        rxDataEngine.uiThreadExecutor = uiThreadTasks::add;
         rxDataEngine.newLinePattern.set("\n");
         rxDataEngine.setFilterPattern("1");
 
@@ -91,8 +98,15 @@ public class SmallTests {
 
         output.clear();
 
-        rxDataEngine.setFilterPattern("4");
-        rxDataEngine.rerunFilterOnExistingData();
+        rxDataEngine.refilterInBackground("4", 0, 0, false, true);
+
+        // Run the tasks passed to the UI thread until the refilter has finished
+        while (rxDataEngine.isRefilterInProgress()) {
+            Runnable uiThreadTask = uiThreadTasks.poll(5000, TimeUnit.MILLISECONDS);
+            assertNotNull("Refilter did not finish in time.", uiThreadTask);
+            uiThreadTask.run();
+        }
+
         assertEquals("456", output.getText());
         assertEquals(0, output.getColourMarkers().size());
         assertEquals(1, output.getNewLineMarkers().size());
@@ -0,0 +1,245 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.streamingFilter;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.JavaFXThreadingRule;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.ColourMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the before/after context lines and inverted matching of the
+ * <code>{@link StreamingFilter}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class ContextTests {
+
+    /**
+     * Including this variable in class allows JavaFX objects to be created in tests.
+     */
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private StreamingFilter streamingFilter;
+
+    private StreamedData inputStreamedData;
+    private StreamedData outputStreamedData;
+
+    @Before
+    public void setUp() throws Exception {
+        streamingFilter = new StreamingFilter();
+        streamingFilter.setFilterPattern("a");
+
+        inputStreamedData = new StreamedData();
+        outputStreamedData = new StreamedData();
+    }
+
+    /**
+     * Appends a complete line (the provided text followed by "EOL") to the input.
+     */
+    private void addLine(String text) {
+        inputStreamedData.append(text + "EOL");
+        inputStreamedData.getMarkers().add(new NewLineMarker(inputStreamedData.getText().length()));
+    }
+
+    @Test
+    public void linesBeforeTest() throws Exception {
+
+        streamingFilter.setLinesBefore(2);
+
+        addLine("1");
+        addLine("2");
+        addLine("3");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        // Nothing has matched yet, so the lines are held back
+        assertEquals("", inputStreamedData.getText());
+        assertEquals("", outputStreamedData.getText());
+
+        addLine("a");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        // Only the last 2 lines before the match should be released
+        assertEquals("", inputStreamedData.getText());
+        assertEquals("2EOL3EOLaEOL", outputStreamedData.getText());
+        assertEquals(3, outputStreamedData.getNewLineMarkers().size());
+        assertEquals(4, outputStreamedData.getNewLineMarkers().get(0).charPos);
+        assertEquals(8, outputStreamedData.getNewLineMarkers().get(1).charPos);
+        assertEquals(12, outputStreamedData.getNewLineMarkers().get(2).charPos);
+    }
+
+    @Test
+    public void linesBeforeAreNotRepeatedTest() throws Exception {
+
+        streamingFilter.setLinesBefore(2);
+
+        addLine("1");
+        addLine("a");
+        addLine("a");
+        addLine("2");
+        addLine("3");
+        addLine("4");
+        addLine("a");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("1EOLaEOLaEOL3EOL4EOLaEOL", outputStreamedData.getText());
+        assertEquals(6, outputStreamedData.getNewLineMarkers().size());
+    }
+
+    @Test
+    public void linesAfterTest() throws Exception {
+
+        streamingFilter.setLinesAfter(1);
+
+        addLine("a");
+        addLine("1");
+        addLine("2");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("", inputStreamedData.getText());
+        assertEquals("aEOL1EOL", outputStreamedData.getText());
+
+        // A new match restarts the after context
+        addLine("a");
+        addLine("3");
+        addLine("a");
+        addLine("4");
+        addLine("5");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("aEOL1EOLaEOL3EOLaEOL4EOL", outputStreamedData.getText());
+        assertEquals(6, outputStreamedData.getNewLineMarkers().size());
+    }
+
+    @Test
+    public void linesAfterPartialMatchTest() throws Exception {
+
+        streamingFilter.setLinesAfter(1);
+
+        // Partial line with a match is released straight away
+        inputStreamedData.append("xa");
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+        assertEquals("xa", outputStreamedData.getText());
+
+        inputStreamedData.append("EOL");
+        inputStreamedData.getMarkers().add(new NewLineMarker(inputStreamedData.getText().length()));
+        addLine("1");
+        addLine("2");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("xaEOL1EOL", outputStreamedData.getText());
+    }
+
+    @Test
+    public void invertMatchTest() throws Exception {
+
+        streamingFilter.setInvertMatch(true);
+
+        addLine("a");
+        addLine("1");
+        addLine("ba");
+        addLine("2");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("", inputStreamedData.getText());
+        assertEquals("1EOL2EOL", outputStreamedData.getText());
+        assertEquals(2, outputStreamedData.getNewLineMarkers().size());
+        assertEquals(4, outputStreamedData.getNewLineMarkers().get(0).charPos);
+        assertEquals(8, outputStreamedData.getNewLineMarkers().get(1).charPos);
+    }
+
+    @Test
+    public void invertMatchPartialLineTest() throws Exception {
+
+        streamingFilter.setInvertMatch(true);
+
+        // A partial line can't be released, as the rest of the line could still contain a match
+        inputStreamedData.append("12");
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("12", inputStreamedData.getText());
+        assertEquals("", outputStreamedData.getText());
+
+        inputStreamedData.append("3a");
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("123a", inputStreamedData.getText());
+        assertEquals("", outputStreamedData.getText());
+
+        inputStreamedData.append("EOL45");
+        inputStreamedData.getMarkers().add(new NewLineMarker(7));
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("45", inputStreamedData.getText());
+        assertEquals("", outputStreamedData.getText());
+
+        inputStreamedData.append("EOL");
+        inputStreamedData.getMarkers().add(new NewLineMarker(5));
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("", inputStreamedData.getText());
+        assertEquals("45EOL", outputStreamedData.getText());
+    }
+
+    @Test
+    public void heldLinesKeepColoursTest() throws Exception {
+
+        streamingFilter.setLinesBefore(1);
+
+        addLine("12");
+        inputStreamedData.addMarker(new ColourMarker(1, Color.RED));
+        addLine("a");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("12EOLaEOL", outputStreamedData.getText());
+        assertEquals(1, outputStreamedData.getColourMarkers().size());
+        assertEquals(1, outputStreamedData.getColourMarkers().get(0).charPos);
+        assertEquals(Color.RED, outputStreamedData.getColourMarkers().get(0).color);
+    }
+
+    @Test
+    public void patternIsAppliedToWholeLineOnlyTest() throws Exception {
+
+        // Anchors should match at the start/end of each line, not the start/end of the input
+        streamingFilter.setFilterPattern("^2");
+
+        addLine("1");
+        addLine("2");
+        addLine("12");
+
+        streamingFilter.parse(inputStreamedData, outputStreamedData);
+
+        assertEquals("2EOL", outputStreamedData.getText());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyLinesBeforeTest() throws Exception {
+        streamingFilter.setLinesBefore(StreamingFilter.MAX_CONTEXT_LINES + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyLinesAfterTest() throws Exception {
+        streamingFilter.setLinesAfter(StreamingFilter.MAX_CONTEXT_LINES + 1);
+    }
+
+    @Test
+    public void maxContextLinesTest() throws Exception {
+        streamingFilter.setLinesBefore(StreamingFilter.MAX_CONTEXT_LINES);
+        streamingFilter.setLinesAfter(StreamingFilter.MAX_CONTEXT_LINES);
+    }
+}
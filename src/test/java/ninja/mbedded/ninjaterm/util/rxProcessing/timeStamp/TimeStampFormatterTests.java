@@ -0,0 +1,76 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.timeStamp;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link TimeStampFormatter}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class TimeStampFormatterTests {
+
+    private TimeStampFormatter timeStampFormatter;
+
+    @Before
+    public void setUp() throws Exception {
+        timeStampFormatter = new TimeStampFormatter();
+    }
+
+    @Test
+    public void absoluteTest() throws Exception {
+        assertEquals(
+                "2016-11-25 09-05-03.007: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 5, 3, 7000000)));
+    }
+
+    @Test
+    public void absoluteSameSecondTest() throws Exception {
+        timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 5, 3, 7000000));
+
+        // Second-resolution prefix is cached, but milli-seconds must still change
+        assertEquals(
+                "2016-11-25 09-05-03.456: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 5, 3, 456000000)));
+
+        // Moving onto the next second must update the prefix
+        assertEquals(
+                "2016-11-25 09-05-04.050: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 5, 4, 50000000)));
+    }
+
+    @Test
+    public void sincePortOpenTest() throws Exception {
+        timeStampFormatter.mode.set(TimeStampFormatter.Modes.SINCE_PORT_OPEN);
+        timeStampFormatter.referenceTime.set(LocalDateTime.of(2016, 11, 25, 9, 0, 0));
+
+        assertEquals(
+                "+65.020s: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 1, 5, 20000000)));
+    }
+
+    @Test
+    public void deltaTest() throws Exception {
+        timeStampFormatter.mode.set(TimeStampFormatter.Modes.DELTA);
+
+        // First line has nothing to be relative to
+        assertEquals("+0.000s: ", timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 0, 0)));
+
+        assertEquals(
+                "+0.125s: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 0, 0, 125000000)));
+
+        assertEquals(
+                "+2.000s: ",
+                timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 0, 2, 125000000)));
+
+        timeStampFormatter.reset();
+        assertEquals("+0.000s: ", timeStampFormatter.format(LocalDateTime.of(2016, 11, 25, 9, 0, 5)));
+    }
+}
@@ -0,0 +1,92 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link MinMaxDecimator}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class MinMaxDecimatorTests {
+
+    @Test
+    public void fewSamplesAreNotDecimatedTest() throws Exception {
+        SampleBuffer samples = new SampleBuffer(100);
+        samples.add(1000, 1.0);
+        samples.add(1500, 2.0);
+        samples.add(2000, 3.0);
+
+        double[] outTimes = new double[10 * MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+        double[] outValues = new double[10 * MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+
+        final int numPoints = MinMaxDecimator.decimate(samples, 0, samples.size(), 1000, 2000, 10, outTimes, outValues);
+
+        assertEquals(3, numPoints);
+        assertEquals(0.0, outTimes[0], 0.0);
+        assertEquals(500.0, outTimes[1], 0.0);
+        assertEquals(1000.0, outTimes[2], 0.0);
+        assertEquals(1.0, outValues[0], 0.0);
+        assertEquals(2.0, outValues[1], 0.0);
+        assertEquals(3.0, outValues[2], 0.0);
+    }
+
+    @Test
+    public void spikeIsKeptTest() throws Exception {
+        SampleBuffer samples = new SampleBuffer(100000);
+        for (int i = 0; i < 100000; i++) {
+            samples.add(i, (i == 54321) ? 1000.0 : ((i == 12345) ? -1000.0 : 0.0));
+        }
+
+        final int numBuckets = 100;
+        double[] outTimes = new double[numBuckets * MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+        double[] outValues = new double[numBuckets * MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+
+        final int numPoints = MinMaxDecimator.decimate(samples, 0, samples.size(), 0, 100000, numBuckets, outTimes, outValues);
+
+        assertTrue(numPoints <= numBuckets * MinMaxDecimator.MAX_POINTS_PER_BUCKET);
+
+        double maxValue = Double.NEGATIVE_INFINITY;
+        double minValue = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < numPoints; i++) {
+            maxValue = Math.max(maxValue, outValues[i]);
+            minValue = Math.min(minValue, outValues[i]);
+            // Points are output in time order
+            if (i > 0)
+                assertTrue(outTimes[i] >= outTimes[i - 1]);
+        }
+        assertEquals(1000.0, maxValue, 0.0);
+        assertEquals(-1000.0, minValue, 0.0);
+    }
+
+    @Test
+    public void atMostFourPointsPerBucketTest() throws Exception {
+        SampleBuffer samples = new SampleBuffer(1000);
+        for (int i = 0; i < 1000; i++) {
+            samples.add(i, Math.sin(i));
+        }
+
+        double[] outTimes = new double[MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+        double[] outValues = new double[MinMaxDecimator.MAX_POINTS_PER_BUCKET];
+
+        final int numPoints = MinMaxDecimator.decimate(samples, 0, samples.size(), 0, 1000, 1, outTimes, outValues);
+
+        assertEquals(4, numPoints);
+        // First and last samples are always kept
+        assertEquals(0.0, outTimes[0], 0.0);
+        assertEquals(999.0, outTimes[3], 0.0);
+    }
+
+    @Test
+    public void noSamplesTest() throws Exception {
+        SampleBuffer samples = new SampleBuffer(10);
+
+        final int numPoints = MinMaxDecimator.decimate(samples, 0, 0, 0, 1000, 10, new double[40], new double[40]);
+
+        assertEquals(0, numPoints);
+    }
+}
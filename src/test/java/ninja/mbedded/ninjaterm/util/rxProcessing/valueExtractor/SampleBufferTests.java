@@ -0,0 +1,88 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link SampleBuffer}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class SampleBufferTests {
+
+    @Test
+    public void addTest() throws Exception {
+        SampleBuffer sampleBuffer = new SampleBuffer(10);
+
+        sampleBuffer.add(100, 1.5);
+        sampleBuffer.add(200, -2.0);
+
+        assertEquals(2, sampleBuffer.size());
+        assertEquals(100, sampleBuffer.getTime(0));
+        assertEquals(1.5, sampleBuffer.getValue(0), 0.0);
+        assertEquals(200, sampleBuffer.getTime(1));
+        assertEquals(-2.0, sampleBuffer.getValue(1), 0.0);
+    }
+
+    @Test
+    public void growTest() throws Exception {
+        SampleBuffer sampleBuffer = new SampleBuffer(100000);
+
+        for (int i = 0; i < 50000; i++) {
+            sampleBuffer.add(i, i * 2.0);
+        }
+
+        assertEquals(50000, sampleBuffer.size());
+        assertEquals(0, sampleBuffer.getTime(0));
+        assertEquals(49999, sampleBuffer.getTime(49999));
+        assertEquals(49999 * 2.0, sampleBuffer.getValue(49999), 0.0);
+    }
+
+    @Test
+    public void wrapAroundTest() throws Exception {
+        SampleBuffer sampleBuffer = new SampleBuffer(5);
+
+        for (int i = 0; i < 12; i++) {
+            sampleBuffer.add(i, i);
+        }
+
+        // Only the newest samples are kept, oldest first
+        assertEquals(5, sampleBuffer.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(7 + i, sampleBuffer.getTime(i));
+            assertEquals(7.0 + i, sampleBuffer.getValue(i), 0.0);
+        }
+    }
+
+    @Test
+    public void indexOfFirstAtOrAfterTest() throws Exception {
+        SampleBuffer sampleBuffer = new SampleBuffer(5);
+
+        for (int i = 0; i < 8; i++) {
+            sampleBuffer.add(i * 10, i);
+        }
+
+        // Samples at 30, 40, 50, 60, 70
+        assertEquals(0, sampleBuffer.indexOfFirstAtOrAfter(0));
+        assertEquals(0, sampleBuffer.indexOfFirstAtOrAfter(30));
+        assertEquals(1, sampleBuffer.indexOfFirstAtOrAfter(31));
+        assertEquals(4, sampleBuffer.indexOfFirstAtOrAfter(70));
+        assertEquals(5, sampleBuffer.indexOfFirstAtOrAfter(71));
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        SampleBuffer sampleBuffer = new SampleBuffer(5);
+
+        sampleBuffer.add(0, 1.0);
+        sampleBuffer.clear();
+        assertEquals(0, sampleBuffer.size());
+
+        sampleBuffer.add(10, 2.0);
+        assertEquals(1, sampleBuffer.size());
+        assertEquals(10, sampleBuffer.getTime(0));
+    }
+}
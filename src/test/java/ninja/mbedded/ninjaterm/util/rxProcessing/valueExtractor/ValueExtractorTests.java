@@ -0,0 +1,106 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.valueExtractor;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.util.rxProcessing.guardedPattern.GuardedPattern;
+import ninja.mbedded.ninjaterm.util.rxProcessing.newLineParser.NewLineMarker;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link ValueExtractor}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class ValueExtractorTests {
+
+    private ValueExtractor valueExtractor;
+    private ValueSeries temperatureSeries;
+
+    @Before
+    public void setUp() throws Exception {
+        valueExtractor = new ValueExtractor();
+        temperatureSeries = new ValueSeries(GuardedPattern.compile("temperature = (-?\\d+)C"), Color.RED, 100);
+        valueExtractor.valueSeries.add(temperatureSeries);
+    }
+
+    @Test
+    public void singleLineTest() throws Exception {
+        valueExtractor.parse(createStreamedData("TEMP: Measured temperature = 21C.\r\n"), 1000);
+
+        assertEquals(1, temperatureSeries.samples.size());
+        assertEquals(1000, temperatureSeries.samples.getTime(0));
+        assertEquals(21.0, temperatureSeries.samples.getValue(0), 0.0);
+    }
+
+    @Test
+    public void lineSplitAcrossParsesTest() throws Exception {
+        valueExtractor.parse(createStreamedData("TEMP: Measured temp"), 1000);
+        assertEquals(0, temperatureSeries.samples.size());
+
+        valueExtractor.parse(createStreamedData("erature = -5C.\r\nTEMP: Measured temperature = 2"), 2000);
+        assertEquals(1, temperatureSeries.samples.size());
+        assertEquals(2000, temperatureSeries.samples.getTime(0));
+        assertEquals(-5.0, temperatureSeries.samples.getValue(0), 0.0);
+
+        // The value is not extracted until the line has ended
+        valueExtractor.parse(createStreamedData("3C.\r\n"), 3000);
+        assertEquals(2, temperatureSeries.samples.size());
+        assertEquals(23.0, temperatureSeries.samples.getValue(1), 0.0);
+    }
+
+    @Test
+    public void nonMatchingLinesAreIgnoredTest() throws Exception {
+        valueExtractor.parse(createStreamedData("LOAD: CPU load = 5%\r\nTEMP: Measured temperature = 21C.\r\n"), 1000);
+
+        assertEquals(1, temperatureSeries.samples.size());
+        assertEquals(21.0, temperatureSeries.samples.getValue(0), 0.0);
+    }
+
+    @Test
+    public void wholeMatchIsUsedWhenNoGroupsTest() throws Exception {
+        ValueSeries numberSeries = new ValueSeries(GuardedPattern.compile("\\d+\\.\\d+"), Color.BLUE, 100);
+        valueExtractor.valueSeries.add(numberSeries);
+
+        valueExtractor.parse(createStreamedData("voltage 3.25V\r\n"), 1000);
+
+        assertEquals(1, numberSeries.samples.size());
+        assertEquals(3.25, numberSeries.samples.getValue(0), 0.0);
+    }
+
+    @Test
+    public void inputIsNotModifiedTest() throws Exception {
+        StreamedData input = createStreamedData("TEMP: Measured temperature = 21C.\r\nabc");
+
+        valueExtractor.parse(input, 1000);
+
+        assertEquals("TEMP: Measured temperature = 21C.\r\nabc", input.getText());
+        assertEquals(1, input.getNewLineMarkers().size());
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        valueExtractor.parse(createStreamedData("TEMP: Measured temp"), 1000);
+        valueExtractor.clear();
+        valueExtractor.parse(createStreamedData("erature = 21C.\r\n"), 2000);
+
+        assertEquals(0, temperatureSeries.samples.size());
+    }
+
+    /**
+     * Creates streamed data with new line markers after every "\n", like the output of the new line parser.
+     */
+    private static StreamedData createStreamedData(String text) {
+        StreamedData streamedData = new StreamedData();
+        streamedData.append(text);
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n')
+                streamedData.addMarker(new NewLineMarker(i + 1));
+        }
+        return streamedData;
+    }
+}
@@ -0,0 +1,178 @@
+package ninja.mbedded.ninjaterm.util.rxProcessing.vt100;
+
+import javafx.scene.paint.Color;
+import ninja.mbedded.ninjaterm.JavaFXThreadingRule;
+import ninja.mbedded.ninjaterm.util.rxProcessing.ansiECParser.AnsiECParser;
+import ninja.mbedded.ninjaterm.util.rxProcessing.streamedData.StreamedData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link VT100Parser}</code> and <code>{@link VT100Screen}</code> classes.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class VT100ParserTests {
+
+    /**
+     * Including this variable in class allows JavaFX objects to be created in tests.
+     */
+    @Rule
+    public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private AnsiECParser ansiECParser;
+    private VT100Screen screen;
+    private VT100Parser vt100Parser;
+
+    private StreamedData inputData;
+
+    @Before
+    public void setUp() throws Exception {
+        ansiECParser = new AnsiECParser();
+        screen = new VT100Screen(5, 10);
+        vt100Parser = new VT100Parser(screen);
+
+        inputData = new StreamedData();
+    }
+
+    /**
+     * Passes the text through the ANSI parser and then the VT100 parser, like the RX data engine does.
+     */
+    private void parse(String text) {
+        inputData.append(text);
+        StreamedData releasedData = new StreamedData();
+        ansiECParser.parse(inputData, releasedData);
+        vt100Parser.parse(releasedData);
+    }
+
+    @Test
+    public void basicTextTest() throws Exception {
+        parse("abc\ndef");
+
+        assertEquals("abc", screen.getRowText(0));
+        assertEquals("def", screen.getRowText(1));
+        assertEquals(1, screen.getCursorRow());
+        assertEquals(3, screen.getCursorCol());
+    }
+
+    @Test
+    public void cursorPositionTest() throws Exception {
+        parse("\u001B[3;4Hx\u001B[Hy");
+
+        assertEquals("y", screen.getRowText(0));
+        assertEquals("   x", screen.getRowText(2));
+    }
+
+    @Test
+    public void cursorMovementTest() throws Exception {
+        parse("\u001B[2B\u001B[3Ca\u001B[A\u001B[2Db");
+
+        assertEquals("  b", screen.getRowText(1));
+        assertEquals("   a", screen.getRowText(2));
+    }
+
+    @Test
+    public void eraseLineTest() throws Exception {
+        parse("abcdef\u001B[1;3H\u001B[K");
+
+        assertEquals("ab", screen.getRowText(0));
+    }
+
+    @Test
+    public void eraseDisplayTest() throws Exception {
+        parse("abc\ndef\nghi\u001B[2J");
+
+        for (int row = 0; row < screen.getNumRows(); row++) {
+            assertEquals("", screen.getRowText(row));
+        }
+    }
+
+    @Test
+    public void redrawOnlyDirtiesChangedRowsTest() throws Exception {
+        parse("\u001B[2J\u001B[HCPU: 10%\nMEM: 20%");
+        screen.clearDirtyRows();
+
+        // Redraw the first line only, like a "top"-style status screen
+        parse("\u001B[1;6H55%");
+
+        assertEquals("CPU: 55%", screen.getRowText(0));
+        assertEquals("MEM: 20%", screen.getRowText(1));
+        assertEquals(1, screen.getNumDirtyRows());
+        assertTrue(screen.isRowDirty(0));
+        assertFalse(screen.isRowDirty(1));
+    }
+
+    @Test
+    public void scrollTest() throws Exception {
+        parse("1\n2\n3\n4\n5\n6");
+
+        assertEquals("2", screen.getRowText(0));
+        assertEquals("6", screen.getRowText(4));
+    }
+
+    @Test
+    public void reverseIndexTest() throws Exception {
+        parse("1\n2\u001BMx");
+
+        // Not on the top row, so the cursor just moves up
+        assertEquals("1x", screen.getRowText(0));
+        assertEquals("2", screen.getRowText(1));
+        assertEquals(0, screen.getCursorRow());
+    }
+
+    @Test
+    public void reverseIndexScrollsDownTest() throws Exception {
+        parse("1\n2\n3\n4\n5");
+        screen.clearDirtyRows();
+
+        parse("\u001B[H\u001BMx");
+
+        assertEquals("x", screen.getRowText(0));
+        assertEquals("1", screen.getRowText(1));
+        assertEquals("4", screen.getRowText(4));
+        assertEquals(0, screen.getCursorRow());
+        assertEquals(screen.getNumRows(), screen.getNumDirtyRows());
+    }
+
+    @Test
+    public void wrapTest() throws Exception {
+        parse("0123456789ab");
+
+        assertEquals("0123456789", screen.getRowText(0));
+        assertEquals("ab", screen.getRowText(1));
+    }
+
+    @Test
+    public void sequenceSplitAcrossCallsTest() throws Exception {
+        parse("abc\u001B[2");
+        parse(";2Hx");
+
+        assertEquals("abc", screen.getRowText(0));
+        assertEquals(" x", screen.getRowText(1));
+    }
+
+    @Test
+    public void styleTest() throws Exception {
+        parse("a\u001B[31mb\u001B[0mc");
+
+        assertNull(screen.getStyleAt(0, 0).getForeground());
+        assertEquals(Color.rgb(170, 0, 0), screen.getStyleAt(0, 1).getForeground());
+        assertNull(screen.getStyleAt(0, 2).getForeground());
+    }
+
+    @Test
+    public void privateSequenceIgnoredTest() throws Exception {
+        // Hide cursor sequence should not print anything
+        parse("\u001B[?25labc");
+
+        assertEquals("abc", screen.getRowText(0));
+    }
+}
@@ -0,0 +1,103 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link ScrollbackSearch}</code> class. The background and UI thread executors are
+ * replaced so that everything runs in order on the test thread.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class ScrollbackSearchTests {
+
+    private ScrollbackSearch scrollbackSearch;
+
+    private List<Runnable> queuedSearchTasks;
+
+    private List<long[]> batches;
+
+    private List<Boolean> finishedFlags;
+
+    @Before
+    public void setUp() throws Exception {
+        scrollbackSearch = new ScrollbackSearch();
+        queuedSearchTasks = new ArrayList<>();
+        scrollbackSearch.searchExecutor = queuedSearchTasks::add;
+        scrollbackSearch.uiThreadExecutor = Runnable::run;
+
+        batches = new ArrayList<>();
+        finishedFlags = new ArrayList<>();
+    }
+
+    private void runQueuedSearchTasks() {
+        List<Runnable> tasks = new ArrayList<>(queuedSearchTasks);
+        queuedSearchTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private void search(String query) {
+        scrollbackSearch.search(query, true, (hitPositions, isFinished) -> {
+            batches.add(hitPositions);
+            finishedFlags.add(isFinished);
+        });
+    }
+
+    @Test
+    public void searchSeesTextChangesInOrderTest() throws Exception {
+        scrollbackSearch.textAppended("abc abc");
+        scrollbackSearch.textTrimmed(4);
+        search("abc");
+        // Appended after the search was started, so should not be found
+        scrollbackSearch.textAppended(" abc");
+        runQueuedSearchTasks();
+
+        assertEquals(1, batches.size());
+        assertTrue(finishedFlags.get(0));
+        assertEquals(1, batches.get(0).length);
+        assertEquals(4L, batches.get(0)[0]);
+    }
+
+    @Test
+    public void hitsArePassedInBatchesTest() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < ScrollbackSearch.NUM_HITS_PER_BATCH + 10; i++) {
+            text.append("hit\n");
+        }
+        scrollbackSearch.textAppended(text.toString());
+        search("hit");
+        runQueuedSearchTasks();
+
+        assertEquals(2, batches.size());
+        assertEquals(ScrollbackSearch.NUM_HITS_PER_BATCH, batches.get(0).length);
+        assertFalse(finishedFlags.get(0));
+        assertEquals(10, batches.get(1).length);
+        assertTrue(finishedFlags.get(1));
+    }
+
+    @Test
+    public void staleSearchIsIgnoredTest() throws Exception {
+        scrollbackSearch.textAppended("abc");
+        search("abc");
+        search("bc");
+        runQueuedSearchTasks();
+
+        // Only the newest search should report hits
+        assertEquals(1, batches.size());
+        assertEquals(1L, batches.get(0)[0]);
+
+        search("abc");
+        scrollbackSearch.cancelSearch();
+        runQueuedSearchTasks();
+        assertEquals(1, batches.size());
+    }
+}
@@ -0,0 +1,68 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link SearchHits}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class SearchHitsTests {
+
+    private SearchHits searchHits;
+
+    @Before
+    public void setUp() throws Exception {
+        searchHits = new SearchHits();
+        searchHits.addAll(new long[]{ 10, 20 }, 2);
+        searchHits.addAll(new long[]{ 30, 40, 99 }, 2);
+    }
+
+    @Test
+    public void addAllTest() throws Exception {
+        assertEquals(4, searchHits.size());
+        assertEquals(40L, searchHits.get(3));
+    }
+
+    @Test
+    public void nextAndPreviousTest() throws Exception {
+        assertEquals(0, searchHits.indexOfNext(0));
+        assertEquals(2, searchHits.indexOfNext(20));
+        assertEquals(2, searchHits.indexOfNext(25));
+        // Wraps around
+        assertEquals(0, searchHits.indexOfNext(40));
+
+        assertEquals(1, searchHits.indexOfPrevious(30));
+        assertEquals(3, searchHits.indexOfPrevious(Long.MAX_VALUE));
+        // Wraps around
+        assertEquals(3, searchHits.indexOfPrevious(10));
+    }
+
+    @Test
+    public void indexOfTest() throws Exception {
+        assertEquals(2, searchHits.indexOf(30));
+        assertEquals(-1, searchHits.indexOf(31));
+    }
+
+    @Test
+    public void removeBeforeTest() throws Exception {
+        searchHits.removeBefore(25);
+
+        assertEquals(2, searchHits.size());
+        assertEquals(30L, searchHits.get(0));
+        assertEquals(0, searchHits.indexOfNext(0));
+    }
+
+    @Test
+    public void noHitsTest() throws Exception {
+        searchHits.clear();
+
+        assertEquals(-1, searchHits.indexOfNext(0));
+        assertEquals(-1, searchHits.indexOfPrevious(0));
+    }
+}
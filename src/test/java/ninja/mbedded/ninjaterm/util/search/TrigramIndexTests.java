@@ -0,0 +1,147 @@
+package ninja.mbedded.ninjaterm.util.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link TrigramIndex}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class TrigramIndexTests {
+
+    private TrigramIndex trigramIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        trigramIndex = new TrigramIndex();
+    }
+
+    private List<Long> findAll(String query, boolean matchCase) {
+        List<Long> hits = new ArrayList<>();
+        trigramIndex.findAll(query, matchCase, hitPos -> {
+            hits.add(hitPos);
+            return true;
+        });
+        return hits;
+    }
+
+    @Test
+    public void findsAllHitsTest() throws Exception {
+        trigramIndex.append("error 1\nok\nerror 2\n");
+
+        List<Long> hits = findAll("error", true);
+        assertEquals(2, hits.size());
+        assertEquals(0L, (long) hits.get(0));
+        assertEquals(11L, (long) hits.get(1));
+    }
+
+    @Test
+    public void trigramsAcrossAppendsTest() throws Exception {
+        trigramIndex.append("abcer");
+        trigramIndex.append("ro");
+        trigramIndex.append("rxyz");
+
+        List<Long> hits = findAll("error", true);
+        assertEquals(1, hits.size());
+        assertEquals(3L, (long) hits.get(0));
+    }
+
+    @Test
+    public void matchCaseTest() throws Exception {
+        trigramIndex.append("Error error ERROR");
+
+        assertEquals(1, findAll("error", true).size());
+        assertEquals(3, findAll("error", false).size());
+        assertEquals(3, findAll("eRrOr", false).size());
+    }
+
+    @Test
+    public void overlappingHitsTest() throws Exception {
+        trigramIndex.append("aaaaa");
+
+        assertEquals(3, findAll("aaa", true).size());
+        assertEquals(4, findAll("aa", true).size());
+    }
+
+    @Test
+    public void shortQueriesTest() throws Exception {
+        trigramIndex.append("a,b,c");
+
+        List<Long> hits = findAll(",", true);
+        assertEquals(2, hits.size());
+        assertEquals(1L, (long) hits.get(0));
+        assertEquals(3L, (long) hits.get(1));
+    }
+
+    @Test
+    public void trimKeepsPositionsTest() throws Exception {
+        trigramIndex.append("abc abc abc");
+        trigramIndex.trimStart(2);
+
+        assertEquals(2L, trigramIndex.getStartPos());
+        assertEquals(11L, trigramIndex.getEndPos());
+
+        List<Long> hits = findAll("abc", true);
+        assertEquals(2, hits.size());
+        assertEquals(4L, (long) hits.get(0));
+        assertEquals(8L, (long) hits.get(1));
+
+        // Trimming most of the text causes the index to be rebuilt
+        trigramIndex.trimStart(7);
+        hits = findAll("abc", true);
+        assertEquals(0, hits.size());
+
+        trigramIndex.append("abc");
+        hits = findAll("bcabc", true);
+        assertEquals(1, hits.size());
+        assertEquals(9L, (long) hits.get(0));
+        assertEquals("bcabc", trigramIndex.getText(9, 14));
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        trigramIndex.append("abc");
+        trigramIndex.clear();
+
+        assertEquals(3L, trigramIndex.getStartPos());
+        assertEquals(0, findAll("abc", true).size());
+
+        trigramIndex.append("abc");
+        List<Long> hits = findAll("abc", true);
+        assertEquals(1, hits.size());
+        assertEquals(3L, (long) hits.get(0));
+    }
+
+    @Test
+    public void stopEarlyTest() throws Exception {
+        trigramIndex.append("abcabcabc");
+
+        List<Long> hits = new ArrayList<>();
+        trigramIndex.findAll("abc", true, hitPos -> {
+            hits.add(hitPos);
+            return hits.size() < 2;
+        });
+        assertEquals(2, hits.size());
+    }
+
+    @Test
+    public void largeBufferTest() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append("line ").append(i).append("\n");
+        }
+        trigramIndex.append(text);
+
+        List<Long> hits = findAll("line 9999\n", true);
+        assertEquals(1, hits.size());
+        assertEquals(text.indexOf("line 9999\n"), (long) hits.get(0));
+    }
+}
@@ -0,0 +1,86 @@
+package ninja.mbedded.ninjaterm.util.txBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link TxBuffer}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class TxBufferTests {
+
+    private TxBuffer txBuffer;
+
+    @Before
+    public void setUp() throws Exception {
+        txBuffer = new TxBuffer();
+    }
+
+    @Test
+    public void appendTest() throws Exception {
+        txBuffer.append(new byte[]{'a', 'b'});
+        txBuffer.append(new byte[]{'x', 'c', 'y'}, 1, 1);
+
+        assertEquals(3, txBuffer.size());
+        assertEquals(3, txBuffer.length.get());
+        assertArrayEquals(new byte[]{'a', 'b', 'c'}, txBuffer.toByteArray());
+        assertEquals('c', txBuffer.get(2));
+    }
+
+    @Test
+    public void growTest() throws Exception {
+        byte[] largeData = new byte[100 * 1024];
+        for (int i = 0; i < largeData.length; i++) {
+            largeData[i] = (byte) i;
+        }
+
+        txBuffer.append(new byte[]{1});
+        txBuffer.append(largeData);
+
+        assertEquals(largeData.length + 1, txBuffer.size());
+        assertEquals(1, txBuffer.get(0));
+        assertEquals(largeData[largeData.length - 1], txBuffer.get(largeData.length));
+    }
+
+    @Test
+    public void removeLastTest() throws Exception {
+        txBuffer.append(new byte[]{'a', 'b'});
+
+        assertTrue(txBuffer.removeLast());
+        assertArrayEquals(new byte[]{'a'}, txBuffer.toByteArray());
+
+        assertTrue(txBuffer.removeLast());
+        assertFalse(txBuffer.removeLast());
+        assertEquals(0, txBuffer.size());
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        txBuffer.append(new byte[200 * 1024]);
+        txBuffer.clear();
+
+        assertEquals(0, txBuffer.size());
+        assertEquals(0, txBuffer.toByteArray().length);
+
+        txBuffer.append(new byte[]{'a'});
+        assertArrayEquals(new byte[]{'a'}, txBuffer.toByteArray());
+    }
+
+    @Test
+    public void lengthChangesOncePerAppendTest() throws Exception {
+        final int[] numChanges = {0};
+        txBuffer.length.addListener((observable, oldValue, newValue) -> numChanges[0]++);
+
+        txBuffer.append(new byte[1000]);
+
+        assertEquals(1, numChanges[0]);
+    }
+}
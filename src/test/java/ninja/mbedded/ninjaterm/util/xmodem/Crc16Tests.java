@@ -0,0 +1,33 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link Crc16}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class Crc16Tests {
+
+    @Test
+    public void checkValueTest() throws Exception {
+        // The standard check value for CRC-16/XMODEM
+        byte[] data = "123456789".getBytes();
+        assertEquals(0x31C3, Crc16.calculate(data, 0, data.length));
+    }
+
+    @Test
+    public void rangeTest() throws Exception {
+        byte[] data = "xx123456789xx".getBytes();
+        assertEquals(0x31C3, Crc16.calculate(data, 2, 11));
+    }
+
+    @Test
+    public void emptyTest() throws Exception {
+        assertEquals(0, Crc16.calculate(new byte[0], 0, 0));
+    }
+}
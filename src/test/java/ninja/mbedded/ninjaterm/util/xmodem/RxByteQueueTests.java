@@ -0,0 +1,84 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the <code>{@link RxByteQueue}</code> class.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class RxByteQueueTests {
+
+    private RxByteQueue rxByteQueue;
+
+    @Before
+    public void setUp() throws Exception {
+        rxByteQueue = new RxByteQueue();
+    }
+
+    @Test
+    public void readsInOrderTest() throws Exception {
+        rxByteQueue.push(new byte[]{1, 2});
+        rxByteQueue.push(new byte[]{(byte) 0xFF});
+
+        assertEquals(1, rxByteQueue.read(0));
+        assertEquals(2, rxByteQueue.read(0));
+        assertEquals(0xFF, rxByteQueue.read(0));
+    }
+
+    @Test
+    public void timeoutTest() throws Exception {
+        assertEquals(-1, rxByteQueue.read(10));
+    }
+
+    @Test
+    public void growsAfterWrapAroundTest() throws Exception {
+        byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        // Move the head part way through the buffer, so the data wraps around before it grows
+        rxByteQueue.push(data);
+        for (int i = 0; i < data.length; i++) {
+            rxByteQueue.read(0);
+        }
+
+        rxByteQueue.push(data);
+        rxByteQueue.push(data);
+
+        for (int i = 0; i < 2 * data.length; i++) {
+            assertEquals(data[i % data.length] & 0xFF, rxByteQueue.read(0));
+        }
+        assertEquals(-1, rxByteQueue.read(0));
+    }
+
+    @Test
+    public void readWaitsForPushTest() throws Exception {
+        Thread pushThread = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            rxByteQueue.push(new byte[]{42});
+        });
+        pushThread.start();
+
+        assertEquals(42, rxByteQueue.read(5000));
+        pushThread.join();
+    }
+
+    @Test
+    public void clearTest() throws Exception {
+        rxByteQueue.push(new byte[]{1, 2, 3});
+        rxByteQueue.clear();
+
+        assertEquals(-1, rxByteQueue.read(0));
+    }
+}
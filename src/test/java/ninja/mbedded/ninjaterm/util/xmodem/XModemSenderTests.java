@@ -0,0 +1,386 @@
+package ninja.mbedded.ninjaterm.util.xmodem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the <code>{@link XModemSender}</code> class. The sender is connected to a simple XMODEM/YMODEM
+ * receiver running on another thread through a loopback link.
+ *
+ * @author          Geoffrey Hunter <gbmhunter@gmail.com> (www.mbedded.ninja)
+ * @since           2026-10-18
+ * @last-modified   2026-10-18
+ */
+public class XModemSenderTests {
+
+    /**
+     * A minimal receiver which acts like a bootloader, and records everything it receives.
+     */
+    private class LoopbackReceiver implements Runnable {
+
+        boolean isYModem = false;
+        boolean useChecksum = false;
+
+        /**
+         * If > 0, the first time this block is received it is NAK'd, as if it was corrupted.
+         */
+        int blockNumToNak = 0;
+
+        /**
+         * If > 0, the receiver cancels the transfer instead of ACKing this block.
+         */
+        int blockNumToCancelAt = 0;
+
+        ByteArrayOutputStream receivedData = new ByteArrayOutputStream();
+        List<Integer> blockSizes = new ArrayList<>();
+        String headerFileName;
+        long headerFileSize = -1;
+        boolean isEndOfBatchReceived = false;
+        Exception exception;
+
+        @Override
+        public void run() {
+            try {
+                if (isYModem) {
+                    write(XModemSender.CRC_REQUEST);
+                    byte[] header = readBlock(0);
+                    int nameEnd = 0;
+                    while (header[nameEnd] != 0)
+                        nameEnd++;
+                    int sizeEnd = nameEnd + 1;
+                    while (header[sizeEnd] != 0 && header[sizeEnd] != ' ')
+                        sizeEnd++;
+                    headerFileName = new String(header, 0, nameEnd, StandardCharsets.UTF_8);
+                    headerFileSize = Long.parseLong(new String(header, nameEnd + 1, sizeEnd - nameEnd - 1, StandardCharsets.US_ASCII));
+                    write(XModemSender.ACK);
+                }
+
+                write(useChecksum ? XModemSender.NAK : XModemSender.CRC_REQUEST);
+
+                int expectedBlockNum = 1;
+                boolean isFirstEot = true;
+                boolean hasNakdBlock = false;
+                while (true) {
+                    final int first = toReceiver.read(5000);
+                    if (first == XModemSender.EOT) {
+                        if (isFirstEot) {
+                            isFirstEot = false;
+                            write(XModemSender.NAK);
+                            continue;
+                        }
+                        write(XModemSender.ACK);
+                        break;
+                    }
+
+                    byte[] data = readBlockAfterStart(first, expectedBlockNum);
+                    if (data == null) {
+                        write(XModemSender.NAK);
+                        continue;
+                    }
+
+                    if (expectedBlockNum == blockNumToNak && !hasNakdBlock) {
+                        hasNakdBlock = true;
+                        write(XModemSender.NAK);
+                        continue;
+                    }
+
+                    if (expectedBlockNum == blockNumToCancelAt) {
+                        write(XModemSender.CAN);
+                        write(XModemSender.CAN);
+                        return;
+                    }
+
+                    receivedData.write(data, 0, data.length);
+                    blockSizes.add(data.length);
+                    expectedBlockNum++;
+                    write(XModemSender.ACK);
+                }
+
+                if (isYModem) {
+                    write(XModemSender.CRC_REQUEST);
+                    byte[] emptyHeader = readBlock(0);
+                    isEndOfBatchReceived = emptyHeader[0] == 0;
+                    write(XModemSender.ACK);
+                }
+            } catch (Exception e) {
+                exception = e;
+            }
+        }
+
+        private byte[] readBlock(int expectedBlockNum) throws Exception {
+            return readBlockAfterStart(toReceiver.read(5000), expectedBlockNum);
+        }
+
+        /**
+         * @return The block data, or null if the block was not valid.
+         */
+        private byte[] readBlockAfterStart(int first, int expectedBlockNum) throws Exception {
+            final int blockSize;
+            if (first == XModemSender.SOH)
+                blockSize = 128;
+            else if (first == XModemSender.STX)
+                blockSize = 1024;
+            else
+                throw new Exception("Unexpected byte " + first + ".");
+
+            final int blockNum = toReceiver.read(5000);
+            final int blockNumComplement = toReceiver.read(5000);
+            byte[] data = new byte[blockSize];
+            for (int i = 0; i < blockSize; i++) {
+                data[i] = (byte) toReceiver.read(5000);
+            }
+
+            boolean isValid;
+            if (useChecksum) {
+                int checksum = 0;
+                for (byte dataByte : data) {
+                    checksum += dataByte & 0xFF;
+                }
+                isValid = toReceiver.read(5000) == (checksum & 0xFF);
+            } else {
+                final int crc = (toReceiver.read(5000) << 8) | toReceiver.read(5000);
+                isValid = crc == Crc16.calculate(data, 0, data.length);
+            }
+
+            if (blockNum != (expectedBlockNum & 0xFF) || blockNumComplement != 0xFF - blockNum || !isValid)
+                return null;
+
+            return data;
+        }
+
+        private void write(byte value) {
+            toSender.push(new byte[]{value});
+        }
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private RxByteQueue toReceiver;
+    private RxByteQueue toSender;
+
+    private XModemSender xModemSender;
+
+    private List<XModemProgress> progressUpdates;
+
+    private Thread receiverThread;
+
+    @Before
+    public void setUp() throws Exception {
+        toReceiver = new RxByteQueue();
+        toSender = new RxByteQueue();
+        progressUpdates = new ArrayList<>();
+
+        xModemSender = new XModemSender(new XModemLink() {
+            @Override
+            public void write(byte[] data) {
+                toReceiver.push(data);
+            }
+
+            @Override
+            public int read(long timeoutMs) throws InterruptedException {
+                return toSender.read(timeoutMs);
+            }
+        });
+
+        // Run the transfer on this thread, so it has finished by the time send() returns
+        xModemSender.transferExecutor = Runnable::run;
+        xModemSender.uiThreadExecutor = Runnable::run;
+        xModemSender.responseTimeoutMs = 2000;
+        xModemSender.receiverStartTimeoutMs = 2000;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (receiverThread != null)
+            receiverThread.join(5000);
+    }
+
+    @Test
+    public void xModemCrcTest() throws Exception {
+        byte[] data = createData(1000);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+
+        runTransfer(receiver, data, XModemProtocols.XMODEM_CRC);
+
+        assertEquals(XModemProgress.States.FINISHED, getLastProgress().state);
+        assertEquals(1000, getLastProgress().numBytesSent);
+        assertEquals(Arrays.asList(128, 128, 128, 128, 128, 128, 128, 128), receiver.blockSizes);
+        assertPaddedDataEquals(data, receiver.receivedData.toByteArray());
+    }
+
+    @Test
+    public void xModem1kTest() throws Exception {
+        byte[] data = createData(2200);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+
+        runTransfer(receiver, data, XModemProtocols.XMODEM_1K);
+
+        assertEquals(XModemProgress.States.FINISHED, getLastProgress().state);
+        // The last 152 bytes do not fit into a 128 byte block, so a 1K block is used
+        assertEquals(Arrays.asList(1024, 1024, 1024), receiver.blockSizes);
+        assertPaddedDataEquals(data, receiver.receivedData.toByteArray());
+    }
+
+    @Test
+    public void xModem1kShortLastBlockTest() throws Exception {
+        byte[] data = createData(1024 + 100);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+
+        runTransfer(receiver, data, XModemProtocols.XMODEM_1K);
+
+        assertEquals(Arrays.asList(1024, 128), receiver.blockSizes);
+        assertPaddedDataEquals(data, receiver.receivedData.toByteArray());
+    }
+
+    @Test
+    public void yModemTest() throws Exception {
+        byte[] data = createData(3000);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+        receiver.isYModem = true;
+
+        File file = runTransfer(receiver, data, XModemProtocols.YMODEM);
+
+        assertEquals(XModemProgress.States.FINISHED, getLastProgress().state);
+        assertEquals(file.getName(), receiver.headerFileName);
+        assertEquals(3000, receiver.headerFileSize);
+        assertTrue(receiver.isEndOfBatchReceived);
+        assertArrayEquals(data, Arrays.copyOf(receiver.receivedData.toByteArray(), (int) receiver.headerFileSize));
+    }
+
+    @Test
+    public void retransmitTest() throws Exception {
+        byte[] data = createData(1000);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+        receiver.blockNumToNak = 3;
+
+        runTransfer(receiver, data, XModemProtocols.XMODEM_CRC);
+
+        assertEquals(XModemProgress.States.FINISHED, getLastProgress().state);
+        assertEquals(1, getLastProgress().numRetries);
+        assertPaddedDataEquals(data, receiver.receivedData.toByteArray());
+    }
+
+    @Test
+    public void checksumFallbackTest() throws Exception {
+        byte[] data = createData(300);
+        LoopbackReceiver receiver = new LoopbackReceiver();
+        receiver.useChecksum = true;
+
+        runTransfer(receiver, data, XModemProtocols.XMODEM_1K);
+
+        assertEquals(XModemProgress.States.FINISHED, getLastProgress().state);
+        // 1K blocks are not used with checksums
+        assertEquals(Arrays.asList(128, 128, 128), receiver.blockSizes);
+        assertPaddedDataEquals(data, receiver.receivedData.toByteArray());
+    }
+
+    @Test
+    public void receiverCancelTest() throws Exception {
+        LoopbackReceiver receiver = new LoopbackReceiver();
+        receiver.blockNumToCancelAt = 2;
+
+        runTransfer(receiver, createData(1000), XModemProtocols.XMODEM_CRC);
+
+        assertEquals(XModemProgress.States.FAILED, getLastProgress().state);
+        assertEquals(128, getLastProgress().numBytesSent);
+    }
+
+    @Test
+    public void noReceiverTest() throws Exception {
+        xModemSender.receiverStartTimeoutMs = 100;
+
+        xModemSender.send(createFile(createData(10)), XModemProtocols.XMODEM_CRC, progressUpdates::add);
+
+        assertEquals(XModemProgress.States.FAILED, getLastProgress().state);
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        xModemSender.receiverStartTimeoutMs = 60000;
+
+        Thread cancelThread = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                return;
+            }
+            xModemSender.cancel();
+        });
+        cancelThread.start();
+
+        xModemSender.send(createFile(createData(10)), XModemProtocols.XMODEM_CRC, progressUpdates::add);
+        cancelThread.join();
+
+        assertEquals(XModemProgress.States.CANCELLED, getLastProgress().state);
+
+        // The receiver is told that the transfer was cancelled
+        assertEquals(XModemSender.CAN, toReceiver.read(0));
+    }
+
+    @Test
+    public void headerBlockDataTest() throws Exception {
+        byte[] header = XModemSender.createHeaderBlockData("firmware.bin", 12345);
+
+        assertEquals(128, header.length);
+        assertArrayEquals("firmware.bin\u000012345\u0000".getBytes(StandardCharsets.US_ASCII), Arrays.copyOf(header, 19));
+    }
+
+    private File runTransfer(LoopbackReceiver receiver, byte[] data, XModemProtocols protocol) throws Exception {
+        File file = createFile(data);
+
+        receiverThread = new Thread(receiver);
+        receiverThread.start();
+
+        xModemSender.send(file, protocol, progressUpdates::add);
+
+        receiverThread.join(5000);
+        if (receiver.exception != null)
+            throw receiver.exception;
+
+        return file;
+    }
+
+    private XModemProgress getLastProgress() {
+        return progressUpdates.get(progressUpdates.size() - 1);
+    }
+
+    private File createFile(byte[] data) throws Exception {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private static byte[] createData(int numBytes) {
+        byte[] data = new byte[numBytes];
+        for (int i = 0; i < numBytes; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        return data;
+    }
+
+    /**
+     * Checks that the received data is the sent data followed only by padding.
+     */
+    private static void assertPaddedDataEquals(byte[] expected, byte[] actual) {
+        assertArrayEquals(expected, Arrays.copyOf(actual, expected.length));
+        for (int i = expected.length; i < actual.length; i++) {
+            assertEquals(XModemSender.PADDING, actual[i]);
+        }
+    }
+}